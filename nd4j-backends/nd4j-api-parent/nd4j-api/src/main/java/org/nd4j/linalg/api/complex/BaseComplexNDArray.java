@@ -237,6 +237,7 @@ public abstract class BaseComplexNDArray extends BaseNDArray implements IComplex
 
     public BaseComplexNDArray(float[] data, int[] shape, int[] stride, long offset, Character order) {
         this.data = Nd4j.createBuffer(data);
+        referenceData();
         /*   this.stride = ArrayUtil.copy(stride);
         this.offset = offset;
         this.ordering = order;
@@ -261,6 +262,7 @@ public abstract class BaseComplexNDArray extends BaseNDArray implements IComplex
      */
     public BaseComplexNDArray(DataBuffer data, int[] shape, int[] stride, long offset) {
         this.data = data;
+        referenceData();
         /*   this.stride = ArrayUtil.copy(stride);
         this.offset = offset;
         this.ordering = Nd4j.order();
@@ -293,7 +295,7 @@ public abstract class BaseComplexNDArray extends BaseNDArray implements IComplex
      */
     public BaseComplexNDArray(DataBuffer data, int[] shape) {
         this(shape);
-        this.data = data;
+        setData(data);
     }
 
 
@@ -47,19 +47,24 @@ import org.nd4j.linalg.api.ops.impl.transforms.Negative;
 import org.nd4j.linalg.api.ops.impl.transforms.arithmetic.*;
 import org.nd4j.linalg.api.ops.impl.transforms.comparison.*;
 import org.nd4j.linalg.api.shape.Shape;
+import org.nd4j.linalg.compression.CompressedDataBuffer;
 import org.nd4j.linalg.exception.ND4JIllegalStateException;
 import org.nd4j.linalg.factory.Nd4j;
 import org.nd4j.linalg.indexing.*;
 import org.nd4j.linalg.indexing.conditions.Condition;
+import org.nd4j.linalg.memory.scope.LeakDetector;
+import org.nd4j.linalg.memory.scope.NDScope;
 import org.nd4j.linalg.profiler.OpProfiler;
 import org.nd4j.linalg.string.NDArrayStrings;
 import org.nd4j.linalg.util.ArrayUtil;
 import org.nd4j.linalg.util.LinAlgExceptions;
 import org.nd4j.linalg.util.LongUtils;
 import org.nd4j.linalg.util.NDArrayMath;
+import org.nd4j.linalg.util.NDArrayUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.DataInputStream;
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
@@ -101,6 +106,11 @@ public abstract class BaseNDArray implements INDArray, Iterable {
     //protected transient DataBuffer stride;
     protected transient boolean compressed = false;
 
+    // buffer this array holds reference to, it's released on close()
+    protected transient DataBuffer referencedData;
+    protected transient LeakDetector.Tracker leakTracker;
+    protected transient volatile boolean closed = false;
+
     // this field holds jvm copy of shapeInfo
     protected int[] javaShapeInformation;
 
@@ -145,6 +155,7 @@ public abstract class BaseNDArray implements INDArray, Iterable {
      */
     public BaseNDArray(DataBuffer buffer) {
         this.data = buffer;
+        referenceData();
         if (buffer.length() >= Integer.MAX_VALUE)
             throw new IllegalArgumentException("Length of buffer can not be >= Integer.MAX_VALUE");
         int[] shape = {1, (int) buffer.length()};
@@ -163,6 +174,7 @@ public abstract class BaseNDArray implements INDArray, Iterable {
      */
     public BaseNDArray(DataBuffer buffer, int[] shape, int[] stride, long offset, char ordering) {
         this.data = offset > 0 ? Nd4j.createBuffer(buffer, offset, ArrayUtil.prodLong(shape)) : buffer;
+        referenceData();
         setShapeInformation(Nd4j.getShapeInfoProvider().createShapeInformation(shape, stride, offset,
                         Shape.elementWiseStride(shape, stride, ordering == 'f'), ordering));
         init(shape, stride);
@@ -212,6 +224,7 @@ public abstract class BaseNDArray implements INDArray, Iterable {
      */
     public BaseNDArray(int[] shape, DataBuffer buffer) {
         this.data = buffer;
+        referenceData();
         init(shape, Nd4j.getStrides(shape));
     }
 
@@ -306,6 +319,7 @@ public abstract class BaseNDArray implements INDArray, Iterable {
      */
     public BaseNDArray(int newRows, int newColumns, char ordering) {
         this.data = Nd4j.createBuffer((long) newRows * newColumns);
+        referenceData();
         int[] shape = new int[] {newRows, newColumns};
         int[] stride = Nd4j.getStrides(shape, ordering);
         setShapeInformation(Nd4j.getShapeInfoProvider().createShapeInformation(shape, stride, 0,
@@ -344,6 +358,7 @@ public abstract class BaseNDArray implements INDArray, Iterable {
                         ? Nd4j.createBuffer(new float[ArrayUtil.prod(shape)])
                         : Nd4j.createBuffer(new double[ArrayUtil.prod(shape)]);
         this.data = ret;
+        referenceData();
         setShapeInformation(Nd4j.getShapeInfoProvider().createShapeInformation(shape, stride, 0,
                         Shape.elementWiseStride(shape, stride, ordering == 'f'), ordering));
         init(shape, stride);
@@ -385,6 +400,7 @@ public abstract class BaseNDArray implements INDArray, Iterable {
                         Shape.elementWiseStride(shape, stride, ordering == 'f'), ordering));
         if (data != null && data.length > 0) {
             this.data = Nd4j.createBuffer(data, offset);
+            referenceData();
             if (offset >= data.length)
                 throw new IllegalArgumentException("invalid offset: must be < data.length");
         }
@@ -403,6 +419,7 @@ public abstract class BaseNDArray implements INDArray, Iterable {
      */
     public BaseNDArray(DataBuffer data, int[] shape, int[] stride, long offset) {
         this.data = Nd4j.createBuffer(data, offset, ArrayUtil.prodLong(shape));
+        referenceData();
         setShapeInformation(Nd4j.getShapeInfoProvider().createShapeInformation(shape, stride, offset,
                         Shape.elementWiseStride(shape, stride, Nd4j.order() == 'f'), Nd4j.order()));
         init(shape, stride);
@@ -1565,7 +1582,7 @@ public abstract class BaseNDArray implements INDArray, Iterable {
      */
     @Override
     public INDArray neg() {
-        return Nd4j.getExecutioner().exec(new Negative(this, Nd4j.createUninitialized(this.shape(), this.ordering())))
+        return Nd4j.getExecutioner().exec(new Negative(this, Nd4j.createUninitialized(this.shape(), this.ordering(), data().dataType())))
                         .z();
     }
 
@@ -2094,6 +2111,67 @@ public abstract class BaseNDArray implements INDArray, Iterable {
     @Override
     public void setData(DataBuffer data) {
         this.data = data;
+
+        // previous buffer stays referenced, since it might be still used by caller. It's left to GC then.
+        if (data != null && !closed) {
+            data.retain();
+            referencedData = data;
+        }
+    }
+
+    /**
+     * This method adds reference to the buffer of this array, and attaches this array to current NDScope, if any.
+     * It's called once buffer is assigned in constructor.
+     */
+    protected void referenceData() {
+        if (data == null || referencedData != null)
+            return;
+
+        data.retain();
+        referencedData = data;
+
+        // workspace memory is released by workspace itself
+        if (!data.isAttached()) {
+            NDScope.register(this);
+            leakTracker = LeakDetector.getInstance().track(this);
+        }
+    }
+
+    /**
+     * This method removes reference this array holds on its buffer. Once all arrays sharing the buffer
+     * (i.e. original array and all its views) are closed, off-heap memory is released.
+     *
+     * PLEASE NOTE: Array can't be used after this call. Arrays attached to workspaces aren't affected.
+     */
+    @Override
+    public void close() {
+        if (closed)
+            return;
+
+        closed = true;
+        LeakDetector.getInstance().closed(leakTracker);
+        leakTracker = null;
+
+        DataBuffer buffer = referencedData;
+        referencedData = null;
+        if (buffer != null)
+            buffer.release();
+    }
+
+    @Override
+    public boolean isClosed() {
+        return closed;
+    }
+
+    @Override
+    public INDArray castTo(DataBuffer.Type dataType) {
+        if (data().dataType() == dataType)
+            return this;
+
+        Nd4j.getCompressor().autoDecompress(this);
+        INDArray ret = Nd4j.createUninitialized(shape(), ordering(), dataType);
+        NDArrayUtil.convert(this, ret);
+        return ret;
     }
 
     /**
@@ -2854,12 +2932,39 @@ public abstract class BaseNDArray implements INDArray, Iterable {
     @Override
     public INDArray mmul(INDArray other) {
         int[] shape = {rows(), other.columns()};
-        INDArray result = createUninitialized(shape, 'f');
-        if (result.isScalar())
-            return Nd4j.scalar(Nd4j.getBlasWrapper().dot(this, other));
+        DataBuffer.Type resultType = widestDataType(data().dataType(), other.data().dataType());
+        if (shape[0] == 1 && shape[1] == 1) {
+            DataBuffer.Type blasType = blasDataType(resultType);
+            return Nd4j.scalar(Nd4j.getBlasWrapper().dot(castTo(blasType), other.castTo(blasType)))
+                            .castTo(resultType);
+        }
+
+        INDArray result = this instanceof IComplexNDArray ? createUninitialized(shape, 'f')
+                        : Nd4j.createUninitialized(shape, 'f', resultType);
         return mmuli(other, result);
     }
 
+    /**
+     * This method returns widest of given floating point data types, or global data type if there's none
+     */
+    protected static DataBuffer.Type widestDataType(DataBuffer.Type a, DataBuffer.Type b) {
+        if (a == DataBuffer.Type.DOUBLE || b == DataBuffer.Type.DOUBLE)
+            return DataBuffer.Type.DOUBLE;
+        if (a == DataBuffer.Type.FLOAT || b == DataBuffer.Type.FLOAT)
+            return DataBuffer.Type.FLOAT;
+        if (a == DataBuffer.Type.HALF || b == DataBuffer.Type.HALF)
+            return DataBuffer.Type.HALF;
+        return Nd4j.dataType();
+    }
+
+    /**
+     * This method returns data type BLAS calls are executed in: there are no HALF routines on CPU, so HALF
+     * operands are multiplied in FLOAT
+     */
+    protected static DataBuffer.Type blasDataType(DataBuffer.Type type) {
+        return type == DataBuffer.Type.DOUBLE ? DataBuffer.Type.DOUBLE : DataBuffer.Type.FLOAT;
+    }
+
     protected INDArray create(int[] shape, char ordering) {
         if (this instanceof IComplexNDArray)
             return Nd4j.createComplex(shape, ordering);
@@ -2887,7 +2992,7 @@ public abstract class BaseNDArray implements INDArray, Iterable {
      */
     @Override
     public INDArray div(INDArray other) {
-        return divi(other, Nd4j.createUninitialized(this.shape(), this.ordering()));
+        return divi(other, Nd4j.createUninitialized(this.shape(), this.ordering(), data().dataType()));
     }
 
     /**
@@ -2910,7 +3015,7 @@ public abstract class BaseNDArray implements INDArray, Iterable {
      */
     @Override
     public INDArray mul(INDArray other) {
-        return muli(other, Nd4j.createUninitialized(this.shape(), this.ordering()));
+        return muli(other, Nd4j.createUninitialized(this.shape(), this.ordering(), data().dataType()));
     }
 
     /**
@@ -2933,7 +3038,7 @@ public abstract class BaseNDArray implements INDArray, Iterable {
      */
     @Override
     public INDArray sub(INDArray other) {
-        return subi(other, Nd4j.createUninitialized(other.shape(), other.ordering()));
+        return subi(other, Nd4j.createUninitialized(other.shape(), other.ordering(), data().dataType()));
     }
 
     /**
@@ -3034,6 +3139,18 @@ public abstract class BaseNDArray implements INDArray, Iterable {
             return other.muli(getDouble(0), result);
         }
 
+        // BLAS needs all operands of the same data type, so mismatched operands are multiplied as copies
+        if (!(this instanceof IComplexNDArray)) {
+            DataBuffer.Type blasType = blasDataType(widestDataType(data().dataType(), other.data().dataType()));
+            if (data().dataType() != blasType || other.data().dataType() != blasType
+                            || result.data().dataType() != blasType) {
+                INDArray temp = Nd4j.createUninitialized(result.shape(), 'f', blasType);
+                castTo(blasType).mmuli(other.castTo(blasType), temp);
+                result.assign(temp);
+                return result;
+            }
+        }
+
         /* check sizes and resize if necessary */
 
 
@@ -3290,7 +3407,8 @@ public abstract class BaseNDArray implements INDArray, Iterable {
 
         if(!Arrays.equals(this.shape(),other.shape())) {
             int[] broadcastDimensions = Shape.getBroadcastDimensions(this.shape(),other.shape());
-            result = Nd4j.createUninitialized(Shape.broadcastOutputShape(this.shape(),other.shape()));
+            result = Nd4j.createUninitialized(Shape.broadcastOutputShape(this.shape(), other.shape()), Nd4j.order(),
+                            data().dataType());
             Nd4j.getExecutioner().exec(new BroadcastAddOp(this,other,result,broadcastDimensions),broadcastDimensions);
             return result;
         }
@@ -3590,7 +3708,7 @@ public abstract class BaseNDArray implements INDArray, Iterable {
     @Override
     public INDArray rdiv(Number n) {
         //return dup().rdivi(n);
-        return rdivi(n, Nd4j.createUninitialized(this.shape(), this.ordering()));
+        return rdivi(n, Nd4j.createUninitialized(this.shape(), this.ordering(), data().dataType()));
     }
 
     @Override
@@ -3601,7 +3719,7 @@ public abstract class BaseNDArray implements INDArray, Iterable {
     @Override
     public INDArray rsub(Number n) {
         //return dup().rsubi(n);
-        return rsubi(n, Nd4j.createUninitialized(this.shape(), this.ordering()));
+        return rsubi(n, Nd4j.createUninitialized(this.shape(), this.ordering(), data().dataType()));
     }
 
     @Override
@@ -3612,7 +3730,7 @@ public abstract class BaseNDArray implements INDArray, Iterable {
     @Override
     public INDArray div(Number n) {
         //return dup().divi(n);
-        return divi(n, Nd4j.createUninitialized(this.shape(), this.ordering()));
+        return divi(n, Nd4j.createUninitialized(this.shape(), this.ordering(), data().dataType()));
     }
 
     @Override
@@ -3623,7 +3741,7 @@ public abstract class BaseNDArray implements INDArray, Iterable {
     @Override
     public INDArray mul(Number n) {
         // return dup().muli(n);
-        return muli(n, Nd4j.createUninitialized(this.shape(), this.ordering()));
+        return muli(n, Nd4j.createUninitialized(this.shape(), this.ordering(), data().dataType()));
     }
 
     @Override
@@ -3634,7 +3752,7 @@ public abstract class BaseNDArray implements INDArray, Iterable {
     @Override
     public INDArray sub(Number n) {
         //return dup().subi(n);
-        return subi(n, Nd4j.createUninitialized(this.shape(), this.ordering()));
+        return subi(n, Nd4j.createUninitialized(this.shape(), this.ordering(), data().dataType()));
     }
 
     @Override
@@ -3645,7 +3763,7 @@ public abstract class BaseNDArray implements INDArray, Iterable {
     @Override
     public INDArray add(Number n) {
         //return dup().addi(n);
-        return addi(n, Nd4j.createUninitialized(this.shape(), this.ordering()));
+        return addi(n, Nd4j.createUninitialized(this.shape(), this.ordering(), data().dataType()));
     }
 
     @Override
@@ -3865,7 +3983,7 @@ public abstract class BaseNDArray implements INDArray, Iterable {
         }
 
 
-        INDArray ret = Nd4j.createUninitialized(shape, order);
+        INDArray ret = Nd4j.createUninitialized(shape, order, data().dataType());
         if (order != ordering()) {
             ret.setData(dup(order).data());
         } else
@@ -5126,7 +5244,7 @@ public abstract class BaseNDArray implements INDArray, Iterable {
 
     @Override
     public INDArray remainder(INDArray denominator) {
-        return remainder(denominator, Nd4j.createUninitialized(this.shape()));
+        return remainder(denominator, Nd4j.createUninitialized(this.shape(), Nd4j.order(), data().dataType()));
     }
 
     @Override
@@ -5138,7 +5256,7 @@ public abstract class BaseNDArray implements INDArray, Iterable {
 
     @Override
     public INDArray remainder(Number denominator) {
-        return remainder(denominator, Nd4j.createUninitialized(this.shape()));
+        return remainder(denominator, Nd4j.createUninitialized(this.shape(), Nd4j.order(), data().dataType()));
     }
 
     @Override
@@ -5164,7 +5282,7 @@ public abstract class BaseNDArray implements INDArray, Iterable {
 
     @Override
     public INDArray fmod(INDArray denominator) {
-        return fmod(denominator, Nd4j.createUninitialized(this.shape()));
+        return fmod(denominator, Nd4j.createUninitialized(this.shape(), Nd4j.order(), data().dataType()));
     }
 
     @Override
@@ -5176,7 +5294,7 @@ public abstract class BaseNDArray implements INDArray, Iterable {
 
     @Override
     public INDArray fmod(Number denominator) {
-        return fmod(denominator, Nd4j.createUninitialized(this.shape()));
+        return fmod(denominator, Nd4j.createUninitialized(this.shape(), Nd4j.order(), data().dataType()));
     }
 
     @Override
@@ -5254,8 +5372,9 @@ public abstract class BaseNDArray implements INDArray, Iterable {
         shapeInformation = Nd4j.createBuffer(new int[Shape.shapeInfoLength(rank())], 0);
         shapeInformation.read(s);
         setShapeInformation(Pair.create(shapeInformation, shapeInformation.asInt()));
-        data = Nd4j.createBuffer(length(), false);
-        data().read(s);
+        // data type of stored buffer might differ from global one
+        data = CompressedDataBuffer.readUnknown(new DataInputStream(s), length());
+        referenceData();
     }
 
 
@@ -47,6 +47,8 @@ public abstract class BaseSparseNDArray implements ISparseNDArray {
     protected transient volatile DataBuffer sparseInformation;
     protected transient DataBuffer shape;
     protected transient DataBuffer stride;
+    // sparse buffers aren't reference counted, so closing only marks array as closed
+    protected transient volatile boolean closed = false;
 
     protected DataBuffer reallocate(DataBuffer buffer) {
         int newSize = (int) buffer.length() * 2;
@@ -1740,6 +1742,21 @@ public abstract class BaseSparseNDArray implements ISparseNDArray {
         return false;
     }
 
+    @Override
+    public void close() {
+        closed = true;
+    }
+
+    @Override
+    public boolean isClosed() {
+        return closed;
+    }
+
+    @Override
+    public INDArray castTo(DataBuffer.Type dataType) {
+        throw new UnsupportedOperationException();
+    }
+
     @Override
     public INDArray detach() {
         return null;
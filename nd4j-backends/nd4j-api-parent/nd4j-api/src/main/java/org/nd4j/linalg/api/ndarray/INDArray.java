@@ -36,7 +36,7 @@ import java.util.List;
  *
  * @author Adam Gibson
  */
-public interface INDArray extends Serializable {
+public interface INDArray extends Serializable, AutoCloseable {
     /**
      * Returns the shape information debugging
      * information
@@ -2604,6 +2604,32 @@ public interface INDArray extends Serializable {
      */
     boolean isInScope();
 
+    /**
+     * This method removes reference this INDArray holds on its DataBuffer.
+     * Off-heap memory is released once original array and all its views are closed, without waiting for GC.
+     *
+     * PLEASE NOTE: INDArray can't be used after this call. Arrays attached to workspaces aren't affected.
+     */
+    @Override
+    void close();
+
+    /**
+     * This method returns true if close() was called for this INDArray
+     *
+     * @return
+     */
+    boolean isClosed();
+
+    /**
+     * This method returns copy of this INDArray with specified data type, preserving its shape and ordering.
+     *
+     * PLEASE NOTE: If this INDArray already has specified data type - it will be returned unmodified.
+     *
+     * @param dataType
+     * @return
+     */
+    INDArray castTo(DataBuffer.Type dataType);
+
     /**
      * This method detaches INDArray from Workspace, returning copy.
      * Basically it's dup() into new memory chunk.
@@ -107,7 +107,9 @@ public abstract class BaseOp extends DifferentialFunction implements Op {
             return extraArgz;
 
         if (extraArgs != null) {
-            DataBuffer.Type dtype = x != null ? x.data().dataType() : Nd4j.dataType();
+            // extra args follow data type of operands, that can differ from global data type
+            DataBuffer.Type dtype = x != null ? x.data().dataType()
+                            : z != null ? z.data().dataType() : Nd4j.dataType();
             if (dtype == DataBuffer.Type.FLOAT || dtype == DataBuffer.Type.HALF) {
                 float extraz[] = new float[extraArgs.length];
                 for (int i = 0; i < extraArgs.length; i++) {
@@ -169,6 +171,8 @@ public abstract class BaseOp extends DifferentialFunction implements Op {
     public void setX(INDArray x) {
         if (x == null)
             throw new IllegalArgumentException("X must not be null");
+        if (extraArgz != null && extraArgz.dataType() != x.data().dataType())
+            extraArgz = null;
         this.x = x;
         numProcessed = 0;
     }
@@ -35,6 +35,7 @@ import org.nd4j.linalg.exception.ND4JIllegalStateException;
 import org.nd4j.linalg.factory.Nd4j;
 import org.nd4j.linalg.profiler.OpProfiler;
 import org.nd4j.linalg.util.ArrayUtil;
+import org.nd4j.linalg.util.NDArrayUtil;
 
 import java.util.List;
 import java.util.Map;
@@ -69,6 +70,106 @@ public class DefaultOpExecutioner implements OpExecutioner {
             Nd4j.getCompressor().decompressi(op.z());
     }
 
+    /**
+     * This method returns data type given op should be executed in. Operands of different data types are
+     * promoted to the widest one, and HALF operands are executed in FLOAT.
+     * Data type of Op.Z doesn't affect the choice, since results are converted back on write.
+     *
+     * @param op
+     * @return
+     */
+    protected DataBuffer.Type getExecutionDataType(Op op) {
+        boolean hasFloat = false;
+        INDArray[] operands = op.x() != null ? new INDArray[] {op.x(), op.y()} : new INDArray[] {op.z()};
+        for (INDArray operand : operands) {
+            if (operand == null)
+                continue;
+
+            DataBuffer.Type type = operand.data().dataType();
+            if (type == DataBuffer.Type.DOUBLE)
+                return DataBuffer.Type.DOUBLE;
+            else if (type == DataBuffer.Type.FLOAT || type == DataBuffer.Type.HALF)
+                hasFloat = true;
+        }
+
+        if (hasFloat)
+            return DataBuffer.Type.FLOAT;
+
+        return Nd4j.dataType() == DataBuffer.Type.DOUBLE ? DataBuffer.Type.DOUBLE : DataBuffer.Type.FLOAT;
+    }
+
+    /**
+     * This method replaces operands of given op with copies in execution data type, if that's needed.
+     * Aliasing between operands is preserved, so in-place ops stay in-place.
+     *
+     * @param op
+     * @return original operands, to be passed to restoreOperands() after execution, or null if no conversion was made
+     */
+    protected ConvertedOperands convertOperands(Op op) {
+        DataBuffer.Type type = getExecutionDataType(op);
+        if (!needsConversion(op.x(), type) && !needsConversion(op.y(), type) && !needsConversion(op.z(), type))
+            return null;
+
+        ConvertedOperands operands = new ConvertedOperands(op.x(), op.y(), op.z());
+
+        INDArray x = operands.x == null ? null : operands.x.castTo(type);
+        INDArray y = operands.y == null ? null : operands.y == operands.x ? x : operands.y.castTo(type);
+        INDArray z = operands.z == null ? null
+                        : operands.z == operands.x ? x : operands.z == operands.y ? y : operands.z.castTo(type);
+
+        if (x != null)
+            op.setX(x);
+        if (y != null)
+            op.setY(y);
+        if (z != null)
+            op.setZ(z);
+
+        operands.converted = z;
+        return operands;
+    }
+
+    /**
+     * This method writes results back into original Op.Z, and restores original operands of given op.
+     * If Op.Z was replaced during execution, new Op.Z is kept as is.
+     *
+     * @param op
+     * @param operands
+     */
+    protected void restoreOperands(Op op, ConvertedOperands operands) {
+        INDArray result = op.z();
+
+        if (operands.x != null)
+            op.setX(operands.x);
+        if (operands.y != null)
+            op.setY(operands.y);
+
+        if (operands.z != null && result == operands.converted) {
+            if (result != operands.z)
+                NDArrayUtil.convert(result, operands.z);
+            op.setZ(operands.z);
+        }
+    }
+
+    private static boolean needsConversion(INDArray array, DataBuffer.Type type) {
+        return array != null && array.data().dataType() != type;
+    }
+
+    /**
+     * Holder for original operands of Op, replaced by convertOperands()
+     */
+    protected static class ConvertedOperands {
+        protected final INDArray x;
+        protected final INDArray y;
+        protected final INDArray z;
+        protected INDArray converted;
+
+        protected ConvertedOperands(INDArray x, INDArray y, INDArray z) {
+            this.x = x;
+            this.y = y;
+            this.z = z;
+        }
+    }
+
     @Override
     public String getLastOp() {
         return "UNKNOWN";
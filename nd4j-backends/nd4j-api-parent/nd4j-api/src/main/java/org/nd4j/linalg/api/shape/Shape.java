@@ -334,7 +334,8 @@ public class Shape {
             char outOrder = (anyOrder ? arr.ordering() : order);
             if (outOrder == 'a')
                 outOrder = Nd4j.order();
-            INDArray z = Nd4j.createUninitialized(arr.shape(), outOrder);
+            // copy keeps data type of original array
+            INDArray z = Nd4j.createUninitialized(arr.shape(), outOrder, arr.data().dataType());
             z.assign(arr);
             return z;
         }
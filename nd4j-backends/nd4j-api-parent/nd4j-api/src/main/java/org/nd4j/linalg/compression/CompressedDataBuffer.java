@@ -79,9 +79,16 @@ public class CompressedDataBuffer extends BaseDataBuffer {
         DataBuffer buffer = Nd4j.createBuffer(length);
         buffer.read(s);
         // if buffer is uncompressed, it'll be valid buffer, so we'll just return it
-        if (buffer.dataType() != Type.COMPRESSED)
-            return buffer;
-        else {
+        if (buffer.dataType() != Type.COMPRESSED) {
+            Type type = buffer.dataType();
+            if (type == Nd4j.dataType() || type == Type.LONG)
+                return buffer;
+
+            // buffer was created for global data type, so its contents are moved to buffer of actual data type
+            DataBuffer typed = Nd4j.createBuffer(length, type, false);
+            Pointer.memcpy(typed.addressPointer(), buffer.addressPointer(), length * buffer.getElementSize());
+            return typed;
+        } else {
             try {
 
                 // if buffer is compressed one, we''ll restore and decompress it here
@@ -6,7 +6,7 @@ package org.nd4j.linalg.compression;
  * @author Adam Gibson
  */
 public enum CompressionAlgorithm {
-    FLOAT8, FLOAT16, GZIP, INT8, INT16, NOOP, UNIT8, CUSTOM;
+    FLOAT8, FLOAT16, GZIP, INT8, INT16, NOOP, UNIT8, CUSTOM, DEFLATE, THRESHOLD, SCALED_INT8, SCALED_INT8_ROW;
 
     /**
      * Return the appropriate compression algorithm
@@ -37,6 +37,14 @@ public enum CompressionAlgorithm {
                 return UNIT8;
             case "CUSTOM":
                 return CUSTOM;
+            case "DEFLATE":
+                return DEFLATE;
+            case "THRESHOLD":
+                return THRESHOLD;
+            case "SCALED_INT8":
+                return SCALED_INT8;
+            case "SCALED_INT8_ROW":
+                return SCALED_INT8_ROW;
             default:
                 throw new IllegalArgumentException("Wrong algorithm " + algorithm);
         }
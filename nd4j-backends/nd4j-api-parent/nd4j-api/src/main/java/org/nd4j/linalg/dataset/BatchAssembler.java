@@ -0,0 +1,199 @@
+package org.nd4j.linalg.dataset;
+
+import lombok.Getter;
+import lombok.NonNull;
+import org.nd4j.linalg.api.memory.MemoryWorkspace;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.linalg.indexing.INDArrayIndex;
+import org.nd4j.linalg.indexing.NDArrayIndex;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Assembles minibatches from individual examples by copying them directly into row slots of preallocated arrays,
+ * as an alternative to {@link DataSet#merge(List)}, which allocates new concatenated arrays on every call.<br>
+ * <br>
+ * The assembler is sized once, for a maximum batch size and fixed per-example shapes (i.e., the shapes excluding
+ * the minibatch dimension). Time series (per-example shape [size, timeSeriesLength]) may be shorter than the
+ * configured length: they are zero padded at the end, and the time steps after the end are masked out. This requires
+ * the assembler to be created with per time step mask arrays (per-example mask shape [timeSeriesLength]).<br>
+ * <br>
+ * {@link #put(int, DataSet)} only writes to the given row slots, hence the assembler may be filled from several
+ * threads concurrently, as long as each thread writes to a disjoint range of slots.<br>
+ * <b>PLEASE NOTE</b>: the DataSets returned by {@link #getBatch(int)} and {@link #assemble(List)} are backed by the
+ * assembler arrays, and are overwritten when the assembler is filled again.
+ */
+public class BatchAssembler {
+    @Getter
+    private final int batchSize;
+    private final INDArray features;
+    private final INDArray labels;
+    private final INDArray featuresMask;
+    private final INDArray labelsMask;
+
+    /**
+     * Create an assembler without mask arrays
+     *
+     * @param batchSize    maximum number of examples in a batch
+     * @param featureShape shape of the features of a single example, excluding the minibatch dimension
+     * @param labelShape   shape of the labels of a single example, excluding the minibatch dimension
+     */
+    public BatchAssembler(int batchSize, @NonNull int[] featureShape, @NonNull int[] labelShape) {
+        this(batchSize, featureShape, labelShape, null, null);
+    }
+
+    /**
+     * @param batchSize         maximum number of examples in a batch
+     * @param featureShape      shape of the features of a single example, excluding the minibatch dimension
+     * @param labelShape        shape of the labels of a single example, excluding the minibatch dimension
+     * @param featuresMaskShape shape of the features mask of a single example (e.g. [timeSeriesLength] for per time
+     *                          step masking); null if no features mask should be used
+     * @param labelsMaskShape   shape of the labels mask of a single example; null if no labels mask should be used
+     */
+    public BatchAssembler(int batchSize, @NonNull int[] featureShape, @NonNull int[] labelShape,
+                    int[] featuresMaskShape, int[] labelsMaskShape) {
+        if (batchSize < 1)
+            throw new IllegalArgumentException("Batch size must be positive, got " + batchSize);
+
+        this.batchSize = batchSize;
+        try (MemoryWorkspace ws = Nd4j.getMemoryManager().scopeOutOfWorkspaces()) {
+            this.features = allocate(batchSize, featureShape);
+            this.labels = allocate(batchSize, labelShape);
+            this.featuresMask = allocate(batchSize, featuresMaskShape);
+            this.labelsMask = allocate(batchSize, labelsMaskShape);
+        }
+    }
+
+    private static INDArray allocate(int batchSize, int[] exampleShape) {
+        if (exampleShape == null)
+            return null;
+        int[] shape = new int[exampleShape.length + 1];
+        shape[0] = batchSize;
+        System.arraycopy(exampleShape, 0, shape, 1, exampleShape.length);
+        return Nd4j.create(shape, 'c');
+    }
+
+    private static INDArray rows(INDArray array, int from, int to) {
+        INDArrayIndex[] indices = new INDArrayIndex[array.rank()];
+        indices[0] = NDArrayIndex.interval(from, to);
+        for (int i = 1; i < indices.length; i++) {
+            indices[i] = NDArrayIndex.all();
+        }
+        return array.get(indices);
+    }
+
+    /**
+     * Copy the examples of the given DataSet into the row slots [slot, slot + example.numExamples())
+     *
+     * @param slot    first row slot to write to
+     * @param example the example(s) to copy
+     */
+    public void put(int slot, @NonNull DataSet example) {
+        int n = example.numExamples();
+        if (slot < 0 || slot + n > batchSize) {
+            throw new IllegalArgumentException("Cannot put " + n + " example(s) at slot " + slot
+                            + ": batch size is " + batchSize);
+        }
+
+        copy("features", features, featuresMask, slot, n, example.getFeatures(), example.getFeaturesMaskArray());
+        copy("labels", labels, labelsMask, slot, n, example.getLabels(), example.getLabelsMaskArray());
+    }
+
+    private static void copy(String name, INDArray target, INDArray targetMask, int slot, int n, INDArray source,
+                    INDArray sourceMask) {
+        if (source == null)
+            throw new IllegalArgumentException("Example " + name + " must not be null");
+
+        int[] targetShape = target.shape();
+        int[] sourceShape = source.shape();
+        boolean timeSeries = targetShape.length == 3;
+        boolean shapeOk = sourceShape.length == targetShape.length;
+        for (int i = 1; shapeOk && i < targetShape.length; i++) {
+            if (timeSeries && i == 2) {
+                shapeOk = sourceShape[i] <= targetShape[i];
+            } else {
+                shapeOk = sourceShape[i] == targetShape[i];
+            }
+        }
+        if (!shapeOk) {
+            throw new IllegalStateException("Invalid " + name + " shape " + Arrays.toString(sourceShape)
+                            + ": expected [" + n + ", " + Arrays.toString(Arrays.copyOfRange(targetShape, 1,
+                                            targetShape.length)).replaceAll("[\\[\\]]", "") + "]"
+                            + (timeSeries ? " (or shorter time series)" : ""));
+        }
+
+        INDArray targetRows = rows(target, slot, slot + n);
+        int length = timeSeries ? sourceShape[2] : 0;
+        int maxLength = timeSeries ? targetShape[2] : 0;
+        boolean padded = timeSeries && length < maxLength;
+        if (padded) {
+            if (targetMask == null || targetMask.rank() != 2) {
+                throw new IllegalStateException("Cannot pad " + name + " time series of length " + length
+                                + " to length " + maxLength + ": a per time step mask is required");
+            }
+            targetRows.get(NDArrayIndex.all(), NDArrayIndex.all(), NDArrayIndex.interval(0, length)).assign(source);
+            targetRows.get(NDArrayIndex.all(), NDArrayIndex.all(), NDArrayIndex.interval(length, maxLength))
+                            .assign(0.0);
+        } else {
+            targetRows.assign(source);
+        }
+
+        if (targetMask == null) {
+            if (sourceMask != null) {
+                throw new IllegalStateException("Example has a " + name
+                                + " mask array, but the assembler was created without one");
+            }
+            return;
+        }
+
+        INDArray maskRows = rows(targetMask, slot, slot + n);
+        if (padded) {
+            INDArray present = maskRows.get(NDArrayIndex.all(), NDArrayIndex.interval(0, length));
+            if (sourceMask != null)
+                present.assign(sourceMask);
+            else
+                present.assign(1.0);
+            maskRows.get(NDArrayIndex.all(), NDArrayIndex.interval(length, maxLength)).assign(0.0);
+        } else if (sourceMask != null) {
+            maskRows.assign(sourceMask);
+        } else {
+            maskRows.assign(1.0);
+        }
+    }
+
+    /**
+     * Get the first numExamples rows of the assembler arrays as a DataSet. The returned arrays are views of the
+     * assembler arrays.
+     *
+     * @param numExamples number of examples in the batch
+     */
+    public DataSet getBatch(int numExamples) {
+        if (numExamples < 1 || numExamples > batchSize) {
+            throw new IllegalArgumentException("Invalid number of examples: " + numExamples + ", batch size is "
+                            + batchSize);
+        }
+        if (numExamples == batchSize)
+            return new DataSet(features, labels, featuresMask, labelsMask);
+
+        return new DataSet(rows(features, 0, numExamples), rows(labels, 0, numExamples),
+                        featuresMask == null ? null : rows(featuresMask, 0, numExamples),
+                        labelsMask == null ? null : rows(labelsMask, 0, numExamples));
+    }
+
+    /**
+     * Copy the given examples into consecutive row slots, starting at slot 0, and return the batch.
+     *
+     * @param examples the examples to assemble into a batch
+     * @return the batch; backed by the assembler arrays
+     */
+    public DataSet assemble(@NonNull List<? extends DataSet> examples) {
+        int slot = 0;
+        for (DataSet example : examples) {
+            put(slot, example);
+            slot += example.numExamples();
+        }
+        return getBatch(slot);
+    }
+}
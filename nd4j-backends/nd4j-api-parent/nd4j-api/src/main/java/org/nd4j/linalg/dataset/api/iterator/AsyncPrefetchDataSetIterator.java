@@ -0,0 +1,188 @@
+package org.nd4j.linalg.dataset.api.iterator;
+
+import lombok.NonNull;
+import org.nd4j.linalg.api.memory.conf.WorkspaceConfiguration;
+import org.nd4j.linalg.dataset.DataSet;
+import org.nd4j.linalg.dataset.api.DataSetPreProcessor;
+
+import java.util.List;
+
+/**
+ * DataSetIterator that prefetches DataSets from a source iterator on background threads, using a bounded queue
+ * and a rotating pool of preallocated DataSet buffers.<br>
+ * See {@link BaseAsyncPrefetchIterator} for details on buffer reuse and the backpressure metrics.<br>
+ * <br>
+ * <b>PLEASE NOTE</b>: DataSets returned by {@link #next()} are only valid until the following call to next() or
+ * {@link #reset()}. Call {@link #shutdown()} to stop the producer threads when the iterator is no longer needed.
+ */
+public class AsyncPrefetchDataSetIterator extends BaseAsyncPrefetchIterator<DataSet> implements DataSetIterator {
+    public static final int DEFAULT_QUEUE_SIZE = 4;
+
+    private final DataSetIterator sourceIterator;
+    private volatile DataSetPreProcessor preProcessor;
+
+    public AsyncPrefetchDataSetIterator(@NonNull DataSetIterator sourceIterator) {
+        this(sourceIterator, DEFAULT_QUEUE_SIZE);
+    }
+
+    public AsyncPrefetchDataSetIterator(@NonNull DataSetIterator sourceIterator, int queueSize) {
+        this(sourceIterator, queueSize, 1);
+    }
+
+    public AsyncPrefetchDataSetIterator(@NonNull DataSetIterator sourceIterator, int queueSize, int numProducers) {
+        this(sourceIterator, queueSize, numProducers, defaultWorkspaceConfiguration());
+    }
+
+    /**
+     * @param sourceIterator         the iterator to prefetch from
+     * @param queueSize              number of DataSets to prefetch
+     * @param numProducers           number of producer threads. With more than one producer, the order of the
+     *                               DataSets is not guaranteed to match the order of the source iterator
+     * @param workspaceConfiguration configuration of the producer thread workspaces; may be null to disable
+     *                               workspaces (e.g. for source iterators that keep references to the arrays they
+     *                               create)
+     */
+    public AsyncPrefetchDataSetIterator(@NonNull DataSetIterator sourceIterator, int queueSize, int numProducers,
+                    WorkspaceConfiguration workspaceConfiguration) {
+        super(queueSize, numProducers, workspaceConfiguration);
+        this.sourceIterator = sourceIterator;
+        startProducers();
+    }
+
+    @Override
+    protected DataSet newBuffer() {
+        return new DataSet();
+    }
+
+    @Override
+    protected boolean fill(DataSet buffer, DataSet batch) {
+        if (buffer.getFeatures() != null && !(sameShape(buffer.getFeatures(), batch.getFeatures())
+                        && sameShape(buffer.getLabels(), batch.getLabels())
+                        && sameShape(buffer.getFeaturesMaskArray(), batch.getFeaturesMaskArray())
+                        && sameShape(buffer.getLabelsMaskArray(), batch.getLabelsMaskArray()))) {
+            return false;
+        }
+
+        buffer.setFeatures(copyInto(buffer.getFeatures(), batch.getFeatures()));
+        buffer.setLabels(copyInto(buffer.getLabels(), batch.getLabels()));
+        buffer.setFeaturesMaskArray(copyInto(buffer.getFeaturesMaskArray(), batch.getFeaturesMaskArray()));
+        buffer.setLabelsMaskArray(copyInto(buffer.getLabelsMaskArray(), batch.getLabelsMaskArray()));
+        buffer.setExampleMetaData(batch.getExampleMetaData());
+        return true;
+    }
+
+    @Override
+    protected DataSet wrap(DataSet buffer) {
+        DataSet batch = new DataSet(buffer.getFeatures(), buffer.getLabels(), buffer.getFeaturesMaskArray(),
+                        buffer.getLabelsMaskArray());
+        batch.setExampleMetaData(buffer.getExampleMetaData());
+        return batch;
+    }
+
+    @Override
+    protected DataSet detachedCopy(DataSet batch) {
+        DataSet copy = new DataSet(copyInto(null, batch.getFeatures()), copyInto(null, batch.getLabels()),
+                        copyInto(null, batch.getFeaturesMaskArray()), copyInto(null, batch.getLabelsMaskArray()));
+        copy.setExampleMetaData(batch.getExampleMetaData());
+        return copy;
+    }
+
+    @Override
+    protected void preProcess(DataSet batch) {
+        DataSetPreProcessor p = preProcessor;
+        if (p != null)
+            p.preProcess(batch);
+    }
+
+    @Override
+    protected boolean sourceHasNext() {
+        return sourceIterator.hasNext();
+    }
+
+    @Override
+    protected DataSet sourceNext() {
+        return sourceIterator.next();
+    }
+
+    @Override
+    protected void sourceReset() {
+        sourceIterator.reset();
+    }
+
+    @Override
+    public DataSet next(int num) {
+        throw new UnsupportedOperationException("next(int) is not supported by " + getClass().getSimpleName());
+    }
+
+    @Override
+    public int totalExamples() {
+        return sourceIterator.totalExamples();
+    }
+
+    @Override
+    public int inputColumns() {
+        return sourceIterator.inputColumns();
+    }
+
+    @Override
+    public int totalOutcomes() {
+        return sourceIterator.totalOutcomes();
+    }
+
+    @Override
+    public boolean resetSupported() {
+        return sourceIterator.resetSupported();
+    }
+
+    @Override
+    public boolean asyncSupported() {
+        // Already prefetching
+        return false;
+    }
+
+    @Override
+    public void reset() {
+        restart();
+    }
+
+    @Override
+    public int batch() {
+        return sourceIterator.batch();
+    }
+
+    @Override
+    public int cursor() {
+        return sourceIterator.cursor();
+    }
+
+    @Override
+    public int numExamples() {
+        return sourceIterator.numExamples();
+    }
+
+    /**
+     * Set a pre processor. The pre processor is applied on the producer threads, after the DataSet was copied
+     * into its buffer; it must be thread safe if more than one producer is used
+     *
+     * @param preProcessor a pre processor to set
+     */
+    @Override
+    public void setPreProcessor(DataSetPreProcessor preProcessor) {
+        this.preProcessor = preProcessor;
+    }
+
+    @Override
+    public DataSetPreProcessor getPreProcessor() {
+        return preProcessor;
+    }
+
+    @Override
+    public List<String> getLabels() {
+        return sourceIterator.getLabels();
+    }
+
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException();
+    }
+}
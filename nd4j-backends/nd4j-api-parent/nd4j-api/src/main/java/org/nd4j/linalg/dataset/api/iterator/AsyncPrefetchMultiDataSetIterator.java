@@ -0,0 +1,160 @@
+package org.nd4j.linalg.dataset.api.iterator;
+
+import lombok.NonNull;
+import org.nd4j.linalg.api.memory.conf.WorkspaceConfiguration;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.dataset.api.MultiDataSet;
+import org.nd4j.linalg.dataset.api.MultiDataSetPreProcessor;
+
+/**
+ * MultiDataSetIterator that prefetches MultiDataSets from a source iterator on background threads, using a bounded
+ * queue and a rotating pool of preallocated MultiDataSet buffers.<br>
+ * See {@link BaseAsyncPrefetchIterator} for details on buffer reuse and the backpressure metrics.<br>
+ * <br>
+ * <b>PLEASE NOTE</b>: MultiDataSets returned by {@link #next()} are only valid until the following call to next() or
+ * {@link #reset()}. Call {@link #shutdown()} to stop the producer threads when the iterator is no longer needed.
+ */
+public class AsyncPrefetchMultiDataSetIterator extends BaseAsyncPrefetchIterator<MultiDataSet>
+                implements MultiDataSetIterator {
+    public static final int DEFAULT_QUEUE_SIZE = 4;
+
+    private final MultiDataSetIterator sourceIterator;
+    private volatile MultiDataSetPreProcessor preProcessor;
+
+    public AsyncPrefetchMultiDataSetIterator(@NonNull MultiDataSetIterator sourceIterator) {
+        this(sourceIterator, DEFAULT_QUEUE_SIZE);
+    }
+
+    public AsyncPrefetchMultiDataSetIterator(@NonNull MultiDataSetIterator sourceIterator, int queueSize) {
+        this(sourceIterator, queueSize, 1);
+    }
+
+    public AsyncPrefetchMultiDataSetIterator(@NonNull MultiDataSetIterator sourceIterator, int queueSize,
+                    int numProducers) {
+        this(sourceIterator, queueSize, numProducers, defaultWorkspaceConfiguration());
+    }
+
+    /**
+     * @param sourceIterator         the iterator to prefetch from
+     * @param queueSize              number of MultiDataSets to prefetch
+     * @param numProducers           number of producer threads. With more than one producer, the order of the
+     *                               MultiDataSets is not guaranteed to match the order of the source iterator
+     * @param workspaceConfiguration configuration of the producer thread workspaces; may be null to disable
+     *                               workspaces (e.g. for source iterators that keep references to the arrays they
+     *                               create)
+     */
+    public AsyncPrefetchMultiDataSetIterator(@NonNull MultiDataSetIterator sourceIterator, int queueSize,
+                    int numProducers, WorkspaceConfiguration workspaceConfiguration) {
+        super(queueSize, numProducers, workspaceConfiguration);
+        this.sourceIterator = sourceIterator;
+        startProducers();
+    }
+
+    @Override
+    protected MultiDataSet newBuffer() {
+        return new org.nd4j.linalg.dataset.MultiDataSet();
+    }
+
+    @Override
+    protected boolean fill(MultiDataSet buffer, MultiDataSet batch) {
+        if (buffer.getFeatures() != null && !(sameShapes(buffer.getFeatures(), batch.getFeatures())
+                        && sameShapes(buffer.getLabels(), batch.getLabels())
+                        && sameShapes(buffer.getFeaturesMaskArrays(), batch.getFeaturesMaskArrays())
+                        && sameShapes(buffer.getLabelsMaskArrays(), batch.getLabelsMaskArrays()))) {
+            return false;
+        }
+
+        buffer.setFeatures(copyInto(buffer.getFeatures(), batch.getFeatures()));
+        buffer.setLabels(copyInto(buffer.getLabels(), batch.getLabels()));
+        buffer.setFeaturesMaskArrays(copyInto(buffer.getFeaturesMaskArrays(), batch.getFeaturesMaskArrays()));
+        buffer.setLabelsMaskArray(copyInto(buffer.getLabelsMaskArrays(), batch.getLabelsMaskArrays()));
+        buffer.setExampleMetaData(batch.getExampleMetaData());
+        return true;
+    }
+
+    @Override
+    protected MultiDataSet wrap(MultiDataSet buffer) {
+        MultiDataSet batch = new org.nd4j.linalg.dataset.MultiDataSet(shallowCopy(buffer.getFeatures()),
+                        shallowCopy(buffer.getLabels()), shallowCopy(buffer.getFeaturesMaskArrays()),
+                        shallowCopy(buffer.getLabelsMaskArrays()));
+        batch.setExampleMetaData(buffer.getExampleMetaData());
+        return batch;
+    }
+
+    private static INDArray[] shallowCopy(INDArray[] arrays) {
+        return arrays == null ? null : arrays.clone();
+    }
+
+    @Override
+    protected MultiDataSet detachedCopy(MultiDataSet batch) {
+        MultiDataSet copy = new org.nd4j.linalg.dataset.MultiDataSet(copyInto(null, batch.getFeatures()),
+                        copyInto(null, batch.getLabels()), copyInto(null, batch.getFeaturesMaskArrays()),
+                        copyInto(null, batch.getLabelsMaskArrays()));
+        copy.setExampleMetaData(batch.getExampleMetaData());
+        return copy;
+    }
+
+    @Override
+    protected void preProcess(MultiDataSet batch) {
+        MultiDataSetPreProcessor p = preProcessor;
+        if (p != null)
+            p.preProcess(batch);
+    }
+
+    @Override
+    protected boolean sourceHasNext() {
+        return sourceIterator.hasNext();
+    }
+
+    @Override
+    protected MultiDataSet sourceNext() {
+        return sourceIterator.next();
+    }
+
+    @Override
+    protected void sourceReset() {
+        sourceIterator.reset();
+    }
+
+    @Override
+    public MultiDataSet next(int num) {
+        throw new UnsupportedOperationException("next(int) is not supported by " + getClass().getSimpleName());
+    }
+
+    /**
+     * Set a pre processor. The pre processor is applied on the producer threads, after the MultiDataSet was copied
+     * into its buffer; it must be thread safe if more than one producer is used
+     *
+     * @param preProcessor MultiDataSetPreProcessor. May be null.
+     */
+    @Override
+    public void setPreProcessor(MultiDataSetPreProcessor preProcessor) {
+        this.preProcessor = preProcessor;
+    }
+
+    @Override
+    public MultiDataSetPreProcessor getPreProcessor() {
+        return preProcessor;
+    }
+
+    @Override
+    public boolean resetSupported() {
+        return sourceIterator.resetSupported();
+    }
+
+    @Override
+    public boolean asyncSupported() {
+        // Already prefetching
+        return false;
+    }
+
+    @Override
+    public void reset() {
+        restart();
+    }
+
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException();
+    }
+}
@@ -0,0 +1,415 @@
+package org.nd4j.linalg.dataset.api.iterator;
+
+import lombok.extern.slf4j.Slf4j;
+import org.nd4j.linalg.api.memory.MemoryWorkspace;
+import org.nd4j.linalg.api.memory.conf.WorkspaceConfiguration;
+import org.nd4j.linalg.api.memory.enums.AllocationPolicy;
+import org.nd4j.linalg.api.memory.enums.LearningPolicy;
+import org.nd4j.linalg.api.memory.enums.ResetPolicy;
+import org.nd4j.linalg.api.memory.enums.SpillPolicy;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.factory.Nd4j;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Base class for iterators that prefetch batches from a source iterator on one or more background threads.<br>
+ * <br>
+ * Batches are copied into a rotating pool of preallocated buffers (queueSize + numProducers + 1 of them), so that
+ * in steady state no arrays are allocated per batch. The source iterator is called from within a per-thread
+ * workspace, so temporary arrays it creates are reused across batches too. Backpressure is provided by the buffer
+ * pool: producers block until the consumer releases a buffer.<br>
+ * <br>
+ * <b>PLEASE NOTE</b>: the batches returned by this iterator are only valid until the next call to next() or reset().
+ * If a batch has to be kept longer, it has to be copied.<br>
+ * If the shapes of a batch differ from the shapes of the buffers (e.g., the last, smaller batch of an epoch), a
+ * detached copy of the batch is returned instead, and counted as a pool miss.<br>
+ * Buffers are never handed out directly: every batch is a new batch object referencing the arrays of its buffer,
+ * so a preprocessor replacing arrays (e.g., reshaping them) doesn't change the shapes of the buffer.
+ *
+ * @param <T> batch type: DataSet or MultiDataSet
+ */
+@Slf4j
+public abstract class BaseAsyncPrefetchIterator<T> {
+    public static final String WORKSPACE_ID = "ASYNC_PREFETCH_WS";
+
+    private static final Object TERMINATOR = new Object();
+    private static final long POLL_MS = 50;
+
+    protected final int queueSize;
+    protected final int numProducers;
+    protected final WorkspaceConfiguration workspaceConfiguration;
+    protected final Object sourceLock = new Object();
+
+    private final List<T> buffers;
+    private final BlockingQueue<T> freeBuffers;
+    private final BlockingQueue<Object> queue;
+    private final AtomicReference<Throwable> producerError = new AtomicReference<>();
+    private final List<Thread> producers = new ArrayList<>();
+    private volatile boolean running;
+
+    private Entry<T> nextEntry;
+    private Entry<T> lastEntry;
+    private int terminatorsSeen;
+
+    private final AtomicLong consumerWaitNanos = new AtomicLong(0);
+    private final AtomicLong producerBlockedNanos = new AtomicLong(0);
+    private final AtomicLong numBatches = new AtomicLong(0);
+    private final AtomicLong poolMisses = new AtomicLong(0);
+
+    /**
+     * @param queueSize              number of batches to prefetch
+     * @param numProducers           number of producer threads. Note that with more than one producer, the order
+     *                               of the batches is not guaranteed to match the order of the source iterator,
+     *                               and batches are copied into their buffers while holding the source lock, in
+     *                               case the source iterator reuses the arrays of the batches it returns
+     * @param workspaceConfiguration configuration of the producer thread workspaces the source iterator is called
+     *                               in; may be null, in which case no workspaces are used
+     */
+    protected BaseAsyncPrefetchIterator(int queueSize, int numProducers, WorkspaceConfiguration workspaceConfiguration) {
+        if (queueSize < 1)
+            throw new IllegalArgumentException("Queue size must be positive, got " + queueSize);
+        if (numProducers < 1)
+            throw new IllegalArgumentException("Number of producers must be positive, got " + numProducers);
+
+        this.queueSize = queueSize;
+        this.numProducers = numProducers;
+        this.workspaceConfiguration = workspaceConfiguration;
+
+        int poolSize = queueSize + numProducers + 1;
+        this.buffers = new ArrayList<>(poolSize);
+        this.freeBuffers = new ArrayBlockingQueue<>(poolSize);
+        // batches in flight are bounded by the buffer pool, so puts never block
+        this.queue = new LinkedBlockingQueue<>();
+        for (int i = 0; i < poolSize; i++) {
+            T buffer = newBuffer();
+            buffers.add(buffer);
+            freeBuffers.add(buffer);
+        }
+    }
+
+    /**
+     * Default configuration for the producer thread workspaces: learned on the first batch, reallocated on overflow
+     */
+    public static WorkspaceConfiguration defaultWorkspaceConfiguration() {
+        return WorkspaceConfiguration.builder().policyAllocation(AllocationPolicy.OVERALLOCATE)
+                        .overallocationLimit(0.3).policyLearning(LearningPolicy.FIRST_LOOP)
+                        .policyReset(ResetPolicy.BLOCK_LEFT).policySpill(SpillPolicy.REALLOCATE).build();
+    }
+
+    /**
+     * Create a new, empty buffer. Arrays are allocated on first use.<br>
+     * Note: this is called from the constructor of this class, so implementations must not depend on subclass state
+     */
+    protected abstract T newBuffer();
+
+    /**
+     * Copy the contents of the batch into the buffer, allocating the buffer arrays (outside of any workspace)
+     * if this is the first use of the buffer.
+     *
+     * @return false if the shapes of the batch do not match the shapes of the buffer; the buffer is not modified
+     */
+    protected abstract boolean fill(T buffer, T batch);
+
+    /**
+     * Create a new batch object referencing the arrays of the buffer. Array containers (if any) are copied too, so
+     * the preprocessor can replace arrays of the returned batch without affecting the buffer
+     */
+    protected abstract T wrap(T buffer);
+
+    /**
+     * Create a copy of the batch, with all arrays allocated outside of any workspace
+     */
+    protected abstract T detachedCopy(T batch);
+
+    /**
+     * Apply the preprocessor of this iterator (if any) to the batch. Called from the producer threads
+     */
+    protected abstract void preProcess(T batch);
+
+    protected abstract boolean sourceHasNext();
+
+    protected abstract T sourceNext();
+
+    protected abstract void sourceReset();
+
+    protected static boolean sameShape(INDArray a, INDArray b) {
+        if (a == null || b == null)
+            return a == b;
+        return a.ordering() == b.ordering() && Arrays.equals(a.shape(), b.shape());
+    }
+
+    protected static boolean sameShapes(INDArray[] a, INDArray[] b) {
+        if (a == null || b == null)
+            return a == b;
+        if (a.length != b.length)
+            return false;
+        for (int i = 0; i < a.length; i++) {
+            if (!sameShape(a[i], b[i]))
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Copy src into dst; if dst is null, a detached copy of src is returned
+     */
+    protected static INDArray copyInto(INDArray dst, INDArray src) {
+        if (src == null)
+            return null;
+        if (dst == null) {
+            try (MemoryWorkspace ws = Nd4j.getMemoryManager().scopeOutOfWorkspaces()) {
+                return src.dup(src.ordering());
+            }
+        }
+        return dst.assign(src);
+    }
+
+    protected static INDArray[] copyInto(INDArray[] dst, INDArray[] src) {
+        if (src == null)
+            return null;
+        INDArray[] result = dst == null ? new INDArray[src.length] : dst;
+        for (int i = 0; i < src.length; i++) {
+            result[i] = copyInto(result[i], src[i]);
+        }
+        return result;
+    }
+
+    /**
+     * Start the producer threads
+     */
+    protected synchronized void startProducers() {
+        running = true;
+        for (int i = 0; i < numProducers; i++) {
+            Thread t = new Thread(new Producer(), getClass().getSimpleName() + "-producer-" + i);
+            t.setDaemon(true);
+            producers.add(t);
+            t.start();
+        }
+    }
+
+    /**
+     * Stop the producer threads, waiting for them to finish their current batch
+     */
+    protected synchronized void stopProducers() {
+        running = false;
+        for (Thread t : producers) {
+            try {
+                t.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException(e);
+            }
+        }
+        producers.clear();
+    }
+
+    /**
+     * Stop the producers, reset the source iterator and start prefetching from the beginning again.
+     * All previously returned batches are invalidated.
+     */
+    protected void restart() {
+        stopProducers();
+        queue.clear();
+        freeBuffers.clear();
+        freeBuffers.addAll(buffers);
+        nextEntry = null;
+        lastEntry = null;
+        terminatorsSeen = 0;
+        producerError.set(null);
+        sourceReset();
+        startProducers();
+    }
+
+    /**
+     * Stop the producer threads. The iterator can be used again after a reset
+     */
+    public void shutdown() {
+        stopProducers();
+    }
+
+    public boolean hasNext() {
+        if (nextEntry != null)
+            return true;
+        if (terminatorsSeen >= numProducers) {
+            rethrowProducerError();
+            return false;
+        }
+
+        long start = System.nanoTime();
+        try {
+            while (true) {
+                Object o = queue.take();
+                if (o == TERMINATOR) {
+                    if (++terminatorsSeen >= numProducers) {
+                        rethrowProducerError();
+                        return false;
+                    }
+                    continue;
+                }
+                nextEntry = (Entry<T>) o;
+                return true;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } finally {
+            consumerWaitNanos.addAndGet(System.nanoTime() - start);
+        }
+    }
+
+    public T next() {
+        if (!hasNext())
+            throw new NoSuchElementException();
+
+        // previous batch is no longer used: return its buffer to the pool
+        if (lastEntry != null)
+            freeBuffers.offer(lastEntry.buffer);
+
+        lastEntry = nextEntry;
+        nextEntry = null;
+        return lastEntry.batch;
+    }
+
+    private void rethrowProducerError() {
+        Throwable t = producerError.get();
+        if (t != null)
+            throw new RuntimeException("Exception in prefetch producer thread", t);
+    }
+
+    /**
+     * Total time (in nanoseconds) the consumer spent waiting for batches in hasNext()/next().
+     * If this is a significant fraction of the total time, training is input-bound
+     */
+    public long getConsumerWaitNanos() {
+        return consumerWaitNanos.get();
+    }
+
+    /**
+     * Total time (in nanoseconds), summed over all producer threads, the producers spent blocked waiting for a
+     * free buffer, i.e., waiting for the consumer
+     */
+    public long getProducerBlockedNanos() {
+        return producerBlockedNanos.get();
+    }
+
+    /**
+     * Number of batches produced so far
+     */
+    public long getNumBatches() {
+        return numBatches.get();
+    }
+
+    /**
+     * Number of batches that could not be copied into a pooled buffer due to a shape mismatch. Each of them was
+     * allocated as a detached copy, so a high number compared to {@link #getNumBatches()} means the pool is not
+     * effective for the source iterator
+     */
+    public long getPoolMisses() {
+        return poolMisses.get();
+    }
+
+    /**
+     * Reset the consumer wait time, producer blocked time, batch and pool miss counters
+     */
+    public void resetStats() {
+        consumerWaitNanos.set(0);
+        producerBlockedNanos.set(0);
+        numBatches.set(0);
+        poolMisses.set(0);
+    }
+
+    private static class Entry<T> {
+        private final T batch;
+        private final T buffer;
+
+        private Entry(T batch, T buffer) {
+            this.batch = batch;
+            this.buffer = buffer;
+        }
+    }
+
+    private class Producer implements Runnable {
+        @Override
+        public void run() {
+            try {
+                while (running) {
+                    T buffer = takeFreeBuffer();
+                    if (buffer == null)
+                        break;
+
+                    T batch = fetch(buffer);
+                    if (batch == null) {
+                        freeBuffers.offer(buffer);
+                        break;
+                    }
+
+                    preProcess(batch);
+                    numBatches.incrementAndGet();
+                    queue.add(new Entry<>(batch, buffer));
+                }
+            } catch (Throwable t) {
+                log.error("Exception in prefetch producer thread", t);
+                producerError.compareAndSet(null, t);
+                running = false;
+            } finally {
+                if (workspaceConfiguration != null)
+                    Nd4j.getWorkspaceManager().destroyAllWorkspacesForCurrentThread();
+                queue.add(TERMINATOR);
+            }
+        }
+
+        private T takeFreeBuffer() throws InterruptedException {
+            long start = System.nanoTime();
+            try {
+                while (running) {
+                    T buffer = freeBuffers.poll(POLL_MS, TimeUnit.MILLISECONDS);
+                    if (buffer != null)
+                        return buffer;
+                }
+                return null;
+            } finally {
+                producerBlockedNanos.addAndGet(System.nanoTime() - start);
+            }
+        }
+
+        private T fetch(T buffer) {
+            MemoryWorkspace ws = workspaceConfiguration == null ? null
+                            : Nd4j.getWorkspaceManager().getAndActivateWorkspace(workspaceConfiguration, WORKSPACE_ID);
+            try {
+                // source iterators are not thread safe, and may reuse the arrays of the batches they return:
+                // with more than one producer, the batch is copied before the lock is released
+                T batch;
+                synchronized (sourceLock) {
+                    if (!running || !sourceHasNext())
+                        return null;
+                    batch = sourceNext();
+                    if (numProducers > 1)
+                        return copy(buffer, batch);
+                }
+
+                return copy(buffer, batch);
+            } finally {
+                if (ws != null)
+                    ws.close();
+            }
+        }
+
+        private T copy(T buffer, T batch) {
+            if (fill(buffer, batch))
+                return wrap(buffer);
+
+            poolMisses.incrementAndGet();
+            return detachedCopy(batch);
+        }
+    }
+}
@@ -7,6 +7,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.List;
+import java.util.Random;
 
 /**
  * Created by anton on 7/16/16.
@@ -20,6 +21,7 @@ public class CachingDataSetIterator implements DataSetIterator {
     private int currentIndex = 0;
     private boolean usingCache = false;
     private boolean allowPrefetching;
+    private int[] readOrder;
 
     public CachingDataSetIterator(DataSetIterator sourceIterator, DataSetCache cache, String namespace) {
         this(sourceIterator, cache, namespace, false);
@@ -110,9 +112,53 @@ public class CachingDataSetIterator implements DataSetIterator {
         return sourceIterator.getLabels();
     }
 
+    /**
+     * Whether all DataSets of the source iterator are in the cache, i.e., whether DataSets are read from the cache
+     */
+    public boolean isCacheComplete() {
+        return usingCache;
+    }
+
+    /**
+     * Randomly permute the order in which the cached DataSets are read. Should be called at the start of an epoch,
+     * i.e., right after {@link #reset()}. This is a no-op if the cache is not complete yet. The order is kept for
+     * subsequent epochs, until this method is called again.
+     *
+     * @param rng random number generator used to create the permutation
+     */
+    public void shuffleCacheOrder(Random rng) {
+        if (!usingCache) {
+            return;
+        }
+
+        int count = 0;
+        while (cache.contains(makeKey(count))) {
+            count++;
+        }
+
+        int[] order = new int[count];
+        for (int i = 0; i < count; i++) {
+            order[i] = i;
+        }
+        for (int i = count - 1; i > 0; i--) {
+            int j = rng.nextInt(i + 1);
+            int tmp = order[i];
+            order[i] = order[j];
+            order[j] = tmp;
+        }
+        readOrder = order;
+    }
+
+    private int cacheIndex(int index) {
+        return readOrder == null ? index : readOrder[index];
+    }
+
     @Override
     public boolean hasNext() {
         if (usingCache) {
+            if (readOrder != null) {
+                return currentIndex < readOrder.length;
+            }
             return cache.contains(makeKey(currentIndex));
         } else {
             if (sourceIterator.hasNext()) {
@@ -127,15 +173,13 @@ public class CachingDataSetIterator implements DataSetIterator {
 
     @Override
     public DataSet next() {
-        String key = makeKey(currentIndex);
-
         DataSet ds;
 
         if (usingCache) {
-            ds = cache.get(key);
+            ds = cache.get(makeKey(cacheIndex(currentIndex)));
         } else {
             ds = sourceIterator.next();
-            cache.put(key, ds);
+            cache.put(makeKey(currentIndex), ds);
         }
 
         currentIndex += 1;
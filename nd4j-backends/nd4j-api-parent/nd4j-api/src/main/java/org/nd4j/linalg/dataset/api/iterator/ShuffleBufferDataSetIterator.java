@@ -0,0 +1,290 @@
+package org.nd4j.linalg.dataset.api.iterator;
+
+import lombok.NonNull;
+import org.nd4j.linalg.api.memory.MemoryWorkspace;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.dataset.DataSet;
+import org.nd4j.linalg.dataset.api.DataSetPreProcessor;
+import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.linalg.indexing.INDArrayIndex;
+import org.nd4j.linalg.indexing.NDArrayIndex;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+/**
+ * A DataSetIterator wrapper that shuffles examples from a source iterator in a streaming fashion, for data sets
+ * that are too large to be shuffled in memory.<br>
+ * A buffer of bufferSize examples is kept in preallocated arrays. Each minibatch is assembled by drawing examples
+ * uniformly at random from the buffer; every drawn example is replaced by the next example of the source iterator.
+ * Larger buffers give a better approximation to a full shuffle.<br>
+ * <br>
+ * Shuffling is deterministic for a given seed. If the source iterator is a {@link CachingDataSetIterator} (for
+ * example, backed by an {@link org.nd4j.linalg.dataset.api.iterator.cache.InFileDataSetCache}) whose cache is
+ * complete, the order in which the cached DataSets are read is also shuffled on every epoch.<br>
+ * <br>
+ * All examples must have the same shape (and the same mask arrays being present or absent); variable length time
+ * series should be padded by the source iterator.
+ */
+public class ShuffleBufferDataSetIterator implements DataSetIterator {
+    private static final long serialVersionUID = 4305374553102733017L;
+
+    private final DataSetIterator sourceIterator;
+    private final int bufferSize;
+    private final int batchSize;
+    private final Random rng;
+    private DataSetPreProcessor preProcessor;
+
+    // Buffer arrays; examples [0, count) are valid
+    private INDArray features;
+    private INDArray labels;
+    private INDArray featuresMask;
+    private INDArray labelsMask;
+    private int count;
+
+    // Current DataSet of the source iterator, and the next example to read from it
+    private DataSet current;
+    private int currentExample;
+    private int cursor;
+
+    /**
+     * @param sourceIterator the iterator to read examples from
+     * @param bufferSize     number of examples to keep in the shuffle buffer
+     * @param batchSize      minibatch size
+     * @param seed           random seed
+     */
+    public ShuffleBufferDataSetIterator(@NonNull DataSetIterator sourceIterator, int bufferSize, int batchSize,
+                    long seed) {
+        if (bufferSize < 1)
+            throw new IllegalArgumentException("Buffer size must be positive, got " + bufferSize);
+        if (batchSize < 1)
+            throw new IllegalArgumentException("Batch size must be positive, got " + batchSize);
+
+        this.sourceIterator = sourceIterator;
+        this.bufferSize = bufferSize;
+        this.batchSize = batchSize;
+        this.rng = new Random(seed);
+        startEpoch();
+    }
+
+    private void startEpoch() {
+        if (sourceIterator instanceof CachingDataSetIterator) {
+            ((CachingDataSetIterator) sourceIterator).shuffleCacheOrder(rng);
+        }
+        count = 0;
+        current = null;
+        currentExample = 0;
+        cursor = 0;
+    }
+
+    private static int[] exampleShape(INDArray array) {
+        return Arrays.copyOfRange(array.shape(), 1, array.rank());
+    }
+
+    private INDArray allocateBuffer(INDArray array) {
+        if (array == null)
+            return null;
+        int[] shape = array.shape().clone();
+        shape[0] = bufferSize;
+        try (MemoryWorkspace ws = Nd4j.getMemoryManager().scopeOutOfWorkspaces()) {
+            return Nd4j.create(shape, 'c');
+        }
+    }
+
+    private void checkShape(String name, INDArray buffer, INDArray array) {
+        boolean ok = buffer == null ? array == null
+                        : array != null && Arrays.equals(exampleShape(buffer), exampleShape(array));
+        if (!ok) {
+            throw new IllegalStateException("All examples must have the same shape: " + name + " shape "
+                            + (array == null ? "null" : Arrays.toString(array.shape())) + " does not match "
+                            + (buffer == null ? "null" : Arrays.toString(exampleShape(buffer)))
+                            + " (per example) of previous examples");
+        }
+    }
+
+    private static void copyExample(INDArray from, int fromIdx, INDArray to, int toIdx) {
+        if (from == null)
+            return;
+        // slice() of a matrix with a single row is a scalar, so matrices are copied row by row
+        if (from.rank() == 2)
+            to.putRow(toIdx, from.getRow(fromIdx));
+        else
+            to.slice(toIdx).assign(from.slice(fromIdx));
+    }
+
+    /**
+     * Copy the next example of the source iterator into the given buffer slot
+     *
+     * @return false if the source iterator is exhausted
+     */
+    private boolean readExample(int slot) {
+        while (current == null || currentExample >= current.numExamples()) {
+            if (!sourceIterator.hasNext())
+                return false;
+            current = sourceIterator.next();
+            currentExample = 0;
+
+            if (features == null) {
+                features = allocateBuffer(current.getFeatures());
+                labels = allocateBuffer(current.getLabels());
+                featuresMask = allocateBuffer(current.getFeaturesMaskArray());
+                labelsMask = allocateBuffer(current.getLabelsMaskArray());
+            }
+            checkShape("features", features, current.getFeatures());
+            checkShape("labels", labels, current.getLabels());
+            checkShape("features mask", featuresMask, current.getFeaturesMaskArray());
+            checkShape("labels mask", labelsMask, current.getLabelsMaskArray());
+        }
+
+        copyExample(current.getFeatures(), currentExample, features, slot);
+        copyExample(current.getLabels(), currentExample, labels, slot);
+        copyExample(current.getFeaturesMaskArray(), currentExample, featuresMask, slot);
+        copyExample(current.getLabelsMaskArray(), currentExample, labelsMask, slot);
+        currentExample++;
+        return true;
+    }
+
+    private void fillBuffer() {
+        while (count < bufferSize && readExample(count)) {
+            count++;
+        }
+    }
+
+    private static INDArray createBatch(INDArray buffer, int num) {
+        if (buffer == null)
+            return null;
+        int[] shape = buffer.shape().clone();
+        shape[0] = num;
+        return Nd4j.createUninitialized(shape, 'c');
+    }
+
+    private static INDArray firstExamples(INDArray array, int num) {
+        if (array == null || array.size(0) == num)
+            return array;
+        INDArrayIndex[] indices = new INDArrayIndex[array.rank()];
+        indices[0] = NDArrayIndex.interval(0, num);
+        for (int i = 1; i < indices.length; i++) {
+            indices[i] = NDArrayIndex.all();
+        }
+        return array.get(indices);
+    }
+
+    @Override
+    public boolean hasNext() {
+        fillBuffer();
+        return count > 0;
+    }
+
+    @Override
+    public DataSet next() {
+        return next(batchSize);
+    }
+
+    @Override
+    public DataSet next(int num) {
+        if (!hasNext())
+            throw new NoSuchElementException();
+
+        INDArray outFeatures = createBatch(features, num);
+        INDArray outLabels = createBatch(labels, num);
+        INDArray outFeaturesMask = createBatch(featuresMask, num);
+        INDArray outLabelsMask = createBatch(labelsMask, num);
+
+        int n = 0;
+        while (n < num && count > 0) {
+            int idx = rng.nextInt(count);
+            copyExample(features, idx, outFeatures, n);
+            copyExample(labels, idx, outLabels, n);
+            copyExample(featuresMask, idx, outFeaturesMask, n);
+            copyExample(labelsMask, idx, outLabelsMask, n);
+            n++;
+
+            if (!readExample(idx)) {
+                // Source is exhausted: move the last buffered example into the free slot
+                count--;
+                if (idx != count) {
+                    copyExample(features, count, features, idx);
+                    copyExample(labels, count, labels, idx);
+                    copyExample(featuresMask, count, featuresMask, idx);
+                    copyExample(labelsMask, count, labelsMask, idx);
+                }
+            }
+        }
+        cursor += n;
+
+        DataSet ds = new DataSet(firstExamples(outFeatures, n), firstExamples(outLabels, n),
+                        firstExamples(outFeaturesMask, n), firstExamples(outLabelsMask, n));
+        if (preProcessor != null) {
+            preProcessor.preProcess(ds);
+        }
+        return ds;
+    }
+
+    @Override
+    public int totalExamples() {
+        return sourceIterator.totalExamples();
+    }
+
+    @Override
+    public int inputColumns() {
+        return sourceIterator.inputColumns();
+    }
+
+    @Override
+    public int totalOutcomes() {
+        return sourceIterator.totalOutcomes();
+    }
+
+    @Override
+    public boolean resetSupported() {
+        return sourceIterator.resetSupported();
+    }
+
+    @Override
+    public boolean asyncSupported() {
+        return true;
+    }
+
+    @Override
+    public void reset() {
+        sourceIterator.reset();
+        startEpoch();
+    }
+
+    @Override
+    public int batch() {
+        return batchSize;
+    }
+
+    @Override
+    public int cursor() {
+        return cursor;
+    }
+
+    @Override
+    public int numExamples() {
+        return sourceIterator.numExamples();
+    }
+
+    @Override
+    public void setPreProcessor(DataSetPreProcessor preProcessor) {
+        this.preProcessor = preProcessor;
+    }
+
+    @Override
+    public DataSetPreProcessor getPreProcessor() {
+        return preProcessor;
+    }
+
+    @Override
+    public List<String> getLabels() {
+        return sourceIterator.getLabels();
+    }
+
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException();
+    }
+}
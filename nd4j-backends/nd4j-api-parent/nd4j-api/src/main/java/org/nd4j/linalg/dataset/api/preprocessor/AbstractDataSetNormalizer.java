@@ -7,7 +7,14 @@ import lombok.Setter;
 import org.nd4j.linalg.api.ndarray.INDArray;
 import org.nd4j.linalg.dataset.api.DataSet;
 import org.nd4j.linalg.dataset.api.iterator.DataSetIterator;
+import org.nd4j.linalg.dataset.api.iterator.ParallelDataSetIterator;
 import org.nd4j.linalg.dataset.api.preprocessor.stats.NormalizerStats;
+import org.nd4j.linalg.primitives.Pair;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Callable;
 
 /**
  * Abstract base class for normalizers
@@ -84,10 +91,89 @@ public abstract class AbstractDataSetNormalizer<S extends NormalizerStats> exten
      */
     @Override
     public void fit(DataSetIterator iterator) {
+        iterator.reset();
+        Pair<S.Builder, S.Builder> builders = fitPartial(iterator);
+        buildStats(builders.getFirst(), builders.getSecond());
+        iterator.reset();
+    }
+
+    /**
+     * Fit the given model, consuming several iterators concurrently (one thread per iterator).
+     * Statistics are collected separately for each iterator, and merged once all iterators are exhausted:
+     * this requires a {@link NormalizerStats.MergeableBuilder}, otherwise an UnsupportedOperationException is thrown.
+     *
+     * @param iterators the iterators for the data to iterate over
+     */
+    public void fit(@NonNull List<? extends DataSetIterator> iterators) {
+        if (iterators.isEmpty()) {
+            throw new IllegalArgumentException("No iterators provided");
+        }
+        mergeable(newBuilder());
+
+        List<Callable<Pair<S.Builder, S.Builder>>> tasks = new ArrayList<>();
+        for (final DataSetIterator iterator : iterators) {
+            tasks.add(new Callable<Pair<S.Builder, S.Builder>>() {
+                @Override
+                public Pair<S.Builder, S.Builder> call() throws Exception {
+                    iterator.reset();
+                    Pair<S.Builder, S.Builder> builders = fitPartial(iterator);
+                    iterator.reset();
+                    return builders;
+                }
+            });
+        }
+        mergeAndBuildStats(runConcurrently(tasks));
+    }
+
+    /**
+     * Fit the given model, consuming a {@link ParallelDataSetIterator} from several threads concurrently: thread i
+     * consumes the DataSets of producer i, via {@link ParallelDataSetIterator#nextFor(int)}.
+     * Statistics are collected separately for each thread, and merged once all producers are exhausted:
+     * this requires a {@link NormalizerStats.MergeableBuilder}, otherwise an UnsupportedOperationException is thrown.
+     *
+     * @param iterator     the iterator for the data to iterate over
+     * @param numConsumers the number of consumer threads, usually equal to the number of producers of the iterator
+     */
+    public void fit(@NonNull final ParallelDataSetIterator iterator, int numConsumers) {
+        if (numConsumers < 1) {
+            throw new IllegalArgumentException("Number of consumers must be positive, got " + numConsumers);
+        }
+        mergeable(newBuilder());
+
+        iterator.reset();
+        List<Callable<Pair<S.Builder, S.Builder>>> tasks = new ArrayList<>();
+        for (int i = 0; i < numConsumers; i++) {
+            final int consumer = i;
+            tasks.add(new Callable<Pair<S.Builder, S.Builder>>() {
+                @Override
+                public Pair<S.Builder, S.Builder> call() throws Exception {
+                    return fitPartial(new Iterator<DataSet>() {
+                        @Override
+                        public boolean hasNext() {
+                            return iterator.hasNextFor(consumer);
+                        }
+
+                        @Override
+                        public DataSet next() {
+                            return iterator.nextFor(consumer);
+                        }
+
+                        @Override
+                        public void remove() {
+                            throw new UnsupportedOperationException();
+                        }
+                    });
+                }
+            });
+        }
+        mergeAndBuildStats(runConcurrently(tasks));
+        iterator.reset();
+    }
+
+    private Pair<S.Builder, S.Builder> fitPartial(Iterator<? extends DataSet> iterator) {
         S.Builder featureNormBuilder = newBuilder();
         S.Builder labelNormBuilder = newBuilder();
 
-        iterator.reset();
         while (iterator.hasNext()) {
             DataSet next = iterator.next();
             featureNormBuilder.addFeatures(next);
@@ -95,11 +181,26 @@ public abstract class AbstractDataSetNormalizer<S extends NormalizerStats> exten
                 labelNormBuilder.addLabels(next);
             }
         }
+        return new Pair<>(featureNormBuilder, labelNormBuilder);
+    }
+
+    private void mergeAndBuildStats(List<Pair<S.Builder, S.Builder>> partials) {
+        S.Builder featureNormBuilder = newBuilder();
+        S.Builder labelNormBuilder = newBuilder();
+        for (Pair<S.Builder, S.Builder> partial : partials) {
+            mergeable(featureNormBuilder).merge(mergeable(partial.getFirst()));
+            if (fitLabels) {
+                mergeable(labelNormBuilder).merge(mergeable(partial.getSecond()));
+            }
+        }
+        buildStats(featureNormBuilder, labelNormBuilder);
+    }
+
+    private void buildStats(S.Builder featureNormBuilder, S.Builder labelNormBuilder) {
         featureStats = (S) featureNormBuilder.build();
         if (fitLabels) {
             labelStats = (S) labelNormBuilder.build();
         }
-        iterator.reset();
     }
 
     protected abstract S.Builder newBuilder();
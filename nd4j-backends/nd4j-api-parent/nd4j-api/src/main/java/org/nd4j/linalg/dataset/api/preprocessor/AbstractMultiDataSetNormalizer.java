@@ -6,10 +6,14 @@ import lombok.Setter;
 import org.nd4j.linalg.api.ndarray.INDArray;
 import org.nd4j.linalg.dataset.api.MultiDataSet;
 import org.nd4j.linalg.dataset.api.iterator.MultiDataSetIterator;
+import org.nd4j.linalg.dataset.api.iterator.ParallelMultiDataSetIterator;
 import org.nd4j.linalg.dataset.api.preprocessor.stats.NormalizerStats;
+import org.nd4j.linalg.primitives.Pair;
 
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.Callable;
 
 /**
  * Abstract base class for normalizers that act upon {@link MultiDataSet} instances or iterators
@@ -114,6 +118,121 @@ public abstract class AbstractMultiDataSetNormalizer<S extends NormalizerStats>
         }
     }
 
+    /**
+     * Fit several iterators concurrently (one thread per iterator).
+     * Statistics are collected separately for each iterator, and merged once all iterators are exhausted:
+     * this requires a {@link NormalizerStats.MergeableBuilder}, otherwise an UnsupportedOperationException is thrown.
+     *
+     * @param iterators the iterators for the data to iterate over
+     */
+    public void fit(@NonNull List<? extends MultiDataSetIterator> iterators) {
+        if (iterators.isEmpty()) {
+            throw new IllegalArgumentException("No iterators provided");
+        }
+        mergeable(newBuilder());
+
+        List<Callable<Pair<List<S.Builder>, List<S.Builder>>>> tasks = new ArrayList<>();
+        for (final MultiDataSetIterator iterator : iterators) {
+            tasks.add(new Callable<Pair<List<S.Builder>, List<S.Builder>>>() {
+                @Override
+                public Pair<List<S.Builder>, List<S.Builder>> call() throws Exception {
+                    iterator.reset();
+                    Pair<List<S.Builder>, List<S.Builder>> builders = fitPartial(iterator);
+                    iterator.reset();
+                    return builders;
+                }
+            });
+        }
+        mergeAndBuildStats(runConcurrently(tasks));
+    }
+
+    /**
+     * Fit a {@link ParallelMultiDataSetIterator} from several threads concurrently: thread i consumes the
+     * MultiDataSets of producer i, via {@link ParallelMultiDataSetIterator#nextFor(int)}.
+     * Statistics are collected separately for each thread, and merged once all producers are exhausted:
+     * this requires a {@link NormalizerStats.MergeableBuilder}, otherwise an UnsupportedOperationException is thrown.
+     *
+     * @param iterator     the iterator for the data to iterate over
+     * @param numConsumers the number of consumer threads, usually equal to the number of producers of the iterator
+     */
+    public void fit(@NonNull final ParallelMultiDataSetIterator iterator, int numConsumers) {
+        if (numConsumers < 1) {
+            throw new IllegalArgumentException("Number of consumers must be positive, got " + numConsumers);
+        }
+        mergeable(newBuilder());
+
+        iterator.reset();
+        List<Callable<Pair<List<S.Builder>, List<S.Builder>>>> tasks = new ArrayList<>();
+        for (int i = 0; i < numConsumers; i++) {
+            final int consumer = i;
+            tasks.add(new Callable<Pair<List<S.Builder>, List<S.Builder>>>() {
+                @Override
+                public Pair<List<S.Builder>, List<S.Builder>> call() throws Exception {
+                    return fitPartial(new Iterator<MultiDataSet>() {
+                        @Override
+                        public boolean hasNext() {
+                            return iterator.hasNextFor(consumer);
+                        }
+
+                        @Override
+                        public MultiDataSet next() {
+                            return iterator.nextFor(consumer);
+                        }
+
+                        @Override
+                        public void remove() {
+                            throw new UnsupportedOperationException();
+                        }
+                    });
+                }
+            });
+        }
+        mergeAndBuildStats(runConcurrently(tasks));
+        iterator.reset();
+    }
+
+    private Pair<List<S.Builder>, List<S.Builder>> fitPartial(Iterator<MultiDataSet> iterator) {
+        List<S.Builder> featureNormBuilders = new ArrayList<>();
+        List<S.Builder> labelNormBuilders = new ArrayList<>();
+
+        while (iterator.hasNext()) {
+            fitPartial(iterator.next(), featureNormBuilders, labelNormBuilders);
+        }
+        return new Pair<>(featureNormBuilders, labelNormBuilders);
+    }
+
+    private void mergeAndBuildStats(List<Pair<List<S.Builder>, List<S.Builder>>> partials) {
+        List<S.Builder> featureNormBuilders = new ArrayList<>();
+        List<S.Builder> labelNormBuilders = new ArrayList<>();
+
+        for (Pair<List<S.Builder>, List<S.Builder>> partial : partials) {
+            mergeList(featureNormBuilders, partial.getFirst());
+            if (isFitLabel()) {
+                mergeList(labelNormBuilders, partial.getSecond());
+            }
+        }
+
+        featureStats = buildList(featureNormBuilders);
+        if (isFitLabel()) {
+            labelStats = buildList(labelNormBuilders);
+        }
+    }
+
+    private void mergeList(List<S.Builder> target, List<S.Builder> source) {
+        if (source.isEmpty()) {
+            // No data was seen by this partial fit
+            return;
+        }
+        ensureStatsBuilders(target, source.size());
+        if (target.size() != source.size()) {
+            throw new IllegalStateException("Cannot merge statistics: different number of arrays (" + target.size()
+                            + " vs. " + source.size() + ")");
+        }
+        for (int i = 0; i < source.size(); i++) {
+            mergeable(target.get(i)).merge(mergeable(source.get(i)));
+        }
+    }
+
     private List<S> buildList(@NonNull List<S.Builder> builders) {
         List<S> result = new ArrayList<>(builders.size());
         for (S.Builder builder : builders) {
@@ -1,6 +1,11 @@
 package org.nd4j.linalg.dataset.api.preprocessor;
 
+import org.nd4j.linalg.dataset.api.preprocessor.stats.NormalizerStats;
+
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
 
 /**
  * Abstract base class for normalizers for both DataSet and MultiDataSet processing
@@ -16,4 +21,48 @@ public abstract class AbstractNormalizer implements Serializable {
                             "API_USE_ERROR: Preprocessors have to be explicitly fit before use. Usage: .fit(dataset) or .fit(datasetiterator)");
         }
     }
+
+    /**
+     * Statistics fit from several threads are merged afterwards, which requires a
+     * {@link NormalizerStats.MergeableBuilder}
+     */
+    static NormalizerStats.MergeableBuilder mergeable(NormalizerStats.Builder builder) {
+        if (!(builder instanceof NormalizerStats.MergeableBuilder)) {
+            throw new UnsupportedOperationException("Statistics builder " + builder.getClass().getName()
+                            + " can't be merged, so it can't be fit concurrently");
+        }
+        return (NormalizerStats.MergeableBuilder) builder;
+    }
+
+    /**
+     * Run the given tasks concurrently, one thread per task, and return their results in task order.
+     * Used for fitting partial statistics from several data sources in parallel.
+     */
+    static <T> List<T> runConcurrently(List<Callable<T>> tasks) {
+        ExecutorService executor = Executors.newFixedThreadPool(tasks.size(), new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread t = Executors.defaultThreadFactory().newThread(r);
+                t.setName("NormalizerFitThread-" + t.getId());
+                t.setDaemon(true);
+                return t;
+            }
+        });
+
+        try {
+            List<Future<T>> futures = executor.invokeAll(tasks);
+            List<T> results = new ArrayList<>(futures.size());
+            for (Future<T> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Exception while fitting normalizer statistics", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
 }
@@ -68,8 +68,8 @@ public class DistributionStats implements NormalizerStats {
      * DynamicCustomOpsBuilder class that can incrementally update a running mean and variance in order to create statistics for a
      * large set of data
      */
-    public static class Builder implements NormalizerStats.Builder<DistributionStats> {
-        private int runningCount = 0;
+    public static class Builder implements NormalizerStats.MergeableBuilder<DistributionStats> {
+        private long runningCount = 0;
         private INDArray runningMean;
         private INDArray runningVariance;
 
@@ -96,7 +96,6 @@ public class DistributionStats implements NormalizerStats {
         public Builder add(@NonNull INDArray data, INDArray mask) {
             data = DataSetUtil.tailor2d(data, mask);
 
-            // Using https://en.wikipedia.org/wiki/Algorithms_for_calculating_variance#Parallel_algorithm
             if (data == null) {
                 // Nothing to add. Either data is empty or completely masked. Just skip it, otherwise we will get
                 // null pointer exceptions.
@@ -106,36 +105,68 @@ public class DistributionStats implements NormalizerStats {
             INDArray variance = data.var(false, 0);
             int count = data.size(0);
 
+            if (runningMean == null && count == 1) {
+                //Handle edge case: currently, reduction ops may return the same array
+                //But we don't want to modify this array in-place later
+                mean = mean.dup();
+                variance = variance.dup();
+            }
+            combine(mean, variance, count);
+
+            return this;
+        }
+
+        /**
+         * Merge the running mean and variance of another builder into this one
+         *
+         * @param other the builder to merge into this one
+         */
+        @Override
+        public Builder merge(@NonNull NormalizerStats.MergeableBuilder<DistributionStats> other) {
+            if (!(other instanceof Builder)) {
+                throw new IllegalArgumentException("Cannot merge " + other.getClass().getSimpleName()
+                                + " into DistributionStats.Builder");
+            }
+            Builder o = (Builder) other;
+            if (o.runningMean == null) {
+                return this;
+            }
+            if (runningMean == null) {
+                runningMean = o.runningMean.dup();
+                runningVariance = o.runningVariance.dup();
+                runningCount = o.runningCount;
+                return this;
+            }
+            combine(o.runningMean, o.runningVariance, o.runningCount);
+            return this;
+        }
+
+        /**
+         * Combine the (population) mean and variance of a set of count rows with the running statistics.
+         * Only row vector sized temporaries are created.
+         */
+        private void combine(INDArray mean, INDArray variance, long count) {
+            // Using https://en.wikipedia.org/wiki/Algorithms_for_calculating_variance#Parallel_algorithm
             if (runningMean == null) {
                 // First batch
                 runningMean = mean;
                 runningVariance = variance;
                 runningCount = count;
-
-                if (data.size(0) == 1) {
-                    //Handle edge case: currently, reduction ops may return the same array
-                    //But we don't want to modify this array in-place later
-                    runningMean = runningMean.dup();
-                    runningVariance = runningVariance.dup();
-                }
-            } else {
-                // Update running variance
-                INDArray deltaSquared = Transforms.pow(mean.subRowVector(runningMean), 2);
-                INDArray mB = variance.muli(count);
-                runningVariance.muli(runningCount).addiRowVector(mB)
-                                .addiRowVector(deltaSquared
-                                                .muli((float) (runningCount * count) / (runningCount + count)))
-                                .divi(runningCount + count);
-
-                // Update running count
-                runningCount += count;
-
-                // Update running mean
-                INDArray xMinusMean = data.subRowVector(runningMean);
-                runningMean.addi(xMinusMean.sum(0).divi(runningCount));
+                return;
             }
 
-            return this;
+            double total = runningCount + count;
+            INDArray delta = mean.sub(runningMean);
+
+            // Update running variance: M2 = M2_a + M2_b + delta^2 * n_a * n_b / n
+            INDArray deltaSquared = delta.mul(delta).muli(runningCount * (count / total));
+            runningVariance.muli(runningCount).addi(variance.mul(count)).addi(deltaSquared).divi(total);
+
+            // Update running mean
+            runningMean.addi(delta.muli(count / total));
+
+            // Update running count
+            runningCount += count;
         }
 
         /**
@@ -34,4 +34,17 @@ public interface NormalizerStats extends Serializable {
          */
         S build();
     }
+
+    /**
+     * Builder whose statistics can be combined with those of another builder of the same type. This allows
+     * statistics to be collected in parallel (one builder per thread) and combined afterwards.
+     */
+    interface MergeableBuilder<S extends NormalizerStats> extends Builder<S> {
+        /**
+         * Merge the statistics collected by another builder into this one. The other builder is not modified.
+         *
+         * @param other the builder to merge into this one
+         */
+        MergeableBuilder<S> merge(MergeableBuilder<S> other);
+    }
 }
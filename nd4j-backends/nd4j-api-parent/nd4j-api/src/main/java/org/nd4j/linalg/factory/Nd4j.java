@@ -47,6 +47,7 @@ import org.nd4j.linalg.api.concurrency.AffinityManager;
 import org.nd4j.linalg.api.concurrency.BasicAffinityManager;
 import org.nd4j.linalg.api.instrumentation.InMemoryInstrumentation;
 import org.nd4j.linalg.api.instrumentation.Instrumentation;
+import org.nd4j.linalg.api.memory.MemoryWorkspace;
 import org.nd4j.linalg.api.memory.MemoryWorkspaceManager;
 import org.nd4j.linalg.api.ndarray.*;
 import org.nd4j.linalg.api.ops.executioner.DefaultOpExecutioner;
@@ -1366,10 +1367,8 @@ public class Nd4j {
         int length = ArrayUtil.prod(shape);
         if (type == DataBuffer.Type.INT)
             return createBuffer(new int[length]);
-        else if (type == DataBuffer.Type.HALF)
-            return createBuffer(new float[length]);
 
-        return type == DataBuffer.Type.DOUBLE ? createBuffer(new double[length]) : createBuffer(new float[length]);
+        return createBuffer(length, type, true);
     }
 
 
@@ -1377,10 +1376,10 @@ public class Nd4j {
         int length = ArrayUtil.prod(shape);
         if (type == DataBuffer.Type.INT)
             return createBufferDetached(new int[length]);
-        else if (type == DataBuffer.Type.HALF)
-            return createBufferDetached(new float[length]);
 
-        return type == DataBuffer.Type.DOUBLE ? createBufferDetached(new double[length]) : createBufferDetached(new float[length]);
+        try (MemoryWorkspace ws = getMemoryManager().scopeOutOfWorkspaces()) {
+            return createBuffer(length, type, true);
+        }
     }
 
     /**
@@ -1499,6 +1498,39 @@ public class Nd4j {
         return ret;
     }
 
+    /**
+     * Creates a buffer of the specified length and data type, regardless of global data type.
+     * Buffer is attached to current workspace, if any.
+     *
+     * @param length the length of the buffer
+     * @param type the data type of the buffer
+     * @param initialize true if buffer should be filled with zeros
+     * @return the created buffer
+     */
+    public static DataBuffer createBuffer(long length, DataBuffer.Type type, boolean initialize) {
+        MemoryWorkspace workspace = Nd4j.getMemoryManager().getCurrentWorkspace();
+        DataBuffer ret;
+        switch (type) {
+            case DOUBLE:
+                ret = workspace == null ? DATA_BUFFER_FACTORY_INSTANCE.createDouble(length, initialize) : DATA_BUFFER_FACTORY_INSTANCE.createDouble(length, initialize, workspace);
+                break;
+            case FLOAT:
+                ret = workspace == null ? DATA_BUFFER_FACTORY_INSTANCE.createFloat(length, initialize) : DATA_BUFFER_FACTORY_INSTANCE.createFloat(length, initialize, workspace);
+                break;
+            case HALF:
+                ret = workspace == null ? DATA_BUFFER_FACTORY_INSTANCE.createHalf(length, initialize) : DATA_BUFFER_FACTORY_INSTANCE.createHalf(length, initialize, workspace);
+                break;
+            case INT:
+                ret = workspace == null ? DATA_BUFFER_FACTORY_INSTANCE.createInt(length, initialize) : DATA_BUFFER_FACTORY_INSTANCE.createInt(length, initialize, workspace);
+                break;
+            default:
+                throw new IllegalArgumentException("Illegal opType " + type);
+        }
+
+        logCreationIfNecessary(ret);
+        return ret;
+    }
+
     /**
      * Create a buffer based on the data opType
      *
@@ -5117,6 +5149,32 @@ public class Nd4j {
         return ret;
     }
 
+    /**
+     * Creates an *uninitialized* ndarray with the specified shape, ordering and data type.<br>
+     * Data type of this array doesn't depend on global data type.
+     *
+     * @param shape the shape of the ndarray
+     * @param ordering the order of the ndarray
+     * @param dataType the data type of the ndarray
+     * @return the instance
+     */
+    public static INDArray createUninitialized(int[] shape, char ordering, DataBuffer.Type dataType) {
+        // compressed arrays are decompressed into global data type
+        if (dataType == dataType() || dataType == DataBuffer.Type.COMPRESSED)
+            return createUninitialized(shape, ordering);
+
+        if (shape.length == 1 && shape[0] == 0) {
+            shape = new int[] {1, 1};
+        } else if (shape.length == 1) {
+            shape = new int[] {1, shape[0]};
+        }
+
+        checkShapeValues(shape);
+
+        DataBuffer buffer = createBuffer(ArrayUtil.prodLong(shape), dataType, false);
+        return create(buffer, shape, getStrides(shape, ordering), 0, ordering);
+    }
+
     /**
      * Cretes uninitialized INDArray detached from any (if any) workspace
      *
@@ -6504,8 +6562,26 @@ public class Nd4j {
         return memoryManager;
     }
 
+    /**
+     * This method returns copy of given array, converted to specified data type.
+     * If array already has specified data type, it's returned as is.
+     *
+     * @param array
+     * @param targetType FLOAT16, FLOAT or DOUBLE
+     * @return
+     */
     public static INDArray typeConversion(INDArray array, DataBuffer.TypeEx targetType) {
-        return null;
+        switch (targetType) {
+            case FLOAT16:
+                return array.castTo(DataBuffer.Type.HALF);
+            case FLOAT:
+                return array.castTo(DataBuffer.Type.FLOAT);
+            case DOUBLE:
+                return array.castTo(DataBuffer.Type.DOUBLE);
+            default:
+                throw new UnsupportedOperationException(
+                                "Conversion to [" + targetType + "] isn't supported, use compression instead");
+        }
     }
 
     /**
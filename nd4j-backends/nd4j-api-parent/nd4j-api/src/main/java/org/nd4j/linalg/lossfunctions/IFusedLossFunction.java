@@ -0,0 +1,31 @@
+package org.nd4j.linalg.lossfunctions;
+
+import org.nd4j.linalg.activations.IActivation;
+import org.nd4j.linalg.api.ndarray.INDArray;
+
+/**
+ * Optional extension of {@link ILossFunction} for loss functions that can compute the score and the gradient
+ * together in a single pass, writing the gradient into a caller-supplied array.<br>
+ * Compared to calling {@link #computeScore(INDArray, INDArray, IActivation, INDArray, boolean)} and
+ * {@link #computeGradient(INDArray, INDArray, IActivation, INDArray)} separately, the activation function is applied
+ * only once, and (for the common activation function/loss function pairs) no temporary arrays of the same size as
+ * the output are allocated. If the gradient array is null, it is allocated via
+ * {@link org.nd4j.linalg.factory.Nd4j#createUninitialized(int[], char)}, i.e., in the current workspace if one is open.
+ */
+public interface IFusedLossFunction extends ILossFunction {
+
+    /**
+     * Compute both the score (loss function value) and gradient dL/dPreOut in one pass.
+     *
+     * @param labels       Label/expected output
+     * @param preOutput    Output of the model (neural network), before the activation function is applied
+     * @param activationFn Activation function that should be applied to preOutput
+     * @param mask         Mask array; may be null
+     * @param average      Whether the score should be averaged (divided by number of rows in labels/output) or not
+     * @param gradientOut  Array to write the gradient into. Must have the same shape as preOutput, and must not be
+     *                     the labels, preOutput or mask array. May be null, in which case a new array is allocated
+     * @return The score (loss function value). The gradient is available in gradientOut
+     */
+    double computeGradientAndScore(INDArray labels, INDArray preOutput, IActivation activationFn, INDArray mask,
+                    boolean average, INDArray gradientOut);
+}
@@ -1,6 +1,7 @@
 package org.nd4j.linalg.lossfunctions;
 
 import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.api.ops.impl.accum.Dot;
 import org.nd4j.linalg.api.ops.impl.transforms.SoftMax;
 import org.nd4j.linalg.factory.Nd4j;
 
@@ -70,4 +71,71 @@ public class LossUtil {
                             + Arrays.toString(mask.shape()) + ", output shape: " + Arrays.toString(to.shape()));
         }
     }
+
+    /**
+     * Calculate sum_ij (x_ij * y_ij * weights_j * mask_ij), as used for fused score calculation in
+     * {@link IFusedLossFunction} implementations. Neither input array is modified.<br>
+     * When there are no weights and no mask, or only one of weights or per-example (column vector) mask is present,
+     * this does not allocate any arrays larger than a single row/column of x.
+     *
+     * @param x       Input array (shape [minibatchSize, nOut])
+     * @param y       Second input array, same shape as x; may be null (in which case y_ij = 1)
+     * @param weights Weights array (row vector, length nOut); may be null
+     * @param mask    Mask array (column vector for per example masking, same shape as x for per output masking);
+     *                may be null
+     */
+    public static double weightedSum(INDArray x, INDArray y, INDArray weights, INDArray mask) {
+        if (y != null && x.ordering() != y.ordering()) {
+            //Reduce3 ops along dimensions require matching orders; fall back to the simple implementation
+            return weightedSumDup(x, y, weights, mask);
+        }
+
+        if (weights == null && mask == null) {
+            if (y == null)
+                return x.sumNumber().doubleValue();
+            return Nd4j.getExecutioner().execAndReturn(new Dot(x, y, x.length())).getFinalResult().doubleValue();
+        }
+
+        if (mask == null) {
+            //Weights only: column sums, then dot with the weights
+            INDArray colSums = y == null ? x.sum(0) : Nd4j.getExecutioner().exec(new Dot(x, y), 0);
+            return colSums.muli(weights).sumNumber().doubleValue();
+        }
+
+        if (weights == null && mask.isColumnVector()) {
+            //Per example masking only: row sums, then dot with the mask
+            INDArray rowSums = y == null ? x.sum(1) : Nd4j.getExecutioner().exec(new Dot(x, y), 1);
+            return rowSums.reshape(mask.shape()).muli(mask).sumNumber().doubleValue();
+        }
+
+        return weightedSumDup(x, y, weights, mask);
+    }
+
+    private static double weightedSumDup(INDArray x, INDArray y, INDArray weights, INDArray mask) {
+        INDArray temp = y == null ? x.dup() : x.mul(y);
+        if (weights != null)
+            temp.muliRowVector(weights);
+        if (mask != null)
+            applyMask(temp, mask);
+        return temp.sumNumber().doubleValue();
+    }
+
+    /**
+     * Validate (or allocate, if null) the gradient array passed to
+     * {@link IFusedLossFunction#computeGradientAndScore(INDArray, INDArray, org.nd4j.linalg.activations.IActivation, INDArray, boolean, INDArray)}
+     *
+     * @param preOutput   Output of the model, before the activation function is applied
+     * @param gradientOut Gradient array; may be null
+     * @return The gradient array to use
+     */
+    public static INDArray gradientArray(INDArray preOutput, INDArray gradientOut) {
+        if (gradientOut == null)
+            return Nd4j.createUninitialized(preOutput.shape(), preOutput.ordering());
+
+        if (!Arrays.equals(preOutput.shape(), gradientOut.shape())) {
+            throw new IllegalArgumentException("Gradient array shape " + Arrays.toString(gradientOut.shape())
+                            + " does not match preOutput shape " + Arrays.toString(preOutput.shape()));
+        }
+        return gradientOut;
+    }
 }
@@ -7,12 +7,13 @@ import org.nd4j.linalg.api.ops.CustomOp;
 import org.nd4j.linalg.api.ops.DynamicCustomOp;
 import org.nd4j.linalg.primitives.Pair;
 import org.nd4j.linalg.activations.IActivation;
+import org.nd4j.linalg.activations.impl.ActivationSigmoid;
 import org.nd4j.linalg.activations.impl.ActivationSoftmax;
 import org.nd4j.linalg.api.ndarray.INDArray;
 import org.nd4j.linalg.api.ops.impl.transforms.LogSoftMax;
 import org.nd4j.linalg.api.ops.impl.transforms.TimesOneMinus;
 import org.nd4j.linalg.factory.Nd4j;
-import org.nd4j.linalg.lossfunctions.ILossFunction;
+import org.nd4j.linalg.lossfunctions.IFusedLossFunction;
 import org.nd4j.linalg.lossfunctions.LossUtil;
 import org.nd4j.linalg.lossfunctions.serde.RowVectorDeserializer;
 import org.nd4j.linalg.lossfunctions.serde.RowVectorSerializer;
@@ -33,7 +34,7 @@ import org.nd4j.shade.jackson.databind.annotation.JsonSerialize;
 @EqualsAndHashCode
 @JsonInclude(JsonInclude.Include.NON_NULL)
 @Getter @Setter
-public class LossBinaryXENT implements ILossFunction {
+public class LossBinaryXENT implements IFusedLossFunction {
     public static final double DEFAULT_CLIPPING_EPSILON = 1e-5;
 
     @JsonSerialize(using = RowVectorSerializer.class)
@@ -218,10 +219,71 @@ public class LossBinaryXENT implements ILossFunction {
     @Override
     public Pair<Double, INDArray> computeGradientAndScore(INDArray labels, INDArray preOutput, IActivation activationFn,
                     INDArray mask, boolean average) {
-        //TODO: probably a more efficient way to do this...
+        INDArray grad = LossUtil.gradientArray(preOutput, null);
+        double score = computeGradientAndScore(labels, preOutput, activationFn, mask, average, grad);
+        return new Pair<>(score, grad);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <br>
+     * For sigmoid activation functions (with clipEps > 0), sigmoid and cross entropy are fused, using
+     * L = softplus(z) - y*z, where z is the preOutput clipped to the range corresponding to probabilities in
+     * [clipEps, 1-clipEps]. All calculations are done in-place in the gradient array, and the gradient is
+     * calculated directly as dL/dz = sigmoid(z) - y.
+     */
+    @Override
+    public double computeGradientAndScore(INDArray labels, INDArray preOutput, IActivation activationFn,
+                    INDArray mask, boolean average, INDArray gradientOut) {
+        INDArray grad = LossUtil.gradientArray(preOutput, gradientOut);
+        if (!(activationFn instanceof ActivationSigmoid) || clipEps <= 0.0) {
+            double score = computeScore(labels, preOutput, activationFn, mask, average);
+            grad.assign(computeGradient(labels, preOutput, activationFn, mask));
+            return score;
+        }
+
+        if (labels.size(1) != preOutput.size(1)) {
+            throw new IllegalArgumentException(
+                            "Labels array numColumns (size(1) = " + labels.size(1) + ") does not match output layer"
+                                            + " number of outputs (nOut = " + preOutput.size(1) + ") ");
+        }
+        if (weights != null && weights.length() != preOutput.size(1)) {
+            throw new IllegalStateException("Weights vector (length " + weights.length()
+                            + ") does not match output.size(1)=" + preOutput.size(1));
+        }
 
-        return new Pair<>(computeScore(labels, preOutput, activationFn, mask, average),
-                        computeGradient(labels, preOutput, activationFn, mask));
+        //Clipping probabilities to [eps, 1-eps] is equivalent to clipping z to [-log((1-eps)/eps), log((1-eps)/eps)]
+        double maxZ = Math.log((1.0 - clipEps) / clipEps);
+        grad.assign(preOutput);
+        CustomOp op = DynamicCustomOp.builder("clipbyvalue")
+                .addInputs(grad)
+                .callInplace(true)
+                .addFloatingPointArguments(-maxZ, maxZ)
+                .build();
+        Nd4j.getExecutioner().exec(op);
+
+        double yz = LossUtil.weightedSum(grad, labels, weights, mask);
+        Transforms.softPlus(grad, false);
+        double softPlus = LossUtil.weightedSum(grad, null, weights, mask);
+
+        double score = softPlus - yz;
+        if (average) {
+            score /= grad.size(0);
+        }
+
+        //softplus(z) = -log(1-sigmoid(z)), hence sigmoid(z) = 1 - exp(-softplus(z))
+        Transforms.exp(grad.negi(), false);
+        grad.rsubi(1.0).subi(labels);
+
+        if (weights != null) {
+            grad.muliRowVector(weights);
+        }
+
+        if (mask != null) {
+            LossUtil.applyMask(grad, mask);
+        }
+
+        return score;
     }
 
     /**
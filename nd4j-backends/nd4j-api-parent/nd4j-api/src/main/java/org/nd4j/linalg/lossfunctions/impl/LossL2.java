@@ -6,7 +6,7 @@ import org.nd4j.linalg.primitives.Pair;
 import org.nd4j.linalg.activations.IActivation;
 import org.nd4j.linalg.api.ndarray.INDArray;
 import org.nd4j.linalg.api.shape.Shape;
-import org.nd4j.linalg.lossfunctions.ILossFunction;
+import org.nd4j.linalg.lossfunctions.IFusedLossFunction;
 import org.nd4j.linalg.lossfunctions.LossUtil;
 import org.nd4j.linalg.lossfunctions.serde.RowVectorDeserializer;
 import org.nd4j.linalg.lossfunctions.serde.RowVectorSerializer;
@@ -26,7 +26,7 @@ import java.util.Arrays;
 @EqualsAndHashCode
 @JsonInclude(JsonInclude.Include.NON_NULL)
 @Getter
-public class LossL2 implements ILossFunction {
+public class LossL2 implements IFusedLossFunction {
 
     @JsonSerialize(using = RowVectorSerializer.class)
     @JsonDeserialize(using = RowVectorDeserializer.class)
@@ -135,10 +135,60 @@ public class LossL2 implements ILossFunction {
     @Override
     public Pair<Double, INDArray> computeGradientAndScore(INDArray labels,
                     INDArray preOutput, IActivation activationFn, INDArray mask, boolean average) {
-        //TODO: probably a more efficient way to do this...
+        INDArray grad = LossUtil.gradientArray(preOutput, null);
+        double score = computeGradientAndScore(labels, preOutput, activationFn, mask, average, grad);
+        return new Pair<>(score, grad);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <br>
+     * The activations and the difference (output - labels) are calculated in-place in the gradient array; the score
+     * is then calculated from the difference, before it is scaled to dL/da and backpropagated through the
+     * activation function.
+     */
+    @Override
+    public double computeGradientAndScore(INDArray labels, INDArray preOutput, IActivation activationFn,
+                    INDArray mask, boolean average, INDArray gradientOut) {
+        if (labels.size(1) != preOutput.size(1)) {
+            throw new IllegalArgumentException(
+                            "Labels array numColumns (size(1) = " + labels.size(1) + ") does not match output layer"
+                                            + " number of outputs (nOut = " + preOutput.size(1) + ") ");
+
+        }
+        if (weights != null && weights.length() != preOutput.size(1)) {
+            throw new IllegalStateException("Weights vector (length " + weights.length()
+                            + ") does not match output.size(1)=" + preOutput.size(1));
+        }
+
+        INDArray grad = LossUtil.gradientArray(preOutput, gradientOut);
+        grad.assign(preOutput);
+        INDArray dLda = activationFn.getActivation(grad, true).subi(labels);
+
+        double score = LossUtil.weightedSum(dLda, dLda, weights, mask);
+        if (average)
+            score /= dLda.size(0);
 
-        return new Pair<>(computeScore(labels, preOutput, activationFn, mask, average),
-                        computeGradient(labels, preOutput, activationFn, mask));
+        dLda.muli(2);
+        if (weights != null) {
+            dLda.muliRowVector(weights);
+        }
+
+        if (mask != null && LossUtil.isPerOutputMasking(dLda, mask)) {
+            //See computeGradient: some activation functions require dL/da to be masked too
+            LossUtil.applyMask(dLda, mask);
+        }
+
+        INDArray gradients = activationFn.backprop(preOutput, dLda).getFirst();
+        if (gradients != grad) {
+            grad.assign(gradients);
+        }
+
+        if (mask != null) {
+            LossUtil.applyMask(grad, mask);
+        }
+
+        return score;
     }
 
 
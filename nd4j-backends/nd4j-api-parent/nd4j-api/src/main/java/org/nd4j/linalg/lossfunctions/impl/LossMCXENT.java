@@ -12,7 +12,7 @@ import org.nd4j.linalg.api.ops.impl.transforms.LogSoftMax;
 import org.nd4j.linalg.factory.Nd4j;
 import org.nd4j.linalg.indexing.BooleanIndexing;
 import org.nd4j.linalg.indexing.conditions.Conditions;
-import org.nd4j.linalg.lossfunctions.ILossFunction;
+import org.nd4j.linalg.lossfunctions.IFusedLossFunction;
 import org.nd4j.linalg.lossfunctions.LossUtil;
 import org.nd4j.linalg.lossfunctions.serde.RowVectorDeserializer;
 import org.nd4j.linalg.lossfunctions.serde.RowVectorSerializer;
@@ -33,7 +33,7 @@ import org.nd4j.shade.jackson.databind.annotation.JsonSerialize;
 @EqualsAndHashCode
 @JsonInclude(JsonInclude.Include.NON_NULL)
 @Getter @Setter
-public class LossMCXENT implements ILossFunction {
+public class LossMCXENT implements IFusedLossFunction {
     private static final double DEFAULT_SOFTMAX_CLIPPING_EPSILON = 1e-10;
 
     @JsonSerialize(using = RowVectorSerializer.class)
@@ -182,10 +182,73 @@ public class LossMCXENT implements ILossFunction {
     @Override
     public Pair<Double, INDArray> computeGradientAndScore(INDArray labels, INDArray preOutput, IActivation activationFn,
                     INDArray mask, boolean average) {
-        //TODO: probably a more efficient way to do this...
+        INDArray grad = LossUtil.gradientArray(preOutput, null);
+        double score = computeGradientAndScore(labels, preOutput, activationFn, mask, average, grad);
+        return new Pair<>(score, grad);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <br>
+     * For softmax activation functions, softmax and cross entropy are fused: log(softmax(preOutput)) is calculated
+     * in-place in the gradient array via {@link LogSoftMax} (numerically stable), used for the score, and then
+     * exponentiated in-place to obtain the gradient. Note that when softmax clipping is enabled, the clipped
+     * probabilities are also used for the gradient; these differ from the unclipped ones by at most softmaxClipEps.
+     */
+    @Override
+    public double computeGradientAndScore(INDArray labels, INDArray preOutput, IActivation activationFn,
+                    INDArray mask, boolean average, INDArray gradientOut) {
+        INDArray grad = LossUtil.gradientArray(preOutput, gradientOut);
+        if (!(activationFn instanceof ActivationSoftmax)) {
+            double score = computeScore(labels, preOutput, activationFn, mask, average);
+            grad.assign(computeGradient(labels, preOutput, activationFn, mask));
+            return score;
+        }
+
+        if (labels.size(1) != preOutput.size(1)) {
+            throw new IllegalArgumentException(
+                            "Labels array numColumns (size(1) = " + labels.size(1) + ") does not match output layer"
+                                            + " number of outputs (nOut = " + preOutput.size(1) + ") ");
+
+        }
+        if (mask != null && LossUtil.isPerOutputMasking(grad, mask)) {
+            throw new UnsupportedOperationException("Per output masking for MCXENT + softmax: not supported");
+        }
+        if (weights != null && weights.length() != preOutput.size(1)) {
+            throw new IllegalStateException("Weights vector (length " + weights.length()
+                            + ") does not match output.size(1)=" + preOutput.size(1));
+        }
 
-        return new Pair<>(computeScore(labels, preOutput, activationFn, mask, average),
-                        computeGradient(labels, preOutput, activationFn, mask));
+        //Log probabilities, in-place in the gradient array
+        grad.assign(preOutput);
+        Nd4j.getExecutioner().execAndReturn(new LogSoftMax(grad));
+        if (softmaxClipEps > 0.0) {
+            double logMin = Math.log(softmaxClipEps);
+            double logMax = Math.log(1.0 - softmaxClipEps);
+            BooleanIndexing.replaceWhere(grad, logMin, Conditions.lessThan(logMin));
+            BooleanIndexing.replaceWhere(grad, logMax, Conditions.greaterThan(logMax));
+        }
+
+        double score = -LossUtil.weightedSum(grad, labels, weights, mask);
+        if (average) {
+            score /= grad.size(0);
+        }
+
+        //Back to probabilities: dL/dz = p - y, or p * sum_j(w_j * y_j) - w * y for the weighted case
+        Transforms.exp(grad, false);
+        if (weights != null) {
+            INDArray temp = labels.mulRowVector(weights);
+            INDArray col = temp.sum(1);
+            grad.muliColumnVector(col).subi(temp);
+        } else {
+            grad.subi(labels);
+        }
+
+        if (mask != null) {
+            LossUtil.applyMask(grad, mask);
+        }
+
+        return score;
     }
 
     /**
@@ -3,6 +3,7 @@ package org.nd4j.linalg.lossfunctions.impl;
 import lombok.EqualsAndHashCode;
 import org.nd4j.linalg.activations.IActivation;
 import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.lossfunctions.LossUtil;
 
 /**
  * Mean Squared Error loss function: L = 1/N sum_i (actual_i - predicted)^2
@@ -47,6 +48,15 @@ public class LossMSE extends LossL2 {
         return gradients.divi(labels.size(1));
     }
 
+    @Override
+    public double computeGradientAndScore(INDArray labels, INDArray preOutput, IActivation activationFn,
+                    INDArray mask, boolean average, INDArray gradientOut) {
+        INDArray grad = LossUtil.gradientArray(preOutput, gradientOut);
+        double score = super.computeGradientAndScore(labels, preOutput, activationFn, mask, average, grad);
+        grad.divi(labels.size(1));
+        return score / labels.size(1);
+    }
+
     /**
      * The name of this function
      *
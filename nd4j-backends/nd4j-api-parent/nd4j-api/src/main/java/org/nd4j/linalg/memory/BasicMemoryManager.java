@@ -4,6 +4,7 @@ import org.bytedeco.javacpp.Pointer;
 import org.nd4j.linalg.api.buffer.DataBuffer;
 import org.nd4j.linalg.api.memory.MemoryWorkspace;
 import org.nd4j.linalg.api.memory.enums.MemoryKind;
+import org.nd4j.linalg.api.memory.pool.PooledAllocator;
 import org.nd4j.linalg.api.ndarray.INDArray;
 import org.nd4j.linalg.factory.Nd4j;
 import org.nd4j.linalg.memory.abstracts.DummyWorkspace;
@@ -97,6 +98,10 @@ public abstract class BasicMemoryManager implements MemoryManager {
 
     @Override
     public void invokeGcOccasionally() {
+        // pooled buffers are recycled without forced GC
+        if (PooledAllocator.getInstance().isEnabled())
+            return;
+
         long currentTime = System.currentTimeMillis();
 
         if (averagingEnabled.get())
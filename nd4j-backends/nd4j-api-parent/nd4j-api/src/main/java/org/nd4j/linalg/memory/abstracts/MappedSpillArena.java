@@ -0,0 +1,183 @@
+package org.nd4j.linalg.memory.abstracts;
+
+import lombok.extern.slf4j.Slf4j;
+import org.bytedeco.javacpp.BytePointer;
+import org.bytedeco.javacpp.Pointer;
+import org.nd4j.linalg.api.memory.pointers.PagedPointer;
+import org.nd4j.linalg.exception.ND4JIllegalStateException;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This class is growable arena backed by memory-mapped temporary file, used by workspaces with SpillPolicy.MMAP.
+ *
+ * Arena consists of chunks mapped one after another at the end of file. Allocations are carved from chunks
+ * sequentially, and reset() makes all chunks available again, so once arena has grown to the biggest spill,
+ * file isn't extended anymore.
+ *
+ * PLEASE NOTE: This class isn't thread-safe, it's supposed to be used by single workspace
+ */
+@Slf4j
+public class MappedSpillArena implements Closeable {
+    protected static final long MIN_CHUNK_SIZE = 16 * 1024L * 1024L;
+    protected static final long MAX_CHUNK_SIZE = Integer.MAX_VALUE & ~7L;
+
+    private final File directory;
+    private File file;
+    private RandomAccessFile randomAccessFile;
+    private FileChannel channel;
+
+    private final List<Chunk> chunks = new ArrayList<>();
+    private int currentChunk = 0;
+    private long capacity = 0;
+    private long usedSize = 0;
+    private long peakSize = 0;
+
+    /**
+     * @param directory directory for temporary file, or null for default temporary directory
+     */
+    public MappedSpillArena(File directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * This method carves given number of bytes from arena, growing it if necessary
+     *
+     * @param requiredMemory number of bytes, expected to be aligned to 8 bytes
+     * @param numElements capacity of returned pointer, in elements
+     * @param initialize if true, memory will be zeroed
+     * @return
+     */
+    public PagedPointer alloc(long requiredMemory, long numElements, boolean initialize) {
+        if (requiredMemory > MAX_CHUNK_SIZE)
+            throw new ND4JIllegalStateException("Can't spill allocation of " + requiredMemory
+                            + " bytes to memory-mapped file: it's above 2GB");
+
+        while (currentChunk < chunks.size() && !chunks.get(currentChunk).fits(requiredMemory))
+            currentChunk++;
+
+        if (currentChunk == chunks.size())
+            map(Math.min(MAX_CHUNK_SIZE, Math.max(requiredMemory, Math.max(MIN_CHUNK_SIZE, capacity))));
+
+        Chunk chunk = chunks.get(currentChunk);
+        PagedPointer pointer = chunk.pointer.withOffset(chunk.offset, numElements);
+        chunk.offset += requiredMemory;
+
+        usedSize += requiredMemory;
+        peakSize = Math.max(peakSize, usedSize);
+
+        if (initialize)
+            Pointer.memset(pointer, 0, requiredMemory);
+
+        return pointer;
+    }
+
+    protected void map(long size) {
+        try {
+            if (channel == null) {
+                file = File.createTempFile("workspace", "spillMMAP", directory);
+                file.deleteOnExit();
+
+                randomAccessFile = new RandomAccessFile(file, "rw");
+                channel = randomAccessFile.getChannel();
+            }
+
+            // mapping past the end of file extends it
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, capacity, size);
+            chunks.add(new Chunk(buffer, size));
+            capacity += size;
+
+            log.debug("Spill arena [{}] grown to {} bytes", file.getAbsolutePath(), capacity);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * This method makes whole arena available for allocations again. Memory allocated before becomes invalid.
+     */
+    public void reset() {
+        for (Chunk chunk : chunks)
+            chunk.offset = 0;
+
+        currentChunk = 0;
+        usedSize = 0;
+    }
+
+    /**
+     * This method returns number of bytes mapped by this arena
+     * @return
+     */
+    public long getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * This method returns number of bytes allocated from this arena since last reset
+     * @return
+     */
+    public long getUsedSize() {
+        return usedSize;
+    }
+
+    /**
+     * This method returns highest number of bytes ever allocated from this arena between resets
+     * @return
+     */
+    public long getPeakSize() {
+        return peakSize;
+    }
+
+    /**
+     * This method releases arena and deletes its file.
+     * Mapped memory itself is released once mapped buffers are garbage collected.
+     */
+    @Override
+    public void close() {
+        chunks.clear();
+        currentChunk = 0;
+        capacity = 0;
+        usedSize = 0;
+
+        if (channel != null) {
+            try {
+                channel.close();
+                randomAccessFile.close();
+            } catch (IOException e) {
+                log.warn("Failed to close spill arena file [{}]", file.getAbsolutePath());
+            }
+
+            if (!file.delete())
+                log.debug("Spill arena file [{}] will be deleted on exit", file.getAbsolutePath());
+
+            channel = null;
+            randomAccessFile = null;
+            file = null;
+        }
+    }
+
+    protected static class Chunk {
+        // reference is kept to prevent unmapping
+        private final MappedByteBuffer buffer;
+        private final PagedPointer pointer;
+        private final long length;
+        private long offset = 0;
+
+        protected Chunk(MappedByteBuffer buffer, long length) {
+            this.buffer = buffer;
+            this.pointer = new PagedPointer(new BytePointer(buffer), length);
+            this.length = length;
+        }
+
+        protected boolean fits(long requiredMemory) {
+            return offset + requiredMemory <= length;
+        }
+    }
+}
@@ -12,6 +12,7 @@ import org.nd4j.linalg.api.ops.executioner.GridExecutioner;
 import org.nd4j.linalg.exception.ND4JIllegalStateException;
 import org.nd4j.linalg.factory.Nd4j;
 import org.nd4j.linalg.memory.MemoryManager;
+import org.nd4j.linalg.memory.stats.WorkspaceTelemetry;
 import org.nd4j.linalg.api.memory.MemoryWorkspace;
 import org.nd4j.linalg.api.memory.conf.WorkspaceConfiguration;
 import org.nd4j.linalg.api.memory.pointers.PagedPointer;
@@ -105,6 +106,12 @@ public abstract class Nd4jWorkspace implements MemoryWorkspace {
 
     protected File tempFile;
 
+    // process-wide statistics for this workspace
+    protected WorkspaceTelemetry.Entry telemetry;
+
+    // memory-mapped arena for spills, used with SpillPolicy.MMAP only
+    protected MappedSpillArena spillArena;
+
     // this memory manager implementation will be used to allocate real memory for this workspace
 
     public Nd4jWorkspace(@NonNull WorkspaceConfiguration configuration) {
@@ -118,10 +125,22 @@ public abstract class Nd4jWorkspace implements MemoryWorkspace {
         this.guid = Nd4j.getWorkspaceManager().getUUID();
         this.memoryManager = Nd4j.getMemoryManager();
         this.deviceId = Nd4j.getAffinityManager().getDeviceForCurrentThread();
+        this.telemetry = WorkspaceTelemetry.getInstance().register(workspaceId);
+
+        if (configuration.getPolicySpill() == SpillPolicy.MMAP) {
+            String directory = configuration.getSpillDirectory();
+            this.spillArena = new MappedSpillArena(directory == null ? null : new File(directory));
+        }
 
         // and actual workspace allocation
         currentSize.set(workspaceConfiguration.getInitialSize());
 
+        // shared workspaces start from the size learned by other threads, if any
+        if (isShared() && telemetry.getLearnedSize() > currentSize.get()) {
+            currentSize.set(telemetry.getLearnedSize());
+            maxCycle.set(currentSize.get());
+        }
+
         if (workspaceConfiguration.getPolicyReset() == ResetPolicy.ENDOFBUFFER_REACHED
                         && workspaceConfiguration.getPolicyAllocation() == AllocationPolicy.OVERALLOCATE) {
             if (workspaceConfiguration.getOverallocationLimit() < 1.0)
@@ -203,6 +222,14 @@ public abstract class Nd4jWorkspace implements MemoryWorkspace {
         return spilledAllocationsSize.get();
     }
 
+    /**
+     * This method returns number of bytes in memory-mapped spill file. Viable only for SpillPolicy.MMAP
+     * @return
+     */
+    public long getMappedSpillSize() {
+        return spillArena == null ? 0 : spillArena.getCapacity();
+    }
+
     /**
      * This method returns number of bytes in pinned allocations.
      * @return
@@ -273,6 +300,28 @@ public abstract class Nd4jWorkspace implements MemoryWorkspace {
                 currentSize.set(workspaceConfiguration.getMaxSize());
 
         }
+
+        // shared workspaces can't exceed total limit, the rest of allocations will be spilled
+        if (isShared())
+            currentSize.set(telemetry.resize(currentSize.get(), workspaceConfiguration.getSharedMaxSize()));
+        else
+            telemetry.updateSize(currentSize.get());
+
+        if (currentSize.get() > 0)
+            telemetry.allocated();
+    }
+
+    protected boolean isShared() {
+        return workspaceConfiguration.getPolicySharing() == SharingPolicy.SHARED
+                        && workspaceConfiguration.getPolicyLocation() == LocationPolicy.RAM;
+    }
+
+    /**
+     * This method returns process-wide statistics entry of this workspace
+     * @return
+     */
+    public WorkspaceTelemetry.Entry getTelemetry() {
+        return telemetry;
     }
 
     public PagedPointer alloc(long requiredMemory, DataBuffer.Type type, boolean initialize) {
@@ -359,9 +408,13 @@ public abstract class Nd4jWorkspace implements MemoryWorkspace {
             }
 
             // updating respective counters
-            if (!trimmer)
-                spilledAllocationsSize.addAndGet(requiredMemory);
-            else
+            if (!trimmer) {
+                // memory-mapped spills aren't external allocations, they're reset together with workspace
+                if (workspaceConfiguration.getPolicySpill() != SpillPolicy.MMAP)
+                    spilledAllocationsSize.addAndGet(requiredMemory);
+
+                telemetry.spilled(requiredMemory);
+            } else
                 pinnedAllocationsSize.addAndGet(requiredMemory);
 
             if (isDebug.get())
@@ -369,6 +422,16 @@ public abstract class Nd4jWorkspace implements MemoryWorkspace {
                                 requiredMemory, numElements);
 
             switch (workspaceConfiguration.getPolicySpill()) {
+                case MMAP:
+                    if (!trimmer) {
+                        cycleAllocations.addAndGet(requiredMemory);
+
+                        PagedPointer pointer = spillArena.alloc(requiredMemory, numElements, initialize);
+                        telemetry.updateMappedSize(spillArena.getCapacity());
+
+                        return pointer;
+                    }
+                    // pinned allocations outlive the loop, so they can't be mapped
                 case REALLOCATE:
                 case EXTERNAL:
                     cycleAllocations.addAndGet(requiredMemory);
@@ -427,6 +490,10 @@ public abstract class Nd4jWorkspace implements MemoryWorkspace {
 
         if (!isInit.get())
             if (workspaceConfiguration.getPolicyLearning() != LearningPolicy.NONE) {
+                // shared workspaces use the biggest cycle observed in any thread
+                if (isShared() && telemetry.getLearnedSize() > maxCycle.get())
+                    maxCycle.set(telemetry.getLearnedSize());
+
                 if (workspaceConfiguration.getMaxSize() > 0)
                     currentSize.set(Math.min(maxCycle.get(), workspaceConfiguration.getMaxSize()));
                 else
@@ -504,7 +571,9 @@ public abstract class Nd4jWorkspace implements MemoryWorkspace {
 
         workspace.setHostPointer(null);
         currentSize.set(0);
+        telemetry.updateSize(0);
         reset();
+        destroySpillArena();
 
         if (extended) {
             clearExternalAllocations();
@@ -514,6 +583,16 @@ public abstract class Nd4jWorkspace implements MemoryWorkspace {
         //maxCycle.set(0);
     }
 
+    /**
+     * This method releases memory-mapped spill file, if any. It'll be mapped again on the next spill
+     */
+    protected void destroySpillArena() {
+        if (spillArena != null) {
+            spillArena.close();
+            telemetry.updateMappedSize(0);
+        }
+    }
+
     /**
      * This method TEMPORARY enters this workspace, without reset applied
      *
@@ -584,6 +663,8 @@ public abstract class Nd4jWorkspace implements MemoryWorkspace {
             maxCycle.set(cycleAllocations.get());
         }
 
+        telemetry.cycleFinished(maxCycle.get());
+
         // this is for safety. We have to be sure that no ops were left non-processed
         if (Nd4j.getExecutioner() instanceof GridExecutioner)
             ((GridExecutioner) Nd4j.getExecutioner()).flushQueue();
@@ -708,6 +789,9 @@ public abstract class Nd4jWorkspace implements MemoryWorkspace {
         //log.info("Resetting at device: {}; host: {};", deviceOffset.get(), hostOffset.get());
         hostOffset.set(0);
         deviceOffset.set(0);
+
+        if (spillArena != null)
+            spillArena.reset();
     }
 
     protected abstract void resetWorkspace();
@@ -788,6 +872,8 @@ public abstract class Nd4jWorkspace implements MemoryWorkspace {
         private Queue<PointersPair> pinnedPointers;
         private List<PointersPair> externalPointers;
         private String key;
+        private WorkspaceTelemetry.Entry telemetry;
+        private MappedSpillArena spillArena;
 
         public GarbageWorkspaceReference(MemoryWorkspace referent, ReferenceQueue<? super MemoryWorkspace> queue) {
             super(referent, queue);
@@ -797,6 +883,8 @@ public abstract class Nd4jWorkspace implements MemoryWorkspace {
             this.threadId = referent.getThreadId();
             this.pinnedPointers = ((Nd4jWorkspace) referent).pinnedAllocations;
             this.externalPointers = ((Nd4jWorkspace) referent).externalAllocations;
+            this.telemetry = ((Nd4jWorkspace) referent).telemetry;
+            this.spillArena = ((Nd4jWorkspace) referent).spillArena;
 
             this.key = id + "_" + threadId;
         }
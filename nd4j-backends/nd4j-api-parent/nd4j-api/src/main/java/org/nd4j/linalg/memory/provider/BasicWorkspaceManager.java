@@ -11,6 +11,8 @@ import org.nd4j.linalg.api.memory.pointers.PointersPair;
 import org.nd4j.linalg.factory.Nd4j;
 import org.nd4j.linalg.memory.abstracts.DummyWorkspace;
 import org.nd4j.linalg.memory.abstracts.Nd4jWorkspace;
+import org.nd4j.linalg.memory.stats.WorkspaceStatistics;
+import org.nd4j.linalg.memory.stats.WorkspaceTelemetry;
 
 import java.lang.ref.ReferenceQueue;
 import java.util.ArrayList;
@@ -281,6 +283,14 @@ public abstract class BasicWorkspaceManager implements MemoryWorkspaceManager {
                                 Nd4j.getMemoryManager().release(pair.getDevicePointer(), MemoryKind.DEVICE);
                         }
 
+                        // memory-mapped spill file isn't needed anymore
+                        if (reference.getSpillArena() != null)
+                            reference.getSpillArena().close();
+
+                        // workspace memory isn't accounted in process-wide statistics anymore
+                        if (reference.getTelemetry() != null)
+                            reference.getTelemetry().release();
+
                         referenceMap.remove(reference.getKey());
                     }
                 } catch (Exception e) {
@@ -306,4 +316,22 @@ public abstract class BasicWorkspaceManager implements MemoryWorkspaceManager {
             System.out.println();
         }
     }
+
+    /**
+     * This method prints out statistics for workspaces allocated in all threads, aggregated by workspace id
+     */
+    @Override
+    public synchronized void printAllocationStatistics() {
+        Map<String, WorkspaceStatistics> map = WorkspaceTelemetry.getInstance().getStatistics();
+        log.info("Workspace statistics (all threads): ---------------------");
+        for (WorkspaceStatistics statistics : map.values()) {
+            log.info("Workspace: {}; number of instances: {}", statistics.getId(), statistics.getNumberOfWorkspaces());
+            log.info("Allocated amount: {} bytes; peak: {} bytes", statistics.getCurrentSize(),
+                            statistics.getPeakSize());
+            log.info("External (spilled) amount: {} bytes in {} allocations; memory-mapped: {} bytes",
+                            statistics.getSpilledSize(), statistics.getNumberOfSpills(), statistics.getMappedSize());
+            log.info("Cycles: {}; reallocations: {}; learned size: {} bytes", statistics.getCycles(),
+                            statistics.getReallocations(), statistics.getLearnedSize());
+        }
+    }
 }
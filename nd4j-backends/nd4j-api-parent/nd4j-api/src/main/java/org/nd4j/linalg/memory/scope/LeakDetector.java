@@ -0,0 +1,152 @@
+package org.nd4j.linalg.memory.scope;
+
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.nd4j.linalg.api.ndarray.INDArray;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * This class reports arrays that were garbage collected without being closed, along with their allocation sites.
+ *
+ * Detection is disabled by default. It's enabled via -Dorg.nd4j.leaks.sampling=N or setSamplingRate(N),
+ * and then each array is tracked with probability 1/N, so allocation site capture cost stays bounded.
+ * Leaks are reported to log on subsequent tracked allocations, or on explicit collect() call.
+ */
+@Slf4j
+public class LeakDetector {
+    public static final String SAMPLING_PROPERTY = "org.nd4j.leaks.sampling";
+
+    private static final LeakDetector INSTANCE = new LeakDetector();
+
+    private volatile int samplingRate = 0;
+
+    private final ReferenceQueue<INDArray> queue = new ReferenceQueue<>();
+    // trackers have to be strongly referenced, otherwise they'll be collected along with arrays
+    private final Set<Tracker> trackers = Collections.newSetFromMap(new ConcurrentHashMap<Tracker, Boolean>());
+
+    private final AtomicLong tracked = new AtomicLong(0);
+    private final AtomicLong leaks = new AtomicLong(0);
+
+    protected LeakDetector() {
+        String rate = System.getProperty(SAMPLING_PROPERTY);
+        if (rate != null) {
+            try {
+                samplingRate = Integer.parseInt(rate);
+            } catch (NumberFormatException e) {
+                log.warn("Can't parse {} value [{}], leak detection stays disabled", SAMPLING_PROPERTY, rate);
+            }
+        }
+    }
+
+    public static LeakDetector getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * This method sets sampling rate: 0 disables leak detection, 1 tracks every array, N tracks every Nth on average
+     *
+     * @param samplingRate
+     */
+    public void setSamplingRate(int samplingRate) {
+        this.samplingRate = samplingRate;
+    }
+
+    public int getSamplingRate() {
+        return samplingRate;
+    }
+
+    public boolean isEnabled() {
+        return samplingRate > 0;
+    }
+
+    /**
+     * This method starts tracking of given array, if it's sampled
+     *
+     * @param array
+     * @return tracker that has to be passed to closed() once array is closed, or null if array isn't tracked
+     */
+    public Tracker track(@NonNull INDArray array) {
+        int rate = samplingRate;
+        if (rate <= 0 || (rate > 1 && ThreadLocalRandom.current().nextInt(rate) != 0))
+            return null;
+
+        collect();
+
+        Tracker tracker = new Tracker(array, queue);
+        trackers.add(tracker);
+        tracked.incrementAndGet();
+        return tracker;
+    }
+
+    /**
+     * This method stops tracking, since array was closed properly
+     *
+     * @param tracker
+     */
+    public void closed(Tracker tracker) {
+        if (tracker == null)
+            return;
+
+        // cleared reference is never enqueued
+        tracker.clear();
+        trackers.remove(tracker);
+    }
+
+    /**
+     * This method reports all tracked arrays that were garbage collected without being closed since last call
+     *
+     * @return number of leaks found
+     */
+    public int collect() {
+        int found = 0;
+        Tracker tracker;
+        while ((tracker = (Tracker) queue.poll()) != null) {
+            if (!trackers.remove(tracker))
+                continue;
+
+            found++;
+            leaks.incrementAndGet();
+            log.warn("INDArray backed by buffer of {} elements was garbage collected without being closed",
+                            tracker.length, tracker.site);
+        }
+
+        return found;
+    }
+
+    /**
+     * This method returns number of arrays tracked so far
+     *
+     * @return
+     */
+    public long getNumberOfTracked() {
+        return tracked.get();
+    }
+
+    /**
+     * This method returns number of leaks reported so far
+     *
+     * @return
+     */
+    public long getNumberOfLeaks() {
+        return leaks.get();
+    }
+
+    public static class Tracker extends WeakReference<INDArray> {
+        private final Throwable site;
+        private final long length;
+
+        protected Tracker(INDArray referent, ReferenceQueue<? super INDArray> queue) {
+            super(referent, queue);
+            // shape information might be not set yet, so buffer length is used
+            this.length = referent.data() == null ? 0 : referent.data().length();
+            this.site = new Throwable("Allocation site, thread [" + Thread.currentThread().getName() + "]");
+        }
+    }
+}
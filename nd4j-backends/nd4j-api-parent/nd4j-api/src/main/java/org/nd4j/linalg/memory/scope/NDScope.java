@@ -0,0 +1,139 @@
+package org.nd4j.linalg.memory.scope;
+
+import lombok.NonNull;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.exception.ND4JIllegalStateException;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * This class provides deterministic release of off-heap memory for arrays created outside of workspaces.
+ *
+ * Every INDArray created within scope on the same thread is attached to it, and closed once scope is closed:
+ * <pre>
+ * try (NDScope scope = NDScope.open()) {
+ *     INDArray temp = Nd4j.create(1000);
+ *     INDArray result = scope.detach(temp.mul(2.0));
+ * }
+ * </pre>
+ * Arrays that should survive the scope have to be detached. Detached arrays are moved to the parent scope, if any.
+ *
+ * PLEASE NOTE: Closing an array only removes its reference to the buffer, so memory shared with views created
+ * outside of the scope is released only after these views are closed as well.
+ * PLEASE NOTE: Scopes are thread-local, and must be closed in reverse order of opening.
+ */
+public class NDScope implements AutoCloseable {
+    private static final ThreadLocal<NDScope> currentScope = new ThreadLocal<>();
+
+    // number of scopes open across all threads, used to skip thread-local lookup if there's none
+    private static final AtomicInteger openScopes = new AtomicInteger(0);
+
+    private final NDScope parent;
+    private final Thread owner;
+    private final Set<INDArray> arrays = Collections.newSetFromMap(new IdentityHashMap<INDArray, Boolean>());
+    private boolean closed = false;
+
+    protected NDScope(NDScope parent) {
+        this.parent = parent;
+        this.owner = Thread.currentThread();
+    }
+
+    /**
+     * This method opens new scope for the current thread. Previously opened scope becomes its parent.
+     *
+     * @return
+     */
+    public static NDScope open() {
+        NDScope scope = new NDScope(currentScope.get());
+        currentScope.set(scope);
+        openScopes.incrementAndGet();
+        return scope;
+    }
+
+    /**
+     * This method returns innermost scope open for the current thread, or null if there's none
+     *
+     * @return
+     */
+    public static NDScope getCurrentScope() {
+        return openScopes.get() == 0 ? null : currentScope.get();
+    }
+
+    /**
+     * This method attaches given array to the current scope, if there's any
+     *
+     * @param array
+     */
+    public static void register(INDArray array) {
+        NDScope scope = getCurrentScope();
+        if (scope != null)
+            scope.arrays.add(array);
+    }
+
+    /**
+     * This method detaches given array from this scope, so it's not closed on exit.
+     * Array is attached to parent scope instead, if there's any.
+     *
+     * @param array
+     * @return the same array
+     */
+    public <T extends INDArray> T detach(@NonNull T array) {
+        if (arrays.remove(array) && parent != null)
+            parent.arrays.add(array);
+
+        return array;
+    }
+
+    /**
+     * This method returns number of arrays attached to this scope
+     *
+     * @return
+     */
+    public int size() {
+        return arrays.size();
+    }
+
+    /**
+     * This method returns parent scope, or null if this scope is outermost
+     *
+     * @return
+     */
+    public NDScope getParent() {
+        return parent;
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * This method closes all arrays attached to this scope, and makes parent scope current again
+     */
+    @Override
+    public void close() {
+        if (closed)
+            return;
+
+        if (Thread.currentThread() != owner)
+            throw new ND4JIllegalStateException("NDScope can be closed only by the thread it was opened by");
+
+        if (currentScope.get() != this)
+            throw new ND4JIllegalStateException("NDScopes must be closed in reverse order of opening");
+
+        closed = true;
+        if (parent == null)
+            currentScope.remove();
+        else
+            currentScope.set(parent);
+
+        openScopes.decrementAndGet();
+
+        for (INDArray array : arrays)
+            array.close();
+
+        arrays.clear();
+    }
+}
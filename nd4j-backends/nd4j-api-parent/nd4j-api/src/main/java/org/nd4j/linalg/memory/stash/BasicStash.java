@@ -1,48 +1,424 @@
 package org.nd4j.linalg.memory.stash;
 
+import lombok.NonNull;
+import org.nd4j.linalg.api.buffer.DataBuffer;
+import org.nd4j.linalg.api.buffer.LongBuffer;
+import org.nd4j.linalg.api.memory.MemoryWorkspace;
 import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.compression.CompressedDataBuffer;
+import org.nd4j.linalg.exception.ND4JIllegalStateException;
+import org.nd4j.linalg.factory.Nd4j;
 
+import java.util.Deque;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
+ * Stash implementation with memory budget.
+ *
+ * Each entry is accounted by number of off-heap bytes it holds. Once StashConfiguration.maxSize is exceeded,
+ * oldest entries are compressed or spilled to host heap, depending on StashOverflowPolicy,
+ * and restored back on get() or take(). Memory of entries is released on take() and purge().
+ *
  * @author raver119@gmail.com
  */
-public abstract class BasicStash<T extends Object> implements Stash<T> {
-    protected Map<T, INDArray> stash = new ConcurrentHashMap<>();
+public class BasicStash<T extends Object> implements Stash<T> {
+    protected final StashConfiguration configuration;
 
-    protected BasicStash() {
+    protected Map<T, Entry> stash = new ConcurrentHashMap<>();
 
+    // entries in order of insertion, oldest ones are evicted first
+    protected final Deque<Entry> order = new ConcurrentLinkedDeque<>();
+    protected final Object evictionLock = new Object();
+
+    protected final AtomicLong liveBytes = new AtomicLong(0);
+    protected final AtomicLong compressedBytes = new AtomicLong(0);
+    protected final AtomicLong spilledBytes = new AtomicLong(0);
+    protected final AtomicLong peakBytes = new AtomicLong(0);
+
+    protected final AtomicLong compressions = new AtomicLong(0);
+    protected final AtomicLong spills = new AtomicLong(0);
+    protected final AtomicLong restorations = new AtomicLong(0);
+
+    /**
+     * This constructor creates stash without memory limit
+     */
+    public BasicStash() {
+        this(StashConfiguration.builder().build());
+    }
+
+    public BasicStash(@NonNull StashConfiguration configuration) {
+        this.configuration = configuration;
     }
 
     @Override
-    public boolean checkIfExists(T key) {
-        /*
-            Just checkin'
-         */
-        return false;
+    public boolean checkIfExists(@NonNull T key) {
+        return stash.containsKey(key);
     }
 
+    /**
+     * This method stores given array. Views, compressed arrays and arrays attached to workspaces are copied,
+     * other arrays are stored as is, and shouldn't be used by caller afterwards.
+     *
+     * @param key
+     * @param object
+     */
     @Override
-    public void put(T key, INDArray object) {
-        /*
-            Basically we want to get DataBuffer here, and store it here together with shape
-            Special case here is GPU: we want to synchronize HOST memory, and store only HOST memory.
-         */
+    public void put(@NonNull T key, @NonNull INDArray object) {
+        long maxSize = configuration.getMaxSize();
+        long bytes = object.length() * object.data().getElementSize();
+        if (configuration.getPolicyOverflow() == StashOverflowPolicy.FAIL && maxSize > 0
+                        && getUsedBytes() + bytes > maxSize)
+            throw new ND4JIllegalStateException("Can't stash array of " + bytes + " bytes: stash budget of " + maxSize
+                            + " bytes would be exceeded");
+
+        Entry entry = new Entry(prepare(object));
+
+        allocated(liveBytes, entry.bytes);
+        order.add(entry);
+
+        Entry previous = stash.put(key, entry);
+        if (previous != null) {
+            order.remove(previous);
+            discard(previous);
+        }
+
+        enforceBudget();
     }
 
     @Override
-    public INDArray get(T key) {
-        /*
-            We want to restore INDArray here, In case of GPU backend - we want to ensure data is replicated to device.
-         */
-        return null;
+    public INDArray get(@NonNull T key) {
+        Entry entry = stash.get(key);
+        if (entry == null)
+            return null;
+
+        try (MemoryWorkspace ws = Nd4j.getWorkspaceManager().scopeOutOfWorkspaces()) {
+            synchronized (entry) {
+                if (entry.removed)
+                    return null;
+
+                // stored array might be compressed or spilled later, so caller gets its own copy
+                return entry.array != null ? entry.array.dup() : materialize(entry);
+            }
+        }
+    }
+
+    @Override
+    public INDArray take(@NonNull T key) {
+        Entry entry = stash.remove(key);
+        if (entry == null)
+            return null;
+
+        order.remove(entry);
+
+        try (MemoryWorkspace ws = Nd4j.getWorkspaceManager().scopeOutOfWorkspaces()) {
+            synchronized (entry) {
+                INDArray array = entry.array;
+                if (array == null)
+                    array = materialize(entry);
+
+                release(entry);
+                return array;
+            }
+        }
+    }
+
+    @Override
+    public int size() {
+        return stash.size();
     }
 
     @Override
     public void purge() {
-        /*
-            We want to purge all stored stuff here.
-         */
+        for (T key : stash.keySet()) {
+            Entry entry = stash.remove(key);
+            if (entry != null) {
+                order.remove(entry);
+                discard(entry);
+            }
+        }
+    }
+
+    /**
+     * This method returns number of off-heap bytes held by this stash
+     *
+     * @return
+     */
+    public long getUsedBytes() {
+        return liveBytes.get() + compressedBytes.get();
+    }
+
+    @Override
+    public StashStatistics getStatistics() {
+        long numCompressed = 0;
+        long numSpilled = 0;
+        for (Entry entry : stash.values()) {
+            if (entry.compressed != null)
+                numCompressed++;
+            else if (entry.spilled != null)
+                numSpilled++;
+        }
+
+        return new StashStatistics(stash.size(), numCompressed, numSpilled, liveBytes.get(), compressedBytes.get(),
+                        spilledBytes.get(), peakBytes.get(), compressions.get(), spills.get(), restorations.get());
+    }
+
+    protected INDArray prepare(INDArray array) {
+        try (MemoryWorkspace ws = Nd4j.getWorkspaceManager().scopeOutOfWorkspaces()) {
+            if (array.isCompressed())
+                return Nd4j.getCompressor().decompress(array);
+
+            if (array.isView() || array.isAttached())
+                return array.dup(array.ordering());
+
+            return array;
+        }
+    }
+
+    /**
+     * This method compresses or spills oldest entries, until stash fits into its budget
+     */
+    protected void enforceBudget() {
+        long maxSize = configuration.getMaxSize();
+        StashOverflowPolicy policy = configuration.getPolicyOverflow();
+        if (maxSize <= 0 || policy == StashOverflowPolicy.FAIL || getUsedBytes() <= maxSize)
+            return;
+
+        synchronized (evictionLock) {
+            Nd4j.getExecutioner().commit();
+
+            try (MemoryWorkspace ws = Nd4j.getWorkspaceManager().scopeOutOfWorkspaces()) {
+                if (policy == StashOverflowPolicy.COMPRESS) {
+                    for (Entry entry : order) {
+                        if (getUsedBytes() <= maxSize)
+                            return;
+
+                        synchronized (entry) {
+                            if (!entry.removed && entry.array != null && !entry.incompressible)
+                                compress(entry);
+                        }
+                    }
+                }
+
+                for (Entry entry : order) {
+                    if (getUsedBytes() <= maxSize)
+                        return;
+
+                    synchronized (entry) {
+                        if (!entry.removed && entry.spilled == null)
+                            spill(entry);
+                    }
+                }
+            }
+        }
+    }
+
+    protected void compress(Entry entry) {
+        DataBuffer buffer = Nd4j.getCompressor().compress(entry.array.data(), configuration.getCompressionAlgorithm());
+        long size = buffer instanceof CompressedDataBuffer
+                        ? ((CompressedDataBuffer) buffer).getCompressionDescriptor().getCompressedLength()
+                        : entry.bytes;
+
+        // there's no point keeping entries that don't shrink, they'll be spilled instead
+        if (size >= entry.bytes) {
+            buffer.close();
+            entry.incompressible = true;
+            return;
+        }
+
+        entry.array.close();
+        entry.array = null;
+        liveBytes.addAndGet(-entry.bytes);
+
+        entry.compressed = buffer;
+        entry.compressedSize = size;
+        allocated(compressedBytes, size);
+        compressions.incrementAndGet();
+    }
+
+    protected void spill(Entry entry) {
+        DataBuffer buffer = entry.array != null ? entry.array.data()
+                        : Nd4j.getCompressor().decompress(entry.compressed);
+
+        // codec might return other type than original one, so original type is used
+        switch (entry.dataType) {
+            case DOUBLE:
+                entry.spilled = buffer.asDouble();
+                entry.spilledSize = buffer.length() * 8;
+                break;
+            case INT:
+                entry.spilled = buffer.asInt();
+                entry.spilledSize = buffer.length() * 4;
+                break;
+            case LONG:
+                entry.spilled = asLong(buffer);
+                entry.spilledSize = buffer.length() * 8;
+                break;
+            default:
+                entry.spilled = buffer.asFloat();
+                entry.spilledSize = buffer.length() * 4;
+        }
+
+        if (entry.array != null) {
+            entry.array.close();
+            entry.array = null;
+            liveBytes.addAndGet(-entry.bytes);
+        } else {
+            buffer.close();
+            entry.compressed.close();
+            entry.compressed = null;
+            compressedBytes.addAndGet(-entry.compressedSize);
+        }
+
+        spilledBytes.addAndGet(entry.spilledSize);
+        spills.incrementAndGet();
+    }
+
+    /**
+     * This method creates new array out of compressed or spilled entry, entry itself stays intact
+     *
+     * @param entry
+     * @return
+     */
+    protected INDArray materialize(Entry entry) {
+        DataBuffer buffer;
+        if (entry.compressed != null) {
+            buffer = Nd4j.getCompressor().decompress(entry.compressed);
+
+            // codec might return other type than original one, i.e. floating point for INT
+            if (buffer.dataType() != entry.dataType) {
+                DataBuffer decompressed = buffer;
+                buffer = convert(decompressed, entry.dataType);
+                decompressed.close();
+            }
+        } else if (entry.spilled instanceof double[]) {
+            buffer = Nd4j.getDataBufferFactory().createDouble((double[]) entry.spilled);
+        } else if (entry.spilled instanceof int[]) {
+            buffer = Nd4j.getDataBufferFactory().createInt((int[]) entry.spilled);
+        } else if (entry.spilled instanceof long[]) {
+            buffer = createLong((long[]) entry.spilled);
+        } else if (entry.dataType == DataBuffer.Type.HALF) {
+            buffer = Nd4j.getDataBufferFactory().createHalf((float[]) entry.spilled);
+        } else {
+            buffer = Nd4j.getDataBufferFactory().createFloat((float[]) entry.spilled);
+        }
+
+        restorations.incrementAndGet();
+        return Nd4j.create(buffer, entry.shape, entry.stride, 0, entry.ordering);
+    }
+
+    /**
+     * This method copies given buffer into new buffer of given type
+     *
+     * @param buffer
+     * @param type
+     * @return
+     */
+    protected static DataBuffer convert(DataBuffer buffer, DataBuffer.Type type) {
+        switch (type) {
+            case DOUBLE:
+                return Nd4j.getDataBufferFactory().createDouble(buffer.asDouble());
+            case INT:
+                return Nd4j.getDataBufferFactory().createInt(buffer.asInt());
+            case LONG:
+                return createLong(asLong(buffer));
+            case HALF:
+                return Nd4j.getDataBufferFactory().createHalf(buffer.asFloat());
+            default:
+                return Nd4j.getDataBufferFactory().createFloat(buffer.asFloat());
+        }
+    }
+
+    protected static long[] asLong(DataBuffer buffer) {
+        long[] result = new long[(int) buffer.length()];
+        for (int e = 0; e < result.length; e++)
+            result[e] = buffer.getLong(e);
+
+        return result;
+    }
+
+    protected static DataBuffer createLong(long[] data) {
+        LongBuffer buffer = new LongBuffer(data.length, false);
+        for (int e = 0; e < data.length; e++)
+            buffer.putByCurrentType(e, data[e], DataBuffer.Type.LONG);
+
+        return buffer;
+    }
+
+    /**
+     * This method removes entry from accounting, stored array is left intact
+     *
+     * @param entry
+     */
+    protected void release(Entry entry) {
+        entry.removed = true;
+
+        if (entry.array != null) {
+            entry.array = null;
+            liveBytes.addAndGet(-entry.bytes);
+        } else if (entry.compressed != null) {
+            entry.compressed.close();
+            entry.compressed = null;
+            compressedBytes.addAndGet(-entry.compressedSize);
+        } else if (entry.spilled != null) {
+            entry.spilled = null;
+            spilledBytes.addAndGet(-entry.spilledSize);
+        }
+    }
+
+    /**
+     * This method removes entry from accounting, and releases stored array
+     *
+     * @param entry
+     */
+    protected void discard(Entry entry) {
+        synchronized (entry) {
+            if (entry.removed)
+                return;
+
+            INDArray array = entry.array;
+            release(entry);
+
+            if (array != null)
+                array.close();
+        }
+    }
+
+    protected void allocated(AtomicLong counter, long bytes) {
+        counter.addAndGet(bytes);
+
+        long used = getUsedBytes();
+        long peak = peakBytes.get();
+        while (used > peak && !peakBytes.compareAndSet(peak, used))
+            peak = peakBytes.get();
+    }
+
+    protected static class Entry {
+        protected final int[] shape;
+        protected final int[] stride;
+        protected final char ordering;
+        protected final DataBuffer.Type dataType;
+        protected final long bytes;
+
+        // exactly one of these three holds entry contents
+        protected INDArray array;
+        protected DataBuffer compressed;
+        protected Object spilled;
+
+        protected long compressedSize;
+        protected long spilledSize;
+        protected boolean incompressible = false;
+        protected boolean removed = false;
+
+        protected Entry(INDArray array) {
+            this.array = array;
+            this.shape = array.shape();
+            this.stride = array.stride();
+            this.ordering = array.ordering();
+            this.dataType = array.data().dataType();
+            this.bytes = array.data().length() * array.data().getElementSize();
+        }
     }
 }
@@ -1,22 +1,61 @@
 package org.nd4j.linalg.memory.stash;
 
+import lombok.NonNull;
+
+import java.util.concurrent.ConcurrentHashMap;
+
 /**
  * @author raver119@gmail.com
  */
 public class BasicStashManager implements StashManager {
+    protected final ConcurrentHashMap<Object, Stash<?>> stashes = new ConcurrentHashMap<>();
+    protected final StashConfiguration defaultConfiguration;
+
+    public BasicStashManager() {
+        this(StashConfiguration.builder().build());
+    }
+
+    /**
+     * @param defaultConfiguration configuration used for stashes created without explicit one
+     */
+    public BasicStashManager(@NonNull StashConfiguration defaultConfiguration) {
+        this.defaultConfiguration = defaultConfiguration;
+    }
 
     @Override
-    public <T> boolean checkIfStashExists(T stashId) {
-        return false;
+    public <T> boolean checkIfStashExists(@NonNull T stashId) {
+        return stashes.containsKey(stashId);
     }
 
     @Override
-    public <T> Stash<T> getStash(T stashId) {
-        return null;
+    @SuppressWarnings("unchecked")
+    public <T> Stash<T> getStash(@NonNull T stashId) {
+        return (Stash<T>) stashes.get(stashId);
     }
 
     @Override
     public <T> Stash<T> createStashIfNotExists(T stashId) {
-        return null;
+        return createStashIfNotExists(stashId, defaultConfiguration);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> Stash<T> createStashIfNotExists(@NonNull T stashId, @NonNull StashConfiguration configuration) {
+        Stash<?> stash = stashes.get(stashId);
+        if (stash == null) {
+            Stash<T> created = new BasicStash<>(configuration);
+            stash = stashes.putIfAbsent(stashId, created);
+            if (stash == null)
+                stash = created;
+        }
+
+        return (Stash<T>) stash;
+    }
+
+    @Override
+    public <T> void destroyStash(@NonNull T stashId) {
+        Stash<?> stash = stashes.remove(stashId);
+        if (stash != null)
+            stash.purge();
     }
 }
@@ -5,6 +5,8 @@ import org.nd4j.linalg.api.ndarray.INDArray;
 /**
  * This interface describe short-living storage, with pre-defined life time.
  *
+ * Stash takes ownership of arrays passed to put(): they might be compressed or spilled, and released afterwards.
+ *
  * @author raver119@gmail.com
  */
 public interface Stash<T extends Object> {
@@ -13,7 +15,31 @@ public interface Stash<T extends Object> {
 
     void put(T key, INDArray object);
 
+    /**
+     * This method returns copy of stored array, entry stays in stash
+     *
+     * @param key
+     * @return
+     */
     INDArray get(T key);
 
+    /**
+     * This method removes entry from stash, and returns stored array, which belongs to caller from now on.
+     * Memory held by stash for this entry is released.
+     *
+     * @param key
+     * @return stored array, or null if there's no such entry
+     */
+    INDArray take(T key);
+
+    /**
+     * This method returns number of entries in stash
+     *
+     * @return
+     */
+    int size();
+
+    StashStatistics getStatistics();
+
     void purge();
 }
@@ -0,0 +1,29 @@
+package org.nd4j.linalg.memory.stash;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * This class is configuration bean for Stash
+ */
+@Builder
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StashConfiguration implements Serializable {
+    @Builder.Default protected StashOverflowPolicy policyOverflow = StashOverflowPolicy.COMPRESS;
+
+    /**
+     * This variable specifies maximal number of off-heap bytes held by stash. 0 means unlimited
+     */
+    @Builder.Default protected long maxSize = 0;
+
+    /**
+     * Lossless compression algorithm used with StashOverflowPolicy.COMPRESS
+     */
+    @Builder.Default protected String compressionAlgorithm = "DEFLATE";
+}
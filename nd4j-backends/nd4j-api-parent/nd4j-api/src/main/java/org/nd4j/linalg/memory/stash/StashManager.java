@@ -12,4 +12,13 @@ public interface StashManager {
     <T extends Object> Stash<T> getStash(T stashId);
 
     <T extends Object> Stash<T> createStashIfNotExists(T stashId);
+
+    <T extends Object> Stash<T> createStashIfNotExists(T stashId, StashConfiguration configuration);
+
+    /**
+     * This method purges and removes Stash with given id, if it exists
+     *
+     * @param stashId
+     */
+    <T extends Object> void destroyStash(T stashId);
 }
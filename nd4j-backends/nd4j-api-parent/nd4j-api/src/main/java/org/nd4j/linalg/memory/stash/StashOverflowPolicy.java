@@ -0,0 +1,22 @@
+package org.nd4j.linalg.memory.stash;
+
+/**
+ * This enum describes what Stash does once its memory budget is exceeded
+ */
+public enum StashOverflowPolicy {
+    /**
+     * This policy means - exception will be thrown on put() that doesn't fit into budget
+     */
+    FAIL,
+
+    /**
+     * This policy means - oldest entries are compressed with lossless compression.
+     * If that's not enough, they are spilled to host heap.
+     */
+    COMPRESS,
+
+    /**
+     * This policy means - oldest entries are spilled to host heap, releasing their off-heap memory.
+     */
+    SPILL,
+}
@@ -0,0 +1,52 @@
+package org.nd4j.linalg.memory.stash;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * This class is snapshot of Stash contents and counters
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StashStatistics implements Serializable {
+    private long numberOfEntries;
+    private long numberOfCompressedEntries;
+    private long numberOfSpilledEntries;
+
+    /**
+     * Off-heap bytes held by uncompressed entries
+     */
+    private long liveBytes;
+
+    /**
+     * Off-heap bytes held by compressed entries
+     */
+    private long compressedBytes;
+
+    /**
+     * Heap bytes held by spilled entries
+     */
+    private long spilledBytes;
+
+    /**
+     * Highest number of off-heap bytes ever held by stash
+     */
+    private long peakBytes;
+
+    private long numberOfCompressions;
+    private long numberOfSpills;
+    private long numberOfRestorations;
+
+    /**
+     * This method returns number of off-heap bytes held by stash, this is the value limited by maxSize
+     *
+     * @return
+     */
+    public long getUsedBytes() {
+        return liveBytes + compressedBytes;
+    }
+}
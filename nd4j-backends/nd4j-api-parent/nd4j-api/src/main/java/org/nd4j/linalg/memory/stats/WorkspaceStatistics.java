@@ -0,0 +1,66 @@
+package org.nd4j.linalg.memory.stats;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * This class is process-wide snapshot of statistics for all workspaces sharing the same id, aggregated across threads
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WorkspaceStatistics implements Serializable {
+    /**
+     * Workspace id
+     */
+    private String id;
+
+    /**
+     * Number of workspaces with this id, that weren't destroyed yet
+     */
+    private long numberOfWorkspaces;
+
+    /**
+     * Total amount of memory allocated by workspaces with this id, in bytes
+     */
+    private long currentSize;
+
+    /**
+     * Highest value of currentSize ever observed, in bytes
+     */
+    private long peakSize;
+
+    /**
+     * Total amount of memory spilled out of workspaces with this id, in bytes
+     */
+    private long spilledSize;
+
+    /**
+     * Number of spilled allocations
+     */
+    private long numberOfSpills;
+
+    /**
+     * Total size of memory-mapped spill files of workspaces with this id, in bytes
+     */
+    private long mappedSize;
+
+    /**
+     * Number of times workspaces with this id were reallocated after initial allocation
+     */
+    private long reallocations;
+
+    /**
+     * Total number of cycles of workspaces with this id
+     */
+    private long cycles;
+
+    /**
+     * Biggest cycle observed across all threads, in bytes.
+     * Used as initial size for workspaces with SharingPolicy.SHARED
+     */
+    private long learnedSize;
+}
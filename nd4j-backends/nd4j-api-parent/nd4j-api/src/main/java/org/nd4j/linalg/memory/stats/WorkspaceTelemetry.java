@@ -0,0 +1,223 @@
+package org.nd4j.linalg.memory.stats;
+
+import lombok.NonNull;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * This class holds process-wide statistics for workspaces, grouped by workspace id and aggregated across threads.
+ *
+ * Each workspace reports into its own {@link Entry}, so there's no contention between workspaces,
+ * besides a few atomic counters shared by the group. Groups also hold size learned jointly by all threads,
+ * which is used by workspaces with SharingPolicy.SHARED
+ */
+public class WorkspaceTelemetry {
+    private static final WorkspaceTelemetry INSTANCE = new WorkspaceTelemetry();
+
+    private final ConcurrentHashMap<String, Group> groups = new ConcurrentHashMap<>();
+
+    protected WorkspaceTelemetry() {
+        //
+    }
+
+    public static WorkspaceTelemetry getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * This method registers new workspace with a given id
+     *
+     * @param id
+     * @return entry workspace should report into
+     */
+    public Entry register(@NonNull String id) {
+        Group group = getGroup(id);
+        group.workspaces.incrementAndGet();
+        return new Entry(group);
+    }
+
+    /**
+     * This method returns size of the biggest cycle observed for a given workspace id across all threads, 0 if none
+     *
+     * @param id
+     * @return
+     */
+    public long getLearnedSize(@NonNull String id) {
+        Group group = groups.get(id);
+        return group == null ? 0 : group.learnedSize.get();
+    }
+
+    /**
+     * This method returns statistics for a given workspace id, or null if workspace with such id was never created
+     *
+     * @param id
+     * @return
+     */
+    public WorkspaceStatistics getStatistics(@NonNull String id) {
+        Group group = groups.get(id);
+        return group == null ? null : group.snapshot(id);
+    }
+
+    /**
+     * This method returns statistics for all workspace ids, sorted by id
+     *
+     * @return
+     */
+    public Map<String, WorkspaceStatistics> getStatistics() {
+        Map<String, WorkspaceStatistics> result = new TreeMap<>();
+        for (Map.Entry<String, Group> entry : groups.entrySet())
+            result.put(entry.getKey(), entry.getValue().snapshot(entry.getKey()));
+
+        return result;
+    }
+
+    protected Group getGroup(String id) {
+        Group group = groups.get(id);
+        if (group == null) {
+            Group created = new Group();
+            group = groups.putIfAbsent(id, created);
+            if (group == null)
+                group = created;
+        }
+        return group;
+    }
+
+    protected static void updateMax(AtomicLong target, long value) {
+        long current;
+        while ((current = target.get()) < value) {
+            if (target.compareAndSet(current, value))
+                return;
+        }
+    }
+
+    protected static class Group {
+        private final AtomicLong workspaces = new AtomicLong(0);
+        private final AtomicLong currentSize = new AtomicLong(0);
+        private final AtomicLong peakSize = new AtomicLong(0);
+        private final AtomicLong spilledSize = new AtomicLong(0);
+        private final AtomicLong spills = new AtomicLong(0);
+        private final AtomicLong mappedSize = new AtomicLong(0);
+        private final AtomicLong reallocations = new AtomicLong(0);
+        private final AtomicLong cycles = new AtomicLong(0);
+        private final AtomicLong learnedSize = new AtomicLong(0);
+
+        protected WorkspaceStatistics snapshot(String id) {
+            return new WorkspaceStatistics(id, workspaces.get(), currentSize.get(), peakSize.get(),
+                            spilledSize.get(), spills.get(), mappedSize.get(), reallocations.get(), cycles.get(),
+                            learnedSize.get());
+        }
+    }
+
+    /**
+     * Statistics of single workspace. Methods of this class are supposed to be called from the thread owning
+     * the workspace, except release(), which might be called once workspace was garbage collected
+     */
+    public static class Entry {
+        private final Group group;
+        private final AtomicLong size = new AtomicLong(0);
+        private final AtomicLong mappedSize = new AtomicLong(0);
+        private final AtomicBoolean released = new AtomicBoolean(false);
+        private boolean allocated = false;
+
+        protected Entry(Group group) {
+            this.group = group;
+        }
+
+        /**
+         * This method updates size of this workspace, so it's taken into account in total size of the group
+         *
+         * @param newSize
+         */
+        public void updateSize(long newSize) {
+            resize(newSize, 0);
+        }
+
+        /**
+         * This method tries to resize this workspace, keeping total size of the group within limit.
+         *
+         * @param requested requested size in bytes
+         * @param limit total size limit for the group, 0 means no limit
+         * @return size granted to this workspace
+         */
+        public long resize(long requested, long limit) {
+            if (released.get())
+                return requested;
+
+            while (true) {
+                long total = group.currentSize.get();
+                long others = total - size.get();
+                long granted = limit > 0 ? Math.max(0, Math.min(requested, limit - others)) : requested;
+
+                if (group.currentSize.compareAndSet(total, others + granted)) {
+                    size.set(granted);
+                    updateMax(group.peakSize, others + granted);
+                    return granted;
+                }
+            }
+        }
+
+        /**
+         * This method should be called whenever workspace allocates its memory
+         */
+        public void allocated() {
+            if (allocated)
+                group.reallocations.incrementAndGet();
+
+            allocated = true;
+        }
+
+        /**
+         * This method should be called for each spilled allocation
+         *
+         * @param bytes
+         */
+        public void spilled(long bytes) {
+            group.spilledSize.addAndGet(bytes);
+            group.spills.incrementAndGet();
+        }
+
+        /**
+         * This method updates size of memory-mapped spill file of this workspace
+         *
+         * @param newSize
+         */
+        public void updateMappedSize(long newSize) {
+            if (!released.get())
+                group.mappedSize.addAndGet(newSize - mappedSize.getAndSet(newSize));
+        }
+
+        /**
+         * This method should be called at the end of each cycle
+         *
+         * @param maxCycle biggest cycle of this workspace, in bytes
+         */
+        public void cycleFinished(long maxCycle) {
+            group.cycles.incrementAndGet();
+            updateMax(group.learnedSize, maxCycle);
+        }
+
+        /**
+         * This method returns size of the biggest cycle observed across all workspaces of this group
+         *
+         * @return
+         */
+        public long getLearnedSize() {
+            return group.learnedSize.get();
+        }
+
+        /**
+         * This method removes this workspace from the group. Subsequent calls are ignored
+         */
+        public void release() {
+            if (released.compareAndSet(false, true)) {
+                group.currentSize.addAndGet(-size.getAndSet(0));
+                group.mappedSize.addAndGet(-mappedSize.getAndSet(0));
+                group.workspaces.decrementAndGet();
+            }
+        }
+    }
+}
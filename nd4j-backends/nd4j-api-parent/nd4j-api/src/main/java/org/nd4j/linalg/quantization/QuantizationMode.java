@@ -0,0 +1,16 @@
+package org.nd4j.linalg.quantization;
+
+/**
+ * Granularity of scale and zero point of QuantizedMatrix
+ */
+public enum QuantizationMode {
+    /**
+     * Each row has its own scale and zero point. Used for left operand of QuantizedGemm.
+     */
+    PER_ROW,
+
+    /**
+     * Each column has its own scale and zero point. Used for right operand of QuantizedGemm.
+     */
+    PER_COLUMN,
+}
@@ -0,0 +1,204 @@
+package org.nd4j.linalg.quantization;
+
+import lombok.NonNull;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.executors.ExecutorServiceProvider;
+import org.nd4j.linalg.factory.Nd4j;
+
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Multithreaded int8 x int8 GEMM for QuantizedMatrix operands.
+ *
+ * Products are accumulated in int32 and rescaled to float once per output element, with zero points
+ * applied through row and column sums: C[i][j] = scaleA[i] * scaleB[j] * (sum(a * b) - zeroB[j] * sum(a)
+ * - zeroA[i] * sum(b) + K * zeroA[i] * zeroB[j]). That's exact for per-row quantized A and per-column
+ * quantized B, so these are the only layouts accepted.
+ *
+ * Right operand is packed column-wise once, so inner loop reads both operands sequentially,
+ * and each output row is computed for 4 columns at a time.
+ */
+public class QuantizedGemm {
+    // number of rows of A processed by single task
+    private static final int ROWS_PER_TASK = 16;
+    // number of packed columns of B processed together, so they stay in cache while rows of A pass through
+    private static final int COLUMN_BLOCK = 128;
+    // int32 accumulator can't overflow within this many products of int8 values
+    private static final int K_CHUNK = 65536;
+
+    private QuantizedGemm() {}
+
+    /**
+     * This method multiplies per-row quantized A by per-column quantized B
+     *
+     * @param a matrix of shape [M, K], quantized with QuantizationMode.PER_ROW
+     * @param b matrix of shape [K, N], quantized with QuantizationMode.PER_COLUMN
+     * @return matrix of shape [M, N] and global data type, in 'c' order
+     */
+    public static INDArray gemm(@NonNull QuantizedMatrix a, @NonNull QuantizedMatrix b) {
+        if (a.getMode() != QuantizationMode.PER_ROW)
+            throw new IllegalArgumentException("Left operand should be quantized PER_ROW, got " + a.getMode());
+
+        if (b.getMode() != QuantizationMode.PER_COLUMN)
+            throw new IllegalArgumentException("Right operand should be quantized PER_COLUMN, got " + b.getMode());
+
+        if (a.getColumns() != b.getRows())
+            throw new IllegalArgumentException("Inner dimensions don't match: [" + a.getRows() + ", " + a.getColumns()
+                            + "] x [" + b.getRows() + ", " + b.getColumns() + "]");
+
+        GemmContext context = new GemmContext(a, b);
+        GemmTask task = new GemmTask(context, 0, a.getRows());
+        if (a.getRows() <= ROWS_PER_TASK)
+            task.compute();
+        else
+            ExecutorServiceProvider.getForkJoinPool().invoke(task);
+
+        return Nd4j.create(context.result, new int[] {a.getRows(), b.getColumns()}, 'c');
+    }
+
+    /**
+     * Operands and precomputed sums, shared between tasks
+     */
+    private static class GemmContext {
+        private final int m;
+        private final int n;
+        private final int k;
+
+        private final byte[] a;
+        // B transposed, so each column is contiguous
+        private final byte[] packedB;
+
+        private final float[] scalesA;
+        private final float[] scalesB;
+        private final int[] zeroPointsA;
+        private final int[] zeroPointsB;
+        private final long[] rowSumsA;
+        private final long[] columnSumsB;
+
+        private final float[] result;
+
+        private GemmContext(QuantizedMatrix a, QuantizedMatrix b) {
+            this.m = a.getRows();
+            this.n = b.getColumns();
+            this.k = a.getColumns();
+            this.a = a.getValues();
+            this.scalesA = a.getScales();
+            this.scalesB = b.getScales();
+            this.zeroPointsA = a.getZeroPoints();
+            this.zeroPointsB = b.getZeroPoints();
+
+            rowSumsA = new long[m];
+            for (int i = 0; i < m; i++) {
+                long sum = 0;
+                for (int p = 0; p < k; p++)
+                    sum += this.a[i * k + p];
+                rowSumsA[i] = sum;
+            }
+
+            byte[] valuesB = b.getValues();
+            packedB = new byte[n * k];
+            columnSumsB = new long[n];
+            for (int p = 0; p < k; p++) {
+                for (int j = 0; j < n; j++) {
+                    byte value = valuesB[p * n + j];
+                    packedB[j * k + p] = value;
+                    columnSumsB[j] += value;
+                }
+            }
+
+            result = new float[m * n];
+        }
+
+        private void store(int i, int j, long dot) {
+            long zA = zeroPointsA[i];
+            long zB = zeroPointsB[j];
+            long acc = dot - zB * rowSumsA[i] - zA * columnSumsB[j] + k * zA * zB;
+            result[i * n + j] = (float) ((double) scalesA[i] * scalesB[j] * acc);
+        }
+    }
+
+    private static class GemmTask extends RecursiveAction {
+        private final GemmContext context;
+        private final int rowStart;
+        private final int rowEnd;
+
+        private GemmTask(GemmContext context, int rowStart, int rowEnd) {
+            this.context = context;
+            this.rowStart = rowStart;
+            this.rowEnd = rowEnd;
+        }
+
+        @Override
+        protected void compute() {
+            if (rowEnd - rowStart > ROWS_PER_TASK) {
+                int middle = (rowStart + rowEnd) >>> 1;
+                invokeAll(new GemmTask(context, rowStart, middle), new GemmTask(context, middle, rowEnd));
+                return;
+            }
+
+            int n = context.n;
+            for (int jStart = 0; jStart < n; jStart += COLUMN_BLOCK) {
+                int jEnd = Math.min(n, jStart + COLUMN_BLOCK);
+                for (int i = rowStart; i < rowEnd; i++)
+                    computeRow(i, jStart, jEnd);
+            }
+        }
+
+        private void computeRow(int i, int jStart, int jEnd) {
+            byte[] a = context.a;
+            byte[] b = context.packedB;
+            int k = context.k;
+            int aOffset = i * k;
+
+            int j = jStart;
+            for (; j + 4 <= jEnd; j += 4) {
+                int b0 = j * k;
+                int b1 = b0 + k;
+                int b2 = b1 + k;
+                int b3 = b2 + k;
+
+                long dot0 = 0;
+                long dot1 = 0;
+                long dot2 = 0;
+                long dot3 = 0;
+                for (int pStart = 0; pStart < k; pStart += K_CHUNK) {
+                    int pEnd = Math.min(k, pStart + K_CHUNK);
+                    int acc0 = 0;
+                    int acc1 = 0;
+                    int acc2 = 0;
+                    int acc3 = 0;
+                    for (int p = pStart; p < pEnd; p++) {
+                        int value = a[aOffset + p];
+                        acc0 += value * b[b0 + p];
+                        acc1 += value * b[b1 + p];
+                        acc2 += value * b[b2 + p];
+                        acc3 += value * b[b3 + p];
+                    }
+                    dot0 += acc0;
+                    dot1 += acc1;
+                    dot2 += acc2;
+                    dot3 += acc3;
+                }
+
+                context.store(i, j, dot0);
+                context.store(i, j + 1, dot1);
+                context.store(i, j + 2, dot2);
+                context.store(i, j + 3, dot3);
+            }
+
+            for (; j < jEnd; j++) {
+                int bOffset = j * k;
+                long dot = 0;
+                for (int pStart = 0; pStart < k; pStart += K_CHUNK) {
+                    int pEnd = Math.min(k, pStart + K_CHUNK);
+                    int acc = 0;
+                    for (int p = pStart; p < pEnd; p++)
+                        acc += a[aOffset + p] * b[bOffset + p];
+                    dot += acc;
+                }
+
+                context.store(i, j, dot);
+            }
+        }
+    }
+}
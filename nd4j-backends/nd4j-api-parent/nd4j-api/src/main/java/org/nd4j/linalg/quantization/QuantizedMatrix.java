@@ -0,0 +1,270 @@
+package org.nd4j.linalg.quantization;
+
+import lombok.Getter;
+import lombok.NonNull;
+import org.bytedeco.javacpp.BytePointer;
+import org.nd4j.linalg.api.buffer.DataBuffer;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.compression.CompressedDataBuffer;
+import org.nd4j.linalg.compression.CompressionDescriptor;
+import org.nd4j.linalg.compression.CompressionType;
+import org.nd4j.linalg.factory.Nd4j;
+
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Matrix of int8 values with per-row or per-column scale and zero point, so original value is
+ * approximated as scale * (value - zeroPoint).
+ *
+ * Values are stored in row-major order on heap, taking 1 byte per element instead of 4 or 8.
+ * Zero is always exactly representable, so zero padding and sparse weights survive quantization.
+ *
+ * There's no int8 DataBuffer type, and ops can't read compressed buffers, so QuantizedGemm works on these
+ * values directly. To store, serialize or pass a quantized matrix around as INDArray, use toCompressed(),
+ * which returns array compressed in SCALED_INT8_ROW format, and fromCompressed() to get it back.
+ */
+@Getter
+public class QuantizedMatrix implements Serializable {
+    private static final int MIN_VALUE = Byte.MIN_VALUE;
+    private static final int MAX_VALUE = Byte.MAX_VALUE;
+
+    // SCALED_INT8_ROW layout: number of groups, group length (ints), offsets and scales of groups, values
+    private static final String COMPRESSION_ALGORITHM = "SCALED_INT8_ROW";
+    private static final int HEADER_LENGTH = 8;
+
+    private final int rows;
+    private final int columns;
+    private final QuantizationMode mode;
+
+    private final byte[] values;
+    private final float[] scales;
+    private final int[] zeroPoints;
+
+    public QuantizedMatrix(int rows, int columns, @NonNull QuantizationMode mode, @NonNull byte[] values,
+                    @NonNull float[] scales, @NonNull int[] zeroPoints) {
+        int groups = mode == QuantizationMode.PER_ROW ? rows : columns;
+        if (values.length != rows * columns)
+            throw new IllegalArgumentException("Number of values [" + values.length + "] doesn't match shape ["
+                            + rows + ", " + columns + "]");
+
+        if (scales.length != groups || zeroPoints.length != groups)
+            throw new IllegalArgumentException("Expected " + groups + " scales and zero points for " + mode
+                            + " quantization, got [" + scales.length + "] and [" + zeroPoints.length + "]");
+
+        this.rows = rows;
+        this.columns = columns;
+        this.mode = mode;
+        this.values = values;
+        this.scales = scales;
+        this.zeroPoints = zeroPoints;
+    }
+
+    /**
+     * This method quantizes given matrix, using asymmetric min/max range of each row or column
+     *
+     * @param matrix
+     * @param mode
+     * @return
+     */
+    public static QuantizedMatrix quantize(@NonNull INDArray matrix, @NonNull QuantizationMode mode) {
+        if (!matrix.isMatrix())
+            throw new IllegalArgumentException("Only matrices can be quantized, got array of rank " + matrix.rank());
+
+        int rows = matrix.rows();
+        int columns = matrix.columns();
+        boolean perRow = mode == QuantizationMode.PER_ROW;
+        int groups = perRow ? rows : columns;
+
+        // values are read sequentially, so views and 'f' ordered matrices are copied first
+        INDArray source = matrix;
+        if (matrix.isView() || matrix.ordering() != 'c' || matrix.data().length() != matrix.length())
+            source = matrix.dup('c');
+        float[] data = source.data().asFloat();
+
+        // range always includes zero, so it's mapped to exact integer
+        float[] min = new float[groups];
+        float[] max = new float[groups];
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < columns; c++) {
+                int g = perRow ? r : c;
+                float value = data[r * columns + c];
+                if (value < min[g])
+                    min[g] = value;
+                else if (value > max[g])
+                    max[g] = value;
+            }
+        }
+
+        float[] scales = new float[groups];
+        int[] zeroPoints = new int[groups];
+        for (int g = 0; g < groups; g++) {
+            float scale = (max[g] - min[g]) / (MAX_VALUE - MIN_VALUE);
+            scales[g] = scale > 0.0f ? scale : 1.0f;
+            zeroPoints[g] = clamp(MIN_VALUE - Math.round(min[g] / scales[g]));
+        }
+
+        byte[] values = new byte[data.length];
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < columns; c++) {
+                int g = perRow ? r : c;
+                int idx = r * columns + c;
+                values[idx] = (byte) clamp(Math.round(data[idx] / scales[g]) + zeroPoints[g]);
+            }
+        }
+
+        return new QuantizedMatrix(rows, columns, mode, values, scales, zeroPoints);
+    }
+
+    /**
+     * This method restores float matrix out of quantized values
+     *
+     * @return matrix of global data type, in 'c' order
+     */
+    public INDArray dequantize() {
+        boolean perRow = mode == QuantizationMode.PER_ROW;
+        float[] data = new float[values.length];
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < columns; c++) {
+                int g = perRow ? r : c;
+                int idx = r * columns + c;
+                data[idx] = scales[g] * (values[idx] - zeroPoints[g]);
+            }
+        }
+
+        return Nd4j.create(data, new int[] {rows, columns}, 'c');
+    }
+
+    /**
+     * This method returns compressed INDArray of SCALED_INT8_ROW format, holding the same values, so it can be
+     * stored, serialized or decompressed as any other compressed array. Only PER_ROW matrices can be compressed,
+     * transpose() PER_COLUMN ones first
+     *
+     * @return compressed array of shape [rows, columns], in 'c' order
+     */
+    public INDArray toCompressed() {
+        if (mode != QuantizationMode.PER_ROW)
+            throw new IllegalStateException("Only PER_ROW matrices can be compressed, got " + mode);
+
+        long compressedLength = HEADER_LENGTH + 8L * rows + values.length;
+        BytePointer pointer = new BytePointer(compressedLength);
+        ByteBuffer target = pointer.asByteBuffer().order(ByteOrder.LITTLE_ENDIAN);
+        target.putInt(rows);
+        target.putInt(columns);
+
+        // SCALED_INT8_ROW restores value as offset + scale * (q + 128), that is scale * (q - zeroPoint) here
+        for (int r = 0; r < rows; r++)
+            target.putFloat(-scales[r] * (zeroPoints[r] - MIN_VALUE));
+        for (int r = 0; r < rows; r++)
+            target.putFloat(scales[r]);
+        target.put(values);
+
+        CompressionDescriptor descriptor = new CompressionDescriptor();
+        descriptor.setCompressionType(CompressionType.LOSSY);
+        descriptor.setCompressionAlgorithm(COMPRESSION_ALGORITHM);
+        descriptor.setOriginalElementSize(Nd4j.sizeOfDataType());
+        descriptor.setNumberOfElements(values.length);
+        descriptor.setOriginalLength((long) values.length * Nd4j.sizeOfDataType());
+        descriptor.setCompressedLength(compressedLength);
+
+        DataBuffer shapeInfo = Nd4j.getShapeInfoProvider().createShapeInformation(new int[] {rows, columns}, 'c')
+                        .getFirst();
+        return Nd4j.createArrayFromShapeBuffer(new CompressedDataBuffer(pointer, descriptor), shapeInfo);
+    }
+
+    /**
+     * This method creates PER_ROW quantized matrix out of matrix compressed in SCALED_INT8_ROW format, either by
+     * toCompressed() or by compressor itself. In latter case offsets are rounded to integer zero points, which
+     * adds up to half of quantization step to the error, and zero isn't exactly representable anymore
+     *
+     * @param matrix compressed matrix, in 'c' order
+     * @return
+     */
+    public static QuantizedMatrix fromCompressed(@NonNull INDArray matrix) {
+        if (!matrix.isCompressed() || !(matrix.data() instanceof CompressedDataBuffer))
+            throw new IllegalArgumentException("Matrix isn't compressed");
+
+        CompressedDataBuffer buffer = (CompressedDataBuffer) matrix.data();
+        String algorithm = buffer.getCompressionDescriptor().getCompressionAlgorithm();
+        if (!COMPRESSION_ALGORITHM.equalsIgnoreCase(algorithm))
+            throw new IllegalArgumentException(
+                            "Only " + COMPRESSION_ALGORITHM + " compressed matrices are supported, got " + algorithm);
+
+        if (!matrix.isMatrix() || matrix.ordering() != 'c')
+            throw new IllegalArgumentException("Only 'c' ordered matrices are supported");
+
+        int rows = matrix.rows();
+        int columns = matrix.columns();
+        long compressedLength = buffer.getCompressionDescriptor().getCompressedLength();
+        BytePointer pointer = new BytePointer(buffer.addressPointer());
+        pointer.position(0).limit(compressedLength).capacity(compressedLength);
+        ByteBuffer source = pointer.asByteBuffer().order(ByteOrder.LITTLE_ENDIAN);
+
+        int numGroups = source.getInt(0);
+        int groupLength = source.getInt(4);
+        int dataStart = HEADER_LENGTH + 8 * numGroups;
+        if ((long) numGroups * groupLength != (long) rows * columns || compressedLength != dataStart + rows * columns)
+            throw new IllegalArgumentException("Compressed buffer doesn't match shape [" + rows + ", " + columns + "]");
+
+        // groups are whole rows, or the whole matrix for single group
+        if (columns > 0 && groupLength % columns != 0)
+            throw new IllegalArgumentException("Groups of length " + groupLength + " don't consist of whole rows");
+
+        byte[] values = new byte[rows * columns];
+        source.position(dataStart);
+        source.get(values);
+
+        float[] scales = new float[rows];
+        int[] zeroPoints = new int[rows];
+        int rowsPerGroup = columns == 0 ? 1 : groupLength / columns;
+        for (int r = 0; r < rows; r++) {
+            int g = r / rowsPerGroup;
+            float offset = source.getFloat(HEADER_LENGTH + 4 * g);
+            float scale = source.getFloat(HEADER_LENGTH + 4 * (numGroups + g));
+            if (scale > 0.0f) {
+                scales[r] = scale;
+                zeroPoints[r] = (int) Math.round(MIN_VALUE - (double) offset / scale);
+                continue;
+            }
+
+            // all values of the group are equal to offset
+            scales[r] = offset != 0.0f ? Math.abs(offset) / MAX_VALUE : 1.0f;
+            byte value = (byte) Math.round(offset / scales[r]);
+            for (int c = 0; c < columns; c++)
+                values[r * columns + c] = value;
+        }
+
+        return new QuantizedMatrix(rows, columns, QuantizationMode.PER_ROW, values, scales, zeroPoints);
+    }
+
+    /**
+     * This method returns transposed matrix, so PER_ROW matrix becomes PER_COLUMN one and vice versa
+     *
+     * @return
+     */
+    public QuantizedMatrix transpose() {
+        byte[] transposed = new byte[values.length];
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < columns; c++)
+                transposed[c * rows + r] = values[r * columns + c];
+        }
+
+        QuantizationMode transposedMode =
+                        mode == QuantizationMode.PER_ROW ? QuantizationMode.PER_COLUMN : QuantizationMode.PER_ROW;
+        return new QuantizedMatrix(columns, rows, transposedMode, transposed, scales.clone(), zeroPoints.clone());
+    }
+
+    /**
+     * This method returns number of bytes used by values, scales and zero points
+     *
+     * @return
+     */
+    public long getSizeInBytes() {
+        return values.length + 4L * scales.length + 4L * zeroPoints.length;
+    }
+
+    private static int clamp(int value) {
+        return Math.max(MIN_VALUE, Math.min(MAX_VALUE, value));
+    }
+}
@@ -38,6 +38,51 @@ public class NDArrayUtil {
     }
 
 
+    /**
+     * This method copies contents of source array into target array of the same shape,
+     * converting values to data type of target array
+     *
+     * @param source
+     * @param target
+     */
+    public static void convert(INDArray source, INDArray target) {
+        if (source.length() != target.length())
+            throw new IllegalArgumentException("Source and target arrays should have equal length");
+
+        DataBuffer.TypeEx typeSrc = getTypeEx(source.data().dataType());
+        DataBuffer.TypeEx typeDst = getTypeEx(target.data().dataType());
+
+        // contiguous arrays of floating point types are converted natively in one pass
+        if (typeSrc != null && typeDst != null && source.ordering() == target.ordering()
+                        && isContiguous(source) && isContiguous(target)) {
+            if (typeSrc == typeDst)
+                Nd4j.getMemoryManager().memcpy(target.data(), source.data());
+            else
+                Nd4j.getNDArrayFactory().convertDataEx(typeSrc, source.data(), typeDst, target.data());
+            return;
+        }
+
+        for (int i = 0; i < source.length(); i++)
+            target.putScalar(i, source.getDouble(i));
+    }
+
+    private static boolean isContiguous(INDArray array) {
+        return !array.isView() && array.data().length() == array.length();
+    }
+
+    private static DataBuffer.TypeEx getTypeEx(DataBuffer.Type type) {
+        switch (type) {
+            case HALF:
+                return DataBuffer.TypeEx.FLOAT16;
+            case FLOAT:
+                return DataBuffer.TypeEx.FLOAT;
+            case DOUBLE:
+                return DataBuffer.TypeEx.DOUBLE;
+            default:
+                return null;
+        }
+    }
+
     public static int[] toInts(INDArray n) {
         if (n instanceof IComplexNDArray)
             throw new IllegalArgumentException("Unable to convert complex array");
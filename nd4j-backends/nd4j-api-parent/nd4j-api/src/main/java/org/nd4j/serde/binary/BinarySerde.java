@@ -57,6 +57,19 @@ public class BinarySerde {
      * @return
      */
     public static Pair<INDArray, ByteBuffer> toArrayAndByteBuffer(ByteBuffer buffer, int offset) {
+        return toArrayAndByteBuffer(buffer, offset, false);
+    }
+
+    /**
+     * Create an ndarray and existing bytebuffer
+     * @param buffer
+     * @param offset
+     * @param decompress if true, compressed (encoded) arrays are decompressed
+     *                   straight from the given buffer, without an intermediate copy
+     * @return
+     */
+    public static Pair<INDArray, ByteBuffer> toArrayAndByteBuffer(ByteBuffer buffer, int offset,
+                    boolean decompress) {
         ByteBuffer byteBuffer = buffer == null ? ByteBuffer.allocateDirect(buffer.array().length).put(buffer.array())
                         .order(ByteOrder.nativeOrder()) : buffer.order(ByteOrder.nativeOrder());
         //bump the byte buffer to the proper position
@@ -95,8 +108,11 @@ public class BinarySerde {
             //create a compressed array based on the rest of the data left in the buffer
             CompressedDataBuffer compressedDataBuffer =
                             new CompressedDataBuffer(byteBufferPointer, compressionDescriptor);
+            //decompression writes into a new buffer, so there's no need to copy the compressed data
             //TODO: see how to avoid dup()
-            INDArray arr = Nd4j.createArrayFromShapeBuffer(compressedDataBuffer.dup(), shapeBuff.dup());
+            DataBuffer data = decompress ? Nd4j.getCompressor().decompress(compressedDataBuffer)
+                            : compressedDataBuffer.dup();
+            INDArray arr = Nd4j.createArrayFromShapeBuffer(data, shapeBuff.dup());
             //advance past the data
             int compressLength = (int) compressionDescriptor.getCompressedLength();
             byteBuffer.position(byteBuffer.position() + compressLength);
@@ -130,6 +146,48 @@ public class BinarySerde {
 
     }
 
+    /**
+     * Convert an ndarray to an unsafe buffer
+     * for use by aeron, encoding it first
+     * @param arr the array to convert
+     * @param encoding the encoding to use, see {@link #encode(INDArray, SerdeEncoding)}
+     * @return the unsafebuffer representation of this array
+     */
+    public static ByteBuffer toByteBuffer(INDArray arr, SerdeEncoding encoding) {
+        return toByteBuffer(encode(arr, encoding));
+    }
+
+    /**
+     * Encode an ndarray for sending over the wire.
+     * The encoded array is a compressed array, so its encoding
+     * is recorded in the codec information of the serialized array.
+     *
+     * The given array is never modified. Arrays that are already compressed
+     * and arrays encoded with {@link SerdeEncoding#NONE} are returned as is.
+     *
+     * If no element exceeds the threshold of {@link SerdeEncoding#THRESHOLD},
+     * an array of zeros is sent, encoded as {@link SerdeEncoding#INT8}.
+     *
+     * @param arr the array to encode
+     * @param encoding the encoding to use
+     * @return the encoded array
+     */
+    public static INDArray encode(INDArray arr, SerdeEncoding encoding) {
+        if (encoding == null || encoding == SerdeEncoding.NONE || arr.isCompressed())
+            return arr;
+
+        if (encoding == SerdeEncoding.THRESHOLD) {
+            //threshold encoding subtracts the sent values from its input
+            INDArray encoded = Nd4j.getCompressor().compress(arr.dup(), encoding.getCompressor());
+            if (encoded != null)
+                return encoded;
+
+            return Nd4j.getCompressor().compress(Nd4j.zeros(arr.shape()), SerdeEncoding.INT8.getCompressor());
+        }
+
+        return Nd4j.getCompressor().compress(arr, encoding.getCompressor());
+    }
+
     /**
      * Returns the byte buffer size for the given
      * ndarray. This is an auxillary method
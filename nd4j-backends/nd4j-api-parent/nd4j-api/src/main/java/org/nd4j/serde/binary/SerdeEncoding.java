@@ -0,0 +1,32 @@
+package org.nd4j.serde.binary;
+
+/**
+ * Encodings for sending arrays over the wire, see {@link BinarySerde#encode(org.nd4j.linalg.api.ndarray.INDArray,
+ * SerdeEncoding)}
+ *
+ * NONE: send the array as is
+ * FLOAT16: send half precision values (2 bytes per element)
+ * INT8: send 8-bit values with a single scale and offset for the whole array (1 byte per element)
+ * INT8_PER_ROW: send 8-bit values with a scale and offset per row
+ * THRESHOLD: send only the elements above the threshold of the THRESHOLD compressor, as +/- threshold
+ *
+ * Encoded arrays are serialized as compressed arrays, so the encoding is recorded in the codec header
+ * and the receiver decodes them like any other compressed array.
+ */
+public enum SerdeEncoding {
+    NONE(null), FLOAT16("FLOAT16"), INT8("SCALED_INT8"), INT8_PER_ROW("SCALED_INT8_ROW"), THRESHOLD("THRESHOLD");
+
+    private final String compressor;
+
+    SerdeEncoding(String compressor) {
+        this.compressor = compressor;
+    }
+
+    /**
+     * The name of the compressor implementing this encoding
+     * @return the compressor name, or null for {@link #NONE}
+     */
+    public String getCompressor() {
+        return compressor;
+    }
+}
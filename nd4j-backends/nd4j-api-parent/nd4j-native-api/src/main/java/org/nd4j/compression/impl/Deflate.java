@@ -0,0 +1,528 @@
+package org.nd4j.compression.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.bytedeco.javacpp.BytePointer;
+import org.bytedeco.javacpp.Pointer;
+import org.nd4j.linalg.api.buffer.DataBuffer;
+import org.nd4j.linalg.api.buffer.LongBuffer;
+import org.nd4j.linalg.api.concurrency.AffinityManager;
+import org.nd4j.linalg.compression.CompressedDataBuffer;
+import org.nd4j.linalg.compression.CompressionDescriptor;
+import org.nd4j.linalg.compression.CompressionType;
+import org.nd4j.linalg.exception.ND4JIllegalStateException;
+import org.nd4j.linalg.factory.Nd4j;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Lossless compressor, splitting raw buffer into independent fixed-size blocks, deflated in parallel.
+ *
+ * Bytes of each element can be shuffled before deflating, i.e. for floats all sign/exponent bytes of the block
+ * go first, followed by mantissa bytes, which gives deflate much longer matches.
+ * Compressed buffer keeps index of blocks, so any range of elements can be decompressed without touching
+ * other blocks, see {@link #decompress(DataBuffer, long, long)}.
+ *
+ * Layout of compressed buffer, little endian:
+ * magic, element size, flags, block length, number of blocks (ints), original length (long),
+ * offsets of blocks within data section, plus the end of the last block (longs), and blocks themselves.
+ * Second byte of flags holds original data type (ordinal + 1), so decompressed buffer has the same type
+ * as the original one, i.e. INT stays INT. Zero means unknown type, and type is guessed from element size.
+ * Blocks that can't be compressed are stored as is, so stored length equal to raw length means raw block.
+ *
+ * @see Gzip
+ */
+@Slf4j
+public class Deflate extends AbstractCompressor {
+    public static final int DEFAULT_BLOCK_SIZE = 256 * 1024;
+
+    protected static final int MAGIC = 0x4E444246;
+    protected static final int FLAG_SHUFFLE = 1;
+    protected static final int TYPE_SHIFT = 8;
+    protected static final int TYPE_MASK = 0xFF;
+    protected static final int HEADER_LENGTH = 5 * 4 + 8;
+
+    private static final int THREADS = Runtime.getRuntime().availableProcessors();
+    private static volatile ExecutorService executor;
+
+    private static final ThreadLocal<Scratch> scratch = new ThreadLocal<Scratch>() {
+        @Override
+        protected Scratch initialValue() {
+            return new Scratch();
+        }
+    };
+
+    protected volatile int blockSize = DEFAULT_BLOCK_SIZE;
+    protected volatile boolean shuffle = true;
+    protected volatile int level = Deflater.BEST_SPEED;
+
+    /**
+     * This method returns compression descriptor. It should be unique for any compressor implementation
+     *
+     * @return
+     */
+    @Override
+    public String getDescriptor() {
+        return "DEFLATE";
+    }
+
+    /**
+     * This method returns compression opType provided by specific NDArrayCompressor implementation
+     *
+     * @return
+     */
+    @Override
+    public CompressionType getCompressionType() {
+        return CompressionType.LOSSLESS;
+    }
+
+    /**
+     * This method allows to configure compressor: block size in bytes, byte shuffling, and deflate level.
+     * Trailing arguments can be omitted.
+     *
+     * @param vars
+     */
+    @Override
+    public void configure(Object... vars) {
+        if (vars.length > 0 && vars[0] != null) {
+            int size = ((Number) vars[0]).intValue();
+            if (size < 64)
+                throw new ND4JIllegalStateException("Block size should be at least 64 bytes, got " + size);
+            blockSize = size;
+        }
+
+        if (vars.length > 1 && vars[1] != null)
+            shuffle = (Boolean) vars[1];
+
+        if (vars.length > 2 && vars[2] != null) {
+            int lvl = ((Number) vars[2]).intValue();
+            if (lvl < Deflater.DEFAULT_COMPRESSION || lvl > Deflater.BEST_COMPRESSION)
+                throw new ND4JIllegalStateException("Deflate level should be in range -1..9, got " + lvl);
+            level = lvl;
+        }
+    }
+
+    @Override
+    public DataBuffer compress(DataBuffer buffer) {
+        if (buffer.dataType() == DataBuffer.Type.COMPRESSED)
+            throw new ND4JIllegalStateException("Buffer is already compressed");
+
+        CompressionDescriptor descriptor = new CompressionDescriptor(buffer, this);
+        ByteBuffer source = view(buffer.addressPointer(), buffer.length() * buffer.getElementSize());
+
+        return compress(source, buffer.getElementSize(), buffer.dataType(), descriptor);
+    }
+
+    @Override
+    protected CompressedDataBuffer compressPointer(DataBuffer.TypeEx srcType, Pointer srcPointer, int length,
+                    int elementSize) {
+        CompressionDescriptor descriptor = new CompressionDescriptor();
+        descriptor.setCompressionType(getCompressionType());
+        descriptor.setCompressionAlgorithm(getDescriptor());
+        descriptor.setOriginalLength((long) length * elementSize);
+        descriptor.setOriginalElementSize(elementSize);
+        descriptor.setNumberOfElements(length);
+
+        return compress(view(srcPointer, (long) length * elementSize), elementSize, convertType(srcType), descriptor);
+    }
+
+    protected static DataBuffer.Type convertType(DataBuffer.TypeEx type) {
+        if (type == null)
+            return null;
+
+        switch (type) {
+            case FLOAT16:
+                return DataBuffer.Type.HALF;
+            case FLOAT:
+                return DataBuffer.Type.FLOAT;
+            case DOUBLE:
+                return DataBuffer.Type.DOUBLE;
+            default:
+                return null;
+        }
+    }
+
+    protected CompressedDataBuffer compress(final ByteBuffer source, final int elementSize, DataBuffer.Type type,
+                    CompressionDescriptor descriptor) {
+        final int originalLength = source.capacity();
+        // blocks always hold whole elements, so shuffling never crosses block boundary
+        final int blockLength = Math.max(elementSize, blockSize / elementSize * elementSize);
+        final boolean shuffled = shuffle && elementSize > 1;
+        final int lvl = level;
+        final int numBlocks = (originalLength + blockLength - 1) / blockLength;
+
+        final byte[][] blocks = new byte[numBlocks][];
+        forEachBlock(numBlocks, new BlockTask() {
+            @Override
+            public void process(int block) {
+                int offset = block * blockLength;
+                int length = Math.min(blockLength, originalLength - offset);
+                blocks[block] = deflateBlock(source, offset, length, elementSize, shuffled, lvl);
+            }
+        });
+
+        long dataLength = 0;
+        for (byte[] block : blocks)
+            dataLength += block.length;
+
+        long compressedLength = HEADER_LENGTH + 8L * (numBlocks + 1) + dataLength;
+        if (compressedLength > Integer.MAX_VALUE)
+            throw new ND4JIllegalStateException("Compressed buffers above 2GB aren't supported");
+
+        BytePointer pointer = new BytePointer(compressedLength);
+        ByteBuffer target = pointer.asByteBuffer().order(ByteOrder.LITTLE_ENDIAN);
+        target.putInt(MAGIC);
+        target.putInt(elementSize);
+        int typeCode = type == null ? 0 : type.ordinal() + 1;
+        target.putInt((shuffled ? FLAG_SHUFFLE : 0) | (typeCode << TYPE_SHIFT));
+        target.putInt(blockLength);
+        target.putInt(numBlocks);
+        target.putLong(originalLength);
+
+        long offset = 0;
+        for (byte[] block : blocks) {
+            target.putLong(offset);
+            offset += block.length;
+        }
+        target.putLong(offset);
+
+        for (byte[] block : blocks)
+            target.put(block);
+
+        descriptor.setCompressedLength(compressedLength);
+
+        return new CompressedDataBuffer(pointer, descriptor);
+    }
+
+    @Override
+    public DataBuffer decompress(DataBuffer buffer) {
+        // number of elements is taken from the header, since deserialized descriptors might lack it
+        ByteBuffer header = view(buffer.addressPointer(), HEADER_LENGTH).order(ByteOrder.LITTLE_ENDIAN);
+        checkMagic(header);
+
+        return decompress(buffer, 0, header.getLong(20) / header.getInt(4));
+    }
+
+    /**
+     * This method decompresses given range of elements, inflating only blocks covering that range
+     *
+     * @param buffer compressed buffer
+     * @param offset index of the first element
+     * @param length number of elements
+     * @return uncompressed buffer of given length
+     */
+    public DataBuffer decompress(DataBuffer buffer, long offset, long length) {
+        CompressedDataBuffer compressed = (CompressedDataBuffer) buffer;
+        final ByteBuffer source = view(compressed.addressPointer(),
+                        compressed.getCompressionDescriptor().getCompressedLength()).order(ByteOrder.LITTLE_ENDIAN);
+
+        checkMagic(source);
+
+        final int elementSize = source.getInt(4);
+        final int flags = source.getInt(8);
+        final boolean shuffled = (flags & FLAG_SHUFFLE) != 0;
+        final int typeCode = (flags >>> TYPE_SHIFT) & TYPE_MASK;
+        final int blockLength = source.getInt(12);
+        final int numBlocks = source.getInt(16);
+        final long originalLength = source.getLong(20);
+        final int dataStart = HEADER_LENGTH + 8 * (numBlocks + 1);
+
+        if (offset < 0 || length < 0 || (offset + length) * elementSize > originalLength)
+            throw new ND4JIllegalStateException("Range [" + offset + ", " + (offset + length)
+                            + ") is out of bounds of " + (originalLength / elementSize) + " elements");
+
+        DataBuffer.Type type = typeCode == 0 ? null : DataBuffer.Type.values()[typeCode - 1];
+        DataBuffer result = createBuffer(length, elementSize, type);
+        if (length == 0)
+            return result;
+
+        final ByteBuffer target = view(result.addressPointer(), length * elementSize);
+
+        final long start = offset * elementSize;
+        final long end = (offset + length) * elementSize;
+        final int firstBlock = (int) (start / blockLength);
+        final int lastBlock = (int) ((end - 1) / blockLength);
+
+        forEachBlock(lastBlock - firstBlock + 1, new BlockTask() {
+            @Override
+            public void process(int index) {
+                int block = firstBlock + index;
+                long blockStart = (long) block * blockLength;
+                int rawLength = (int) Math.min(blockLength, originalLength - blockStart);
+                int blockOffset = (int) source.getLong(HEADER_LENGTH + 8 * block);
+                int storedLength = (int) source.getLong(HEADER_LENGTH + 8 * (block + 1)) - blockOffset;
+
+                byte[] raw = inflateBlock(source, dataStart + blockOffset, storedLength, rawLength, elementSize,
+                                shuffled);
+
+                long from = Math.max(start, blockStart);
+                long to = Math.min(end, blockStart + rawLength);
+
+                ByteBuffer destination = target.duplicate();
+                destination.position((int) (from - start));
+                destination.put(raw, (int) (from - blockStart), (int) (to - from));
+            }
+        });
+
+        Nd4j.getAffinityManager().tagLocation(result, AffinityManager.Location.HOST);
+
+        return result;
+    }
+
+    protected void checkMagic(ByteBuffer header) {
+        if (header.getInt(0) != MAGIC)
+            throw new ND4JIllegalStateException("Buffer wasn't compressed with " + getDescriptor());
+    }
+
+    protected static DataBuffer createBuffer(long length, int elementSize, DataBuffer.Type type) {
+        if (type != null) {
+            switch (type) {
+                case INT:
+                    return Nd4j.createBuffer(new int[] {(int) length}, DataBuffer.Type.INT);
+                case LONG:
+                    return new LongBuffer(length, false);
+                case COMPRESSED:
+                    break;
+                default:
+                    return Nd4j.createBuffer(length, type, false);
+            }
+        }
+
+        // buffers compressed without type in header
+        if (elementSize == Nd4j.sizeOfDataType())
+            return Nd4j.createBuffer(length, false);
+
+        switch (elementSize) {
+            case 2:
+                return Nd4j.createBuffer(new int[] {(int) length}, DataBuffer.Type.HALF);
+            case 4:
+                return Nd4j.createBuffer(new int[] {(int) length}, DataBuffer.Type.FLOAT);
+            case 8:
+                return Nd4j.createBuffer(new int[] {(int) length}, DataBuffer.Type.DOUBLE);
+            default:
+                throw new ND4JIllegalStateException("Unknown element size: [" + elementSize + "]");
+        }
+    }
+
+    protected static byte[] deflateBlock(ByteBuffer source, int offset, int length, int elementSize,
+                    boolean shuffled, int level) {
+        Scratch s = scratch.get();
+
+        byte[] raw = s.raw(length);
+        ByteBuffer view = source.duplicate();
+        view.position(offset);
+        view.get(raw, 0, length);
+
+        byte[] input = raw;
+        if (shuffled) {
+            input = s.shuffled(length);
+            shuffle(raw, input, length, elementSize);
+        }
+
+        Deflater deflater = s.deflater;
+        deflater.reset();
+        deflater.setLevel(level);
+        deflater.setInput(input, 0, length);
+        deflater.finish();
+
+        // output is limited by raw length: if deflate can't beat it, block is stored as is
+        byte[] output = s.output(length);
+        int produced = 0;
+        while (!deflater.finished() && produced < length)
+            produced += deflater.deflate(output, produced, length - produced);
+
+        if (!deflater.finished() || produced >= length) {
+            byte[] stored = new byte[length];
+            System.arraycopy(raw, 0, stored, 0, length);
+            return stored;
+        }
+
+        byte[] block = new byte[produced];
+        System.arraycopy(output, 0, block, 0, produced);
+        return block;
+    }
+
+    /**
+     * This method returns raw content of the block, in thread-local array, valid till the next call
+     */
+    protected static byte[] inflateBlock(ByteBuffer source, int offset, int storedLength, int rawLength,
+                    int elementSize, boolean shuffled) {
+        Scratch s = scratch.get();
+
+        byte[] input = s.output(storedLength);
+        ByteBuffer view = source.duplicate();
+        view.position(offset);
+        view.get(input, 0, storedLength);
+
+        // stored block
+        if (storedLength == rawLength)
+            return input;
+
+        byte[] inflated = shuffled ? s.shuffled(rawLength) : s.raw(rawLength);
+
+        Inflater inflater = s.inflater;
+        inflater.reset();
+        inflater.setInput(input, 0, storedLength);
+
+        int produced = 0;
+        try {
+            while (produced < rawLength) {
+                int cnt = inflater.inflate(inflated, produced, rawLength - produced);
+                if (cnt == 0 && (inflater.finished() || inflater.needsInput() || inflater.needsDictionary()))
+                    break;
+                produced += cnt;
+            }
+        } catch (DataFormatException e) {
+            throw new ND4JIllegalStateException("Compressed block is corrupted", e);
+        }
+
+        if (produced != rawLength)
+            throw new ND4JIllegalStateException("Compressed block is corrupted: expected " + rawLength
+                            + " bytes, got " + produced);
+
+        if (!shuffled)
+            return inflated;
+
+        byte[] raw = s.raw(rawLength);
+        unshuffle(inflated, raw, rawLength, elementSize);
+        return raw;
+    }
+
+    /**
+     * This method groups bytes by their position within element: first bytes of all elements, then second bytes, etc
+     */
+    protected static void shuffle(byte[] source, byte[] target, int length, int elementSize) {
+        int numElements = length / elementSize;
+        for (int b = 0; b < elementSize; b++) {
+            int base = b * numElements;
+            for (int e = 0; e < numElements; e++)
+                target[base + e] = source[e * elementSize + b];
+        }
+    }
+
+    protected static void unshuffle(byte[] source, byte[] target, int length, int elementSize) {
+        int numElements = length / elementSize;
+        for (int b = 0; b < elementSize; b++) {
+            int base = b * numElements;
+            for (int e = 0; e < numElements; e++)
+                target[e * elementSize + b] = source[base + e];
+        }
+    }
+
+    protected static ByteBuffer view(Pointer pointer, long bytes) {
+        if (bytes > Integer.MAX_VALUE)
+            throw new ND4JIllegalStateException("Buffers above 2GB aren't supported");
+
+        if (bytes == 0)
+            return ByteBuffer.allocate(0);
+
+        BytePointer bytePointer = new BytePointer(pointer);
+        bytePointer.position(0).limit(bytes).capacity(bytes);
+
+        return bytePointer.asByteBuffer();
+    }
+
+    /**
+     * This method processes blocks in parallel, calling thread takes part as well
+     */
+    protected static void forEachBlock(final int numBlocks, final BlockTask task) {
+        if (numBlocks < 2 || THREADS < 2) {
+            for (int b = 0; b < numBlocks; b++)
+                task.process(b);
+            return;
+        }
+
+        final AtomicInteger next = new AtomicInteger(0);
+        Runnable worker = new Runnable() {
+            @Override
+            public void run() {
+                int block;
+                while ((block = next.getAndIncrement()) < numBlocks)
+                    task.process(block);
+            }
+        };
+
+        List<Future<?>> futures = new ArrayList<>();
+        int helpers = Math.min(numBlocks, THREADS) - 1;
+        for (int h = 0; h < helpers; h++)
+            futures.add(executor().submit(worker));
+
+        worker.run();
+
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException(e);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof RuntimeException)
+                    throw (RuntimeException) e.getCause();
+                throw new RuntimeException(e.getCause());
+            }
+        }
+    }
+
+    private static ExecutorService executor() {
+        if (executor == null) {
+            synchronized (Deflate.class) {
+                if (executor == null)
+                    executor = Executors.newFixedThreadPool(THREADS - 1, new ThreadFactory() {
+                        private final AtomicInteger cnt = new AtomicInteger(0);
+
+                        @Override
+                        public Thread newThread(Runnable r) {
+                            Thread thread = new Thread(r, "Deflate compressor thread " + cnt.incrementAndGet());
+                            thread.setDaemon(true);
+                            return thread;
+                        }
+                    });
+            }
+        }
+        return executor;
+    }
+
+    protected interface BlockTask {
+        void process(int block);
+    }
+
+    /**
+     * Per-thread codecs and temporary arrays, reused across blocks
+     */
+    private static class Scratch {
+        private final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        private final Inflater inflater = new Inflater();
+        private byte[] raw = new byte[0];
+        private byte[] shuffled = new byte[0];
+        private byte[] output = new byte[0];
+
+        private byte[] raw(int length) {
+            if (raw.length < length)
+                raw = new byte[length];
+            return raw;
+        }
+
+        private byte[] shuffled(int length) {
+            if (shuffled.length < length)
+                shuffled = new byte[length];
+            return shuffled;
+        }
+
+        private byte[] output(int length) {
+            if (output.length < length)
+                output = new byte[length];
+            return output;
+        }
+    }
+}
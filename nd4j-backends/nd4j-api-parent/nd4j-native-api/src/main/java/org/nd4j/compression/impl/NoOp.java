@@ -49,6 +49,7 @@ public class NoOp extends AbstractCompressor {
     public DataBuffer compress(DataBuffer buffer) {
 
         CompressionDescriptor descriptor = new CompressionDescriptor(buffer, this);
+        descriptor.setCompressedLength(buffer.length() * buffer.getElementSize());
 
         BytePointer ptr = new BytePointer(buffer.length() * buffer.getElementSize());
         CompressedDataBuffer result = new CompressedDataBuffer(ptr, descriptor);
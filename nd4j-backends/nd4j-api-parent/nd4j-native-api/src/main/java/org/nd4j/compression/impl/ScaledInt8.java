@@ -0,0 +1,267 @@
+package org.nd4j.compression.impl;
+
+import org.bytedeco.javacpp.BytePointer;
+import org.bytedeco.javacpp.Pointer;
+import org.nd4j.linalg.api.buffer.DataBuffer;
+import org.nd4j.linalg.api.concurrency.AffinityManager;
+import org.nd4j.linalg.compression.CompressedDataBuffer;
+import org.nd4j.linalg.compression.CompressionDescriptor;
+import org.nd4j.linalg.compression.CompressionType;
+import org.nd4j.linalg.exception.ND4JIllegalStateException;
+import org.nd4j.linalg.factory.Nd4j;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+
+/**
+ * Compressor implementation storing values as 8-bit integers with scale and offset, so any range of values
+ * is mapped onto 256 levels: value = offset + scale * (q + 128)
+ *
+ * Unlike {@link Int8}, which just casts values to byte, this compressor is suitable for weights and activations.
+ * This implementation uses single scale/offset pair for whole buffer, see {@link ScaledInt8Row} for per-row pairs.
+ *
+ * Layout of compressed buffer, little endian:
+ * number of groups, group length (ints), offsets and scales of groups (floats), quantized values (bytes)
+ */
+public class ScaledInt8 extends AbstractCompressor {
+    protected static final int HEADER_LENGTH = 8;
+    protected static final int LEVELS = 255;
+
+    /**
+     * This method returns compression descriptor. It should be unique for any compressor implementation
+     *
+     * @return
+     */
+    @Override
+    public String getDescriptor() {
+        return "SCALED_INT8";
+    }
+
+    /**
+     * This method returns compression opType provided by specific NDArrayCompressor implementation
+     *
+     * @return
+     */
+    @Override
+    public CompressionType getCompressionType() {
+        return CompressionType.LOSSY;
+    }
+
+    @Override
+    public DataBuffer compress(DataBuffer buffer) {
+        return compress(buffer, buffer.length());
+    }
+
+    protected CompressedDataBuffer compress(DataBuffer buffer, long groupLength) {
+        Nd4j.getExecutioner().commit();
+        Nd4j.getAffinityManager().ensureLocation(buffer, AffinityManager.Location.HOST);
+
+        CompressionDescriptor descriptor = new CompressionDescriptor(buffer, this);
+
+        return quantize(values(buffer), (int) buffer.length(), (int) groupLength, descriptor);
+    }
+
+    @Override
+    protected CompressedDataBuffer compressPointer(DataBuffer.TypeEx srcType, Pointer srcPointer, int length,
+                    int elementSize) {
+        CompressionDescriptor descriptor = new CompressionDescriptor();
+        descriptor.setCompressionType(getCompressionType());
+        descriptor.setCompressionAlgorithm(getDescriptor());
+        descriptor.setOriginalLength((long) length * elementSize);
+        descriptor.setOriginalElementSize(elementSize);
+        descriptor.setNumberOfElements(length);
+
+        ByteBuffer bb = view(srcPointer, (long) length * elementSize);
+        Values values;
+        switch (srcType) {
+            case FLOAT:
+                values = new FloatValues(bb.asFloatBuffer());
+                break;
+            case DOUBLE:
+                values = new DoubleValues(bb.asDoubleBuffer());
+                break;
+            default:
+                throw new UnsupportedOperationException("Unsupported source type: [" + srcType + "]");
+        }
+
+        return quantize(values, length, length, descriptor);
+    }
+
+    protected CompressedDataBuffer quantize(Values values, int length, int groupLength,
+                    CompressionDescriptor descriptor) {
+        if (groupLength <= 0 || length % groupLength != 0)
+            groupLength = length;
+
+        int numGroups = length == 0 ? 0 : length / groupLength;
+        long compressedLength = HEADER_LENGTH + 8L * numGroups + length;
+
+        BytePointer pointer = new BytePointer(compressedLength);
+        ByteBuffer target = pointer.asByteBuffer().order(ByteOrder.LITTLE_ENDIAN);
+        target.putInt(0, numGroups);
+        target.putInt(4, groupLength);
+
+        int scalesStart = HEADER_LENGTH + 4 * numGroups;
+        int dataStart = HEADER_LENGTH + 8 * numGroups;
+        for (int g = 0; g < numGroups; g++) {
+            int start = g * groupLength;
+            int end = start + groupLength;
+
+            double min = Double.POSITIVE_INFINITY;
+            double max = Double.NEGATIVE_INFINITY;
+            for (int e = start; e < end; e++) {
+                double v = values.get(e);
+                min = Math.min(min, v);
+                max = Math.max(max, v);
+            }
+
+            float offset = (float) min;
+            float scale = (float) ((max - min) / LEVELS);
+            target.putFloat(HEADER_LENGTH + 4 * g, offset);
+            target.putFloat(scalesStart + 4 * g, scale);
+
+            double inverse = scale == 0.0f ? 0.0 : 1.0 / scale;
+            for (int e = start; e < end; e++) {
+                long q = Math.round((values.get(e) - offset) * inverse);
+                q = Math.max(0, Math.min(LEVELS, q));
+                target.put(dataStart + e, (byte) (q - 128));
+            }
+        }
+
+        descriptor.setCompressedLength(compressedLength);
+
+        return new CompressedDataBuffer(pointer, descriptor);
+    }
+
+    @Override
+    public DataBuffer decompress(DataBuffer buffer) {
+        CompressedDataBuffer compressed = (CompressedDataBuffer) buffer;
+        ByteBuffer source = view(compressed.addressPointer(),
+                        compressed.getCompressionDescriptor().getCompressedLength()).order(ByteOrder.LITTLE_ENDIAN);
+
+        int numGroups = source.getInt(0);
+        int groupLength = source.getInt(4);
+        int length = numGroups * groupLength;
+        int scalesStart = HEADER_LENGTH + 4 * numGroups;
+        int dataStart = HEADER_LENGTH + 8 * numGroups;
+
+        if (source.capacity() != dataStart + length)
+            throw new ND4JIllegalStateException("Compressed buffer is corrupted");
+
+        DataBuffer result = createBuffer(length, compressed.getCompressionDescriptor().getOriginalElementSize());
+        if (length == 0)
+            return result;
+
+        // values are dequantized straight into result buffer
+        ByteBuffer bb = view(result.addressPointer(), length * result.getElementSize());
+        FloatBuffer floats = result.dataType() == DataBuffer.Type.FLOAT ? bb.asFloatBuffer() : null;
+        DoubleBuffer doubles = result.dataType() == DataBuffer.Type.DOUBLE ? bb.asDoubleBuffer() : null;
+
+        for (int g = 0; g < numGroups; g++) {
+            float offset = source.getFloat(HEADER_LENGTH + 4 * g);
+            float scale = source.getFloat(scalesStart + 4 * g);
+
+            int end = (g + 1) * groupLength;
+            for (int e = g * groupLength; e < end; e++) {
+                float v = offset + scale * (source.get(dataStart + e) + 128);
+                if (floats != null)
+                    floats.put(e, v);
+                else if (doubles != null)
+                    doubles.put(e, v);
+                else
+                    result.put(e, v);
+            }
+        }
+
+        Nd4j.getAffinityManager().tagLocation(result, AffinityManager.Location.HOST);
+
+        return result;
+    }
+
+    /**
+     * Dequantized values are floating point, so result has floating point type of original element size,
+     * i.e. DOUBLE buffers stay DOUBLE regardless of global data type
+     */
+    protected static DataBuffer createBuffer(int length, long elementSize) {
+        switch ((int) elementSize) {
+            case 2:
+                return Nd4j.createBuffer(length, DataBuffer.Type.HALF, false);
+            case 4:
+                return Nd4j.createBuffer(length, DataBuffer.Type.FLOAT, false);
+            case 8:
+                return Nd4j.createBuffer(length, DataBuffer.Type.DOUBLE, false);
+            default:
+                // descriptors without element size
+                return Nd4j.createBuffer(length, false);
+        }
+    }
+
+    protected static ByteBuffer view(Pointer pointer, long bytes) {
+        if (bytes > Integer.MAX_VALUE)
+            throw new ND4JIllegalStateException("Buffers above 2GB aren't supported");
+
+        if (bytes == 0)
+            return ByteBuffer.allocate(0);
+
+        BytePointer bytePointer = new BytePointer(pointer);
+        bytePointer.position(0).limit(bytes).capacity(bytes);
+
+        return bytePointer.asByteBuffer().order(ByteOrder.nativeOrder());
+    }
+
+    protected static Values values(DataBuffer buffer) {
+        ByteBuffer bb = view(buffer.addressPointer(), buffer.length() * buffer.getElementSize());
+        switch (buffer.dataType()) {
+            case FLOAT:
+                return new FloatValues(bb.asFloatBuffer());
+            case DOUBLE:
+                return new DoubleValues(bb.asDoubleBuffer());
+            default:
+                return new BufferValues(buffer);
+        }
+    }
+
+    protected static abstract class Values {
+        protected abstract double get(int i);
+    }
+
+    protected static class FloatValues extends Values {
+        private final FloatBuffer buffer;
+
+        protected FloatValues(FloatBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        protected double get(int i) {
+            return buffer.get(i);
+        }
+    }
+
+    protected static class DoubleValues extends Values {
+        private final DoubleBuffer buffer;
+
+        protected DoubleValues(DoubleBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        protected double get(int i) {
+            return buffer.get(i);
+        }
+    }
+
+    protected static class BufferValues extends Values {
+        private final DataBuffer buffer;
+
+        protected BufferValues(DataBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        protected double get(int i) {
+            return buffer.getDouble(i);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package org.nd4j.compression.impl;
+
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.factory.Nd4j;
+
+/**
+ * {@link ScaledInt8} variant with separate scale and offset for every row of the array, so rows with
+ * different ranges, i.e. rows of weight matrix, don't share quantization levels.
+ * Arrays are compressed in 'c' order, and for rank 1 arrays or plain buffers this is the same as {@link ScaledInt8}.
+ */
+public class ScaledInt8Row extends ScaledInt8 {
+
+    /**
+     * This method returns compression descriptor. It should be unique for any compressor implementation
+     *
+     * @return
+     */
+    @Override
+    public String getDescriptor() {
+        return "SCALED_INT8_ROW";
+    }
+
+    @Override
+    public INDArray compress(INDArray array) {
+        INDArray dup = array.dup('c');
+
+        Nd4j.getExecutioner().commit();
+
+        dup.setData(compress(dup.data(), groupLength(dup)));
+        dup.markAsCompressed(true);
+
+        return dup;
+    }
+
+    @Override
+    public void compressi(INDArray array) {
+        if (array.isView() || array.ordering() != 'c')
+            throw new UnsupportedOperationException("Inplace compression is possible only for 'c' ordered arrays");
+
+        array.setData(compress(array.data(), groupLength(array)));
+        array.markAsCompressed(true);
+    }
+
+    protected static long groupLength(INDArray array) {
+        return array.rank() < 2 ? array.length() : array.length() / array.size(0);
+    }
+}
@@ -0,0 +1,753 @@
+package org.nd4j.storage;
+
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.bytedeco.javacpp.BytePointer;
+import org.nd4j.compression.impl.NoOp;
+import org.nd4j.linalg.api.buffer.DataBuffer;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.compression.AbstractStorage;
+import org.nd4j.linalg.compression.CompressedDataBuffer;
+import org.nd4j.linalg.compression.CompressionDescriptor;
+import org.nd4j.linalg.compression.NDArrayCompressor;
+import org.nd4j.linalg.exception.ND4JIllegalStateException;
+import org.nd4j.linalg.factory.Nd4j;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * AbstractStorage implementation with two tiers: compressed entries are kept in RAM within configured byte budget,
+ * and entries evicted from RAM are spilled to append-only segment files on disk, with offsets kept in memory.
+ *
+ * Eviction uses generalized CLOCK: every read bumps small per-entry counter, and eviction hand decrements counters,
+ * spilling entries that reached zero. So both recently and frequently used entries stay in RAM.
+ * Entries read from disk are promoted back to RAM. Disk copy is kept after promotion, so evicting unchanged
+ * entry again costs nothing. Segment files are deleted once all entries within them were dropped or overwritten.
+ *
+ * Reads never take locks, so concurrent readers don't block each other. Writers are serialized.
+ *
+ * PLEASE NOTE: storage should be closed after use, to release segment files.
+ */
+@Slf4j
+public class TieredCompressedStorage<T extends Object> implements AbstractStorage<T>, Closeable {
+    // maximum value of per-entry counter
+    protected static final int MAX_HITS = 3;
+
+    private NDArrayCompressor compressor = new NoOp();
+    private boolean useInplaceCompression = false;
+    private long ramBudget;
+    private long segmentSize;
+    private File directory;
+    private boolean temporaryDirectory;
+
+    private final ConcurrentHashMap<T, Entry<T>> ramEntries = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<T, Location> diskEntries = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<Entry<T>> clock = new ConcurrentLinkedQueue<>();
+    private final AtomicLong ramBytes = new AtomicLong(0);
+    private final AtomicLong diskBytes = new AtomicLong(0);
+
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    private final Object segmentLock = new Object();
+    private final AtomicInteger segmentCounter = new AtomicInteger(0);
+    private volatile Segment activeSegment;
+
+    private final AtomicLong ramHits = new AtomicLong(0);
+    private final AtomicLong diskHits = new AtomicLong(0);
+    private final AtomicLong misses = new AtomicLong(0);
+    private final AtomicLong spills = new AtomicLong(0);
+    private final AtomicLong spilledBytes = new AtomicLong(0);
+    private final AtomicLong evictions = new AtomicLong(0);
+    private final AtomicLong promotions = new AtomicLong(0);
+
+    private TieredCompressedStorage() {
+        //
+    }
+
+    /**
+     * Store object into storage
+     *
+     * @param key
+     * @param object
+     */
+    @Override
+    public void store(T key, INDArray object) {
+        INDArray toStore;
+        if (useInplaceCompression) {
+            compressor.compressi(object);
+            toStore = object;
+        } else {
+            toStore = compressor.compress(object);
+        }
+
+        put(key, toStore);
+    }
+
+    /**
+     * Store object into storage
+     *
+     * @param key
+     * @param array
+     */
+    @Override
+    public void store(T key, float[] array) {
+        put(key, compressor.compress(array));
+    }
+
+    /**
+     * Store object into storage
+     *
+     * @param key
+     * @param array
+     */
+    @Override
+    public void store(T key, double[] array) {
+        put(key, compressor.compress(array));
+    }
+
+    /**
+     * Store object into storage, if it doesn't exist
+     *
+     * @param key
+     * @param object
+     * @return Returns TRUE if store operation was applied, FALSE otherwise
+     */
+    @Override
+    public boolean storeIfAbsent(T key, INDArray object) {
+        writeLock.lock();
+        try {
+            if (containsKey(key))
+                return false;
+
+            store(key, object);
+            return true;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    protected void put(T key, INDArray compressed) {
+        Entry<T> entry = new Entry<>(key, compressed.data(), compressed.shapeInfoDataBuffer(), null);
+
+        writeLock.lock();
+        try {
+            Entry<T> previous = ramEntries.put(key, entry);
+            if (previous != null)
+                ramBytes.addAndGet(-previous.bytes);
+
+            ramBytes.addAndGet(entry.bytes);
+            clock.add(entry);
+
+            release(diskEntries.remove(key));
+        } finally {
+            writeLock.unlock();
+        }
+
+        evictIfNeeded();
+    }
+
+    /**
+     * Get object from the storage, by key.
+     * If object was spilled to disk, it'll be promoted back to RAM
+     *
+     * @param key
+     */
+    @Override
+    public INDArray get(T key) {
+        while (true) {
+            Entry<T> entry = ramEntries.get(key);
+            if (entry != null) {
+                entry.touch();
+                ramHits.incrementAndGet();
+                return decompress(entry);
+            }
+
+            Location location = diskEntries.get(key);
+            if (location == null) {
+                // entry might have been promoted concurrently
+                if (ramEntries.containsKey(key))
+                    continue;
+
+                misses.incrementAndGet();
+                return null;
+            }
+
+            DataBuffer buffer;
+            try {
+                buffer = location.read();
+            } catch (ClosedChannelException e) {
+                // segment was deleted, since entry was dropped or overwritten in the meantime
+                continue;
+            }
+
+            diskHits.incrementAndGet();
+            entry = new Entry<>(key, buffer, location.shapeInfo, location);
+            promote(entry);
+
+            return decompress(entry);
+        }
+    }
+
+    protected void promote(Entry<T> entry) {
+        if (entry.bytes > ramBudget)
+            return;
+
+        // entry was just used, so it shouldn't be the first candidate for eviction
+        entry.hits.set(1);
+
+        // bytes are accounted before entry becomes visible, so concurrent drop() can't make counter negative
+        ramBytes.addAndGet(entry.bytes);
+        if (ramEntries.putIfAbsent(entry.key, entry) != null) {
+            ramBytes.addAndGet(-entry.bytes);
+            return;
+        }
+
+        // key could be dropped or overwritten while we were reading it
+        if (diskEntries.get(entry.key) != entry.location) {
+            if (ramEntries.remove(entry.key, entry))
+                ramBytes.addAndGet(-entry.bytes);
+            return;
+        }
+
+        clock.add(entry);
+        promotions.incrementAndGet();
+
+        evictIfNeeded();
+    }
+
+    protected INDArray decompress(Entry<T> entry) {
+        return Nd4j.createArrayFromShapeBuffer(compressor.decompress(entry.buffer), entry.shapeInfo);
+    }
+
+    /**
+     * This method moves entries from RAM to disk, till RAM usage fits into budget.
+     * If another thread is already evicting, this method returns immediately, and that thread does the job
+     */
+    protected void evictIfNeeded() {
+        // budget is checked again after unlock, since other threads could add entries while we held the lock
+        while (ramBytes.get() > ramBudget && evictionLock.tryLock()) {
+            try {
+                if (!evict())
+                    return;
+            } finally {
+                evictionLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * This method spills entries until RAM usage fits into budget
+     *
+     * @return FALSE if there was nothing left to spill
+     */
+    protected boolean evict() {
+        while (ramBytes.get() > ramBudget) {
+            Entry<T> entry = clock.poll();
+            if (entry == null)
+                return false;
+
+            // stale entry: dropped, overwritten or already evicted
+            if (ramEntries.get(entry.key) != entry)
+                continue;
+
+            if (entry.hits.get() > 0) {
+                entry.hits.decrementAndGet();
+                clock.add(entry);
+                continue;
+            }
+
+            spill(entry);
+        }
+
+        return true;
+    }
+
+    protected void spill(Entry<T> entry) {
+        Location location = entry.location;
+
+        // entry that was promoted from disk is still there
+        if (location == null || diskEntries.get(entry.key) != location) {
+            location = write(entry);
+
+            Location previous = diskEntries.put(entry.key, location);
+            if (previous != null && previous != location)
+                release(previous);
+
+            spills.incrementAndGet();
+            spilledBytes.addAndGet(entry.bytes);
+        }
+
+        if (ramEntries.remove(entry.key, entry)) {
+            ramBytes.addAndGet(-entry.bytes);
+            evictions.incrementAndGet();
+        } else if (diskEntries.remove(entry.key, location)) {
+            // entry was dropped or overwritten while we were writing it
+            release(location);
+        }
+    }
+
+    protected Location write(Entry<T> entry) {
+        if (!(entry.buffer instanceof CompressedDataBuffer))
+            throw new ND4JIllegalStateException("Only compressed buffers can be spilled to disk");
+
+        int length = (int) entry.bytes;
+
+        while (true) {
+            Segment segment = activeSegment();
+            segment.liveBytes.addAndGet(length);
+
+            // segment was sealed concurrently, and might be deleted already
+            if (segment.sealed) {
+                segment.release(length);
+                continue;
+            }
+
+            long offset = segment.position.getAndAdd(length);
+            if (offset > 0 && offset + length > segmentSize) {
+                segment.release(length);
+                roll(segment);
+                continue;
+            }
+
+            BytePointer pointer = new BytePointer(entry.buffer.addressPointer());
+            pointer.position(0).limit(length).capacity(length);
+            ByteBuffer source = pointer.asByteBuffer();
+
+            try {
+                long position = offset;
+                while (source.hasRemaining())
+                    position += segment.channel.write(source, position);
+            } catch (IOException e) {
+                segment.release(length);
+                throw new ND4JIllegalStateException("Unable to spill entry to " + segment.file, e);
+            }
+
+            diskBytes.addAndGet(length);
+
+            CompressionDescriptor descriptor =
+                            ((CompressedDataBuffer) entry.buffer).getCompressionDescriptor().clone();
+
+            return new Location(segment, offset, length, descriptor, entry.shapeInfo);
+        }
+    }
+
+    protected void release(Location location) {
+        if (location == null)
+            return;
+
+        diskBytes.addAndGet(-location.length);
+        location.segment.release(location.length);
+    }
+
+    protected Segment activeSegment() {
+        Segment segment = activeSegment;
+        if (segment != null)
+            return segment;
+
+        synchronized (segmentLock) {
+            if (activeSegment == null)
+                activeSegment = createSegment();
+
+            return activeSegment;
+        }
+    }
+
+    protected void roll(Segment full) {
+        synchronized (segmentLock) {
+            if (activeSegment != full)
+                return;
+
+            activeSegment = createSegment();
+            full.seal();
+        }
+    }
+
+    protected Segment createSegment() {
+        try {
+            if (directory == null) {
+                directory = Files.createTempDirectory("nd4j-storage").toFile();
+                temporaryDirectory = true;
+            } else if (!directory.exists() && !directory.mkdirs()) {
+                throw new ND4JIllegalStateException("Unable to create directory " + directory);
+            }
+
+            File file = new File(directory, "segment-" + segmentCounter.incrementAndGet() + ".bin");
+            return new Segment(file);
+        } catch (IOException e) {
+            throw new ND4JIllegalStateException(e);
+        }
+    }
+
+    /**
+     * This method checks, if storage contains specified key
+     *
+     * @param key
+     * @return
+     */
+    @Override
+    public boolean containsKey(T key) {
+        return ramEntries.containsKey(key) || diskEntries.containsKey(key);
+    }
+
+    /**
+     * This method purges everything from storage
+     */
+    @Override
+    public void clear() {
+        writeLock.lock();
+        try {
+            for (T key : ramEntries.keySet()) {
+                Entry<T> entry = ramEntries.remove(key);
+                if (entry != null)
+                    ramBytes.addAndGet(-entry.bytes);
+            }
+            clock.clear();
+
+            for (T key : diskEntries.keySet())
+                release(diskEntries.remove(key));
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * This method removes value by specified key
+     *
+     * @param key
+     */
+    @Override
+    public void drop(T key) {
+        writeLock.lock();
+        try {
+            Entry<T> entry = ramEntries.remove(key);
+            if (entry != null)
+                ramBytes.addAndGet(-entry.bytes);
+
+            release(diskEntries.remove(key));
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * This method returns number of entries available in storage
+     */
+    @Override
+    public long size() {
+        long size = diskEntries.size();
+        for (T key : ramEntries.keySet())
+            if (!diskEntries.containsKey(key))
+                size++;
+
+        return size;
+    }
+
+    /**
+     * This method removes all entries, and deletes segment files
+     */
+    @Override
+    public void close() {
+        clear();
+
+        synchronized (segmentLock) {
+            if (activeSegment != null) {
+                activeSegment.seal();
+                activeSegment = null;
+            }
+
+            if (temporaryDirectory && directory != null && !directory.delete())
+                log.warn("Unable to delete directory {}", directory);
+        }
+    }
+
+    /**
+     * This method returns number of bytes used by entries in RAM
+     */
+    public long getRamBytes() {
+        return ramBytes.get();
+    }
+
+    /**
+     * This method returns number of bytes used by live entries on disk
+     */
+    public long getDiskBytes() {
+        return diskBytes.get();
+    }
+
+    /**
+     * This method returns number of entries kept in RAM
+     */
+    public long getRamSize() {
+        return ramEntries.size();
+    }
+
+    /**
+     * This method returns number of reads served from RAM
+     */
+    public long getRamHits() {
+        return ramHits.get();
+    }
+
+    /**
+     * This method returns number of reads served from disk
+     */
+    public long getDiskHits() {
+        return diskHits.get();
+    }
+
+    /**
+     * This method returns number of reads for absent keys
+     */
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * This method returns number of entries written to disk
+     */
+    public long getSpills() {
+        return spills.get();
+    }
+
+    /**
+     * This method returns number of bytes written to disk
+     */
+    public long getSpilledBytes() {
+        return spilledBytes.get();
+    }
+
+    /**
+     * This method returns number of entries evicted from RAM
+     */
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    /**
+     * This method returns number of entries promoted from disk back to RAM
+     */
+    public long getPromotions() {
+        return promotions.get();
+    }
+
+    protected static long bytesOf(DataBuffer buffer) {
+        if (buffer instanceof CompressedDataBuffer) {
+            CompressionDescriptor descriptor = ((CompressedDataBuffer) buffer).getCompressionDescriptor();
+            if (descriptor.getCompressedLength() > 0)
+                return descriptor.getCompressedLength();
+        }
+
+        return buffer.length() * buffer.getElementSize();
+    }
+
+    protected static class Entry<T> {
+        protected final T key;
+        protected final DataBuffer buffer;
+        protected final DataBuffer shapeInfo;
+        protected final long bytes;
+        protected final AtomicInteger hits = new AtomicInteger(0);
+        // disk copy of this entry, if it was promoted from disk
+        protected final Location location;
+
+        protected Entry(T key, DataBuffer buffer, DataBuffer shapeInfo, Location location) {
+            this.key = key;
+            this.buffer = buffer;
+            this.shapeInfo = shapeInfo;
+            this.location = location;
+            this.bytes = bytesOf(buffer);
+        }
+
+        protected void touch() {
+            int current = hits.get();
+            if (current < MAX_HITS)
+                hits.compareAndSet(current, current + 1);
+        }
+    }
+
+    protected static class Location {
+        protected final Segment segment;
+        protected final long offset;
+        protected final int length;
+        protected final CompressionDescriptor descriptor;
+        protected final DataBuffer shapeInfo;
+
+        protected Location(Segment segment, long offset, int length, CompressionDescriptor descriptor,
+                        DataBuffer shapeInfo) {
+            this.segment = segment;
+            this.offset = offset;
+            this.length = length;
+            this.descriptor = descriptor;
+            this.shapeInfo = shapeInfo;
+        }
+
+        protected DataBuffer read() throws ClosedChannelException {
+            BytePointer pointer = new BytePointer(length);
+            ByteBuffer target = pointer.asByteBuffer();
+
+            try {
+                long position = offset;
+                while (target.hasRemaining()) {
+                    int cnt = segment.channel.read(target, position);
+                    if (cnt < 0)
+                        throw new ND4JIllegalStateException("Unexpected end of " + segment.file);
+                    position += cnt;
+                }
+            } catch (ClosedChannelException e) {
+                throw e;
+            } catch (IOException e) {
+                throw new ND4JIllegalStateException("Unable to read entry from " + segment.file, e);
+            }
+
+            return new CompressedDataBuffer(pointer, descriptor.clone());
+        }
+    }
+
+    protected static class Segment {
+        protected final File file;
+        protected final RandomAccessFile raf;
+        protected final FileChannel channel;
+        protected final AtomicLong position = new AtomicLong(0);
+        protected final AtomicLong liveBytes = new AtomicLong(0);
+        protected volatile boolean sealed = false;
+        protected boolean deleted = false;
+
+        protected Segment(File file) throws IOException {
+            this.file = file;
+            this.raf = new RandomAccessFile(file, "rw");
+            this.channel = raf.getChannel();
+        }
+
+        protected void release(long bytes) {
+            if (liveBytes.addAndGet(-bytes) == 0 && sealed)
+                delete();
+        }
+
+        protected void seal() {
+            sealed = true;
+            if (liveBytes.get() == 0)
+                delete();
+        }
+
+        protected synchronized void delete() {
+            if (deleted)
+                return;
+
+            deleted = true;
+            try {
+                raf.close();
+            } catch (IOException e) {
+                log.warn("Unable to close {}", file, e);
+            }
+
+            if (!file.delete())
+                log.warn("Unable to delete {}", file);
+        }
+    }
+
+    public static class Builder<T> {
+        // we use NoOp as default compressor
+        private NDArrayCompressor compressor = new NoOp();
+        private boolean useInplaceCompression = false;
+        private long ramBudget = 256L * 1024 * 1024;
+        private long segmentSize = 64L * 1024 * 1024;
+        private File directory;
+
+        public Builder() {
+
+        }
+
+        /**
+         * This method defines, which compression algorithm will be used during storage
+         * Default value: NoOp();
+         *
+         * @param compressor
+         * @return
+         */
+        public Builder<T> setCompressor(@NonNull NDArrayCompressor compressor) {
+            this.compressor = compressor;
+            return this;
+        }
+
+        /**
+         * If set to TRUE, all store/update calls will use inplace compression.
+         * If set to FALSE, original array won't be modified, and copy will be used.
+         *
+         * Default value: FALSE;
+         *
+         * @param reallyUse
+         * @return
+         */
+        public Builder<T> useInplaceCompression(boolean reallyUse) {
+            this.useInplaceCompression = reallyUse;
+            return this;
+        }
+
+        /**
+         * This method defines number of bytes of compressed entries kept in RAM
+         *
+         * Default value: 256MB
+         *
+         * @param bytes
+         * @return
+         */
+        public Builder<T> setRamBudget(long bytes) {
+            if (bytes < 0)
+                throw new ND4JIllegalStateException("RAM budget can't be negative");
+
+            this.ramBudget = bytes;
+            return this;
+        }
+
+        /**
+         * This method defines size of individual segment file on disk
+         *
+         * Default value: 64MB
+         *
+         * @param bytes
+         * @return
+         */
+        public Builder<T> setSegmentSize(long bytes) {
+            if (bytes <= 0)
+                throw new ND4JIllegalStateException("Segment size should be positive");
+
+            this.segmentSize = bytes;
+            return this;
+        }
+
+        /**
+         * This method defines directory for segment files.
+         *
+         * Default value: temporary directory, deleted on close()
+         *
+         * @param directory
+         * @return
+         */
+        public Builder<T> setDirectory(@NonNull File directory) {
+            this.directory = directory;
+            return this;
+        }
+
+        public TieredCompressedStorage<T> build() {
+            TieredCompressedStorage<T> storage = new TieredCompressedStorage<>();
+            storage.compressor = this.compressor;
+            storage.useInplaceCompression = this.useInplaceCompression;
+            storage.ramBudget = this.ramBudget;
+            storage.segmentSize = this.segmentSize;
+            storage.directory = this.directory;
+
+            return storage;
+        }
+    }
+}
@@ -82,6 +82,7 @@ public class CudaWorkspace extends Nd4jWorkspace {
     @Override
     public synchronized void destroyWorkspace(boolean extended) {
         currentSize.set(0);
+        telemetry.updateSize(0);
         reset();
 
         if (extended)
@@ -98,6 +99,7 @@ public class CudaWorkspace extends Nd4jWorkspace {
         workspace.setDevicePointer(null);
         workspace.setHostPointer(null);
 
+        destroySpillArena();
     }
 
 
@@ -171,9 +173,10 @@ public class CudaWorkspace extends Nd4jWorkspace {
                     return alloc(requiredMemory, kind, type, initialize);
                 }
 
-                if (!trimmer)
+                if (!trimmer) {
                     spilledAllocationsSize.addAndGet(requiredMemory);
-                else
+                    telemetry.spilled(requiredMemory);
+                } else
                     pinnedAllocationsSize.addAndGet(requiredMemory);
 
                 if (isDebug.get()) {
@@ -189,6 +192,8 @@ public class CudaWorkspace extends Nd4jWorkspace {
                     return null;
 
                 switch (workspaceConfiguration.getPolicySpill()) {
+                    // memory-mapped spills aren't supported for CUDA, external allocations are used instead
+                    case MMAP:
                     case REALLOCATE:
                     case EXTERNAL:
                         if (!trimmer) {
@@ -237,6 +242,8 @@ public class CudaWorkspace extends Nd4jWorkspace {
                 AllocationShape shape = new AllocationShape(requiredMemory / Nd4j.sizeOfDataType(type), Nd4j.sizeOfDataType(type), type);
 
                 switch (workspaceConfiguration.getPolicySpill()) {
+                    // memory-mapped spills aren't supported for CUDA, external allocations are used instead
+                    case MMAP:
                     case REALLOCATE:
                     case EXTERNAL:
                         if (!trimmer) {
@@ -768,6 +768,12 @@ public abstract class BaseCudaDataBuffer extends BaseDataBuffer implements JCuda
     @Override
     public void destroy() {}
 
+    /**
+     * Host and device memory of this buffer belongs to AtomicAllocator, and it's released by its garbage collector
+     */
+    @Override
+    protected void releaseMemory() {}
+
     @Override
     public void write(DataOutputStream out) throws IOException {
         allocator.synchronizeHostData(this);
@@ -5,6 +5,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.bytedeco.javacpp.BytePointer;
 import org.bytedeco.javacpp.FloatPointer;
 import org.bytedeco.javacpp.Pointer;
+import org.nd4j.linalg.api.memory.pool.PooledAllocator;
 import org.nd4j.linalg.api.ndarray.INDArray;
 import org.nd4j.linalg.exception.ND4JIllegalStateException;
 import org.nd4j.linalg.factory.Nd4j;
@@ -61,7 +62,18 @@ public class CpuMemoryManager extends BasicMemoryManager {
      */
     @Override
     public void collect(INDArray... arrays) {
-        super.collect(arrays);
+        // only pooled buffers are released here, other buffers are released by JavaCPP deallocator
+        for (INDArray array : arrays)
+            if (array != null && !array.isView() && !array.isAttached())
+                array.data().destroy();
+    }
+
+    /**
+     * This method returns free memory of PooledAllocator to the system
+     */
+    @Override
+    public void purgeCaches() {
+        PooledAllocator.getInstance().purge();
     }
 
     /**
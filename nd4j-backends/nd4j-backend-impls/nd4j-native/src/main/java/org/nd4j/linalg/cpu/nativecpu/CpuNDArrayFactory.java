@@ -600,13 +600,15 @@ public class CpuNDArrayFactory extends BaseNDArrayFactory {
 
         PointerPointer targets = new PointerPointer(numTads);
 
+        // tensors along dimension keep data type of original tensor
+        DataBuffer.Type dataType = tensor.data().dataType();
         for (int x = 0; x < numTads; x++) {
-            result[x] = Nd4j.createUninitialized(shape);
+            result[x] = Nd4j.createUninitialized(shape, Nd4j.order(), dataType);
 
             targets.put(x, result[x].data().pointer());
         }
 
-        if (Nd4j.dataType() == DataBuffer.Type.DOUBLE) {
+        if (dataType == DataBuffer.Type.DOUBLE) {
             nativeOps.tearDouble(null,
                     (DoublePointer) tensor.data().pointer(),
                     (IntPointer) tensor.shapeInfoDataBuffer().pointer(),
@@ -615,7 +617,7 @@ public class CpuNDArrayFactory extends BaseNDArrayFactory {
                     (IntPointer) tadBuffers.getFirst().pointer(),
                     new LongPointerWrapper(tadBuffers.getSecond().pointer())
             );
-        } else if (Nd4j.dataType() == DataBuffer.Type.FLOAT) {
+        } else if (dataType == DataBuffer.Type.FLOAT) {
             nativeOps.tearFloat(null,
                     (FloatPointer) tensor.data().pointer(),
                     (IntPointer) tensor.shapeInfoDataBuffer().pointer(),
@@ -624,8 +626,15 @@ public class CpuNDArrayFactory extends BaseNDArrayFactory {
                     (IntPointer) tadBuffers.getFirst().pointer(),
                     new LongPointerWrapper(tadBuffers.getSecond().pointer())
                     );
-        } else if (Nd4j.dataType() == DataBuffer.Type.HALF) {
-            throw new UnsupportedOperationException("Half precision isn't supported for CPU backend");
+        } else if (dataType == DataBuffer.Type.HALF) {
+            nativeOps.tearHalf(null,
+                    (ShortPointer) tensor.data().pointer(),
+                    (IntPointer) tensor.shapeInfoDataBuffer().pointer(),
+                    targets,
+                    (IntPointer) result[0].shapeInfoDataBuffer().pointer(),
+                    (IntPointer) tadBuffers.getFirst().pointer(),
+                    new LongPointerWrapper(tadBuffers.getSecond().pointer())
+            );
         }
 
         return result;
@@ -657,13 +666,21 @@ public class CpuNDArrayFactory extends BaseNDArrayFactory {
 
         int[] outputShape = ArrayUtil.copy(toConcat[0].shape());
 
+        if (toConcat[0].isCompressed())
+            Nd4j.getCompressor().decompressi(toConcat[0]);
+
+        // result has data type of first array, arrays of other data types are converted
+        DataBuffer.Type dataType = toConcat[0].data().dataType();
+        INDArray[] arrays = new INDArray[toConcat.length];
 
         for (int i = 0; i < toConcat.length; i++) {
             if (toConcat[i].isCompressed())
                 Nd4j.getCompressor().decompressi(toConcat[i]);
 
-            shapeInfoPointers.put(i, toConcat[i].shapeInfoDataBuffer().addressPointer());
-            dataPointers.put(i, toConcat[i].data().addressPointer());
+            arrays[i] = toConcat[i].castTo(dataType);
+
+            shapeInfoPointers.put(i, arrays[i].shapeInfoDataBuffer().addressPointer());
+            dataPointers.put(i, arrays[i].data().addressPointer());
             sumAlongDim += toConcat[i].size(dimension);
             for (int j = 0; j < toConcat[i].rank(); j++)
                 if (j != dimension && toConcat[i].size(j) != outputShape[j]) {
@@ -679,7 +696,7 @@ public class CpuNDArrayFactory extends BaseNDArrayFactory {
 
         //PointerPointer dummy = new PointerPointer(new Pointer[] {null});
 
-        INDArray ret = Nd4j.createUninitialized(outputShape, Nd4j.order());
+        INDArray ret = Nd4j.createUninitialized(outputShape, Nd4j.order(), dataType);
 
         if (ret.data().dataType() == DataBuffer.Type.DOUBLE) {
             nativeOps.concatDouble(null, dimension, toConcat.length, dataPointers, shapeInfoPointers,
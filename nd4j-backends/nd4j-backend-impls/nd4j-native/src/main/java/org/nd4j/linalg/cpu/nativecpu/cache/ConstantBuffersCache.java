@@ -51,13 +51,14 @@ public class ConstantBuffersCache extends BasicConstantHandler {
         ArrayDescriptor descriptor = new ArrayDescriptor(array);
 
         if (!buffersCache.containsKey(descriptor)) {
-            DataBuffer buffer = Nd4j.createBufferDetached(array);
+            // constant buffers keep data type of java array, since it's chosen by caller to match operands
+            DataBuffer buffer = Nd4j.getDataBufferFactory().createFloat(array);
 
             if (counter.get() < MAX_ENTRIES) {
                 counter.incrementAndGet();
                 buffersCache.put(descriptor, buffer);
 
-                bytes.addAndGet(array.length * Nd4j.sizeOfDataType());
+                bytes.addAndGet(array.length * 4);
             }
             return buffer;
         }
@@ -70,13 +71,13 @@ public class ConstantBuffersCache extends BasicConstantHandler {
         ArrayDescriptor descriptor = new ArrayDescriptor(array);
 
         if (!buffersCache.containsKey(descriptor)) {
-            DataBuffer buffer = Nd4j.createBufferDetached(array);
+            DataBuffer buffer = Nd4j.getDataBufferFactory().createDouble(array);
 
             if (counter.get() < MAX_ENTRIES) {
                 counter.incrementAndGet();
                 buffersCache.put(descriptor, buffer);
 
-                bytes.addAndGet(array.length * Nd4j.sizeOfDataType());
+                bytes.addAndGet(array.length * 8);
             }
             return buffer;
         }
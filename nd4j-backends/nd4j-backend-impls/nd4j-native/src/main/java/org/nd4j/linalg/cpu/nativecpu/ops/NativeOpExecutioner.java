@@ -99,6 +99,14 @@ public class NativeOpExecutioner extends DefaultOpExecutioner {
     public Op exec(Op op) {
         checkForCompression(op);
 
+        // operands of different data types are converted to common one
+        ConvertedOperands operands = convertOperands(op);
+        if (operands != null) {
+            exec(op);
+            restoreOperands(op, operands);
+            return op;
+        }
+
         if (op instanceof ScalarOp) {
             ScalarOp s = (ScalarOp) op;
             exec(s);
@@ -135,7 +143,14 @@ public class NativeOpExecutioner extends DefaultOpExecutioner {
 
         checkForCompression(op);
 
-        validateDataType(Nd4j.dataType(), op);
+        ConvertedOperands operands = convertOperands(op);
+        if (operands != null) {
+            exec(op, dimension);
+            restoreOperands(op, operands);
+            return op.z();
+        }
+
+        validateDataType(op.x().data().dataType(), op);
 
         if (extraz.get() == null)
             extraz.set(new PointerPointer(32));
@@ -169,11 +184,11 @@ public class NativeOpExecutioner extends DefaultOpExecutioner {
             retShape = new int[] {1, 1};
         }
 
-        INDArray ret;
+        INDArray ret = Nd4j.createUninitialized(retShape, Nd4j.order(), op.x().data().dataType());
         if (op.x().data().dataType() == DataBuffer.Type.DOUBLE)
-            ret = Nd4j.valueArrayOf(retShape, op.zeroDouble());
+            ret.assign(op.zeroDouble());
         else
-            ret = Nd4j.valueArrayOf(retShape, op.zeroFloat());
+            ret.assign(op.zeroFloat());
 
         op.setZ(ret);
         //do op along all dimensions
@@ -244,8 +259,16 @@ public class NativeOpExecutioner extends DefaultOpExecutioner {
     public INDArray exec(Accumulation op, int... dimension) {
         Arrays.sort(dimension);
 
+        checkForCompression(op);
+
+        ConvertedOperands operands = convertOperands(op);
+        if (operands != null) {
+            exec(op, dimension);
+            restoreOperands(op, operands);
+            return op.z();
+        }
 
-        validateDataType(Nd4j.dataType(), op);
+        validateDataType(op.x().data().dataType(), op);
 
         if (extraz.get() == null)
             extraz.set(new PointerPointer(32));
@@ -295,11 +318,11 @@ public class NativeOpExecutioner extends DefaultOpExecutioner {
 
                 ret = Nd4j.create(xT, yT);
             } else {
+                ret = Nd4j.createUninitialized(retShape, Nd4j.order(), op.x().data().dataType());
                 if (op.x().data().dataType() == DataBuffer.Type.DOUBLE)
-                    ret = Nd4j.valueArrayOf(retShape, op.zeroDouble());
+                    ret.assign(op.zeroDouble());
                 else
-                    ret = Nd4j.valueArrayOf(retShape, op.zeroFloat());
-
+                    ret.assign(op.zeroFloat());
             }
             op.setZ(ret);
         } else {
@@ -582,7 +605,7 @@ public class NativeOpExecutioner extends DefaultOpExecutioner {
         } else {
             long st = profilingHookIn(op);
 
-            validateDataType(Nd4j.dataType(), op);
+            validateDataType(op.x().data().dataType(), op);
 
             if (op.x().lengthLong() != op.z().lengthLong())
                 throw new ND4JIllegalStateException("op.X length should be equal to op.Y length: ["
@@ -640,7 +663,7 @@ public class NativeOpExecutioner extends DefaultOpExecutioner {
     private void exec(TransformOp op) {
         long st = 0;
 
-        validateDataType(Nd4j.dataType(), op);
+        validateDataType(op.x().data().dataType(), op);
 
         if (extraz.get() == null)
             extraz.set(new PointerPointer(32));
@@ -778,10 +801,19 @@ public class NativeOpExecutioner extends DefaultOpExecutioner {
 
     @Override
     public INDArray exec(BroadcastOp op, int... dimension) {
+        checkForCompression(op);
+
+        ConvertedOperands operands = convertOperands(op);
+        if (operands != null) {
+            exec(op, dimension);
+            restoreOperands(op, operands);
+            return op.z();
+        }
+
         long st = profilingHookIn(op);
         Arrays.sort(dimension);
 
-        validateDataType(Nd4j.dataType(), op);
+        validateDataType(op.x().data().dataType(), op);
 
         for (int i = 0; i < dimension.length; i++)
             if (dimension[i] >= op.x().rank() && dimension[i] != Integer.MAX_VALUE)
@@ -848,12 +880,12 @@ public class NativeOpExecutioner extends DefaultOpExecutioner {
 
         } else {
             if(op.z() == op.x()) {
-                op.setZ(Nd4j.scalar(0.0));
+                op.setZ(Nd4j.create(new int[] {1, 1}, op.x().data().dataType()));
             }
 
             long st = profilingHookIn(op);
 
-            validateDataType(Nd4j.dataType(), op);
+            validateDataType(op.x().data().dataType(), op);
 
 
             if (op.x().data().dataType() == DataBuffer.Type.DOUBLE) {
@@ -885,7 +917,7 @@ public class NativeOpExecutioner extends DefaultOpExecutioner {
         else {
             long st = profilingHookIn(op);
 
-            validateDataType(Nd4j.dataType(), op);
+            validateDataType(op.x().data().dataType(), op);
 
             if(op.z() == op.x()) {
                 op.setZ(Nd4j.scalar(0.0));
@@ -1212,13 +1244,24 @@ public class NativeOpExecutioner extends DefaultOpExecutioner {
             throw new IllegalStateException(
                     "You should use one of NativeRandom classes for NativeOperations execution");
 
+        checkForCompression(op);
+
+        ConvertedOperands operands = convertOperands(op);
+        if (operands != null) {
+            exec(op, rng);
+            restoreOperands(op, operands);
+            return op.z();
+        }
+
         long st = profilingHookIn(op);
 
-        validateDataType(Nd4j.dataType(), op);
+        // random ops might have no inputs, so data type is defined by op.Z
+        DataBuffer.Type dataType = op.z().data().dataType();
+        validateDataType(dataType, op);
 
         if (op.x() != null && op.y() != null && op.z() != null) {
             // triple arg call
-            if (Nd4j.dataType() == DataBuffer.Type.FLOAT) {
+            if (dataType == DataBuffer.Type.FLOAT) {
                 loop.execRandomFloat(null, op.opNum(), rng.getStatePointer(), // rng state ptr
                         (FloatPointer) op.x().data().addressPointer(),
                         (IntPointer) op.x().shapeInfoDataBuffer().addressPointer(),
@@ -1227,7 +1270,7 @@ public class NativeOpExecutioner extends DefaultOpExecutioner {
                         (FloatPointer) op.z().data().addressPointer(),
                         (IntPointer) op.z().shapeInfoDataBuffer().addressPointer(),
                         (FloatPointer) op.extraArgsDataBuff().addressPointer());
-            } else if (Nd4j.dataType() == DataBuffer.Type.DOUBLE) {
+            } else if (dataType == DataBuffer.Type.DOUBLE) {
                 loop.execRandomDouble(null, op.opNum(), rng.getStatePointer(), // rng state ptr
                         (DoublePointer) op.x().data().addressPointer(),
                         (IntPointer) op.x().shapeInfoDataBuffer().addressPointer(),
@@ -1239,14 +1282,14 @@ public class NativeOpExecutioner extends DefaultOpExecutioner {
             }
         } else if (op.x() != null && op.z() != null) {
             //double arg call
-            if (Nd4j.dataType() == DataBuffer.Type.FLOAT) {
+            if (dataType == DataBuffer.Type.FLOAT) {
                 loop.execRandomFloat(null, op.opNum(), rng.getStatePointer(), // rng state ptr
                         (FloatPointer) op.x().data().addressPointer(),
                         (IntPointer) op.x().shapeInfoDataBuffer().addressPointer(),
                         (FloatPointer) op.z().data().addressPointer(),
                         (IntPointer) op.z().shapeInfoDataBuffer().addressPointer(),
                         (FloatPointer) op.extraArgsDataBuff().addressPointer());
-            } else if (Nd4j.dataType() == DataBuffer.Type.DOUBLE) {
+            } else if (dataType == DataBuffer.Type.DOUBLE) {
                 loop.execRandomDouble(null, op.opNum(), rng.getStatePointer(), // rng state ptr
                         (DoublePointer) op.x().data().addressPointer(),
                         (IntPointer) op.x().shapeInfoDataBuffer().addressPointer(),
@@ -1258,12 +1301,12 @@ public class NativeOpExecutioner extends DefaultOpExecutioner {
         } else {
             // single arg call
 
-            if (Nd4j.dataType() == DataBuffer.Type.FLOAT) {
+            if (dataType == DataBuffer.Type.FLOAT) {
                 loop.execRandomFloat(null, op.opNum(), rng.getStatePointer(), // rng state ptr
                         (FloatPointer) op.z().data().addressPointer(),
                         (IntPointer) op.z().shapeInfoDataBuffer().addressPointer(),
                         (FloatPointer) op.extraArgsDataBuff().addressPointer());
-            } else if (Nd4j.dataType() == DataBuffer.Type.DOUBLE) {
+            } else if (dataType == DataBuffer.Type.DOUBLE) {
                 loop.execRandomDouble(null, op.opNum(), rng.getStatePointer(), // rng state ptr
                         (DoublePointer) op.z().data().addressPointer(),
                         (IntPointer) op.z().shapeInfoDataBuffer().addressPointer(),
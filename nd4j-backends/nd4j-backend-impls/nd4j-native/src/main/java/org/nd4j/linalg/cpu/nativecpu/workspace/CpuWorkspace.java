@@ -114,6 +114,7 @@ public class CpuWorkspace extends Nd4jWorkspace {
             log.info("Destroying workspace...");
 
         currentSize.set(0);
+        telemetry.updateSize(0);
         hostOffset.set(0);
         deviceOffset.set(0);
 
@@ -132,6 +133,8 @@ public class CpuWorkspace extends Nd4jWorkspace {
 
         workspace.setDevicePointer(null);
         workspace.setHostPointer(null);
+
+        destroySpillArena();
     }
 
     @Override
@@ -34,22 +34,6 @@ public class DataTypeValidationTests extends BaseNd4jTest {
         Nd4j.setDataType(initialType);
     }
 
-    /**
-     * Testing basic assign
-     */
-    @Test(expected = ND4JIllegalStateException.class)
-    public void testOpValidation1() {
-        INDArray x = Nd4j.create(10);
-
-        Nd4j.setDataType(DataBuffer.Type.DOUBLE);
-
-        INDArray y = Nd4j.create(10);
-
-        x.addi(y);
-
-        Nd4j.getExecutioner().commit();
-    }
-
     /**
      * Testing level1 blas
      */
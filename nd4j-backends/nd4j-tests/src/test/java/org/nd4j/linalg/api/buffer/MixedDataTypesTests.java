@@ -0,0 +1,217 @@
+package org.nd4j.linalg.api.buffer;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.nd4j.linalg.BaseNd4jTest;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.linalg.factory.Nd4jBackend;
+import org.nd4j.serde.binary.BinarySerde;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+
+import static org.junit.Assert.*;
+
+@RunWith(Parameterized.class)
+public class MixedDataTypesTests extends BaseNd4jTest {
+    DataBuffer.Type initialType;
+
+    public MixedDataTypesTests(Nd4jBackend backend) {
+        super(backend);
+    }
+
+    @Before
+    public void setUp() {
+        initialType = Nd4j.dataType();
+        Nd4j.setDataType(DataBuffer.Type.FLOAT);
+    }
+
+    @After
+    public void shutUp() {
+        Nd4j.setDataType(initialType);
+    }
+
+    @Test
+    public void testCastTo1() {
+        INDArray array = Nd4j.linspace(1, 12, 12).reshape(3, 4);
+
+        assertTrue(array == array.castTo(DataBuffer.Type.FLOAT));
+
+        INDArray doubles = array.castTo(DataBuffer.Type.DOUBLE);
+        assertEquals(DataBuffer.Type.DOUBLE, doubles.data().dataType());
+        assertArrayEquals(array.shape(), doubles.shape());
+        assertEquals(12.0, doubles.getDouble(2, 3), 1e-5);
+
+        INDArray half = doubles.castTo(DataBuffer.Type.HALF);
+        assertEquals(DataBuffer.Type.HALF, half.data().dataType());
+        assertEquals(2, half.data().getElementSize());
+        assertEquals(7.0, half.getDouble(1, 2), 1e-3);
+    }
+
+    @Test
+    public void testCastToView1() {
+        INDArray matrix = Nd4j.linspace(1, 100, 100).reshape(10, 10);
+        INDArray column = matrix.getColumn(3).castTo(DataBuffer.Type.DOUBLE);
+
+        assertEquals(DataBuffer.Type.DOUBLE, column.data().dataType());
+        for (int i = 0; i < 10; i++)
+            assertEquals(matrix.getDouble(i, 3), column.getDouble(i), 1e-5);
+    }
+
+    @Test
+    public void testMixedOps1() {
+        INDArray x = Nd4j.linspace(1, 10, 10);
+        INDArray y = Nd4j.create(new int[] {1, 10}, DataBuffer.Type.DOUBLE).assign(1.0);
+
+        assertEquals(DataBuffer.Type.DOUBLE, y.data().dataType());
+
+        x.addi(y);
+
+        assertEquals(DataBuffer.Type.FLOAT, x.data().dataType());
+        assertEquals(Nd4j.linspace(2, 11, 10), x);
+    }
+
+    @Test
+    public void testMixedOps2() {
+        INDArray x = Nd4j.linspace(1, 10, 10).castTo(DataBuffer.Type.DOUBLE);
+
+        assertEquals(55.0, x.sumNumber().doubleValue(), 1e-5);
+        assertEquals(DataBuffer.Type.DOUBLE, x.mul(2.0).data().dataType());
+        assertEquals(DataBuffer.Type.DOUBLE, x.dup().data().dataType());
+        assertEquals(DataBuffer.Type.DOUBLE, x.dup('f').data().dataType());
+    }
+
+    @Test
+    public void testMixedMmul1() {
+        INDArray floats = Nd4j.linspace(1, 6, 6).reshape(2, 3);
+        INDArray expected = floats.mmul(floats.transpose());
+
+        INDArray doubles = floats.castTo(DataBuffer.Type.DOUBLE);
+        INDArray result = doubles.mmul(doubles.transpose());
+
+        assertEquals(DataBuffer.Type.DOUBLE, result.data().dataType());
+        for (int i = 0; i < 2; i++)
+            for (int j = 0; j < 2; j++)
+                assertEquals(expected.getDouble(i, j), result.getDouble(i, j), 1e-5);
+
+        INDArray mixed = floats.mmul(doubles.transpose());
+        assertEquals(DataBuffer.Type.DOUBLE, mixed.data().dataType());
+        assertEquals(expected.getDouble(1, 1), mixed.getDouble(1, 1), 1e-5);
+    }
+
+    @Test
+    public void testHalfMmul1() {
+        INDArray floats = Nd4j.linspace(1, 6, 6).reshape(2, 3);
+        INDArray expected = floats.mmul(floats.transpose());
+
+        INDArray half = floats.castTo(DataBuffer.Type.HALF);
+        INDArray result = half.mmul(half.transpose());
+
+        assertEquals(DataBuffer.Type.HALF, result.data().dataType());
+        for (int i = 0; i < 2; i++)
+            for (int j = 0; j < 2; j++)
+                assertEquals(expected.getDouble(i, j), result.getDouble(i, j), 1e-2);
+    }
+
+    @Test
+    public void testMixedSub1() {
+        INDArray x = Nd4j.linspace(1, 10, 10).castTo(DataBuffer.Type.DOUBLE);
+        INDArray result = x.sub(Nd4j.ones(1, 10));
+
+        assertEquals(DataBuffer.Type.DOUBLE, result.data().dataType());
+        assertEquals(DataBuffer.Type.DOUBLE, x.sub(x).data().dataType());
+        for (int i = 0; i < 10; i++)
+            assertEquals(i, result.getDouble(i), 1e-5);
+    }
+
+    @Test
+    public void testHalfOps1() {
+        INDArray half = Nd4j.create(new int[] {4, 5}, DataBuffer.Type.HALF);
+        assertEquals(DataBuffer.Type.HALF, half.data().dataType());
+
+        half.assign(2.0);
+        half.addi(1.0);
+        half.muli(Nd4j.create(4, 5).assign(2.0));
+
+        assertEquals(DataBuffer.Type.HALF, half.data().dataType());
+        assertEquals(120.0, half.sumNumber().doubleValue(), 1e-2);
+
+        INDArray sums = half.sum(1);
+        assertEquals(30.0, sums.getDouble(0), 1e-2);
+    }
+
+    @Test
+    public void testHalfTear1() {
+        INDArray half = Nd4j.linspace(1, 12, 12).reshape(3, 4).castTo(DataBuffer.Type.HALF);
+
+        INDArray[] rows = Nd4j.tear(half, 1);
+        assertEquals(3, rows.length);
+        for (int i = 0; i < rows.length; i++) {
+            assertEquals(DataBuffer.Type.HALF, rows[i].data().dataType());
+            assertEquals(half.getDouble(i, 0), rows[i].getDouble(0), 1e-3);
+            assertEquals(half.getDouble(i, 3), rows[i].getDouble(3), 1e-3);
+        }
+    }
+
+    @Test
+    public void testMixedConcat1() {
+        INDArray first = Nd4j.linspace(1, 4, 4).castTo(DataBuffer.Type.DOUBLE);
+        INDArray second = Nd4j.linspace(5, 8, 4);
+
+        INDArray result = Nd4j.concat(0, first, second);
+
+        assertEquals(DataBuffer.Type.DOUBLE, result.data().dataType());
+        assertEquals(8.0, result.getDouble(1, 3), 1e-5);
+    }
+
+    @Test
+    public void testSerialization1() throws Exception {
+        INDArray half = Nd4j.linspace(1, 20, 20).reshape(4, 5).castTo(DataBuffer.Type.HALF);
+
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        Nd4j.write(half, new DataOutputStream(bos));
+
+        INDArray restored = Nd4j.read(new DataInputStream(new ByteArrayInputStream(bos.toByteArray())));
+
+        assertEquals(DataBuffer.Type.HALF, restored.data().dataType());
+        assertArrayEquals(half.shape(), restored.shape());
+        assertEquals(half.getDouble(3, 4), restored.getDouble(3, 4), 1e-3);
+        assertEquals(DataBuffer.Type.HALF, restored.dup().data().dataType());
+    }
+
+    @Test
+    public void testBinarySerde1() {
+        INDArray doubles = Nd4j.linspace(1, 20, 20).castTo(DataBuffer.Type.DOUBLE);
+        INDArray half = doubles.castTo(DataBuffer.Type.HALF);
+
+        INDArray restoredDoubles = BinarySerde.toArray(BinarySerde.toByteBuffer(doubles));
+        INDArray restoredHalf = BinarySerde.toArray(BinarySerde.toByteBuffer(half));
+
+        assertEquals(DataBuffer.Type.DOUBLE, restoredDoubles.data().dataType());
+        assertEquals(DataBuffer.Type.HALF, restoredHalf.data().dataType());
+        assertEquals(doubles, restoredDoubles);
+        assertEquals(17.0, restoredHalf.getDouble(16), 1e-3);
+    }
+
+    @Test
+    public void testTypeConversion1() {
+        INDArray array = Nd4j.linspace(1, 10, 10);
+
+        INDArray half = Nd4j.typeConversion(array, DataBuffer.TypeEx.FLOAT16);
+        assertEquals(DataBuffer.Type.HALF, half.data().dataType());
+
+        INDArray floats = Nd4j.typeConversion(half, DataBuffer.TypeEx.FLOAT);
+        assertEquals(array, floats);
+    }
+
+    @Override
+    public char ordering() {
+        return 'c';
+    }
+}
@@ -5,8 +5,10 @@ import org.junit.Ignore;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.Parameterized;
+import org.nd4j.compression.impl.Deflate;
 import org.nd4j.linalg.BaseNd4jTest;
 import org.nd4j.linalg.api.buffer.DataBuffer;
+import org.nd4j.linalg.api.buffer.LongBuffer;
 import org.nd4j.linalg.api.memory.MemoryWorkspace;
 import org.nd4j.linalg.api.memory.conf.WorkspaceConfiguration;
 import org.nd4j.linalg.api.memory.enums.AllocationPolicy;
@@ -216,6 +218,118 @@ public class CompressionTests extends BaseNd4jTest {
         assertEquals(exp, decomp);
     }
 
+    @Test
+    public void testDeflateCompression1() {
+        INDArray array = Nd4j.linspace(1, 10000, 20000);
+        INDArray exp = array.dup();
+
+        BasicNDArrayCompressor.getInstance().setDefaultCompression("DEFLATE");
+
+        INDArray compr = BasicNDArrayCompressor.getInstance().compress(array);
+
+        assertEquals(DataBuffer.Type.COMPRESSED, compr.data().dataType());
+
+        INDArray decomp = BasicNDArrayCompressor.getInstance().decompress(compr);
+
+        assertEquals(exp, array);
+        assertEquals(exp, decomp);
+    }
+
+    @Test
+    public void testDeflateCompression2() {
+        Nd4j.getRandom().setSeed(119);
+        INDArray array = Nd4j.rand(1, 100000);
+        INDArray exp = array.dup();
+
+        NDArrayCompressor compressor = BasicNDArrayCompressor.getInstance().getCompressor("DEFLATE");
+        try {
+            for (boolean shuffle : new boolean[] {true, false}) {
+                compressor.configure(1024, shuffle);
+
+                INDArray compr = compressor.compress(array);
+                assertEquals(DataBuffer.Type.COMPRESSED, compr.data().dataType());
+
+                INDArray decomp = compressor.decompress(compr);
+                assertEquals(exp, decomp);
+            }
+        } finally {
+            compressor.configure(Deflate.DEFAULT_BLOCK_SIZE, true);
+        }
+    }
+
+    @Test
+    public void testDeflateCompression3() {
+        INDArray array = Nd4j.linspace(1, 2000, 2000);
+
+        Deflate compressor = (Deflate) BasicNDArrayCompressor.getInstance().getCompressor("DEFLATE");
+        try {
+            // 64 elements per block, so the range below spans 3 blocks
+            compressor.configure(64 * Nd4j.sizeOfDataType());
+
+            INDArray compr = compressor.compress(array);
+
+            DataBuffer slice = compressor.decompress(compr.data(), 100, 150);
+            assertEquals(150, slice.length());
+            for (int e = 0; e < 150; e++)
+                assertEquals(array.getDouble(100 + e), slice.getDouble(e), 1e-5);
+
+            DataBuffer tail = compressor.decompress(compr.data(), 1990, 10);
+            assertEquals(2000.0, tail.getDouble(9), 1e-5);
+        } finally {
+            compressor.configure(Deflate.DEFAULT_BLOCK_SIZE);
+        }
+    }
+
+    @Test
+    public void testDeflateCompression4() {
+        INDArray array = Nd4j.create(new float[] {1f, 2f, 3f});
+        INDArray exp = array.dup();
+
+        INDArray compr = BasicNDArrayCompressor.getInstance().compress(array, "DEFLATE");
+        INDArray decomp = BasicNDArrayCompressor.getInstance().decompress(compr);
+
+        assertEquals(exp, decomp);
+    }
+
+    @Test
+    public void testDeflateCompression5() {
+        NDArrayCompressor compressor = BasicNDArrayCompressor.getInstance().getCompressor("DEFLATE");
+
+        DataBuffer ints = Nd4j.createBuffer(new int[] {1, -2, 3, 1 << 30});
+        DataBuffer restoredInts = compressor.decompress(compressor.compress(ints));
+        assertEquals(DataBuffer.Type.INT, restoredInts.dataType());
+        assertArrayEquals(ints.asInt(), restoredInts.asInt());
+
+        LongBuffer longs = new LongBuffer(3);
+        longs.putByCurrentType(0, 1L, DataBuffer.Type.LONG);
+        longs.putByCurrentType(1, -2L, DataBuffer.Type.LONG);
+        longs.putByCurrentType(2, 1L << 40, DataBuffer.Type.LONG);
+        DataBuffer restoredLongs = compressor.decompress(compressor.compress(longs));
+        assertEquals(DataBuffer.Type.LONG, restoredLongs.dataType());
+        assertEquals(1L << 40, restoredLongs.getLong(2));
+        assertEquals(-2L, restoredLongs.getLong(1));
+    }
+
+    @Test
+    public void testScaledInt8DataType1() {
+        for (String algorithm : new String[] {"SCALED_INT8", "SCALED_INT8_ROW"}) {
+            NDArrayCompressor compressor = BasicNDArrayCompressor.getInstance().getCompressor(algorithm);
+
+            DataBuffer doubles = Nd4j.getDataBufferFactory().createDouble(new double[] {-1.0, 0.0, 0.5, 1.0});
+            assertEquals(DataBuffer.Type.DOUBLE, doubles.dataType());
+
+            DataBuffer restored = compressor.decompress(compressor.compress(doubles));
+            assertEquals(algorithm, DataBuffer.Type.DOUBLE, restored.dataType());
+            assertArrayEquals(doubles.asDouble(), restored.asDouble(), 1e-2);
+
+            DataBuffer halfs = Nd4j.createBuffer(new int[] {4}, DataBuffer.Type.HALF);
+            halfs.put(3, 2.0f);
+            DataBuffer restoredHalfs = compressor.decompress(compressor.compress(halfs));
+            assertEquals(algorithm, DataBuffer.Type.HALF, restoredHalfs.dataType());
+            assertEquals(2.0, restoredHalfs.getDouble(3), 1e-2);
+        }
+    }
+
     @Test
     public void testNoOpCompression1() {
         INDArray array = Nd4j.linspace(1, 10000, 20000);
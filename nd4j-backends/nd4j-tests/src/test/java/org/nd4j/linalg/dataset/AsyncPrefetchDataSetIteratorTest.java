@@ -0,0 +1,146 @@
+package org.nd4j.linalg.dataset;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.nd4j.linalg.BaseNd4jTest;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.dataset.api.DataSetPreProcessor;
+import org.nd4j.linalg.dataset.api.iterator.AsyncPrefetchDataSetIterator;
+import org.nd4j.linalg.dataset.api.iterator.DataSetIterator;
+import org.nd4j.linalg.dataset.api.iterator.TestDataSetIterator;
+import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.linalg.factory.Nd4jBackend;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+@RunWith(Parameterized.class)
+public class AsyncPrefetchDataSetIteratorTest extends BaseNd4jTest {
+
+    public AsyncPrefetchDataSetIteratorTest(Nd4jBackend backend) {
+        super(backend);
+    }
+
+    @Test
+    public void testSameOrderAndContents() {
+        // 10 batches of 5 and one smaller batch of 3 (pool miss)
+        INDArray features = Nd4j.linspace(1, 53 * 4, 53 * 4).reshape(53, 4);
+        INDArray labels = Nd4j.linspace(1, 53 * 2, 53 * 2).reshape(53, 2);
+        DataSet all = new DataSet(features, labels);
+
+        DataSetIterator expIter = new TestDataSetIterator(all, 5);
+        List<DataSet> expected = new ArrayList<>();
+        while (expIter.hasNext()) {
+            expected.add(expIter.next().copy());
+        }
+
+        AsyncPrefetchDataSetIterator iter = new AsyncPrefetchDataSetIterator(new TestDataSetIterator(all, 5), 2);
+        try {
+            for (int epoch = 0; epoch < 2; epoch++) {
+                int count = 0;
+                while (iter.hasNext()) {
+                    DataSet ds = iter.next();
+                    assertEquals(expected.get(count).getFeatures(), ds.getFeatures());
+                    assertEquals(expected.get(count).getLabels(), ds.getLabels());
+                    count++;
+                }
+                assertEquals(expected.size(), count);
+                if (epoch == 0)
+                    iter.reset();
+            }
+
+            // no reset after the last epoch, so the producers are done and the counters are final
+            assertEquals(2 * expected.size(), iter.getNumBatches());
+            assertEquals(2, iter.getPoolMisses());
+        } finally {
+            iter.shutdown();
+        }
+    }
+
+    @Test
+    public void testMultipleProducers() {
+        INDArray features = Nd4j.linspace(1, 100, 100).reshape(100, 1);
+        DataSet all = new DataSet(features, features.dup());
+
+        AsyncPrefetchDataSetIterator iter =
+                        new AsyncPrefetchDataSetIterator(new TestDataSetIterator(all, 10), 3, 4);
+        try {
+            double sum = 0;
+            int count = 0;
+            while (iter.hasNext()) {
+                sum += iter.next().getFeatures().sumNumber().doubleValue();
+                count++;
+            }
+            assertEquals(10, count);
+            assertEquals(5050.0, sum, 1e-3);
+        } finally {
+            iter.shutdown();
+        }
+    }
+
+    @Test
+    public void testReusingSourceMultipleProducers() {
+        INDArray features = Nd4j.linspace(1, 100, 100).reshape(100, 1);
+        DataSet all = new DataSet(features, features.dup());
+
+        // source iterator copying every batch into the same arrays
+        final DataSet reused = new DataSet(Nd4j.create(10, 1), Nd4j.create(10, 1));
+        DataSetIterator source = new TestDataSetIterator(all, 10) {
+            @Override
+            public synchronized DataSet next() {
+                DataSet batch = super.next();
+                reused.getFeatures().assign(batch.getFeatures());
+                reused.getLabels().assign(batch.getLabels());
+                return reused;
+            }
+        };
+
+        AsyncPrefetchDataSetIterator iter = new AsyncPrefetchDataSetIterator(source, 3, 4);
+        try {
+            double sum = 0;
+            while (iter.hasNext())
+                sum += iter.next().getFeatures().sumNumber().doubleValue();
+            assertEquals(5050.0, sum, 1e-3);
+        } finally {
+            iter.shutdown();
+        }
+    }
+
+    @Test
+    public void testReshapingPreProcessor() {
+        INDArray features = Nd4j.linspace(1, 53 * 4, 53 * 4).reshape(53, 4);
+        DataSet all = new DataSet(features, Nd4j.ones(53, 2));
+
+        AsyncPrefetchDataSetIterator iter = new AsyncPrefetchDataSetIterator(new TestDataSetIterator(all, 5), 2);
+        iter.setPreProcessor(new DataSetPreProcessor() {
+            @Override
+            public void preProcess(org.nd4j.linalg.dataset.api.DataSet toPreProcess) {
+                INDArray f = toPreProcess.getFeatures();
+                toPreProcess.setFeatures(f.reshape(f.size(0), 2, 2));
+            }
+        });
+        try {
+            int count = 0;
+            while (iter.hasNext()) {
+                DataSet ds = iter.next();
+                assertEquals(3, ds.getFeatures().rank());
+                assertEquals(features.getDouble(count * 5, 3), ds.getFeatures().getDouble(0, 1, 1), 1e-5);
+                count++;
+            }
+            assertEquals(11, count);
+
+            // reshaped features don't change the shapes of the pooled buffers: only the last batch misses
+            assertEquals(1, iter.getPoolMisses());
+        } finally {
+            iter.shutdown();
+        }
+    }
+
+    @Override
+    public char ordering() {
+        return 'c';
+    }
+}
@@ -0,0 +1,112 @@
+package org.nd4j.linalg.dataset;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.nd4j.linalg.BaseNd4jTest;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.linalg.factory.Nd4jBackend;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+@RunWith(Parameterized.class)
+public class BatchAssemblerTest extends BaseNd4jTest {
+
+    public BatchAssemblerTest(Nd4jBackend backend) {
+        super(backend);
+    }
+
+    @Test
+    public void testAssembleSameAsMerge() {
+        Nd4j.getRandom().setSeed(12345);
+        List<DataSet> examples = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            examples.add(new DataSet(Nd4j.rand(1, 4), Nd4j.rand(1, 3)));
+        }
+
+        BatchAssembler assembler = new BatchAssembler(10, new int[] {4}, new int[] {3});
+        DataSet expected = DataSet.merge(examples);
+        DataSet batch = assembler.assemble(examples);
+        assertEquals(expected.getFeatures(), batch.getFeatures());
+        assertEquals(expected.getLabels(), batch.getLabels());
+
+        // Arrays are reused: a second, smaller batch overwrites the first slots
+        List<DataSet> second = examples.subList(3, 7);
+        expected = DataSet.merge(second);
+        batch = assembler.assemble(second);
+        assertEquals(4, batch.numExamples());
+        assertEquals(expected.getFeatures(), batch.getFeatures());
+        assertEquals(expected.getLabels(), batch.getLabels());
+    }
+
+    @Test
+    public void testVariableLengthTimeSeries() {
+        Nd4j.getRandom().setSeed(12345);
+        int[] lengths = {5, 3, 4, 5, 1};
+        List<DataSet> examples = new ArrayList<>();
+        for (int length : lengths) {
+            examples.add(new DataSet(Nd4j.rand(new int[] {1, 2, length}), Nd4j.rand(new int[] {1, 3, length})));
+        }
+
+        BatchAssembler assembler = new BatchAssembler(lengths.length, new int[] {2, 5}, new int[] {3, 5},
+                        new int[] {5}, new int[] {5});
+
+        // Fill with garbage first, to check that padding is overwritten
+        for (int i = 0; i < lengths.length; i++) {
+            assembler.put(i, new DataSet(Nd4j.ones(1, 2, 5), Nd4j.ones(1, 3, 5)));
+        }
+
+        DataSet expected = DataSet.merge(examples);
+        DataSet batch = assembler.assemble(examples);
+        assertEquals(expected.getFeatures(), batch.getFeatures());
+        assertEquals(expected.getLabels(), batch.getLabels());
+        assertEquals(expected.getFeaturesMaskArray(), batch.getFeaturesMaskArray());
+        assertEquals(expected.getLabelsMaskArray(), batch.getLabelsMaskArray());
+    }
+
+    @Test
+    public void testConcurrentFill() throws Exception {
+        final int nThreads = 4;
+        final int perThread = 8;
+        final BatchAssembler assembler = new BatchAssembler(nThreads * perThread, new int[] {3}, new int[] {1});
+
+        Thread[] threads = new Thread[nThreads];
+        for (int t = 0; t < nThreads; t++) {
+            final int first = t * perThread;
+            threads[t] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    for (int i = first; i < first + perThread; i++) {
+                        assembler.put(i, new DataSet(Nd4j.valueArrayOf(new int[] {1, 3}, i),
+                                        Nd4j.valueArrayOf(new int[] {1, 1}, i)));
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        DataSet batch = assembler.getBatch(nThreads * perThread);
+        for (int i = 0; i < nThreads * perThread; i++) {
+            assertEquals(Nd4j.valueArrayOf(new int[] {1, 3}, i), batch.getFeatures().getRow(i));
+            assertEquals(i, batch.getLabels().getDouble(i, 0), 0.0);
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testPaddingRequiresMask() {
+        BatchAssembler assembler = new BatchAssembler(2, new int[] {2, 5}, new int[] {3, 5});
+        assembler.put(0, new DataSet(Nd4j.rand(new int[] {1, 2, 3}), Nd4j.rand(new int[] {1, 3, 3})));
+    }
+
+    @Override
+    public char ordering() {
+        return 'c';
+    }
+}
@@ -8,10 +8,15 @@ import org.nd4j.linalg.api.ndarray.INDArray;
 import org.nd4j.linalg.dataset.api.iterator.DataSetIterator;
 import org.nd4j.linalg.dataset.api.iterator.TestDataSetIterator;
 import org.nd4j.linalg.dataset.api.preprocessor.NormalizerStandardize;
+import org.nd4j.linalg.dataset.api.preprocessor.stats.DistributionStats;
+import org.nd4j.linalg.dataset.api.preprocessor.stats.NormalizerStats;
 import org.nd4j.linalg.factory.Nd4j;
 import org.nd4j.linalg.factory.Nd4jBackend;
+import org.nd4j.linalg.indexing.NDArrayIndex;
 import org.nd4j.linalg.ops.transforms.Transforms;
 
+import java.util.Arrays;
+
 import static org.junit.Assert.*;
 
 /**
@@ -181,6 +186,69 @@ public class NormalizerStandardizeTest extends BaseNd4jTest {
         assertEquals(1.70783f, norm4.getStd().getFloat(0), 1e-4);
     }
 
+    @Test
+    public void testFitMultipleIterators() {
+        // Create 6x1 matrix of the numbers 1 through 6, split over iterators of different sizes
+        INDArray values = Nd4j.linspace(1, 6, 6).transpose();
+        DataSet first = new DataSet(values.get(NDArrayIndex.interval(0, 1), NDArrayIndex.all()).dup(),
+                        values.get(NDArrayIndex.interval(0, 1), NDArrayIndex.all()).dup());
+        DataSet second = new DataSet(values.get(NDArrayIndex.interval(1, 6), NDArrayIndex.all()).dup(),
+                        values.get(NDArrayIndex.interval(1, 6), NDArrayIndex.all()).dup());
+
+        NormalizerStandardize norm = new NormalizerStandardize();
+        norm.fitLabel(true);
+        norm.fit(Arrays.asList(new TestDataSetIterator(first, 1), new TestDataSetIterator(second, 2)));
+        assertEquals(3.5f, norm.getMean().getFloat(0), 1e-6);
+        assertEquals(1.70783f, norm.getStd().getFloat(0), 1e-4);
+        assertEquals(3.5f, norm.getLabelMean().getFloat(0), 1e-6);
+        assertEquals(1.70783f, norm.getLabelStd().getFloat(0), 1e-4);
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testFitMultipleIteratorsRequiresMergeableStats() {
+        DataSet data = new DataSet(Nd4j.linspace(1, 6, 6).transpose(), Nd4j.linspace(1, 6, 6).transpose());
+
+        NormalizerStandardize norm = new NormalizerStandardize() {
+            @Override
+            protected NormalizerStats.Builder newBuilder() {
+                // statistics builder without merge support
+                final DistributionStats.Builder builder = new DistributionStats.Builder();
+                return new NormalizerStats.Builder<DistributionStats>() {
+                    @Override
+                    public NormalizerStats.Builder<DistributionStats> addFeatures(
+                                    org.nd4j.linalg.dataset.api.DataSet dataSet) {
+                        builder.addFeatures(dataSet);
+                        return this;
+                    }
+
+                    @Override
+                    public NormalizerStats.Builder<DistributionStats> addLabels(
+                                    org.nd4j.linalg.dataset.api.DataSet dataSet) {
+                        builder.addLabels(dataSet);
+                        return this;
+                    }
+
+                    @Override
+                    public NormalizerStats.Builder<DistributionStats> add(INDArray data, INDArray mask) {
+                        builder.add(data, mask);
+                        return this;
+                    }
+
+                    @Override
+                    public DistributionStats build() {
+                        return builder.build();
+                    }
+                };
+            }
+        };
+
+        // single iterator fitting doesn't merge statistics
+        norm.fit(new TestDataSetIterator(data, 2));
+        assertEquals(3.5f, norm.getMean().getFloat(0), 1e-6);
+
+        norm.fit(Arrays.asList(new TestDataSetIterator(data, 1), new TestDataSetIterator(data, 2)));
+    }
+
     @Test
     public void testUnderOverflow() {
         // This dataset will be basically constant with a small std deviation
@@ -0,0 +1,96 @@
+package org.nd4j.linalg.dataset;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.nd4j.linalg.BaseNd4jTest;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.dataset.api.iterator.DataSetIterator;
+import org.nd4j.linalg.dataset.api.iterator.ShuffleBufferDataSetIterator;
+import org.nd4j.linalg.dataset.api.iterator.TestDataSetIterator;
+import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.linalg.factory.Nd4jBackend;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+@RunWith(Parameterized.class)
+public class ShuffleBufferDataSetIteratorTest extends BaseNd4jTest {
+
+    public ShuffleBufferDataSetIteratorTest(Nd4jBackend backend) {
+        super(backend);
+    }
+
+    private static List<Double> epoch(DataSetIterator iter) {
+        List<Double> values = new ArrayList<>();
+        while (iter.hasNext()) {
+            DataSet ds = iter.next();
+            assertEquals(ds.getLabels().mul(10), ds.getFeatures().getColumn(2));
+            for (int i = 0; i < ds.numExamples(); i++) {
+                values.add(ds.getFeatures().getDouble(i, 0));
+            }
+        }
+        return values;
+    }
+
+    @Test
+    public void testShuffleBuffer() {
+        int nExamples = 47;
+        INDArray labels = Nd4j.linspace(1, nExamples, nExamples).reshape(nExamples, 1);
+        INDArray features = Nd4j.concat(1, labels, labels, labels).muli(10);
+        DataSet all = new DataSet(features, labels);
+
+        ShuffleBufferDataSetIterator iter1 =
+                        new ShuffleBufferDataSetIterator(new TestDataSetIterator(all, 5), 16, 8, 12345);
+        ShuffleBufferDataSetIterator iter2 =
+                        new ShuffleBufferDataSetIterator(new TestDataSetIterator(all, 5), 16, 8, 12345);
+
+        List<Double> first = epoch(iter1);
+        assertEquals(nExamples, first.size());
+        assertEquals(nExamples, new HashSet<>(first).size());
+
+        List<Double> ordered = new ArrayList<>();
+        for (int i = 1; i <= nExamples; i++) {
+            ordered.add(10.0 * i);
+        }
+        assertNotEquals(ordered, first);
+
+        // Deterministic for a given seed
+        assertEquals(first, epoch(iter2));
+
+        // Different order in the next epoch, same examples
+        iter1.reset();
+        List<Double> second = epoch(iter1);
+        Set<Double> expSet = new HashSet<>(first);
+        assertEquals(expSet, new HashSet<>(second));
+        assertNotEquals(first, second);
+    }
+
+    @Test
+    public void testSingleExampleBatches() {
+        int nExamples = 7;
+        INDArray labels = Nd4j.linspace(1, nExamples, nExamples).reshape(nExamples, 1);
+        INDArray features = Nd4j.concat(1, labels, labels, labels).muli(10);
+        DataSet all = new DataSet(features, labels);
+
+        // source DataSets, buffer and minibatches all hold a single example
+        ShuffleBufferDataSetIterator iter =
+                        new ShuffleBufferDataSetIterator(new TestDataSetIterator(all, 1), 1, 1, 12345);
+
+        List<Double> values = epoch(iter);
+        List<Double> ordered = new ArrayList<>();
+        for (int i = 1; i <= nExamples; i++) {
+            ordered.add(10.0 * i);
+        }
+        assertEquals(ordered, values);
+    }
+
+    @Override
+    public char ordering() {
+        return 'c';
+    }
+}
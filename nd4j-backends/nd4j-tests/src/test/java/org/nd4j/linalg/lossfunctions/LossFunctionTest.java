@@ -3,7 +3,10 @@ package org.nd4j.linalg.lossfunctions;
 import org.junit.Test;
 import org.nd4j.linalg.BaseNd4jTest;
 import org.nd4j.linalg.activations.IActivation;
+import org.nd4j.linalg.activations.impl.ActivationIdentity;
 import org.nd4j.linalg.activations.impl.ActivationSigmoid;
+import org.nd4j.linalg.activations.impl.ActivationSoftmax;
+import org.nd4j.linalg.activations.impl.ActivationTanH;
 import org.nd4j.linalg.api.ndarray.INDArray;
 import org.nd4j.linalg.api.ops.impl.accum.MatchCondition;
 import org.nd4j.linalg.api.ops.random.impl.BernoulliDistribution;
@@ -58,6 +61,50 @@ public class LossFunctionTest extends BaseNd4jTest {
         assertEquals(0, match2);
     }
 
+    @Test
+    public void testFusedGradientAndScore() {
+        Nd4j.getRandom().setSeed(12345);
+        int minibatch = 10;
+        int nOut = 6;
+
+        INDArray weights = Nd4j.rand(1, nOut).addi(0.5);
+        IFusedLossFunction[] lossFns = new IFusedLossFunction[] {new LossMCXENT(), new LossMCXENT(weights),
+                        new LossNegativeLogLikelihood(), new LossMSE(), new LossMSE(weights), new LossL2(),
+                        new LossBinaryXENT(), new LossBinaryXENT(weights)};
+        IActivation[] activations = new IActivation[] {new ActivationSoftmax(), new ActivationSoftmax(),
+                        new ActivationSoftmax(), new ActivationIdentity(), new ActivationTanH(),
+                        new ActivationSigmoid(), new ActivationSigmoid(), new ActivationSigmoid()};
+
+        INDArray perExampleMask = Nd4j.ones(minibatch, 1);
+        perExampleMask.putScalar(3, 0.0);
+
+        for (int i = 0; i < lossFns.length; i++) {
+            for (INDArray mask : new INDArray[] {null, perExampleMask}) {
+                INDArray labels;
+                if (lossFns[i] instanceof LossMCXENT) {
+                    labels = Nd4j.zeros(minibatch, nOut);
+                    for (int r = 0; r < minibatch; r++)
+                        labels.putScalar(r, r % nOut, 1.0);
+                } else if (lossFns[i] instanceof LossBinaryXENT) {
+                    labels = Nd4j.getExecutioner().exec(new BernoulliDistribution(Nd4j.create(minibatch, nOut), 0.5));
+                } else {
+                    labels = Nd4j.rand(minibatch, nOut);
+                }
+                INDArray preOut = Nd4j.rand(minibatch, nOut).subi(0.5).muli(4);
+
+                String msg = lossFns[i] + " - " + activations[i] + ", mask: " + (mask != null);
+                double expScore = lossFns[i].computeScore(labels, preOut.dup(), activations[i], mask, true);
+                INDArray expGrad = lossFns[i].computeGradient(labels, preOut.dup(), activations[i], mask);
+
+                INDArray grad = Nd4j.create(minibatch, nOut);
+                double score = lossFns[i].computeGradientAndScore(labels, preOut.dup(), activations[i], mask, true,
+                                grad);
+
+                assertEquals(msg, expScore, score, 1e-4);
+                assertEquals(msg, expGrad, grad);
+            }
+        }
+    }
 
     @Override
     public char ordering() {
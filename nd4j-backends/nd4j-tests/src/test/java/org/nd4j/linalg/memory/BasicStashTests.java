@@ -0,0 +1,217 @@
+package org.nd4j.linalg.memory;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.nd4j.linalg.BaseNd4jTest;
+import org.nd4j.linalg.api.buffer.DataBuffer;
+import org.nd4j.linalg.api.buffer.LongBuffer;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.exception.ND4JIllegalStateException;
+import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.linalg.factory.Nd4jBackend;
+import org.nd4j.linalg.memory.stash.*;
+
+import static org.junit.Assert.*;
+
+@RunWith(Parameterized.class)
+public class BasicStashTests extends BaseNd4jTest {
+
+    public BasicStashTests(Nd4jBackend backend) {
+        super(backend);
+    }
+
+    private static StashConfiguration configuration(StashOverflowPolicy policy, long maxSize) {
+        return StashConfiguration.builder().policyOverflow(policy).maxSize(maxSize).build();
+    }
+
+    @Test
+    public void testPutTake1() {
+        BasicStash<String> stash = new BasicStash<>();
+        INDArray array = Nd4j.linspace(1, 100, 100);
+
+        stash.put("first", array);
+        assertTrue(stash.checkIfExists("first"));
+        assertEquals(1, stash.size());
+        assertEquals(100 * Nd4j.sizeOfDataType(), stash.getStatistics().getLiveBytes());
+
+        INDArray taken = stash.take("first");
+        assertTrue(array == taken);
+        assertFalse(stash.checkIfExists("first"));
+        assertNull(stash.take("first"));
+
+        StashStatistics statistics = stash.getStatistics();
+        assertEquals(0, statistics.getNumberOfEntries());
+        assertEquals(0, statistics.getUsedBytes());
+        assertEquals(100 * Nd4j.sizeOfDataType(), statistics.getPeakBytes());
+    }
+
+    @Test
+    public void testGetReturnsCopy1() {
+        BasicStash<Integer> stash = new BasicStash<>();
+        stash.put(1, Nd4j.linspace(1, 10, 10));
+
+        INDArray copy = stash.get(1);
+        copy.assign(0.0);
+
+        assertEquals(Nd4j.linspace(1, 10, 10), stash.get(1));
+        assertEquals(1, stash.size());
+    }
+
+    @Test
+    public void testRepeatedPut1() {
+        long arraySize = 100 * Nd4j.sizeOfDataType();
+        OrderedStash<String> stash = new OrderedStash<>(configuration(StashOverflowPolicy.SPILL, arraySize * 4));
+
+        for (int e = 0; e < 1000; e++)
+            stash.put("key", Nd4j.create(100).assign(e));
+
+        // replaced entries don't stay in eviction order
+        assertEquals(1, stash.size());
+        assertEquals(1, stash.orderSize());
+        assertEquals(arraySize, stash.getStatistics().getLiveBytes());
+        assertEquals(999.0, stash.get("key").getDouble(99), 1e-5);
+    }
+
+    @Test
+    public void testViewsAreCopied1() {
+        BasicStash<Integer> stash = new BasicStash<>();
+        INDArray matrix = Nd4j.linspace(1, 100, 100).reshape(10, 10);
+
+        stash.put(1, matrix.getRow(2));
+        stash.purge();
+
+        assertEquals(0, stash.size());
+        assertEquals(21.0, matrix.getDouble(2, 0), 1e-5);
+    }
+
+    @Test
+    public void testCompression1() {
+        long arraySize = 1000 * Nd4j.sizeOfDataType();
+        BasicStash<Integer> stash = new BasicStash<>(configuration(StashOverflowPolicy.COMPRESS, arraySize * 2));
+
+        for (int e = 0; e < 5; e++)
+            stash.put(e, Nd4j.create(1000).assign(e));
+
+        StashStatistics statistics = stash.getStatistics();
+        assertTrue(statistics.getUsedBytes() <= arraySize * 2);
+        assertTrue(statistics.getNumberOfCompressedEntries() > 0);
+        assertTrue(statistics.getNumberOfCompressions() > 0);
+
+        // newest entries stay uncompressed
+        assertEquals(Nd4j.create(1000).assign(4), stash.get(4));
+
+        for (int e = 0; e < 5; e++)
+            assertEquals(Nd4j.create(1000).assign(e), stash.take(e));
+
+        assertEquals(0, stash.getUsedBytes());
+    }
+
+    @Test
+    public void testSpill1() {
+        long arraySize = 100 * Nd4j.sizeOfDataType();
+        BasicStash<Integer> stash = new BasicStash<>(configuration(StashOverflowPolicy.SPILL, arraySize));
+
+        for (int e = 0; e < 3; e++)
+            stash.put(e, Nd4j.linspace(1, 100, 100).reshape('f', 10, 10).addi(e));
+
+        StashStatistics statistics = stash.getStatistics();
+        assertEquals(3, statistics.getNumberOfEntries());
+        assertEquals(2, statistics.getNumberOfSpilledEntries());
+        assertEquals(arraySize, statistics.getUsedBytes());
+        assertTrue(statistics.getSpilledBytes() > 0);
+
+        for (int e = 0; e < 3; e++) {
+            INDArray restored = stash.take(e);
+            assertEquals(Nd4j.linspace(1, 100, 100).reshape('f', 10, 10).addi(e), restored);
+            assertEquals('f', restored.ordering());
+        }
+
+        statistics = stash.getStatistics();
+        assertEquals(0, statistics.getSpilledBytes());
+        assertEquals(2, statistics.getNumberOfRestorations());
+    }
+
+    private static INDArray ints(int length, int base) {
+        int[] data = new int[length];
+        for (int e = 0; e < length; e++)
+            data[e] = base + e % 10;
+
+        return Nd4j.create(Nd4j.createBuffer(data), new int[] {1, length});
+    }
+
+    private static INDArray longs(int length, long base) {
+        LongBuffer buffer = new LongBuffer(length);
+        for (int e = 0; e < length; e++)
+            buffer.putByCurrentType(e, base + e % 10, DataBuffer.Type.LONG);
+
+        return Nd4j.create(buffer, new int[] {1, length});
+    }
+
+    @Test
+    public void testIntegerTypes1() {
+        for (StashOverflowPolicy policy : new StashOverflowPolicy[] {StashOverflowPolicy.COMPRESS,
+                        StashOverflowPolicy.SPILL}) {
+            BasicStash<Integer> stash = new BasicStash<>(configuration(policy, 1000 * 8));
+
+            for (int e = 0; e < 3; e++) {
+                stash.put(e, ints(1000, 1000000 + e));
+                stash.put(10 + e, longs(1000, (1L << 40) + e));
+            }
+
+            StashStatistics statistics = stash.getStatistics();
+            assertTrue(statistics.getNumberOfCompressedEntries() + statistics.getNumberOfSpilledEntries() > 0);
+
+            for (int e = 0; e < 3; e++) {
+                INDArray restoredInts = stash.take(e);
+                assertEquals(DataBuffer.Type.INT, restoredInts.data().dataType());
+                assertArrayEquals(ints(1000, 1000000 + e).data().asInt(), restoredInts.data().asInt());
+
+                INDArray restoredLongs = stash.take(10 + e);
+                assertEquals(DataBuffer.Type.LONG, restoredLongs.data().dataType());
+                for (int i = 0; i < 1000; i++)
+                    assertEquals((1L << 40) + e + i % 10, restoredLongs.data().getLong(i));
+            }
+        }
+    }
+
+    @Test(expected = ND4JIllegalStateException.class)
+    public void testFail1() {
+        long arraySize = 100 * Nd4j.sizeOfDataType();
+        BasicStash<Integer> stash = new BasicStash<>(configuration(StashOverflowPolicy.FAIL, arraySize));
+
+        stash.put(1, Nd4j.create(100));
+        stash.put(2, Nd4j.create(100));
+    }
+
+    @Test
+    public void testStashManager1() {
+        StashManager manager = new BasicStashManager();
+        assertFalse(manager.checkIfStashExists("activations"));
+
+        Stash<String> stash = manager.createStashIfNotExists("activations");
+        assertTrue(stash == manager.createStashIfNotExists("activations"));
+        assertTrue(stash == manager.getStash("activations"));
+
+        stash.put("layer_0", Nd4j.create(10));
+        manager.destroyStash("activations");
+
+        assertEquals(0, stash.size());
+        assertFalse(manager.checkIfStashExists("activations"));
+    }
+
+    @Override
+    public char ordering() {
+        return 'c';
+    }
+
+    private static class OrderedStash<T> extends BasicStash<T> {
+        private OrderedStash(StashConfiguration configuration) {
+            super(configuration);
+        }
+
+        private int orderSize() {
+            return order.size();
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package org.nd4j.linalg.memory;
+
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.nd4j.linalg.BaseNd4jTest;
+import org.nd4j.linalg.api.memory.MemoryWorkspace;
+import org.nd4j.linalg.api.memory.conf.WorkspaceConfiguration;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.exception.ND4JIllegalStateException;
+import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.linalg.factory.Nd4jBackend;
+import org.nd4j.linalg.memory.scope.LeakDetector;
+import org.nd4j.linalg.memory.scope.NDScope;
+
+import static org.junit.Assert.*;
+
+@RunWith(Parameterized.class)
+public class NDScopeTests extends BaseNd4jTest {
+
+    public NDScopeTests(Nd4jBackend backend) {
+        super(backend);
+    }
+
+    @After
+    public void tearDown() {
+        LeakDetector.getInstance().setSamplingRate(0);
+
+        NDScope scope;
+        while ((scope = NDScope.getCurrentScope()) != null)
+            scope.close();
+    }
+
+    @Test
+    public void testClose1() {
+        INDArray array = Nd4j.create(100);
+        assertEquals(1, array.data().getReferenceCount());
+
+        array.close();
+        assertTrue(array.isClosed());
+        assertTrue(array.data().isReleased());
+
+        // repeated close is no-op
+        array.close();
+        assertEquals(0, array.data().getReferenceCount());
+    }
+
+    @Test
+    public void testViews1() {
+        INDArray array = Nd4j.create(10, 10);
+        array.putScalar(3, 0, 31.0);
+        array.putScalar(5, 0, 51.0);
+
+        INDArray row = Nd4j.create(array.data(), new int[] {1, 10}, new int[] {10, 1}, 30, 'c');
+        INDArray other = Nd4j.create(array.data(), new int[] {1, 10}, new int[] {10, 1}, 50, 'c');
+
+        // views share reference counter with original buffer
+        assertEquals(3, array.data().getReferenceCount());
+        assertEquals(3, row.data().getReferenceCount());
+
+        array.close();
+        assertFalse(row.data().isReleased());
+        assertEquals(31.0, row.getDouble(0), 1e-5);
+
+        row.close();
+        assertFalse(other.data().isReleased());
+        assertEquals(51.0, other.getDouble(0), 1e-5);
+
+        other.close();
+        assertTrue(other.data().isReleased());
+        assertTrue(array.data().isReleased());
+    }
+
+    @Test
+    public void testViews2() {
+        INDArray array = Nd4j.linspace(1, 100, 100).reshape(10, 10);
+        INDArray row = array.getRow(3);
+
+        array.close();
+        assertFalse(row.data().isReleased());
+        assertEquals(31.0, row.getDouble(0), 1e-5);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testViewOfClosedArray1() {
+        INDArray array = Nd4j.create(10, 10);
+        array.close();
+
+        Nd4j.create(array.data(), new int[] {1, 10}, new int[] {10, 1}, 10, 'c');
+    }
+
+    @Test
+    public void testScope1() {
+        INDArray outer = Nd4j.create(100);
+        INDArray temp;
+        INDArray result;
+
+        try (NDScope scope = NDScope.open()) {
+            assertEquals(scope, NDScope.getCurrentScope());
+
+            temp = Nd4j.create(100).assign(2.0);
+            result = scope.detach(temp.add(outer));
+
+            assertTrue(scope.size() > 0);
+        }
+
+        assertNull(NDScope.getCurrentScope());
+        assertTrue(temp.isClosed());
+        assertTrue(temp.data().isReleased());
+
+        assertFalse(result.isClosed());
+        assertFalse(outer.isClosed());
+        assertEquals(2.0, result.getDouble(99), 1e-5);
+    }
+
+    @Test
+    public void testNestedScopes1() {
+        INDArray inner;
+        INDArray detached;
+
+        try (NDScope outer = NDScope.open()) {
+            try (NDScope scope = NDScope.open()) {
+                assertEquals(outer, scope.getParent());
+
+                inner = Nd4j.create(10);
+                detached = scope.detach(Nd4j.create(10));
+            }
+
+            assertTrue(inner.isClosed());
+            assertFalse(detached.isClosed());
+            assertEquals(outer, NDScope.getCurrentScope());
+            assertEquals(1, outer.size());
+        }
+
+        assertTrue(detached.isClosed());
+    }
+
+    @Test(expected = ND4JIllegalStateException.class)
+    public void testScopeOrder1() {
+        NDScope outer = NDScope.open();
+        NDScope inner = NDScope.open();
+
+        outer.close();
+    }
+
+    @Test
+    public void testWorkspaceArrays1() {
+        WorkspaceConfiguration configuration = WorkspaceConfiguration.builder().initialSize(10 * 1024L * 1024L).build();
+
+        try (NDScope scope = NDScope.open()) {
+            try (MemoryWorkspace ws = Nd4j.getWorkspaceManager().getAndActivateWorkspace(configuration, "SCOPE_1")) {
+                INDArray array = Nd4j.create(100);
+                assertTrue(array.isAttached());
+
+                // workspace memory belongs to workspace
+                array.close();
+                assertFalse(array.data().isReleased());
+            }
+
+            assertEquals(0, scope.size());
+        }
+
+        Nd4j.getWorkspaceManager().destroyAllWorkspacesForCurrentThread();
+    }
+
+    @Test
+    public void testLeakDetection1() throws Exception {
+        LeakDetector detector = LeakDetector.getInstance();
+        detector.collect();
+        detector.setSamplingRate(1);
+
+        long tracked = detector.getNumberOfTracked();
+        long leaks = detector.getNumberOfLeaks();
+
+        INDArray closed = Nd4j.create(100);
+        closed.close();
+
+        Nd4j.create(100);
+        assertEquals(tracked + 2, detector.getNumberOfTracked());
+
+        detector.setSamplingRate(0);
+
+        int found = 0;
+        for (int e = 0; e < 10 && found == 0; e++) {
+            System.gc();
+            Thread.sleep(100);
+            found = detector.collect();
+        }
+
+        // only array that wasn't closed is reported
+        assertEquals(1, found);
+        assertEquals(leaks + 1, detector.getNumberOfLeaks());
+    }
+
+    @Override
+    public char ordering() {
+        return 'c';
+    }
+}
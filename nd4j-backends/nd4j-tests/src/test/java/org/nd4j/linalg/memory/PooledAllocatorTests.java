@@ -0,0 +1,187 @@
+package org.nd4j.linalg.memory;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.nd4j.linalg.BaseNd4jTest;
+import org.nd4j.linalg.api.buffer.BaseDataBuffer;
+import org.nd4j.linalg.api.memory.pool.PoolStatistics;
+import org.nd4j.linalg.api.memory.pool.PooledAllocator;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.linalg.factory.Nd4jBackend;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.*;
+
+@RunWith(Parameterized.class)
+public class PooledAllocatorTests extends BaseNd4jTest {
+    private boolean wasEnabled;
+
+    public PooledAllocatorTests(Nd4jBackend backend) {
+        super(backend);
+    }
+
+    @Before
+    public void setUp() {
+        wasEnabled = PooledAllocator.getInstance().isEnabled();
+        PooledAllocator.getInstance().setEnabled(true);
+    }
+
+    @After
+    public void tearDown() {
+        PooledAllocator.getInstance().setEnabled(wasEnabled);
+        PooledAllocator.getInstance().setTrimInterval(5000);
+        PooledAllocator.getInstance().purge();
+    }
+
+    @Test
+    public void testReuse1() {
+        INDArray array = Nd4j.create(1000).assign(5.0);
+        assertTrue(((BaseDataBuffer) array.data()).isPooled());
+
+        long address = array.data().address();
+        long threadHits = PooledAllocator.getInstance().getStatistics().getThreadHits();
+
+        Nd4j.getMemoryManager().collect(array);
+
+        // released block is picked up by the same thread, and it's zeroed
+        INDArray reused = Nd4j.create(1000);
+        assertEquals(address, reused.data().address());
+        assertEquals(threadHits + 1, PooledAllocator.getInstance().getStatistics().getThreadHits());
+        assertEquals(0.0, reused.getDouble(0), 1e-5);
+        assertEquals(0.0, reused.getDouble(999), 1e-5);
+
+        // blocks of the same size class are interchangeable
+        Nd4j.getMemoryManager().collect(reused);
+        INDArray uninitialized = Nd4j.createUninitialized(990);
+        assertEquals(address, uninitialized.data().address());
+    }
+
+    @Test
+    public void testRepeatedRelease1() {
+        INDArray array = Nd4j.create(100);
+        long releases = PooledAllocator.getInstance().getStatistics().getReleases();
+
+        array.data().destroy();
+        array.data().destroy();
+
+        assertEquals(releases + 1, PooledAllocator.getInstance().getStatistics().getReleases());
+    }
+
+    @Test
+    public void testReleaseAfterCollect1() {
+        INDArray array = Nd4j.create(100);
+        long address = array.data().address();
+        long releases = PooledAllocator.getInstance().getStatistics().getReleases();
+
+        Nd4j.getMemoryManager().collect(array);
+        assertTrue(array.data().isReleased());
+
+        // block is handed out again, and late release of original buffer can't take it back
+        INDArray reused = Nd4j.create(100).assign(3.0);
+        assertEquals(address, reused.data().address());
+
+        array.data().release();
+        assertFalse(PooledAllocator.getInstance().release(address, array.data()));
+
+        assertEquals(releases + 1, PooledAllocator.getInstance().getStatistics().getReleases());
+        assertEquals(3.0, reused.getDouble(99), 1e-5);
+        assertNotEquals(address, Nd4j.create(100).data().address());
+    }
+
+    @Test
+    public void testViewsAreNotReleased1() {
+        INDArray array = Nd4j.linspace(1, 100, 100).reshape(10, 10);
+        INDArray row = array.getRow(3);
+        assertTrue(row.isView());
+
+        Nd4j.getMemoryManager().collect(row);
+
+        INDArray other = Nd4j.create(100);
+        assertNotEquals(array.data().address(), other.data().address());
+        assertEquals(31.0, array.getDouble(3, 0), 1e-5);
+    }
+
+    @Test
+    public void testPurge1() {
+        INDArray array = Nd4j.create(2000);
+        Nd4j.getMemoryManager().collect(array);
+
+        assertTrue(PooledAllocator.getInstance().getStatistics().getPooledBytes() > 0);
+
+        long threadHits = PooledAllocator.getInstance().getStatistics().getThreadHits();
+        PooledAllocator.getInstance().purge();
+
+        Nd4j.create(2000);
+        assertEquals(threadHits, PooledAllocator.getInstance().getStatistics().getThreadHits());
+    }
+
+    @Test
+    public void testIdleThreadCache1() throws Exception {
+        PooledAllocator.getInstance().setTrimInterval(50);
+
+        final AtomicLong address = new AtomicLong(0);
+        final CountDownLatch released = new CountDownLatch(1);
+        final CountDownLatch finished = new CountDownLatch(1);
+        Thread thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                INDArray array = Nd4j.create(12345);
+                address.set(array.data().address());
+                Nd4j.getMemoryManager().collect(array);
+                released.countDown();
+
+                // thread stays alive, but doesn't allocate anymore
+                try {
+                    finished.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+        thread.start();
+        released.await();
+
+        // block cached by idle thread is moved to shared free lists by maintenance thread
+        List<INDArray> arrays = new ArrayList<>();
+        boolean reused = false;
+        try {
+            for (int i = 0; i < 400 && !reused; i++) {
+                Thread.sleep(50);
+                INDArray array = Nd4j.create(12345);
+                reused = array.data().address() == address.get();
+                arrays.add(array);
+            }
+        } finally {
+            finished.countDown();
+            thread.join();
+        }
+
+        assertTrue(reused);
+    }
+
+    @Test
+    public void testCopyFromArray1() {
+        INDArray array = Nd4j.create(new float[] {1.0f, 2.0f, 3.0f, 4.0f});
+        assertEquals(Nd4j.linspace(1, 4, 4), array);
+
+        array = Nd4j.create(new double[] {1.0, 2.0, 3.0, 4.0});
+        assertEquals(Nd4j.linspace(1, 4, 4), array);
+
+        PoolStatistics statistics = PooledAllocator.getInstance().getStatistics();
+        assertTrue(statistics.getAllocations() > 0);
+        assertTrue(statistics.getHitRate() >= 0.0 && statistics.getHitRate() <= 1.0);
+    }
+
+    @Override
+    public char ordering() {
+        return 'c';
+    }
+}
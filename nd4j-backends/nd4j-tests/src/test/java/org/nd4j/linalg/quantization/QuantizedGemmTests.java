@@ -0,0 +1,158 @@
+package org.nd4j.linalg.quantization;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.nd4j.linalg.BaseNd4jTest;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.linalg.factory.Nd4jBackend;
+import org.nd4j.linalg.indexing.NDArrayIndex;
+
+import static org.junit.Assert.*;
+
+@RunWith(Parameterized.class)
+public class QuantizedGemmTests extends BaseNd4jTest {
+
+    public QuantizedGemmTests(Nd4jBackend backend) {
+        super(backend);
+    }
+
+    private static double relativeError(INDArray actual, INDArray expected) {
+        return actual.sub(expected).norm2Number().doubleValue() / expected.norm2Number().doubleValue();
+    }
+
+    @Test
+    public void testQuantizeDequantize1() {
+        INDArray matrix = Nd4j.linspace(-50, 49, 100).reshape(10, 10);
+
+        for (QuantizationMode mode : QuantizationMode.values()) {
+            QuantizedMatrix quantized = QuantizedMatrix.quantize(matrix, mode);
+            assertEquals(10, quantized.getRows());
+            assertEquals(10, quantized.getColumns());
+            assertEquals(100 + 10 * 8, quantized.getSizeInBytes());
+
+            INDArray restored = quantized.dequantize();
+            assertArrayEquals(matrix.shape(), restored.shape());
+
+            // error is bounded by half of quantization step
+            for (int r = 0; r < 10; r++) {
+                for (int c = 0; c < 10; c++) {
+                    float scale = quantized.getScales()[mode == QuantizationMode.PER_ROW ? r : c];
+                    assertEquals(matrix.getDouble(r, c), restored.getDouble(r, c), scale / 2 + 1e-5);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testZeroIsExact1() {
+        INDArray matrix = Nd4j.create(new float[] {0, 0, 0, 1.5f, -3.0f, 0, 7.0f, 0, 0}, new int[] {3, 3}, 'c');
+
+        INDArray restored = QuantizedMatrix.quantize(matrix, QuantizationMode.PER_ROW).dequantize();
+
+        assertEquals(0.0, restored.getDouble(0, 0), 0.0);
+        assertEquals(0.0, restored.getDouble(1, 2), 0.0);
+        assertEquals(0.0, restored.getDouble(2, 2), 0.0);
+    }
+
+    @Test
+    public void testQuantizeView1() {
+        INDArray matrix = Nd4j.linspace(1, 100, 100).reshape('f', 10, 10);
+        INDArray view = matrix.get(NDArrayIndex.interval(2, 5), NDArrayIndex.all());
+
+        INDArray restored = QuantizedMatrix.quantize(view, QuantizationMode.PER_COLUMN).dequantize();
+
+        assertArrayEquals(new int[] {3, 10}, restored.shape());
+        assertTrue(relativeError(restored, view) < 1e-2);
+    }
+
+    @Test
+    public void testGemm1() {
+        Nd4j.getRandom().setSeed(119);
+        INDArray a = Nd4j.randn(new int[] {37, 130});
+        INDArray b = Nd4j.randn(new int[] {130, 23});
+
+        INDArray expected = a.mmul(b);
+        INDArray result = QuantizedGemm.gemm(QuantizedMatrix.quantize(a, QuantizationMode.PER_ROW),
+                        QuantizedMatrix.quantize(b, QuantizationMode.PER_COLUMN));
+
+        assertArrayEquals(new int[] {37, 23}, result.shape());
+        assertTrue(relativeError(result, expected) < 0.02);
+    }
+
+    @Test
+    public void testGemmExact1() {
+        // values that are exactly representable give exact result
+        INDArray a = Nd4j.create(new float[] {1, 2, 3, 4, 5, 6}, new int[] {2, 3}, 'c');
+        INDArray b = Nd4j.create(new float[] {1, 0, 0, 1, 1, 1}, new int[] {3, 2}, 'c');
+
+        INDArray result = QuantizedGemm.gemm(QuantizedMatrix.quantize(a, QuantizationMode.PER_ROW),
+                        QuantizedMatrix.quantize(b, QuantizationMode.PER_COLUMN));
+
+        assertTrue(relativeError(result, a.mmul(b)) < 1e-5);
+    }
+
+    @Test
+    public void testGemmParallel1() {
+        Nd4j.getRandom().setSeed(119);
+        INDArray a = Nd4j.rand(300, 257).subi(0.5);
+        INDArray b = Nd4j.rand(257, 301);
+
+        QuantizedMatrix qa = QuantizedMatrix.quantize(a, QuantizationMode.PER_ROW);
+        QuantizedMatrix qb = QuantizedMatrix.quantize(b, QuantizationMode.PER_COLUMN);
+
+        INDArray result = QuantizedGemm.gemm(qa, qb);
+
+        // multithreaded result matches gemm over dequantized operands
+        INDArray expected = qa.dequantize().mmul(qb.dequantize());
+        assertTrue(relativeError(result, expected) < 1e-5);
+        assertTrue(relativeError(result, a.mmul(b)) < 0.02);
+    }
+
+    @Test
+    public void testCompressed1() {
+        INDArray matrix = Nd4j.linspace(-50, 49, 100).reshape(10, 10);
+        QuantizedMatrix quantized = QuantizedMatrix.quantize(matrix, QuantizationMode.PER_ROW);
+
+        INDArray compressed = quantized.toCompressed();
+        assertTrue(compressed.isCompressed());
+        assertArrayEquals(matrix.shape(), compressed.shape());
+
+        // compressed array is decompressed by SCALED_INT8_ROW compressor into the same values
+        INDArray decompressed = Nd4j.getCompressor().decompress(compressed);
+        assertTrue(relativeError(decompressed, quantized.dequantize()) < 1e-5);
+
+        QuantizedMatrix restored = QuantizedMatrix.fromCompressed(compressed);
+        assertArrayEquals(quantized.getValues(), restored.getValues());
+        assertArrayEquals(quantized.getScales(), restored.getScales(), 0.0f);
+        assertArrayEquals(quantized.getZeroPoints(), restored.getZeroPoints());
+    }
+
+    @Test
+    public void testCompressedGemm1() {
+        Nd4j.getRandom().setSeed(119);
+        INDArray a = Nd4j.randn(new int[] {37, 130});
+        INDArray weights = Nd4j.randn(new int[] {23, 130});
+
+        // weights compressed by compressor itself, one row per output
+        INDArray compressed = Nd4j.getCompressor().compress(weights, "SCALED_INT8_ROW");
+        QuantizedMatrix b = QuantizedMatrix.fromCompressed(compressed).transpose();
+        assertEquals(QuantizationMode.PER_COLUMN, b.getMode());
+
+        INDArray result = QuantizedGemm.gemm(QuantizedMatrix.quantize(a, QuantizationMode.PER_ROW), b);
+        assertTrue(relativeError(result, a.mmul(weights.transpose())) < 0.02);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testGemmLayoutValidation1() {
+        INDArray a = Nd4j.rand(4, 4);
+        QuantizedGemm.gemm(QuantizedMatrix.quantize(a, QuantizationMode.PER_COLUMN),
+                        QuantizedMatrix.quantize(a, QuantizationMode.PER_COLUMN));
+    }
+
+    @Override
+    public char ordering() {
+        return 'c';
+    }
+}
@@ -0,0 +1,162 @@
+package org.nd4j.linalg.storage;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.nd4j.compression.impl.Deflate;
+import org.nd4j.compression.impl.NoOp;
+import org.nd4j.linalg.BaseNd4jTest;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.linalg.factory.Nd4jBackend;
+import org.nd4j.storage.TieredCompressedStorage;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+@RunWith(Parameterized.class)
+public class TieredCompressedStorageTests extends BaseNd4jTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    public TieredCompressedStorageTests(Nd4jBackend backend) {
+        super(backend);
+    }
+
+    private static long bytes(int length) {
+        return (long) length * Nd4j.sizeOfDataType();
+    }
+
+    @Test
+    public void testSpillAndPromote1() throws Exception {
+        File directory = folder.newFolder();
+
+        // room for 4 arrays in RAM
+        try (TieredCompressedStorage<Integer> storage = new TieredCompressedStorage.Builder<Integer>()
+                        .setCompressor(new NoOp()).setRamBudget(bytes(400)).setDirectory(directory).build()) {
+            List<INDArray> exp = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                INDArray array = Nd4j.linspace(i, i + 99, 100);
+                exp.add(array.dup());
+                storage.store(i, array);
+            }
+
+            assertEquals(10, storage.size());
+            assertTrue(storage.getRamBytes() <= bytes(400));
+            assertEquals(6, storage.getSpills());
+            assertEquals(bytes(600), storage.getDiskBytes());
+
+            // last 4 arrays are in RAM, first 6 are on disk
+            for (int i = 0; i < 10; i++) {
+                int key = (i + 6) % 10;
+                assertTrue(storage.containsKey(key));
+                assertEquals(exp.get(key), storage.get(key));
+            }
+
+            assertEquals(4, storage.getRamHits());
+            assertEquals(6, storage.getDiskHits());
+            assertEquals(6, storage.getPromotions());
+            assertTrue(storage.getRamBytes() <= bytes(400));
+
+            assertNull(storage.get(11));
+            assertEquals(1, storage.getMisses());
+        }
+
+        assertEquals(0, directory.list().length);
+    }
+
+    @Test
+    public void testFrequentEntriesStayInRam1() throws Exception {
+        try (TieredCompressedStorage<Integer> storage = new TieredCompressedStorage.Builder<Integer>()
+                        .setRamBudget(bytes(300)).setDirectory(folder.newFolder()).build()) {
+            storage.store(0, Nd4j.linspace(1, 100, 100));
+
+            for (int i = 1; i < 20; i++) {
+                // key 0 is used all the time, so it shouldn't be evicted
+                assertNotNull(storage.get(0));
+                storage.store(i, Nd4j.linspace(1, 100, 100));
+            }
+
+            long diskHits = storage.getDiskHits();
+            storage.get(0);
+            assertEquals(diskHits, storage.getDiskHits());
+        }
+    }
+
+    @Test
+    public void testOverwriteAndDrop1() throws Exception {
+        File directory = folder.newFolder();
+
+        try (TieredCompressedStorage<Integer> storage = new TieredCompressedStorage.Builder<Integer>()
+                        .setCompressor(new Deflate()).setRamBudget(0).setSegmentSize(100)
+                        .setDirectory(directory).build()) {
+            INDArray array = Nd4j.create(100).assign(1.0);
+            for (int i = 0; i < 10; i++)
+                storage.store(i, array);
+
+            assertEquals(0, storage.getRamSize());
+            assertEquals(10, storage.size());
+            assertEquals(10, storage.getSpills());
+
+            storage.store(1, Nd4j.create(100).assign(2.0));
+            assertEquals(Nd4j.create(100).assign(2.0), storage.get(1));
+
+            for (int i = 0; i < 10; i++)
+                storage.drop(i);
+
+            assertEquals(0, storage.size());
+            assertEquals(0, storage.getDiskBytes());
+            assertFalse(storage.containsKey(1));
+            assertNull(storage.get(1));
+
+            // only active segment is left
+            assertEquals(1, directory.list().length);
+        }
+    }
+
+    @Test
+    public void testConcurrentReaders1() throws Exception {
+        try (final TieredCompressedStorage<Integer> storage = new TieredCompressedStorage.Builder<Integer>()
+                        .setRamBudget(bytes(1000)).setDirectory(folder.newFolder()).build()) {
+            for (int i = 0; i < 50; i++)
+                storage.store(i, Nd4j.create(100).assign(i));
+
+            final AtomicInteger failures = new AtomicInteger(0);
+            Thread[] threads = new Thread[4];
+            for (int t = 0; t < threads.length; t++) {
+                final int seed = t;
+                threads[t] = new Thread(new Runnable() {
+                    @Override
+                    public void run() {
+                        for (int i = 0; i < 500; i++) {
+                            int key = (i * 7 + seed * 13) % 50;
+                            INDArray array = storage.get(key);
+                            if (array == null || array.getDouble(99) != key)
+                                failures.incrementAndGet();
+                        }
+                    }
+                });
+                threads[t].start();
+            }
+
+            for (Thread thread : threads)
+                thread.join();
+
+            assertEquals(0, failures.get());
+            assertTrue(storage.getRamBytes() <= bytes(1000));
+            assertEquals(2000, storage.getRamHits() + storage.getDiskHits());
+        }
+    }
+
+    @Override
+    public char ordering() {
+        return 'c';
+    }
+}
@@ -0,0 +1,200 @@
+package org.nd4j.linalg.workspace;
+
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.nd4j.linalg.BaseNd4jTest;
+import org.nd4j.linalg.api.memory.MemoryWorkspace;
+import org.nd4j.linalg.api.memory.conf.WorkspaceConfiguration;
+import org.nd4j.linalg.api.memory.enums.*;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.linalg.factory.Nd4jBackend;
+import org.nd4j.linalg.memory.abstracts.Nd4jWorkspace;
+import org.nd4j.linalg.memory.stats.WorkspaceStatistics;
+import org.nd4j.linalg.memory.stats.WorkspaceTelemetry;
+
+import java.io.File;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.Assert.*;
+
+@RunWith(Parameterized.class)
+public class WorkspaceTelemetryTests extends BaseNd4jTest {
+    private static final WorkspaceConfiguration firstConfiguration = WorkspaceConfiguration.builder().initialSize(0)
+                    .policySpill(SpillPolicy.EXTERNAL).policyLearning(LearningPolicy.FIRST_LOOP)
+                    .policyAllocation(AllocationPolicy.STRICT).build();
+
+    private static final WorkspaceConfiguration sharedConfiguration = WorkspaceConfiguration.builder().initialSize(0)
+                    .policySpill(SpillPolicy.EXTERNAL).policyLearning(LearningPolicy.FIRST_LOOP)
+                    .policyAllocation(AllocationPolicy.STRICT).policySharing(SharingPolicy.SHARED).build();
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    public WorkspaceTelemetryTests(Nd4jBackend backend) {
+        super(backend);
+    }
+
+    @After
+    public void shutUp() throws Exception {
+        Nd4j.getMemoryManager().setCurrentWorkspace(null);
+        Nd4j.getWorkspaceManager().destroyAllWorkspacesForCurrentThread();
+    }
+
+    private static void runCycles(final List<MemoryWorkspace> workspaces, final WorkspaceConfiguration configuration,
+                    final String id, int numThreads, final int numCycles) throws Exception {
+        Thread[] threads = new Thread[numThreads];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    // keeping workspace referenced, so it's not released before checks
+                    workspaces.add(Nd4j.getWorkspaceManager().getWorkspaceForCurrentThread(configuration, id));
+
+                    for (int c = 0; c < numCycles; c++) {
+                        try (MemoryWorkspace ws = Nd4j.getWorkspaceManager()
+                                        .getAndActivateWorkspace(configuration, id)) {
+                            INDArray array = Nd4j.create(100);
+                        }
+                    }
+                }
+            });
+            threads[t].start();
+        }
+
+        for (Thread thread : threads)
+            thread.join();
+    }
+
+    @Test
+    public void testAggregatedStatistics1() throws Exception {
+        List<MemoryWorkspace> workspaces = new CopyOnWriteArrayList<>();
+        runCycles(workspaces, firstConfiguration, "TELEMETRY_1", 4, 3);
+
+        long cycleSize = 100 * Nd4j.sizeOfDataType();
+        WorkspaceStatistics statistics = WorkspaceTelemetry.getInstance().getStatistics("TELEMETRY_1");
+
+        assertEquals(4, workspaces.size());
+        assertEquals("TELEMETRY_1", statistics.getId());
+        assertEquals(4, statistics.getNumberOfWorkspaces());
+        assertEquals(12, statistics.getCycles());
+        assertEquals(cycleSize, statistics.getLearnedSize());
+
+        // each thread learns on its own: first cycle is spilled, then workspace is allocated
+        assertEquals(4 * cycleSize, statistics.getSpilledSize());
+        assertEquals(4 * cycleSize, statistics.getCurrentSize());
+        assertEquals(4 * cycleSize, statistics.getPeakSize());
+        assertEquals(0, statistics.getReallocations());
+
+        for (MemoryWorkspace workspace : workspaces)
+            workspace.destroyWorkspace();
+
+        statistics = WorkspaceTelemetry.getInstance().getStatistics("TELEMETRY_1");
+        assertEquals(0, statistics.getCurrentSize());
+        assertEquals(4 * cycleSize, statistics.getPeakSize());
+
+        assertTrue(WorkspaceTelemetry.getInstance().getStatistics().containsKey("TELEMETRY_1"));
+        assertNull(WorkspaceTelemetry.getInstance().getStatistics("TELEMETRY_UNKNOWN"));
+    }
+
+    @Test
+    public void testSharedLearning1() throws Exception {
+        List<MemoryWorkspace> workspaces = new CopyOnWriteArrayList<>();
+        runCycles(workspaces, sharedConfiguration, "TELEMETRY_2", 1, 1);
+
+        long cycleSize = 100 * Nd4j.sizeOfDataType();
+        assertEquals(cycleSize, WorkspaceTelemetry.getInstance().getLearnedSize("TELEMETRY_2"));
+        assertEquals(cycleSize, WorkspaceTelemetry.getInstance().getStatistics("TELEMETRY_2").getSpilledSize());
+
+        // other threads start from learned size, so nothing is spilled anymore
+        runCycles(workspaces, sharedConfiguration, "TELEMETRY_2", 3, 2);
+
+        for (int i = 1; i < workspaces.size(); i++)
+            assertEquals(cycleSize, ((Nd4jWorkspace) workspaces.get(i)).getCurrentSize());
+
+        WorkspaceStatistics statistics = WorkspaceTelemetry.getInstance().getStatistics("TELEMETRY_2");
+        assertEquals(cycleSize, statistics.getSpilledSize());
+        assertEquals(7, statistics.getCycles());
+        assertEquals(4 * cycleSize, statistics.getCurrentSize());
+    }
+
+    @Test
+    public void testSharedLimit1() throws Exception {
+        long size = 1000 * Nd4j.sizeOfDataType();
+        WorkspaceConfiguration configuration = WorkspaceConfiguration.builder().initialSize(size)
+                        .policySpill(SpillPolicy.EXTERNAL).policyLearning(LearningPolicy.NONE)
+                        .policyAllocation(AllocationPolicy.STRICT).policySharing(SharingPolicy.SHARED)
+                        .sharedMaxSize(size + size / 2).build();
+
+        Nd4jWorkspace ws1 = (Nd4jWorkspace) Nd4j.getWorkspaceManager().createNewWorkspace(configuration, "TELEMETRY_3");
+        Nd4jWorkspace ws2 = (Nd4jWorkspace) Nd4j.getWorkspaceManager().createNewWorkspace(configuration, "TELEMETRY_3");
+        Nd4jWorkspace ws3 = (Nd4jWorkspace) Nd4j.getWorkspaceManager().createNewWorkspace(configuration, "TELEMETRY_3");
+
+        // total size is limited, the rest goes to spills
+        assertEquals(size, ws1.getCurrentSize());
+        assertEquals(size / 2, ws2.getCurrentSize());
+        assertEquals(0, ws3.getCurrentSize());
+
+        try (MemoryWorkspace ws = ws3.notifyScopeEntered()) {
+            INDArray array = Nd4j.create(100);
+        }
+
+        WorkspaceStatistics statistics = WorkspaceTelemetry.getInstance().getStatistics("TELEMETRY_3");
+        assertEquals(3, statistics.getNumberOfWorkspaces());
+        assertEquals(size + size / 2, statistics.getCurrentSize());
+        assertEquals(100 * Nd4j.sizeOfDataType(), statistics.getSpilledSize());
+
+        ws1.destroyWorkspace();
+        assertEquals(size / 2, WorkspaceTelemetry.getInstance().getStatistics("TELEMETRY_3").getCurrentSize());
+    }
+
+    @Test
+    public void testMappedSpill1() throws Exception {
+        File directory = folder.newFolder();
+        WorkspaceConfiguration configuration = WorkspaceConfiguration.builder()
+                        .initialSize(100 * Nd4j.sizeOfDataType()).policySpill(SpillPolicy.MMAP)
+                        .policyLearning(LearningPolicy.NONE).policyAllocation(AllocationPolicy.STRICT)
+                        .spillDirectory(directory.getAbsolutePath()).build();
+
+        Nd4jWorkspace workspace = (Nd4jWorkspace) Nd4j.getWorkspaceManager().getWorkspaceForCurrentThread(configuration,
+                        "TELEMETRY_4");
+
+        for (int c = 0; c < 3; c++) {
+            try (MemoryWorkspace ws = Nd4j.getWorkspaceManager().getAndActivateWorkspace(configuration,
+                            "TELEMETRY_4")) {
+                INDArray small = Nd4j.create(100).assign(1.0);
+                INDArray big = Nd4j.create(1000).assign(2.0);
+
+                assertEquals(100 * Nd4j.sizeOfDataType(), workspace.getHostOffset());
+                assertEquals(1.0, small.getDouble(99), 1e-5);
+                assertEquals(2.0, big.getDouble(0), 1e-5);
+                assertEquals(2.0, big.getDouble(999), 1e-5);
+            }
+        }
+
+        // spill file is reused on each cycle
+        assertEquals(0, workspace.getSpilledSize());
+        assertEquals(0, workspace.getNumberOfExternalAllocations());
+        assertTrue(workspace.getMappedSpillSize() >= 1000 * Nd4j.sizeOfDataType());
+        assertEquals(1, directory.list().length);
+
+        WorkspaceStatistics statistics = WorkspaceTelemetry.getInstance().getStatistics("TELEMETRY_4");
+        assertEquals(3, statistics.getNumberOfSpills());
+        assertEquals(3 * 1000 * Nd4j.sizeOfDataType(), statistics.getSpilledSize());
+        assertEquals(workspace.getMappedSpillSize(), statistics.getMappedSize());
+
+        workspace.destroyWorkspace();
+        assertEquals(0, WorkspaceTelemetry.getInstance().getStatistics("TELEMETRY_4").getMappedSize());
+        assertEquals(0, directory.list().length);
+    }
+
+    @Override
+    public char ordering() {
+        return 'c';
+    }
+}
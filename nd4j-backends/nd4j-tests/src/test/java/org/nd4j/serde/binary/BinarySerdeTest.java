@@ -15,6 +15,7 @@ import java.util.UUID;
 
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 /**
@@ -56,6 +57,46 @@ public class BinarySerdeTest {
     }
 
 
+    @Test
+    public void testEncodedToAndFrom() {
+        INDArray arr = Nd4j.linspace(-1, 1, 1000).reshape(10, 100);
+        int plainSize = BinarySerde.toByteBuffer(arr).capacity();
+
+        for (SerdeEncoding encoding : new SerdeEncoding[] {SerdeEncoding.FLOAT16, SerdeEncoding.INT8,
+                        SerdeEncoding.INT8_PER_ROW}) {
+            ByteBuffer buffer = BinarySerde.toByteBuffer(arr, encoding);
+            assertTrue(encoding + ": " + buffer.capacity(), buffer.capacity() < plainSize / 2 + 100);
+
+            INDArray back = BinarySerde.toArrayAndByteBuffer(buffer, 0, true).getLeft();
+            assertFalse(back.isCompressed());
+            assertArrayEquals(arr.shape(), back.shape());
+            assertEquals(encoding.name(), 0.0, arr.sub(back).norm1Number().doubleValue() / arr.length(), 1e-2);
+
+            //without decompression the encoded array is returned as is
+            INDArray encoded = BinarySerde.toArray(buffer);
+            assertTrue(encoded.isCompressed());
+            assertEquals(back, Nd4j.getCompressor().decompress(encoded));
+        }
+
+        //the source array is left intact
+        assertEquals(Nd4j.linspace(-1, 1, 1000).reshape(10, 100), arr);
+    }
+
+    @Test
+    public void testEncodedPerRow() {
+        //rows with very different ranges share no quantization levels
+        INDArray arr = Nd4j.vstack(Nd4j.linspace(0, 1e-3, 100), Nd4j.linspace(0, 1e3, 100));
+
+        INDArray perTensor = BinarySerde.toArrayAndByteBuffer(BinarySerde.toByteBuffer(arr, SerdeEncoding.INT8),
+                        0, true).getLeft();
+        INDArray perRow = BinarySerde.toArrayAndByteBuffer(
+                        BinarySerde.toByteBuffer(arr, SerdeEncoding.INT8_PER_ROW), 0, true).getLeft();
+
+        assertEquals(0.0, perTensor.getRow(0).sumNumber().doubleValue(), 1e-5);
+        assertEquals(arr.getRow(0).sumNumber().doubleValue(), perRow.getRow(0).sumNumber().doubleValue(), 1e-3);
+        assertEquals(1e3, perRow.getDouble(1, 99), 1.0);
+    }
+
     @Test
     public void testReadWriteFile() throws Exception {
         File tmpFile = new File(System.getProperty("java.io.tmpdir"),
@@ -27,6 +27,8 @@ import org.nd4j.linalg.api.complex.IComplexDouble;
 import org.nd4j.linalg.api.complex.IComplexFloat;
 import org.nd4j.linalg.api.complex.IComplexNumber;
 import org.nd4j.linalg.api.memory.MemoryWorkspace;
+import org.nd4j.linalg.api.memory.pointers.PagedPointer;
+import org.nd4j.linalg.api.memory.pool.PooledAllocator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -40,6 +42,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
 import java.util.concurrent.atomic.AtomicLong;
 import org.nd4j.linalg.util.ArrayUtil;
 
@@ -78,6 +81,16 @@ public abstract class BaseDataBuffer implements DataBuffer {
 
     protected transient boolean constant = false;
 
+    // true if memory of this buffer belongs to PooledAllocator
+    protected transient boolean pooled = false;
+
+    // number of holders of this buffer, views are counted on original buffer
+    private transient volatile int referenceCount = 0;
+    protected transient volatile boolean released = false;
+
+    private static final AtomicIntegerFieldUpdater<BaseDataBuffer> referenceUpdater =
+                    AtomicIntegerFieldUpdater.newUpdater(BaseDataBuffer.class, "referenceCount");
+
     private static Logger log = LoggerFactory.getLogger(BaseDataBuffer.class);
 
     public BaseDataBuffer() {}
@@ -195,12 +208,18 @@ public abstract class BaseDataBuffer implements DataBuffer {
         allocationMode = AllocUtil.getAllocationModeFromContext();
         initTypeAndSize();
 
+        length = data.length;
+        underlyingLength = data.length;
+
+        if (isPoolable()) {
+            allocatePooled(false);
+            ((FloatPointer) pointer).put(data);
+            return;
+        }
+
         pointer = new FloatPointer(data);
         setIndexer(FloatIndexer.create((FloatPointer) pointer));
         //wrappedBuffer = pointer.asByteBuffer();
-
-        length = data.length;
-        underlyingLength = data.length;
     }
 
     public BaseDataBuffer(float[] data, boolean copy, MemoryWorkspace workspace) {
@@ -283,12 +302,18 @@ public abstract class BaseDataBuffer implements DataBuffer {
         allocationMode = AllocUtil.getAllocationModeFromContext();
         initTypeAndSize();
 
+        length = data.length;
+        underlyingLength = data.length;
+
+        if (isPoolable()) {
+            allocatePooled(false);
+            ((DoublePointer) pointer).put(data);
+            return;
+        }
+
         pointer = new DoublePointer(data);
         indexer = DoubleIndexer.create((DoublePointer) pointer);
         //wrappedBuffer = pointer.asByteBuffer();
-
-        length = data.length;
-        underlyingLength = data.length;
     }
 
 
@@ -390,6 +415,9 @@ public abstract class BaseDataBuffer implements DataBuffer {
         } else if (dataType() == Type.LONG) {
             pointer = new LongPointer(length);
             setIndexer(LongIndexer.create((LongPointer) pointer));
+        } else if (dataType() == Type.HALF) {
+            pointer = new ShortPointer(length);
+            setIndexer(HalfIndexer.create((ShortPointer) pointer));
         }
 
         // log.info("Creating new buffer of size: {}; dtype: {}; C", length, dataType());
@@ -438,6 +466,9 @@ public abstract class BaseDataBuffer implements DataBuffer {
         } else if (dataType() == Type.LONG) {
             pointer = new LongPointer(buffer.asLongBuffer());
             setIndexer(LongIndexer.create((LongPointer) pointer));
+        } else if (dataType() == Type.HALF) {
+            pointer = new ShortPointer(buffer.asShortBuffer());
+            setIndexer(HalfIndexer.create((ShortPointer) pointer));
         }
 
         // log.info("Creating new buffer of size: {}; dtype: {}; D", length, dataType());
@@ -535,6 +566,11 @@ public abstract class BaseDataBuffer implements DataBuffer {
         if (length < 0)
             throw new IllegalArgumentException("Unable to create a buffer of length <= 0");
 
+        if (isPoolable()) {
+            allocatePooled(initialize);
+            return;
+        }
+
         if (dataType() == Type.DOUBLE) {
             pointer = new DoublePointer(length());
             indexer = DoubleIndexer.create((DoublePointer) pointer);
@@ -556,6 +592,12 @@ public abstract class BaseDataBuffer implements DataBuffer {
             pointer = new LongPointer(length());
             setIndexer(LongIndexer.create((LongPointer) pointer));
 
+            if (initialize)
+                fillPointerWithZero();
+        } else if (dataType() == Type.HALF) {
+            pointer = new ShortPointer(length());
+            setIndexer(HalfIndexer.create((ShortPointer) pointer));
+
             if (initialize)
                 fillPointerWithZero();
         }
@@ -604,6 +646,12 @@ public abstract class BaseDataBuffer implements DataBuffer {
             pointer = workspace.alloc(length * getElementSize(), dataType(), initialize).asIntPointer(); //new FloatPointer(length());
             setIndexer(LongIndexer.create((LongPointer) pointer));
 
+        } else if (dataType() == Type.HALF) {
+            attached = true;
+            parentWorkspace = workspace;
+
+            pointer = workspace.alloc(length * getElementSize(), dataType(), initialize).asShortPointer();
+            setIndexer(HalfIndexer.create((ShortPointer) pointer));
         }
     }
 
@@ -661,6 +709,12 @@ public abstract class BaseDataBuffer implements DataBuffer {
                         address = pointer().address() + getElementSize() * offset();
                     }
                 };
+            } else if (dataType() == Type.HALF) {
+                return new ShortPointer(pointer()) {
+                    {
+                        address = pointer().address() + getElementSize() * offset();
+                    }
+                };
             }
         }
         return pointer();
@@ -930,6 +984,8 @@ public abstract class BaseDataBuffer implements DataBuffer {
             return ((FloatIndexer) indexer).get(offset() + i);
         } else if (dataType() == Type.INT) {
             return ((IntIndexer) indexer).get(offset() + i);
+        } else if (dataType() == Type.HALF) {
+            return ((HalfIndexer) indexer).get(offset() + i);
         } else {
             return ((DoubleIndexer) indexer).get(offset() + i);
         }
@@ -943,6 +999,8 @@ public abstract class BaseDataBuffer implements DataBuffer {
             return (long) ((IntIndexer) indexer).get(offset() + i);
         } else if (dataType() == Type.DOUBLE) {
             return (long) ((DoubleIndexer) indexer).get(offset() + i);
+        } else if (dataType() == Type.HALF) {
+            return (long) ((HalfIndexer) indexer).get(offset() + i);
         } else {
             return ((LongIndexer) indexer).get(offset() + i);
         }
@@ -989,6 +1047,8 @@ public abstract class BaseDataBuffer implements DataBuffer {
             return (int) ((DoubleIndexer) indexer).get(offset() + i);
         } else if (dataType() == Type.INT) {
             return ((IntIndexer) indexer).get(offset() + i);
+        } else if (dataType() == Type.HALF) {
+            return (int) ((HalfIndexer) indexer).get(offset() + i);
         } else {
             return (int) ((FloatIndexer) indexer).get(offset() + i);
         }
@@ -1003,38 +1063,39 @@ public abstract class BaseDataBuffer implements DataBuffer {
         return getFloat(i);
     }
 
-    public void pointerIndexerByGlobalType(Type currentType) {
+    /**
+     * This method allocates memory for elements of given type, used on deserialization
+     *
+     * @param currentType
+     */
+    public void pointerIndexerByCurrentType(Type currentType) {
         if (currentType == Type.INT) {
             pointer = new IntPointer(length());
             setIndexer(IntIndexer.create((IntPointer) pointer));
-            type = Type.INT;
-        } else {
-            if (DataTypeUtil.getDtypeFromContext() == Type.DOUBLE) {
-                pointer = new DoublePointer(length());
-                indexer = DoubleIndexer.create((DoublePointer) pointer);
-            } else if (DataTypeUtil.getDtypeFromContext() == Type.FLOAT) {
-                pointer = new FloatPointer(length());
-                setIndexer(FloatIndexer.create((FloatPointer) pointer));
-            } else if (DataTypeUtil.getDtypeFromContext() == Type.LONG) {
-                pointer = new LongPointer(length());
-                setIndexer(LongIndexer.create((LongPointer) pointer));
-            }
+        } else if (currentType == Type.DOUBLE) {
+            pointer = new DoublePointer(length());
+            indexer = DoubleIndexer.create((DoublePointer) pointer);
+        } else if (currentType == Type.FLOAT) {
+            pointer = new FloatPointer(length());
+            setIndexer(FloatIndexer.create((FloatPointer) pointer));
+        } else if (currentType == Type.HALF) {
+            pointer = new ShortPointer(length());
+            setIndexer(HalfIndexer.create((ShortPointer) pointer));
+        } else if (currentType == Type.LONG) {
+            pointer = new LongPointer(length());
+            setIndexer(LongIndexer.create((LongPointer) pointer));
         }
     }
 
-    public void putByGlobalType(long i, Number element, Type globalType) {
-        if (globalType == Type.INT || type == Type.INT) {
-            int anElement = element.intValue();
-            put(i, anElement);
-        } else if (globalType == Type.FLOAT || globalType == Type.HALF) {
-            float anElement = element.floatValue();
-            put(i, anElement);
-        } else if (globalType == Type.DOUBLE) {
-            double anElement = element.doubleValue();
-            put(i, anElement);
-        } else if (globalType == Type.LONG) {
-            long anElement = element.longValue();
-            put(i, anElement);
+    public void putByCurrentType(long i, Number element, Type currentType) {
+        if (currentType == Type.INT) {
+            put(i, element.intValue());
+        } else if (currentType == Type.FLOAT || currentType == Type.HALF) {
+            put(i, element.floatValue());
+        } else if (currentType == Type.DOUBLE) {
+            put(i, element.doubleValue());
+        } else if (currentType == Type.LONG) {
+            ((LongIndexer) indexer).put(offset() + i, element.longValue());
         }
     }
 
@@ -1044,6 +1105,8 @@ public abstract class BaseDataBuffer implements DataBuffer {
             ((DoubleIndexer) indexer).put(offset() + i, element);
         } else if (dataType() == Type.INT) {
             ((IntIndexer) indexer).put(offset() + i, (int) element);
+        } else if (dataType() == Type.HALF) {
+            ((HalfIndexer) indexer).put(offset() + i, element);
         } else {
             ((FloatIndexer) indexer).put(offset() + i, element);
         }
@@ -1077,6 +1140,8 @@ public abstract class BaseDataBuffer implements DataBuffer {
             ((DoubleIndexer) indexer).put(offset() + i, element);
         } else if (dataType() == Type.INT) {
             ((IntIndexer) indexer).put(offset() + i, element);
+        } else if (dataType() == Type.HALF) {
+            ((HalfIndexer) indexer).put(offset() + i, (float) element);
         } else {
             ((FloatIndexer) indexer).put(offset() + i, element);
         }
@@ -1213,9 +1278,151 @@ public abstract class BaseDataBuffer implements DataBuffer {
     }
 
 
+    /**
+     * This method returns true if memory for this buffer should be allocated from PooledAllocator
+     *
+     * @return
+     */
+    protected boolean isPoolable() {
+        if (!PooledAllocator.getInstance().isEnabled())
+            return false;
+
+        Type dtype = dataType();
+        return dtype == Type.DOUBLE || dtype == Type.FLOAT || dtype == Type.INT || dtype == Type.LONG
+                        || dtype == Type.HALF;
+    }
+
+    /**
+     * This method allocates memory for this buffer from PooledAllocator
+     *
+     * @param initialize
+     */
+    protected void allocatePooled(boolean initialize) {
+        PagedPointer pagedPointer =
+                        PooledAllocator.getInstance().allocate(this, length * getElementSize(), length, initialize);
+        pooled = true;
+
+        if (dataType() == Type.DOUBLE) {
+            pointer = pagedPointer.asDoublePointer();
+            indexer = DoubleIndexer.create((DoublePointer) pointer);
+        } else if (dataType() == Type.FLOAT) {
+            pointer = pagedPointer.asFloatPointer();
+            setIndexer(FloatIndexer.create((FloatPointer) pointer));
+        } else if (dataType() == Type.INT) {
+            pointer = pagedPointer.asIntPointer();
+            setIndexer(IntIndexer.create((IntPointer) pointer));
+        } else if (dataType() == Type.LONG) {
+            pointer = pagedPointer.asLongPointer();
+            setIndexer(LongIndexer.create((LongPointer) pointer));
+        } else if (dataType() == Type.HALF) {
+            pointer = pagedPointer.asShortPointer();
+            setIndexer(HalfIndexer.create((ShortPointer) pointer));
+        }
+    }
+
+    /**
+     * This method returns true if memory of this buffer belongs to PooledAllocator
+     *
+     * @return
+     */
+    public boolean isPooled() {
+        return pooled;
+    }
+
+    /**
+     * Pooled buffers return their memory to the pool here. Buffer can't be used after this call.
+     * Repeated calls, and release() calls after this one, are no-ops
+     */
     @Override
     public void destroy() {
+        synchronized (this) {
+            if (!pooled || released)
+                return;
+
+            released = true;
+        }
+
+        releasePooled();
+    }
+
+    /**
+     * This method returns memory of this buffer to the pool. Pointer is detached from this buffer first,
+     * so the same block can't be released twice
+     */
+    protected void releasePooled() {
+        long address;
+        synchronized (this) {
+            if (!pooled || pointer == null)
+                return;
+
+            address = pointer.address();
+            pooled = false;
+            pointer = null;
+            indexer = null;
+        }
 
+        PooledAllocator.getInstance().release(address, this);
+    }
+
+    /**
+     * Views share reference counter with buffer they were created from
+     *
+     * @return
+     */
+    protected BaseDataBuffer referencedBuffer() {
+        return originalBuffer instanceof BaseDataBuffer ? (BaseDataBuffer) originalBuffer : this;
+    }
+
+    @Override
+    public void retain() {
+        BaseDataBuffer buffer = referencedBuffer();
+        if (buffer.released)
+            throw new IllegalStateException("Can't reference DataBuffer: it was released already");
+
+        referenceUpdater.incrementAndGet(buffer);
+    }
+
+    @Override
+    public boolean release() {
+        BaseDataBuffer buffer = referencedBuffer();
+        if (referenceUpdater.decrementAndGet(buffer) > 0)
+            return false;
+
+        // memory of workspaces and constant buffers is managed elsewhere
+        synchronized (buffer) {
+            if (buffer.released || buffer.attached || buffer.constant)
+                return false;
+
+            buffer.released = true;
+        }
+
+        buffer.releaseMemory();
+        return true;
+    }
+
+    /**
+     * This method releases off-heap memory of this buffer. It's called once, after last reference was released
+     */
+    protected void releaseMemory() {
+        if (pooled)
+            releasePooled();
+        else if (pointer != null)
+            pointer.deallocate();
+    }
+
+    @Override
+    public int getReferenceCount() {
+        return Math.max(0, referencedBuffer().referenceCount);
+    }
+
+    @Override
+    public boolean isReleased() {
+        return referencedBuffer().released;
+    }
+
+    @Override
+    public void close() {
+        release();
     }
 
     /**
@@ -1275,28 +1482,16 @@ public abstract class BaseDataBuffer implements DataBuffer {
             allocationMode = AllocationMode.valueOf(s.readUTF());
             length = s.readInt();
             Type currentType = Type.valueOf(s.readUTF());
-            if (currentType != Type.COMPRESSED)
-                type = DataTypeUtil.getDtypeFromContext();
-            else
-                type = currentType;
-
-            if (DataTypeUtil.getDtypeFromContext() == Type.DOUBLE && currentType != Type.INT)
-                elementSize = 8;
-            else if (DataTypeUtil.getDtypeFromContext() == Type.FLOAT || currentType == Type.INT)
-                elementSize = 4;
-            else if (DataTypeUtil.getDtypeFromContext() == Type.HALF && currentType != Type.INT)
-                elementSize = 2;
-
-            if (currentType != DataTypeUtil.getDtypeFromContext() && currentType != Type.HALF && currentType != Type.INT
-                            && !(DataTypeUtil.getDtypeFromContext() == Type.DOUBLE)) {
-                log.warn("Loading a data stream with opType different from what is set globally. Expect precision loss");
-                if (DataTypeUtil.getDtypeFromContext() == Type.INT)
-                    log.warn("Int to float/double widening UNSUPPORTED!!!");
-            }
-            pointerIndexerByGlobalType(currentType);
 
-            if (currentType != Type.COMPRESSED)
-                readContent(s, currentType, DataTypeUtil.getDtypeFromContext());
+            // buffer keeps data type it was saved with, regardless of global data type
+            type = currentType;
+            elementSize = (byte) DataTypeUtil.lengthForDtype(
+                            currentType == Type.COMPRESSED ? DataTypeUtil.getDtypeFromContext() : currentType);
+
+            if (currentType != Type.COMPRESSED) {
+                pointerIndexerByCurrentType(currentType);
+                readContent(s, currentType);
+            }
 
             //wrappedBuffer = pointer().asByteBuffer();
 
@@ -1305,15 +1500,15 @@ public abstract class BaseDataBuffer implements DataBuffer {
         }
     }
 
-    protected void readContent(DataInputStream s, Type currentType, Type globalType) {
+    protected void readContent(DataInputStream s, Type currentType) {
         try {
             if (currentType == Type.DOUBLE) {
                 for (int i = 0; i < length(); i++) {
-                    putByGlobalType(i, s.readDouble(), globalType);
+                    putByCurrentType(i, s.readDouble(), currentType);
                 }
             } else if (currentType == Type.FLOAT) {
                 for (int i = 0; i < length(); i++) {
-                    putByGlobalType(i, s.readFloat(), globalType);
+                    putByCurrentType(i, s.readFloat(), currentType);
                 }
             } else if (currentType == Type.COMPRESSED) {
                 String compressionAlgorithm = s.readUTF();
@@ -1331,11 +1526,15 @@ public abstract class BaseDataBuffer implements DataBuffer {
 
             } else if (currentType == Type.HALF) {
                 for (int i = 0; i < length(); i++) {
-                    putByGlobalType(i, toFloat(s.readShort()), globalType);
+                    putByCurrentType(i, toFloat(s.readShort()), currentType);
+                }
+            } else if (currentType == Type.LONG) {
+                for (int i = 0; i < length(); i++) {
+                    putByCurrentType(i, s.readLong(), currentType);
                 }
             } else {
                 for (int i = 0; i < length(); i++) {
-                    putByGlobalType(i, s.readInt(), globalType);
+                    putByCurrentType(i, s.readInt(), currentType);
                 }
             }
         } catch (Exception e) {
@@ -1361,6 +1560,9 @@ public abstract class BaseDataBuffer implements DataBuffer {
             for (int i = 0; i < length(); i++) {
                 out.writeShort(getShort(i));
             }
+        } else if (dataType() == Type.LONG) {
+            for (int i = 0; i < length(); i++)
+                out.writeLong(getLong(i));
         } else {
             for (int i = 0; i < length(); i++) {
                 out.writeFloat(getFloat(i));
@@ -1537,6 +1739,10 @@ public abstract class BaseDataBuffer implements DataBuffer {
                     indexer = IntIndexer.create((IntPointer) pointer);
 
                     break;
+                case HALF:
+                    pointer = getParentWorkspace().alloc(capacity, Type.HALF, false).asShortPointer();
+                    indexer = HalfIndexer.create((ShortPointer) pointer);
+                    break;
 
             }
         } else {
@@ -1553,6 +1759,10 @@ public abstract class BaseDataBuffer implements DataBuffer {
                     pointer = new FloatPointer(length);
                     indexer = FloatIndexer.create((FloatPointer) pointer);
                     break;
+                case HALF:
+                    pointer = new ShortPointer(length);
+                    indexer = HalfIndexer.create((ShortPointer) pointer);
+                    break;
             }
         }
         Pointer.memcpy(pointer, oldPointer, this.length() * getElementSize());
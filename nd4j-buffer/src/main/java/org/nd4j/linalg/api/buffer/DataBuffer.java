@@ -36,7 +36,7 @@ import java.util.Collection;
  *
  * @author Adam Gibson
  */
-public interface DataBuffer extends Serializable {
+public interface DataBuffer extends Serializable, AutoCloseable {
 
     enum Type {
         DOUBLE, FLOAT, INT, HALF, COMPRESSED, LONG,
@@ -571,6 +571,41 @@ public interface DataBuffer extends Serializable {
      */
     void destroy();
 
+    /**
+     * This method adds reference to this buffer. Views share reference counter with their original buffer.
+     *
+     * PLEASE NOTE: Each INDArray holds one reference to its buffer, so it's released with INDArray.close()
+     */
+    void retain();
+
+    /**
+     * This method removes reference to this buffer.
+     * Once last reference is removed, off-heap memory is released, and buffer can't be used anymore.
+     *
+     * @return true if memory was released by this call
+     */
+    boolean release();
+
+    /**
+     * This method returns number of references held on this buffer
+     *
+     * @return
+     */
+    int getReferenceCount();
+
+    /**
+     * This method returns true if off-heap memory of this buffer was released via release() or close()
+     *
+     * @return
+     */
+    boolean isReleased();
+
+    /**
+     * This method is equal to release()
+     */
+    @Override
+    void close();
+
     /**
      * Write this buffer to the output stream
      * @param dos the output stream to write
@@ -0,0 +1,164 @@
+/*-
+ *
+ *  * Copyright 2015 Skymind,Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ *
+ *
+ */
+
+package org.nd4j.linalg.api.buffer;
+
+
+import org.bytedeco.javacpp.Pointer;
+import org.bytedeco.javacpp.indexer.Indexer;
+import org.nd4j.linalg.api.complex.IComplexDouble;
+import org.nd4j.linalg.api.complex.IComplexFloat;
+import org.nd4j.linalg.api.memory.MemoryWorkspace;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Data buffer for half-precision floats, stored as 16-bit values in host memory.
+ *
+ * Java arrays are converted element by element on creation, so it's meant for storage:
+ * operations on half-precision arrays are executed in FLOAT on CPU backend.
+ */
+public class HalfBuffer extends BaseDataBuffer {
+
+    /**
+     * Meant for creating another view of a buffer
+     *
+     * @param pointer the underlying buffer to create a view from
+     * @param indexer the indexer for the pointer
+     * @param length  the length of the view
+     */
+    public HalfBuffer(Pointer pointer, Indexer indexer, long length) {
+        super(pointer, indexer, length);
+    }
+
+    /**
+     * Create a half buffer with the given length
+     * @param length the half buffer with the given length
+     */
+    public HalfBuffer(long length) {
+        super(length);
+    }
+
+    public HalfBuffer(long length, boolean initialize) {
+        super(length, initialize);
+    }
+
+    public HalfBuffer(long length, boolean initialize, MemoryWorkspace workspace) {
+        super(length, initialize, workspace);
+    }
+
+    public HalfBuffer(int length, int elementSize) {
+        super(length, elementSize);
+    }
+
+    public HalfBuffer(int length, int elementSize, long offset) {
+        super(length, elementSize, offset);
+    }
+
+    public HalfBuffer(DataBuffer underlyingBuffer, long length, long offset) {
+        super(underlyingBuffer, length, offset);
+    }
+
+    public HalfBuffer(float[] data) {
+        this(data, true);
+    }
+
+    public HalfBuffer(float[] data, boolean copy) {
+        super(data.length, false);
+        setData(data);
+    }
+
+    public HalfBuffer(float[] data, MemoryWorkspace workspace) {
+        this(data, true, workspace);
+    }
+
+    public HalfBuffer(float[] data, boolean copy, MemoryWorkspace workspace) {
+        super(data.length, false, workspace);
+        setData(data);
+    }
+
+    public HalfBuffer(double[] data) {
+        this(data, true);
+    }
+
+    public HalfBuffer(double[] data, boolean copy) {
+        super(data.length, false);
+        setData(data);
+    }
+
+    public HalfBuffer(int[] data) {
+        this(data, true);
+    }
+
+    public HalfBuffer(int[] data, boolean copy) {
+        super(data.length, false);
+        setData(data);
+    }
+
+    public HalfBuffer(ByteBuffer buffer, int length) {
+        super(buffer, length);
+    }
+
+    public HalfBuffer(ByteBuffer buffer, int length, long offset) {
+        super(buffer, length, offset);
+    }
+
+    public HalfBuffer(byte[] data, int length) {
+        super(data, length);
+    }
+
+    /**
+     * Initialize the opType of this buffer
+     */
+    @Override
+    protected void initTypeAndSize() {
+        type = Type.HALF;
+        elementSize = 2;
+    }
+
+    @Override
+    public IComplexFloat getComplexFloat(long i) {
+        return null;
+    }
+
+    @Override
+    public IComplexDouble getComplexDouble(long i) {
+        return null;
+    }
+
+    @Override
+    protected DataBuffer create(long length) {
+        return new HalfBuffer(length);
+    }
+
+    @Override
+    public DataBuffer create(double[] data) {
+        return new HalfBuffer(data);
+    }
+
+    @Override
+    public DataBuffer create(float[] data) {
+        return new HalfBuffer(data);
+    }
+
+    @Override
+    public DataBuffer create(int[] data) {
+        return new HalfBuffer(data);
+    }
+}
@@ -30,6 +30,7 @@ import org.bytedeco.javacpp.indexer.IntIndexer;
 import org.nd4j.linalg.api.buffer.DataBuffer;
 import org.nd4j.linalg.api.buffer.DoubleBuffer;
 import org.nd4j.linalg.api.buffer.FloatBuffer;
+import org.nd4j.linalg.api.buffer.HalfBuffer;
 import org.nd4j.linalg.api.buffer.IntBuffer;
 import org.nd4j.linalg.api.memory.MemoryWorkspace;
 import org.nd4j.linalg.util.ArrayUtil;
@@ -477,6 +478,8 @@ public class DefaultDataBufferFactory implements DataBufferFactory {
                 return new DoubleBuffer(pointer, indexer, length);
             case FLOAT:
                 return new FloatBuffer(pointer, indexer, length);
+            case HALF:
+                return new HalfBuffer(pointer, indexer, length);
         }
         throw new IllegalArgumentException("Invalid opType " + type);
     }
@@ -523,12 +526,12 @@ public class DefaultDataBufferFactory implements DataBufferFactory {
 
     @Override
     public DataBuffer createHalf(long length) {
-        throw new UnsupportedOperationException("FP16 isn't supported for CPU yet");
+        return new HalfBuffer(length);
     }
 
     @Override
     public DataBuffer createHalf(long length, boolean initialize) {
-        throw new UnsupportedOperationException("FP16 isn't supported for CPU yet");
+        return new HalfBuffer(length, initialize);
     }
 
     /**
@@ -540,7 +543,7 @@ public class DefaultDataBufferFactory implements DataBufferFactory {
      */
     @Override
     public DataBuffer createHalf(float[] data, boolean copy) {
-        throw new UnsupportedOperationException("FP16 isn't supported for CPU yet");
+        return new HalfBuffer(data, copy);
     }
 
     /**
@@ -552,7 +555,7 @@ public class DefaultDataBufferFactory implements DataBufferFactory {
      */
     @Override
     public DataBuffer createHalf(double[] data, boolean copy) {
-        throw new UnsupportedOperationException("FP16 isn't supported for CPU yet");
+        return new HalfBuffer(data, copy);
     }
 
     /**
@@ -565,7 +568,7 @@ public class DefaultDataBufferFactory implements DataBufferFactory {
      */
     @Override
     public DataBuffer createHalf(long offset, double[] data, boolean copy) {
-        throw new UnsupportedOperationException("FP16 isn't supported for CPU yet");
+        return withOffset(new HalfBuffer(data, copy), offset);
     }
 
     /**
@@ -578,7 +581,7 @@ public class DefaultDataBufferFactory implements DataBufferFactory {
      */
     @Override
     public DataBuffer createHalf(long offset, float[] data, boolean copy) {
-        throw new UnsupportedOperationException("FP16 isn't supported for CPU yet");
+        return withOffset(new HalfBuffer(data, copy), offset);
     }
 
     /**
@@ -591,7 +594,7 @@ public class DefaultDataBufferFactory implements DataBufferFactory {
      */
     @Override
     public DataBuffer createHalf(long offset, int[] data, boolean copy) {
-        throw new UnsupportedOperationException("FP16 isn't supported for CPU yet");
+        return withOffset(new HalfBuffer(data, copy), offset);
     }
 
     /**
@@ -603,7 +606,7 @@ public class DefaultDataBufferFactory implements DataBufferFactory {
      */
     @Override
     public DataBuffer createHalf(long offset, double[] data) {
-        throw new UnsupportedOperationException("FP16 isn't supported for CPU yet");
+        return createHalf(offset, data, true);
     }
 
     /**
@@ -615,12 +618,12 @@ public class DefaultDataBufferFactory implements DataBufferFactory {
      */
     @Override
     public DataBuffer createHalf(long offset, float[] data) {
-        throw new UnsupportedOperationException("FP16 isn't supported for CPU yet");
+        return createHalf(offset, data, true);
     }
 
     @Override
     public DataBuffer createHalf(long offset, float[] data, MemoryWorkspace workspace) {
-        throw new UnsupportedOperationException("FP16 isn't supported for CPU yet");
+        return withOffset(new HalfBuffer(data, true, workspace), offset);
     }
 
     /**
@@ -632,7 +635,7 @@ public class DefaultDataBufferFactory implements DataBufferFactory {
      */
     @Override
     public DataBuffer createHalf(long offset, int[] data) {
-        throw new UnsupportedOperationException("FP16 isn't supported for CPU yet");
+        return createHalf(offset, data, true);
     }
 
     /**
@@ -645,7 +648,7 @@ public class DefaultDataBufferFactory implements DataBufferFactory {
      */
     @Override
     public DataBuffer createHalf(long offset, byte[] data, boolean copy) {
-        throw new UnsupportedOperationException("FP16 isn't supported for CPU yet");
+        return withOffset(new HalfBuffer(data, data.length / 2), offset);
     }
 
     /**
@@ -657,7 +660,7 @@ public class DefaultDataBufferFactory implements DataBufferFactory {
      */
     @Override
     public DataBuffer createHalf(int[] data, boolean copy) {
-        throw new UnsupportedOperationException("FP16 isn't supported for CPU yet");
+        return new HalfBuffer(data, copy);
     }
 
     /**
@@ -668,7 +671,7 @@ public class DefaultDataBufferFactory implements DataBufferFactory {
      */
     @Override
     public DataBuffer createHalf(float[] data) {
-        throw new UnsupportedOperationException("FP16 isn't supported for CPU yet");
+        return createHalf(data, true);
     }
 
     /**
@@ -679,7 +682,7 @@ public class DefaultDataBufferFactory implements DataBufferFactory {
      */
     @Override
     public DataBuffer createHalf(double[] data) {
-        throw new UnsupportedOperationException("FP16 isn't supported for CPU yet");
+        return createHalf(data, true);
     }
 
     /**
@@ -690,7 +693,7 @@ public class DefaultDataBufferFactory implements DataBufferFactory {
      */
     @Override
     public DataBuffer createHalf(int[] data) {
-        throw new UnsupportedOperationException("FP16 isn't supported for CPU yet");
+        return createHalf(data, true);
     }
 
     /**
@@ -703,7 +706,7 @@ public class DefaultDataBufferFactory implements DataBufferFactory {
      */
     @Override
     public DataBuffer createHalf(long offset, byte[] data, int length) {
-        throw new UnsupportedOperationException("FP16 isn't supported for CPU yet");
+        return withOffset(new HalfBuffer(data, length), offset);
     }
 
     /**
@@ -715,7 +718,7 @@ public class DefaultDataBufferFactory implements DataBufferFactory {
      */
     @Override
     public DataBuffer createHalf(long offset, int length) {
-        throw new UnsupportedOperationException("FP16 isn't supported for CPU yet");
+        return new HalfBuffer(length, 2, offset);
     }
 
     /**
@@ -727,7 +730,7 @@ public class DefaultDataBufferFactory implements DataBufferFactory {
      */
     @Override
     public DataBuffer createHalf(ByteBuffer buffer, int length) {
-        throw new UnsupportedOperationException("FP16 isn't supported for CPU yet");
+        return new HalfBuffer(buffer, length);
     }
 
     /**
@@ -739,21 +742,25 @@ public class DefaultDataBufferFactory implements DataBufferFactory {
      */
     @Override
     public DataBuffer createHalf(byte[] data, int length) {
-        throw new UnsupportedOperationException("FP16 isn't supported for CPU yet");
+        return new HalfBuffer(data, length);
     }
 
     @Override
     public DataBuffer createHalf(long length, boolean initialize, MemoryWorkspace workspace) {
-        throw new UnsupportedOperationException("FP16 isn't supported for CPU yet");
+        return new HalfBuffer(length, initialize, workspace);
     }
 
     @Override
     public DataBuffer createHalf(float[] data, MemoryWorkspace workspace) {
-        throw new UnsupportedOperationException("FP16 isn't supported for CPU yet");
+        return createHalf(data, true, workspace);
     }
 
     @Override
     public DataBuffer createHalf(float[] data, boolean copy, MemoryWorkspace workspace) {
-        throw new UnsupportedOperationException("FP16 isn't supported for CPU yet");
+        return new HalfBuffer(data, copy, workspace);
+    }
+
+    private static DataBuffer withOffset(DataBuffer buffer, long offset) {
+        return offset == 0 ? buffer : new HalfBuffer(buffer, buffer.length() - offset, offset);
     }
 }
@@ -159,4 +159,9 @@ public interface MemoryWorkspaceManager {
 
 
     void printAllocationStatisticsForCurrentThread();
+
+    /**
+     * This method prints out statistics for workspaces allocated in all threads, aggregated by workspace id
+     */
+    void printAllocationStatistics();
 }
@@ -26,12 +26,18 @@ public class WorkspaceConfiguration implements Serializable {
     @Builder.Default protected LearningPolicy policyLearning = LearningPolicy.FIRST_LOOP;
     @Builder.Default protected ResetPolicy policyReset = ResetPolicy.BLOCK_LEFT;
     @Builder.Default protected LocationPolicy policyLocation = LocationPolicy.RAM;
+    @Builder.Default protected SharingPolicy policySharing = SharingPolicy.NONE;
 
     /**
      * Path to file to be memory-mapped
      */
     @Builder.Default protected String tempFilePath = null;
 
+    /**
+     * Directory for memory-mapped spill file, used with SpillPolicy.MMAP. Default temporary directory is used if null
+     */
+    @Builder.Default protected String spillDirectory = null;
+
     /**
      * This variable specifies amount of memory allocated for this workspace during initialization
      */
@@ -61,4 +67,10 @@ public class WorkspaceConfiguration implements Serializable {
      * This value is used only for circular workspaces
      */
     @Builder.Default protected int stepsNumber = 2;
+
+    /**
+     * If SHARED sharing policy is set, this variable specifies maximal total size
+     * of workspaces with the same id across all threads
+     */
+    @Builder.Default protected long sharedMaxSize = 0;
 }
@@ -0,0 +1,18 @@
+package org.nd4j.linalg.api.memory.enums;
+
+/**
+ * This enum defines, whether workspaces with the same id in different threads learn their size together
+ */
+public enum SharingPolicy {
+    /**
+     * This policy means - each thread learns size of its own workspace independently
+     */
+    NONE,
+
+    /**
+     * This policy means - new workspaces start from the size jointly learned by all threads
+     * using the same workspace id, and total size of these workspaces
+     * is limited by WorkspaceConfiguration.sharedMaxSize, if it's set
+     */
+    SHARED,
+}
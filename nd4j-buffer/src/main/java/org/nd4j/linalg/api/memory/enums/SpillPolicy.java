@@ -22,4 +22,12 @@ public enum SpillPolicy {
      * PLEASE NOTE: basically useful for debugging.
      */
     FAIL,
+
+    /**
+     * This policy means - spills are allocated from memory-mapped temporary file, managed by workspace.
+     * File grows to the biggest spill observed, and it's reused on the next loop, just like workspace memory.
+     *
+     * PLEASE NOTE: applicable to HOST memory only, DEVICE spills use external allocations.
+     */
+    MMAP,
 }
@@ -84,6 +84,10 @@ public class PagedPointer extends Pointer {
         return new LongPointer(this);
     }
 
+    public ShortPointer asShortPointer() {
+        return new ShortPointer(this);
+    }
+
     public BytePointer asBytePointer() {
         return new BytePointer(this);
     }
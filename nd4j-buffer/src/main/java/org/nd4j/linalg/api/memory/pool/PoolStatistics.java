@@ -0,0 +1,74 @@
+package org.nd4j.linalg.api.memory.pool;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * This class is snapshot of {@link PooledAllocator} statistics
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PoolStatistics implements Serializable {
+    /**
+     * Total number of allocations
+     */
+    private long allocations;
+
+    /**
+     * Number of allocations served from free lists of allocating thread
+     */
+    private long threadHits;
+
+    /**
+     * Number of allocations served from shared free lists
+     */
+    private long sharedHits;
+
+    /**
+     * Number of blocks released explicitly
+     */
+    private long releases;
+
+    /**
+     * Number of blocks returned to the pool after their buffers were garbage collected
+     */
+    private long collected;
+
+    /**
+     * Number of bytes owned by live data buffers
+     */
+    private long usedBytes;
+
+    /**
+     * Highest value of usedBytes ever observed
+     */
+    private long peakUsedBytes;
+
+    /**
+     * Number of free bytes kept by the pool
+     */
+    private long pooledBytes;
+
+    /**
+     * Number of free blocks kept by the pool
+     */
+    private long pooledBlocks;
+
+    /**
+     * Number of free bytes returned to the system by trimming
+     */
+    private long trimmedBytes;
+
+    /**
+     * This method returns fraction of allocations served without going to the system allocator
+     *
+     * @return
+     */
+    public double getHitRate() {
+        return allocations == 0 ? 0.0 : (double) (threadHits + sharedHits) / allocations;
+    }
+}
@@ -0,0 +1,497 @@
+package org.nd4j.linalg.api.memory.pool;
+
+import lombok.extern.slf4j.Slf4j;
+import org.bytedeco.javacpp.Pointer;
+import org.nd4j.linalg.api.buffer.DataBuffer;
+import org.nd4j.linalg.api.memory.pointers.PagedPointer;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * This class is opt-in pool of off-heap memory for data buffers created outside of workspaces.
+ *
+ * Requests are rounded up to one of size classes (4 classes per power of 2, from 64 bytes to 64MB),
+ * and released blocks are kept in per-thread free lists first, and in shared free lists after that.
+ * Blocks that weren't used during trim interval are returned to the system by background thread.
+ *
+ * Memory gets back to the pool either explicitly, via DataBuffer.destroy(), or once data buffer is garbage collected.
+ * Allocations above the biggest size class aren't cached, but they're still released without waiting for
+ * JavaCPP deallocator.
+ *
+ * Pooling is disabled by default, and can be enabled with -Dorg.nd4j.buffers.pooled=true or setEnabled(true)
+ */
+@Slf4j
+public class PooledAllocator {
+    public static final String POOLING_PROPERTY = "org.nd4j.buffers.pooled";
+
+    protected static final int MIN_SHIFT = 6;
+    protected static final int MAX_SHIFT = 26;
+    protected static final long[] SIZE_CLASSES = sizeClasses();
+
+    private static final PooledAllocator INSTANCE = new PooledAllocator();
+
+    private final AtomicBoolean enabled = new AtomicBoolean(Boolean.getBoolean(POOLING_PROPERTY));
+
+    private final AtomicLong threadCacheSize = new AtomicLong(16 * 1024L * 1024L);
+    private final AtomicLong maxPooledSize = new AtomicLong(256 * 1024L * 1024L);
+    private final AtomicLong trimInterval = new AtomicLong(5000);
+
+    private final CentralList[] central = new CentralList[SIZE_CLASSES.length];
+    private final Queue<ThreadCache> caches = new ConcurrentLinkedQueue<>();
+    private final ThreadLocal<ThreadCache> threadCache = new ThreadLocal<>();
+
+    private final ReferenceQueue<DataBuffer> queue = new ReferenceQueue<>();
+    private final ConcurrentHashMap<Long, PoolReference> references = new ConcurrentHashMap<>();
+    private final AtomicBoolean started = new AtomicBoolean(false);
+
+    // statistics
+    private final AtomicLong allocations = new AtomicLong(0);
+    private final AtomicLong threadHits = new AtomicLong(0);
+    private final AtomicLong sharedHits = new AtomicLong(0);
+    private final AtomicLong releases = new AtomicLong(0);
+    private final AtomicLong collected = new AtomicLong(0);
+    private final AtomicLong trimmedBytes = new AtomicLong(0);
+    private final AtomicLong pooledBytes = new AtomicLong(0);
+    private final AtomicLong pooledBlocks = new AtomicLong(0);
+    private final AtomicLong usedBytes = new AtomicLong(0);
+    private final AtomicLong peakUsedBytes = new AtomicLong(0);
+
+    protected PooledAllocator() {
+        for (int i = 0; i < central.length; i++)
+            central[i] = new CentralList(SIZE_CLASSES[i]);
+    }
+
+    public static PooledAllocator getInstance() {
+        return INSTANCE;
+    }
+
+    protected static long[] sizeClasses() {
+        long[] classes = new long[(MAX_SHIFT - MIN_SHIFT) * 4 + 1];
+        int cnt = 0;
+        for (int shift = MIN_SHIFT; shift < MAX_SHIFT; shift++)
+            for (int step = 0; step < 4; step++)
+                classes[cnt++] = (1L << shift) + step * (1L << (shift - 2));
+
+        classes[cnt] = 1L << MAX_SHIFT;
+        return classes;
+    }
+
+    /**
+     * This method returns size class for given number of bytes, or -1 if it's above the biggest size class
+     *
+     * @param bytes
+     * @return
+     */
+    protected static int sizeClass(long bytes) {
+        int idx = Arrays.binarySearch(SIZE_CLASSES, bytes);
+        if (idx < 0)
+            idx = -idx - 1;
+
+        return idx < SIZE_CLASSES.length ? idx : -1;
+    }
+
+    /**
+     * This method returns true if data buffers should be allocated from this pool
+     *
+     * @return
+     */
+    public boolean isEnabled() {
+        return enabled.get();
+    }
+
+    public void setEnabled(boolean reallyEnable) {
+        enabled.set(reallyEnable);
+    }
+
+    /**
+     * This method sets maximal number of bytes cached by each thread
+     *
+     * @param bytes
+     */
+    public void setThreadCacheSize(long bytes) {
+        threadCacheSize.set(bytes);
+    }
+
+    /**
+     * This method sets maximal number of free bytes kept by this pool. Blocks released above this limit
+     * are returned to the system immediately
+     *
+     * @param bytes
+     */
+    public void setMaxPooledSize(long bytes) {
+        maxPooledSize.set(bytes);
+    }
+
+    /**
+     * This method sets interval between trims. Free blocks that weren't used during this interval are returned to
+     * the system
+     *
+     * @param millis
+     */
+    public void setTrimInterval(long millis) {
+        trimInterval.set(millis);
+    }
+
+    /**
+     * This method allocates memory for given data buffer. Memory will be returned to the pool once buffer is
+     * destroyed or garbage collected
+     *
+     * @param buffer buffer that will own allocated memory
+     * @param bytes number of bytes
+     * @param numElements capacity of returned pointer, in elements
+     * @param initialize if true, memory will be zeroed
+     * @return
+     */
+    public PagedPointer allocate(DataBuffer buffer, long bytes, long numElements, boolean initialize) {
+        ensureThread();
+
+        int sizeClass = sizeClass(bytes);
+        long blockSize = sizeClass >= 0 ? SIZE_CLASSES[sizeClass] : bytes;
+        long address = 0;
+
+        allocations.incrementAndGet();
+        if (sizeClass >= 0) {
+            ThreadCache cache = getThreadCache();
+            address = cache.poll(sizeClass);
+            if (address != 0) {
+                threadHits.incrementAndGet();
+            } else {
+                address = central[sizeClass].poll();
+                if (address != 0)
+                    sharedHits.incrementAndGet();
+            }
+
+            if (address != 0) {
+                pooledBytes.addAndGet(-blockSize);
+                pooledBlocks.decrementAndGet();
+            }
+        }
+
+        if (address == 0) {
+            Pointer pointer = Pointer.malloc(blockSize);
+            if (pointer == null || pointer.isNull())
+                throw new OutOfMemoryError("Failed to allocate [" + blockSize + "] bytes");
+
+            address = pointer.address();
+        }
+
+        PoolReference reference = new PoolReference(buffer, address, blockSize, sizeClass, queue);
+        references.put(address, reference);
+
+        long used = usedBytes.addAndGet(blockSize);
+        long peak;
+        while ((peak = peakUsedBytes.get()) < used && !peakUsedBytes.compareAndSet(peak, used));
+
+        PagedPointer pointer = new PagedPointer(new PagedPointer(address), numElements, 0);
+        if (initialize)
+            Pointer.memset(pointer, 0, bytes);
+
+        return pointer;
+    }
+
+    /**
+     * This method returns memory at given address back to the pool. Calls for addresses that don't belong to the pool,
+     * were released already, or were handed out to other buffer since then, are ignored
+     *
+     * @param address
+     * @param owner data buffer the memory was allocated for
+     * @return true if memory was released
+     */
+    public boolean release(long address, DataBuffer owner) {
+        PoolReference reference = references.get(address);
+        if (reference == null || reference.get() != owner || !references.remove(address, reference))
+            return false;
+
+        reference.clear();
+        releases.incrementAndGet();
+        recycle(reference, getThreadCache());
+
+        return true;
+    }
+
+    protected void recycle(PoolReference reference, ThreadCache cache) {
+        usedBytes.addAndGet(-reference.bytes);
+
+        if (reference.sizeClass < 0 || pooledBytes.get() + reference.bytes > maxPooledSize.get()) {
+            free(reference.address);
+            return;
+        }
+
+        pooledBytes.addAndGet(reference.bytes);
+        pooledBlocks.incrementAndGet();
+
+        if (cache == null || !cache.offer(reference.sizeClass, reference.address))
+            central[reference.sizeClass].offer(reference.address);
+    }
+
+    protected void free(long address) {
+        Pointer.free(new PagedPointer(address));
+    }
+
+    protected ThreadCache getThreadCache() {
+        ThreadCache cache = threadCache.get();
+        if (cache == null) {
+            cache = new ThreadCache(Thread.currentThread());
+            threadCache.set(cache);
+            caches.add(cache);
+        }
+        return cache;
+    }
+
+    protected void ensureThread() {
+        if (!started.get() && started.compareAndSet(false, true)) {
+            Thread thread = new PoolMaintenanceThread();
+            thread.start();
+        }
+    }
+
+    /**
+     * This method returns all free memory of shared free lists and free lists of current thread to the system
+     */
+    public void purge() {
+        ThreadCache cache = threadCache.get();
+        if (cache != null)
+            cache.flush();
+
+        for (CentralList list : central)
+            trimmedBytes.addAndGet(list.trim(list.size.get()));
+    }
+
+    /**
+     * This method moves free blocks of dead threads, and blocks of size classes live threads didn't use since
+     * previous trim, to shared free lists, and releases shared blocks that weren't used since previous trim
+     */
+    protected void trim() {
+        Iterator<ThreadCache> iterator = caches.iterator();
+        while (iterator.hasNext()) {
+            ThreadCache cache = iterator.next();
+            if (cache.owner.get() == null || !cache.owner.get().isAlive()) {
+                cache.flush();
+                iterator.remove();
+            } else {
+                // threads that stopped allocating don't keep their free lists forever
+                cache.trimIdle();
+            }
+        }
+
+        for (CentralList list : central)
+            trimmedBytes.addAndGet(list.trimIdle());
+    }
+
+    /**
+     * This method returns current statistics of this pool
+     *
+     * @return
+     */
+    public PoolStatistics getStatistics() {
+        return new PoolStatistics(allocations.get(), threadHits.get(), sharedHits.get(), releases.get(),
+                        collected.get(), usedBytes.get(), peakUsedBytes.get(), pooledBytes.get(), pooledBlocks.get(),
+                        trimmedBytes.get());
+    }
+
+    /**
+     * Shared free list of single size class
+     */
+    protected class CentralList {
+        private final long blockSize;
+        private final ConcurrentLinkedQueue<Long> blocks = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger size = new AtomicInteger(0);
+        // lowest size since last trim, i.e. number of blocks that weren't used
+        private final AtomicInteger lowWatermark = new AtomicInteger(0);
+
+        protected CentralList(long blockSize) {
+            this.blockSize = blockSize;
+        }
+
+        protected long poll() {
+            Long address = blocks.poll();
+            if (address == null)
+                return 0;
+
+            int current = size.decrementAndGet();
+            int low;
+            while ((low = lowWatermark.get()) > current && !lowWatermark.compareAndSet(low, current));
+
+            return address;
+        }
+
+        protected void offer(long address) {
+            blocks.offer(address);
+            size.incrementAndGet();
+        }
+
+        protected long trim(int count) {
+            long released = 0;
+            for (int i = 0; i < count; i++) {
+                Long address = blocks.poll();
+                if (address == null)
+                    break;
+
+                size.decrementAndGet();
+                pooledBytes.addAndGet(-blockSize);
+                pooledBlocks.decrementAndGet();
+                free(address);
+                released += blockSize;
+            }
+
+            return released;
+        }
+
+        protected long trimIdle() {
+            long released = trim(lowWatermark.get());
+            lowWatermark.set(size.get());
+            return released;
+        }
+    }
+
+    /**
+     * Free lists of single thread. Accessed by owner thread, and by maintenance thread during trims. Whoever holds
+     * the busy flag owns free lists: owner thread never waits for it, but falls back to shared free lists instead
+     */
+    protected class ThreadCache {
+        private final WeakReference<Thread> owner;
+        private final AtomicBoolean busy = new AtomicBoolean(false);
+        private final long[][] blocks = new long[SIZE_CLASSES.length][];
+        private final int[] counts = new int[SIZE_CLASSES.length];
+        private final boolean[] used = new boolean[SIZE_CLASSES.length];
+        private long cachedBytes = 0;
+
+        protected ThreadCache(Thread owner) {
+            this.owner = new WeakReference<>(owner);
+        }
+
+        protected long poll(int sizeClass) {
+            if (!busy.compareAndSet(false, true))
+                return 0;
+
+            try {
+                used[sizeClass] = true;
+                if (counts[sizeClass] == 0)
+                    return 0;
+
+                cachedBytes -= SIZE_CLASSES[sizeClass];
+                return blocks[sizeClass][--counts[sizeClass]];
+            } finally {
+                busy.set(false);
+            }
+        }
+
+        protected boolean offer(int sizeClass, long address) {
+            long blockSize = SIZE_CLASSES[sizeClass];
+            if (!busy.compareAndSet(false, true))
+                return false;
+
+            try {
+                if (cachedBytes + blockSize > threadCacheSize.get())
+                    return false;
+
+                if (blocks[sizeClass] == null)
+                    blocks[sizeClass] = new long[8];
+                else if (counts[sizeClass] == blocks[sizeClass].length)
+                    blocks[sizeClass] = Arrays.copyOf(blocks[sizeClass], counts[sizeClass] * 2);
+
+                blocks[sizeClass][counts[sizeClass]++] = address;
+                cachedBytes += blockSize;
+                return true;
+            } finally {
+                busy.set(false);
+            }
+        }
+
+        /**
+         * Blocks of size classes that weren't used since previous trim are moved to shared free lists.
+         * Skipped if owner thread is using its free lists right now, since it isn't idle then
+         */
+        protected void trimIdle() {
+            if (!busy.compareAndSet(false, true))
+                return;
+
+            try {
+                for (int c = 0; c < counts.length; c++) {
+                    if (!used[c])
+                        flush(c);
+
+                    used[c] = false;
+                }
+            } finally {
+                busy.set(false);
+            }
+        }
+
+        protected void flush() {
+            while (!busy.compareAndSet(false, true))
+                Thread.yield();
+
+            try {
+                for (int c = 0; c < counts.length; c++)
+                    flush(c);
+            } finally {
+                busy.set(false);
+            }
+        }
+
+        private void flush(int sizeClass) {
+            while (counts[sizeClass] > 0) {
+                central[sizeClass].offer(blocks[sizeClass][--counts[sizeClass]]);
+                cachedBytes -= SIZE_CLASSES[sizeClass];
+            }
+        }
+    }
+
+    protected static class PoolReference extends WeakReference<DataBuffer> {
+        private final long address;
+        private final long bytes;
+        private final int sizeClass;
+
+        protected PoolReference(DataBuffer referent, long address, long bytes, int sizeClass,
+                        ReferenceQueue<? super DataBuffer> queue) {
+            super(referent, queue);
+            this.address = address;
+            this.bytes = bytes;
+            this.sizeClass = sizeClass;
+        }
+    }
+
+    /**
+     * This thread returns memory of garbage collected buffers to the pool, and trims free lists periodically
+     */
+    protected class PoolMaintenanceThread extends Thread {
+        protected PoolMaintenanceThread() {
+            this.setDaemon(true);
+            this.setName("Buffer pool maintenance thread");
+        }
+
+        @Override
+        public void run() {
+            long lastTrim = System.currentTimeMillis();
+            while (true) {
+                try {
+                    PoolReference reference = (PoolReference) queue.remove(Math.max(1, trimInterval.get()));
+                    if (reference != null && references.remove(reference.address, reference)) {
+                        collected.incrementAndGet();
+                        recycle(reference, null);
+                    }
+
+                    long time = System.currentTimeMillis();
+                    if (time - lastTrim >= trimInterval.get()) {
+                        trim();
+                        lastTrim = time;
+                    }
+                } catch (InterruptedException e) {
+                    return;
+                } catch (Exception e) {
+                    log.error("Buffer pool maintenance failed", e);
+                }
+            }
+        }
+    }
+}
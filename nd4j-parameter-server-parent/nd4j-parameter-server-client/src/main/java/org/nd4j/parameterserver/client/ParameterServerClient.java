@@ -6,8 +6,12 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.extern.slf4j.Slf4j;
+import org.agrona.CloseHelper;
 import org.nd4j.aeron.ipc.*;
+import org.nd4j.aeron.ipc.encoding.GradientEncoder;
 import org.nd4j.aeron.ipc.response.HostPortPublisher;
+import org.nd4j.aeron.ipc.response.NDArrayResponseFragmentHandler;
+import org.nd4j.linalg.api.memory.MemoryWorkspace;
 import org.nd4j.linalg.api.ndarray.INDArray;
 import org.nd4j.linalg.factory.Nd4j;
 import org.nd4j.parameterserver.model.MasterStatus;
@@ -15,6 +19,7 @@ import org.nd4j.parameterserver.model.ServerTypeJson;
 import org.nd4j.parameterserver.model.SubscriberState;
 import org.nd4j.shade.jackson.databind.ObjectMapper;
 
+import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
 
@@ -30,13 +35,20 @@ import java.util.concurrent.atomic.AtomicReference;
  * getArray() is used for retrieving the master ndarray's current
  * state from the parameter server.
  *
+ * pushAsync() and pullAsync() are the non blocking
+ * variants of the above: sends happen on a single background
+ * thread (so pushes are sent in order), responses are matched
+ * to pulls by correlation id, and the number of requests in flight
+ * is bounded by maxInFlight. This allows a worker to i.e.
+ * prefetch the parameters for the next step while computing the current one.
+ *
  * @author Adam Gibson
  */
 @Data
 @AllArgsConstructor
 @Builder
 @Slf4j
-public class ParameterServerClient implements NDArrayCallback {
+public class ParameterServerClient implements NDArrayCallback, AutoCloseable {
     //the url to send ndarrays to
     private String ndarraySendUrl;
     //the url to retrieve ndarrays from
@@ -57,6 +69,17 @@ public class ParameterServerClient implements NDArrayCallback {
     private ObjectMapper objectMapper = new ObjectMapper();
     private Aeron aeron;
     private boolean compressArray = true;
+    //optional: encodes pushed arrays as sparse threshold/bitmap updates, keeping the residual locally
+    private GradientEncoder gradientEncoder;
+    //the maximum number of pushes and pulls in flight, default 16
+    private int maxInFlight;
+    //how long to wait for a response to a pull in milliseconds, default 30000
+    private long responseTimeout;
+    //in flight requests, and the thread sending them
+    private RequestWindow window;
+    private ScheduledExecutorService sender;
+    private AeronNDArrayPublisher pushPublisher, pushPublisherCompressed;
+    private HostPortPublisher pullPublisher;
 
     /**
      * Tracks number of
@@ -91,11 +114,15 @@ public class ParameterServerClient implements NDArrayCallback {
      *
      */
     public void blockTillReady() {
+        //back off exponentially, so we don't wait a whole second when the master is ready soon
+        long backoff = 10;
         while (!isReadyForNext())
             try {
-                Thread.sleep(1000);
+                Thread.sleep(backoff);
+                backoff = Math.min(backoff * 2, 1000);
             } catch (InterruptedException e) {
                 Thread.currentThread().interrupt();
+                return;
             }
     }
 
@@ -159,30 +186,12 @@ public class ParameterServerClient implements NDArrayCallback {
      * ndarray send url in the form of:
      * host;port:stream
      * where stream is the stream for connecting
-     * to a listening aeron server
+     * to a listening aeron server.
+     * This method blocks until the message is sent.
      * @param message the array to send
      */
     public void pushNDArrayMessage(NDArrayMessage message) {
-        //start a subscriber that can send us ndarrays
-        if (subscriber == null) {
-            running = new AtomicBoolean(true);
-            subscriber = AeronNDArraySubscriber.startSubscriber(aeron, subscriberHost, subscriberPort, this,
-                            subscriberStream, running);
-            log.debug("Started parameter server client on " + subscriber.connectionUrl());
-        }
-
-        String[] split = ndarraySendUrl.split(":");
-        int port = Integer.parseInt(split[1]);
-        int streamToPublish = Integer.parseInt(split[2]);
-        String channel = AeronUtil.aeronChannel(split[0], port);
-        log.debug("Parameter server client publishing to " + ndarraySendUrl);
-        try (AeronNDArrayPublisher publisher = AeronNDArrayPublisher.builder().streamId(streamToPublish)
-                        .compress(isCompressArray()).aeron(aeron).channel(channel).build()) {
-            publisher.publish(message);
-        } catch (Exception e) {
-            throw new RuntimeException(e);
-        }
-
+        await(pushMessageAsync(message));
     }
 
     /**
@@ -190,13 +199,62 @@ public class ParameterServerClient implements NDArrayCallback {
      * ndarray send url in the form of:
      * host;port:stream
      * where stream is the stream for connecting
-     * to a listening aeron server
+     * to a listening aeron server.
+     * If a {@link GradientEncoder} is set, the array is encoded first,
+     * and nothing is sent if no element exceeded the threshold.
+     * This method blocks until the array is sent.
      * @param arr the array to send
      */
     public void pushNDArray(INDArray arr) {
-        pushNDArrayMessage(NDArrayMessage.wholeArrayUpdate(arr));
+        await(pushAsync(arr));
+    }
+
+    /**
+     * Asynchronous version of {@link #pushNDArray(INDArray)}.
+     * The array is copied (or encoded) on the calling thread,
+     * so it may be modified as soon as this method returns.
+     * Blocks only while maxInFlight requests are already in flight.
+     * @param arr the array to send
+     * @return a future completed once the array is sent
+     */
+    public CompletableFuture<Void> pushAsync(INDArray arr) {
+        if (gradientEncoder == null) {
+            INDArray copy;
+            try (MemoryWorkspace workspace = Nd4j.getMemoryManager().scopeOutOfWorkspaces()) {
+                copy = arr.dup();
+            }
+            return pushMessageAsync(NDArrayMessage.wholeArrayUpdate(copy));
+        }
+
+        NDArrayMessage message = gradientEncoder.encodeMessage(arr);
+        if (message == null) {
+            log.debug("No elements above threshold {}, update kept in residual", gradientEncoder.getThreshold());
+            return CompletableFuture.completedFuture(null);
+        }
+        return pushMessageAsync(message);
     }
 
+    /**
+     * Asynchronous version of {@link #pushNDArrayMessage(NDArrayMessage)}.
+     * Note that the array of the message may be compressed in place
+     * when it's sent, so it shouldn't be modified until the future completes.
+     * @param message the message to send
+     * @return a future completed once the message is sent
+     */
+    public CompletableFuture<Void> pushMessageAsync(NDArrayMessage message) {
+        start();
+        CompletableFuture<Void> future = acquire();
+        if (future.isDone())
+            return future;
+
+        //encoded updates are already compact
+        boolean compress = isCompressArray() && !GradientEncoder.isEncoded(message);
+        submit(future, () -> {
+            pushPublisher(compress).publish(message);
+            future.complete(null);
+        });
+        return future;
+    }
 
     /**
      * Get the connection url for the subscriber
@@ -219,7 +277,83 @@ public class ParameterServerClient implements NDArrayCallback {
      * @return the current ndarray from the master.
      */
     public INDArray getArray() {
-        //start a subscriber that can send us ndarrays
+        return await(pullAsync());
+    }
+
+    /**
+     * Asynchronously "pull" the current ndarray
+     * from the master.
+     * Blocks only while maxInFlight requests are already in flight.
+     * @return a future completed with the current ndarray from the master
+     */
+    public CompletableFuture<INDArray> pullAsync() {
+        return pullAsync(-1);
+    }
+
+    /**
+     * Asynchronously "pull" a tensor along dimension
+     * of the current ndarray from the master.
+     * @param tadIndex the index of the tensor along dimension, -1 for the whole array
+     * @param dimensions the dimensions of the tensor along dimension
+     * @return a future completed with the requested (part of the) ndarray
+     */
+    public CompletableFuture<INDArray> pullAsync(int tadIndex, int... dimensions) {
+        if (tadIndex >= 0 && (dimensions == null || dimensions.length < 1))
+            throw new IllegalArgumentException("Dimensions must be specified for a tensor along dimension");
+
+        start();
+        CompletableFuture<INDArray> future = acquire();
+        if (future.isDone())
+            return future;
+
+        long id = window.register(future);
+        String request = NDArrayResponseFragmentHandler.request(connectionUrl(), id, tadIndex, dimensions);
+        long timeout = responseTimeout > 0 ? responseTimeout : 30000;
+        ScheduledFuture<?> expiry = sender.schedule(() -> future.completeExceptionally(new TimeoutException(
+                        "No response to request " + id + " within " + timeout + " ms")), timeout,
+                        TimeUnit.MILLISECONDS);
+        future.whenComplete((result, throwable) -> expiry.cancel(false));
+
+        submit(future, () -> pullPublisher().send(request));
+        return future;
+    }
+
+    /**
+     * The number of pushes and pulls in flight
+     * @return the number of requests in flight
+     */
+    public int inFlight() {
+        return window == null ? 0 : window.inFlight();
+    }
+
+    /**
+     * Stop the subscriber and the sending thread,
+     * failing all the requests in flight: pulls still waiting
+     * for a response, and pushes dropped from the sending queue
+     */
+    public synchronized void close() {
+        if (running != null)
+            running.set(false);
+
+        if (sender != null) {
+            sender.shutdownNow();
+            sender = null;
+        }
+
+        if (window != null)
+            window.failAll(new CancellationException("Parameter server client closed"));
+
+        CloseHelper.quietClose(pushPublisher);
+        CloseHelper.quietClose(pushPublisherCompressed);
+        CloseHelper.quietClose(pullPublisher);
+        CloseHelper.quietClose(subscriber);
+        pushPublisher = pushPublisherCompressed = null;
+        pullPublisher = null;
+        subscriber = null;
+    }
+
+    //starts the subscriber that can send us ndarrays, and the sending thread
+    private synchronized void start() {
         if (subscriber == null) {
             running = new AtomicBoolean(true);
             subscriber = AeronNDArraySubscriber.startSubscriber(aeron, subscriberHost, subscriberPort, this,
@@ -230,50 +364,96 @@ public class ParameterServerClient implements NDArrayCallback {
         if (arr == null)
             arr = new AtomicReference<>(none);
 
-        log.debug("Parameter server client retrieving url from " + ndarrayRetrieveUrl);
-        //note here that this is the "master url"
-        String[] split = ndarrayRetrieveUrl.split(":");
-        //The response daemon is always the master daemon's port + 1
-        //A "master daemon" is one that holds both the
-        //parameter averaging daemon AND the response daemon for being able to send
-        //the "current state ndarray"
+        if (window == null)
+            window = new RequestWindow(maxInFlight > 0 ? maxInFlight : 16);
+
+        if (sender == null) {
+            ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, r -> {
+                Thread thread = new Thread(r, "ParameterServerClient sender");
+                thread.setDaemon(true);
+                return thread;
+            });
+            executor.setRemoveOnCancelPolicy(true);
+            sender = executor;
+        }
+    }
+
+    private <T> CompletableFuture<T> acquire() {
+        try {
+            return window.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            CompletableFuture<T> future = new CompletableFuture<>();
+            future.completeExceptionally(e);
+            return future;
+        }
+    }
+
+    private void submit(CompletableFuture<?> future, Send send) {
+        try {
+            sender.execute(() -> {
+                try {
+                    send.send();
+                } catch (Exception e) {
+                    future.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            future.completeExceptionally(e);
+        }
+    }
+
+    //publishers are only used by the sending thread
+    private AeronNDArrayPublisher pushPublisher(boolean compress) {
+        if (compress ? pushPublisherCompressed != null : pushPublisher != null)
+            return compress ? pushPublisherCompressed : pushPublisher;
+
+        String[] split = ndarraySendUrl.split(":");
         int port = Integer.parseInt(split[1]);
         int streamToPublish = Integer.parseInt(split[2]);
-        //the channel here is the master node host with the port + 1
-        //pointing at the response node where we can request ndarrays to be sent to
-        //the listening daemon
         String channel = AeronUtil.aeronChannel(split[0], port);
-        //publish the address of our subscriber
-        //note here that we send the ndarray send url, because the
-        //master also hosts
-        try (HostPortPublisher hostPortPublisher =
-                        HostPortPublisher.builder().channel(channel).aeron(aeron)
-                                        //note here that we send our subscriber's listening information
-                                        .streamId(streamToPublish)
-                                        .uriToSend(AeronConnectionInformation
-                                                        .of(subscriberHost, subscriberPort, subscriberStream)
-                                                        .toString())
-                                        .build()) {
-            hostPortPublisher.send();
-
-
-            log.debug("Sent subscriber information " + AeronConnectionInformation
-                            .of(subscriberHost, subscriberPort, subscriberStream).toString());
-
-            //wait for array to be available
-            while (arr.get() == none) {
-                Thread.sleep(1000);
-                log.info("Waiting on array to be updated.");
-            }
+        log.debug("Parameter server client publishing to " + ndarraySendUrl);
+        AeronNDArrayPublisher publisher = AeronNDArrayPublisher.builder().streamId(streamToPublish)
+                        .compress(compress).aeron(aeron).channel(channel).build();
+        if (compress)
+            pushPublisherCompressed = publisher;
+        else
+            pushPublisher = publisher;
+        return publisher;
+    }
 
-        } catch (Exception e) {
-            log.error("Error with publishing", e);
+    private HostPortPublisher pullPublisher() {
+        if (pullPublisher == null) {
+            log.debug("Parameter server client retrieving url from " + ndarrayRetrieveUrl);
+            //note here that this is the "master url"
+            //A "master daemon" is one that holds both the
+            //parameter averaging daemon AND the response daemon for being able to send
+            //the "current state ndarray"
+            String[] split = ndarrayRetrieveUrl.split(":");
+            int port = Integer.parseInt(split[1]);
+            int streamToPublish = Integer.parseInt(split[2]);
+            //pointing at the response node where we can request ndarrays to be sent to
+            //the listening daemon
+            String channel = AeronUtil.aeronChannel(split[0], port);
+            pullPublisher = HostPortPublisher.builder().channel(channel).aeron(aeron).streamId(streamToPublish)
+                            .build();
         }
+        return pullPublisher;
+    }
 
+    private interface Send {
+        void send() throws Exception;
+    }
 
-        INDArray arr2 = arr.get();
-        arr.set(none);
-        return arr2;
+    private static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e.getCause());
+        }
     }
 
     /**
@@ -283,6 +463,10 @@ public class ParameterServerClient implements NDArrayCallback {
      */
     @Override
     public void onNDArrayMessage(NDArrayMessage message) {
+        //responses to pullAsync() are matched by id
+        if (message.getId() != 0 && window != null && window.complete(message.getId(), message.getArr()))
+            return;
+
         INDArray arr = message.getArr();
         //of note for ndarrays
         int[] dimensions = message.getDimensions();
@@ -0,0 +1,109 @@
+package org.nd4j.parameterserver.client;
+
+import org.nd4j.linalg.api.ndarray.INDArray;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded window of in flight requests
+ * for the {@link ParameterServerClient}.
+ *
+ * Every request (push or pull) holds a permit
+ * until its future completes, no matter if it completed normally,
+ * exceptionally or was cancelled. Every future is tracked
+ * until then, so closing the client can fail all of them,
+ * including pushes that were never sent.
+ * Pull requests are additionally registered under a correlation id,
+ * so responses can be matched to the request that asked for them.
+ */
+public class RequestWindow {
+    private final int maxInFlight;
+    private final Semaphore permits;
+    private final AtomicLong ids = new AtomicLong();
+    private final Map<Long, CompletableFuture<INDArray>> pending = new ConcurrentHashMap<>();
+    private final Set<CompletableFuture<?>> inFlight = ConcurrentHashMap.newKeySet();
+
+    /**
+     * @param maxInFlight the maximum number of requests in flight
+     */
+    public RequestWindow(int maxInFlight) {
+        if (maxInFlight < 1)
+            throw new IllegalArgumentException("Max number of requests in flight must be positive");
+        this.maxInFlight = maxInFlight;
+        this.permits = new Semaphore(maxInFlight);
+    }
+
+    /**
+     * Take a slot in the window,
+     * blocking while the window is full.
+     * @return a future, which frees the slot once completed
+     * @throws InterruptedException
+     */
+    public <T> CompletableFuture<T> acquire() throws InterruptedException {
+        permits.acquire();
+        CompletableFuture<T> future = new CompletableFuture<>();
+        inFlight.add(future);
+        future.whenComplete((result, throwable) -> {
+            inFlight.remove(future);
+            permits.release();
+        });
+        return future;
+    }
+
+    /**
+     * Register a pull request, so a response
+     * can be matched to it
+     * @param future the future obtained from {@link #acquire()}
+     * @return the correlation id of the request
+     */
+    public long register(CompletableFuture<INDArray> future) {
+        long id = ids.incrementAndGet();
+        pending.put(id, future);
+        future.whenComplete((result, throwable) -> pending.remove(id));
+        return id;
+    }
+
+    /**
+     * Complete the request with the given id
+     * @param id the correlation id of the request
+     * @param arr the response
+     * @return true if there was a request waiting for this response,
+     * false otherwise
+     */
+    public boolean complete(long id, INDArray arr) {
+        CompletableFuture<INDArray> future = pending.get(id);
+        return future != null && future.complete(arr);
+    }
+
+    /**
+     * Fail all requests in flight, pushes and pulls,
+     * freeing their slots
+     * @param throwable the cause
+     */
+    public void failAll(Throwable throwable) {
+        List<CompletableFuture<?>> futures = new ArrayList<>(inFlight);
+        for (CompletableFuture<?> future : futures)
+            future.completeExceptionally(throwable);
+    }
+
+    /**
+     * @return the number of requests (pushes and pulls) in flight
+     */
+    public int inFlight() {
+        return maxInFlight - permits.availablePermits();
+    }
+
+    /**
+     * @return the number of pull requests waiting for a response
+     */
+    public int pendingResponses() {
+        return pending.size();
+    }
+}
@@ -12,6 +12,11 @@ import org.nd4j.parameterserver.ParameterServerSubscriber;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
 import static junit.framework.TestCase.assertFalse;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
@@ -94,6 +99,14 @@ public class ParameterServerClientTest {
         assertEquals(Nd4j.ones(parameterLength), listener.getUpdater().ndArrayHolder().get());
         INDArray arr = client.getArray();
         assertEquals(Nd4j.ones(1000), arr);
+
+        //pipelined pulls, each matched to its own response
+        List<CompletableFuture<INDArray>> pulls = new ArrayList<>();
+        for (int i = 0; i < 4; i++)
+            pulls.add(client.pullAsync());
+        for (CompletableFuture<INDArray> pull : pulls)
+            assertEquals(Nd4j.ones(1000), pull.get(30, TimeUnit.SECONDS));
+        client.close();
     }
 
 
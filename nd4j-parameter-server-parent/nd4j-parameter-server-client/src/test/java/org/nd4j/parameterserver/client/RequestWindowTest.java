@@ -0,0 +1,77 @@
+package org.nd4j.parameterserver.client;
+
+import org.junit.Test;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.factory.Nd4j;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class RequestWindowTest {
+
+    @Test
+    public void testResponsesMatchedById() throws Exception {
+        RequestWindow window = new RequestWindow(4);
+        CompletableFuture<INDArray> first = window.acquire();
+        CompletableFuture<INDArray> second = window.acquire();
+        long firstId = window.register(first);
+        long secondId = window.register(second);
+        assertNotEquals(firstId, secondId);
+        assertEquals(2, window.inFlight());
+
+        //responses may arrive out of order
+        assertTrue(window.complete(secondId, Nd4j.scalar(2.0)));
+        assertFalse(first.isDone());
+        assertTrue(window.complete(firstId, Nd4j.scalar(1.0)));
+        assertEquals(1.0, first.get().getDouble(0), 1e-6);
+        assertEquals(2.0, second.get().getDouble(0), 1e-6);
+
+        //duplicate or unknown responses are ignored
+        assertFalse(window.complete(firstId, Nd4j.scalar(3.0)));
+        assertEquals(0, window.inFlight());
+        assertEquals(0, window.pendingResponses());
+    }
+
+    @Test
+    public void testWindowIsBounded() throws Exception {
+        RequestWindow window = new RequestWindow(1);
+        CompletableFuture<Void> push = window.acquire();
+
+        CountDownLatch acquired = new CountDownLatch(1);
+        Thread thread = new Thread(() -> {
+            try {
+                CompletableFuture<INDArray> pull = window.acquire();
+                acquired.countDown();
+                pull.cancel(false);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        thread.start();
+
+        assertFalse(acquired.await(100, TimeUnit.MILLISECONDS));
+        push.complete(null);
+        assertTrue(acquired.await(10, TimeUnit.SECONDS));
+        thread.join();
+
+        //cancelled requests free their slot as well
+        assertEquals(0, window.inFlight());
+    }
+
+    @Test
+    public void testFailAll() throws Exception {
+        RequestWindow window = new RequestWindow(2);
+        CompletableFuture<INDArray> pull = window.acquire();
+        window.register(pull);
+        //pushes are never registered, but are failed as well
+        CompletableFuture<Void> push = window.acquire();
+        window.failAll(new IllegalStateException());
+        assertTrue(pull.isCompletedExceptionally());
+        assertTrue(push.isCompletedExceptionally());
+        assertEquals(0, window.inFlight());
+        assertEquals(0, window.pendingResponses());
+    }
+}
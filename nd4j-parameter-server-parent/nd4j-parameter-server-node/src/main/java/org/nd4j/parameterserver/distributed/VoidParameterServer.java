@@ -7,12 +7,15 @@ import org.nd4j.linalg.primitives.Pair;
 import org.nd4j.linalg.api.ndarray.INDArray;
 import org.nd4j.linalg.exception.ND4JIllegalStateException;
 import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.parameterserver.checkpoint.ParameterCheckpointer;
 import org.nd4j.parameterserver.distributed.conf.VoidConfiguration;
 import org.nd4j.parameterserver.distributed.enums.ExecutionMode;
 import org.nd4j.parameterserver.distributed.enums.NodeRole;
+import org.nd4j.parameterserver.distributed.enums.RowLockingMode;
 import org.nd4j.parameterserver.distributed.logic.*;
 import org.nd4j.parameterserver.distributed.logic.completion.Clipboard;
 import org.nd4j.parameterserver.distributed.logic.sequence.BasicSequenceProvider;
+import org.nd4j.parameterserver.distributed.logic.storage.EmbeddingStorage;
 import org.nd4j.parameterserver.distributed.logic.storage.WordVectorStorage;
 import org.nd4j.parameterserver.distributed.messages.*;
 import org.nd4j.parameterserver.distributed.messages.requests.*;
@@ -23,6 +26,7 @@ import org.nd4j.parameterserver.distributed.transport.RoutedTransport;
 import org.nd4j.parameterserver.distributed.transport.Transport;
 import org.nd4j.parameterserver.distributed.util.NetworkOrganizer;
 
+import java.io.File;
 import java.net.InterfaceAddress;
 import java.net.NetworkInterface;
 import java.util.*;
@@ -72,9 +76,11 @@ public class VoidParameterServer {
 
     protected short shardIndex;
 
+    protected final List<ParameterCheckpointer> checkpointers = new ArrayList<>();
+
     protected Clipboard clipboard = new Clipboard();
 
-    protected Storage storage = new WordVectorStorage();
+    protected Storage storage = new EmbeddingStorage();
 
     protected Map<String, Frame<TrainingMessage>> frames = new ConcurrentHashMap<>();
 
@@ -193,6 +199,9 @@ public class VoidParameterServer {
 
                 this.transport = transport;
 
+                if (voidConfiguration.getRowLockingMode() != RowLockingMode.HOGWILD)
+                    storage = new EmbeddingStorage(voidConfiguration.getRowLockingMode());
+
                 // first we need to check, if our current IP matches designated shards or backup
                 if (nodeRole == NodeRole.NONE && (voidConfiguration.getForcedRole() == null
                                 || voidConfiguration.getForcedRole() == NodeRole.NONE)) {
@@ -294,11 +303,32 @@ public class VoidParameterServer {
                 transport.launch(Transport.ThreadingModel.DEDICATED_THREADS);
                 trainer.init(this.voidConfiguration, this.transport, storage, clipboard);
 
+                if (nodeRole == NodeRole.SHARD && voidConfiguration.getCheckpointDirectory() != null)
+                    startCheckpoints();
+
                 initFinished.set(true);
             }
         }
     }
 
+    /**
+     * This method starts incremental checkpoints of word vectors stored on this Shard
+     */
+    protected void startCheckpoints() {
+        File directory = new File(voidConfiguration.getCheckpointDirectory());
+        for (Integer key : new Integer[] {WordVectorStorage.SYN_0, WordVectorStorage.SYN_1,
+                        WordVectorStorage.SYN_1_NEGATIVE}) {
+            // matrices are created later, by DistributedInitializationMessage
+            ParameterCheckpointer checkpointer = new ParameterCheckpointer(directory,
+                            EmbeddingStorage.snapshotName(shardIndex, key),
+                            () -> storage.getArray(key) == null ? null : EmbeddingStorage.tableOf(storage, key), null);
+            checkpointer.start(voidConfiguration.getCheckpointInterval());
+            checkpointers.add(checkpointer);
+        }
+        log.info("sI_{}: checkpointing word vectors to {} every {} ms", shardIndex, directory.getAbsolutePath(),
+                        voidConfiguration.getCheckpointInterval());
+    }
+
     /**
      * This method is available for debug purposes only
      *
@@ -374,6 +404,10 @@ public class VoidParameterServer {
 
             executor.shutdown();
 
+            for (ParameterCheckpointer checkpointer : checkpointers)
+                checkpointer.close();
+            checkpointers.clear();
+
         }
     }
 
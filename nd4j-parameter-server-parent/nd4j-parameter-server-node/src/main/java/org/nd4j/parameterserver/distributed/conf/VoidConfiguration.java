@@ -6,6 +6,7 @@ import org.nd4j.linalg.exception.ND4JIllegalStateException;
 import org.nd4j.parameterserver.distributed.enums.ExecutionMode;
 import org.nd4j.parameterserver.distributed.enums.FaultToleranceStrategy;
 import org.nd4j.parameterserver.distributed.enums.NodeRole;
+import org.nd4j.parameterserver.distributed.enums.RowLockingMode;
 import org.nd4j.parameterserver.distributed.enums.TransportType;
 
 import java.io.Serializable;
@@ -137,6 +138,52 @@ public class VoidConfiguration implements Serializable {
     @Builder.Default
     private long responseTimeout = 30000;
 
+    /**
+     * This variable defines, how many outgoing messages can be queued for each remote node.
+     * Threads sending messages back off once the queue is full.
+     */
+    @Builder.Default
+    private int outboundQueueCapacity = 4096;
+
+    /**
+     * This variable defines, how many small TrainingMessages can be packed into single Frame by RoutedTransport.
+     * Values below 2 disable batching.
+     */
+    @Builder.Default
+    private int outboundBatchMessages = 128;
+
+    /**
+     * This variable defines, how large Frame built by RoutedTransport can grow. Measured in bytes.
+     */
+    @Builder.Default
+    private int outboundBatchBytes = 65536;
+
+    /**
+     * This variable defines, how long RoutedTransport waits for more messages before sending incomplete Frame.
+     * Measured in microseconds.
+     */
+    @Builder.Default
+    private long outboundBatchTimeout = 500;
+
+    /**
+     * This variable defines, how Shards guard concurrent updates of word vectors rows.
+     * HOGWILD applies updates without any locks, STRIPED guards each row with one of striped locks.
+     */
+    @Builder.Default
+    private RowLockingMode rowLockingMode = RowLockingMode.HOGWILD;
+
+    /**
+     * This optional variable defines directory for incremental checkpoints of Shard word vectors.
+     * If set, Shards restore their vectors from it on initialization. Leave it null to disable checkpoints.
+     */
+    private String checkpointDirectory;
+
+    /**
+     * This variable defines, how often Shards checkpoint their word vectors. Measured in milliseconds.
+     */
+    @Builder.Default
+    private long checkpointInterval = 60000;
+
     /**
      * This optional variable defines IP address of the box which acts as master for gradients training.
      * Leave it null, and Spark Master node will be used as Master for parameter server as well.
@@ -0,0 +1,16 @@
+package org.nd4j.parameterserver.distributed.enums;
+
+/**
+ * This enum defines, how concurrent updates of embedding table rows are handled on Shard side
+ */
+public enum RowLockingMode {
+    /**
+     * Rows are updated without any locks, concurrent updates of the same row might be partially lost
+     */
+    HOGWILD,
+
+    /**
+     * Each row update is guarded by one of striped locks, so concurrent updates of the same row are never lost
+     */
+    STRIPED,
+}
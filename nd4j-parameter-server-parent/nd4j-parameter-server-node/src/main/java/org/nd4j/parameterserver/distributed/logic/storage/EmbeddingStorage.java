@@ -0,0 +1,131 @@
+package org.nd4j.parameterserver.distributed.logic.storage;
+
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.nd4j.linalg.api.memory.MemoryWorkspace;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.parameterserver.checkpoint.ParameterCheckpointer;
+import org.nd4j.parameterserver.checkpoint.SnapshotManifest;
+import org.nd4j.parameterserver.distributed.enums.RowLockingMode;
+import org.nd4j.parameterserver.distributed.logic.Storage;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * WordVectorStorage designed for embedding tables: every matrix is kept as single contiguous 'c' ordered array,
+ * and row-oriented access is provided via {@link EmbeddingTable}, with striped row locks or in HOGWILD mode.
+ */
+@Slf4j
+public class EmbeddingStorage extends WordVectorStorage {
+    @Getter
+    protected final RowLockingMode lockingMode;
+    protected final int stripes;
+    protected final Map<Integer, EmbeddingTable> tables = new ConcurrentHashMap<>();
+
+    public EmbeddingStorage() {
+        this(RowLockingMode.HOGWILD);
+    }
+
+    public EmbeddingStorage(@NonNull RowLockingMode lockingMode) {
+        this(lockingMode, Runtime.getRuntime().availableProcessors() * 16);
+    }
+
+    /**
+     * @param lockingMode
+     * @param stripes number of row locks per table, used in STRIPED mode only
+     */
+    public EmbeddingStorage(@NonNull RowLockingMode lockingMode, int stripes) {
+        this.lockingMode = lockingMode;
+        this.stripes = stripes;
+    }
+
+    @Override
+    public void setArray(@NonNull Integer key, @NonNull INDArray array) {
+        if (array.rank() == 2 && (array.isView() || array.ordering() != 'c')) {
+            try (MemoryWorkspace workspace = Nd4j.getMemoryManager().scopeOutOfWorkspaces()) {
+                array = array.dup('c');
+            }
+        }
+
+        super.setArray(key, array);
+        tables.remove(key);
+    }
+
+    /**
+     * This method returns row-oriented accessor for specified matrix
+     *
+     * @param key
+     * @return EmbeddingTable, or null if there's no array stored for this key
+     */
+    public EmbeddingTable getTable(@NonNull Integer key) {
+        INDArray array = getArray(key);
+        if (array == null)
+            return null;
+
+        return tables.compute(key, (k, table) -> table != null && table.getTable() == array ? table
+                        : new EmbeddingTable(array, lockingMode == RowLockingMode.STRIPED ? stripes : 0));
+    }
+
+    /**
+     * This method returns row-oriented accessor for specified matrix of any Storage.
+     * Tables of storages other then EmbeddingStorage aren't cached, and work in HOGWILD mode.
+     *
+     * @param storage
+     * @param key
+     * @return EmbeddingTable, or null if there's no array stored for this key
+     */
+    public static EmbeddingTable tableOf(@NonNull Storage storage, @NonNull Integer key) {
+        if (storage instanceof EmbeddingStorage)
+            return ((EmbeddingStorage) storage).getTable(key);
+
+        INDArray array = storage.getArray(key);
+        return array == null ? null : new EmbeddingTable(array, 0);
+    }
+
+    /**
+     * This method returns name of the checkpoint snapshot for given Shard matrix
+     *
+     * @param shardIndex
+     * @param key
+     * @return
+     */
+    public static String snapshotName(int shardIndex, @NonNull Integer key) {
+        return "shard" + shardIndex + "_" + key;
+    }
+
+    /**
+     * This method restores Shard matrix from checkpoint directory
+     *
+     * @param directory checkpoint directory
+     * @param shardIndex
+     * @param key
+     * @param shape expected shape of the matrix
+     * @return restored matrix, or null if there's no snapshot of expected shape
+     */
+    public static INDArray restore(@NonNull String directory, int shardIndex, @NonNull Integer key,
+                    @NonNull int[] shape) {
+        String name = snapshotName(shardIndex, key);
+        SnapshotManifest manifest = ParameterCheckpointer.readManifest(new File(directory), name);
+        if (manifest == null)
+            return null;
+
+        if (!Arrays.equals(manifest.getShape(), shape)) {
+            log.warn("Ignoring snapshot of matrix {}: shape {} doesn't match {}", key,
+                            Arrays.toString(manifest.getShape()), Arrays.toString(shape));
+            return null;
+        }
+
+        return ParameterCheckpointer.restore(new File(directory), name);
+    }
+
+    @Override
+    public void shutdown() {
+        tables.clear();
+        super.shutdown();
+    }
+}
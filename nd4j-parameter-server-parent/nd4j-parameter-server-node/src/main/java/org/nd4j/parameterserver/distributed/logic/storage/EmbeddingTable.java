@@ -0,0 +1,223 @@
+package org.nd4j.parameterserver.distributed.logic.storage;
+
+import lombok.Getter;
+import lombok.NonNull;
+import org.nd4j.linalg.api.blas.Level1;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.exception.ND4JIllegalStateException;
+import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.parameterserver.checkpoint.CheckpointSource;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Row-oriented access to single embedding matrix, i.e. syn0 or syn1 on Shard side.
+ *
+ * Rows are gathered and scattered in batches, and row updates are applied directly
+ * to the data buffer of the matrix, so no row views are created on the hot path.
+ *
+ * In STRIPED mode each row update is guarded by one of striped locks, in HOGWILD mode updates aren't guarded at all.
+ * Reads are never guarded.
+ *
+ * Rows are also grouped into blocks with versions, incremented on each update, so the table can be
+ * checkpointed incrementally. Blocks are copied without locks, so checkpoints are as consistent as HOGWILD reads.
+ */
+public class EmbeddingTable implements CheckpointSource {
+    // number of row blocks tracked for checkpoints
+    protected static final int CHECKPOINT_BLOCKS = 256;
+
+    @Getter
+    protected final INDArray table;
+    protected final int rows;
+    protected final int columns;
+    protected final boolean direct;
+    protected final ReentrantLock[] locks;
+    protected final int blockRows;
+    protected final AtomicLongArray versions;
+
+    /**
+     * @param table 2D matrix in 'c' order
+     * @param stripes number of striped locks. 0 means HOGWILD mode
+     */
+    public EmbeddingTable(@NonNull INDArray table, int stripes) {
+        if (table.rank() != 2 || table.ordering() != 'c' || table.isView())
+            throw new ND4JIllegalStateException("EmbeddingTable expects contiguous matrix in 'c' order");
+
+        this.table = table;
+        this.rows = table.rows();
+        this.columns = table.columns();
+        this.direct = Nd4j.getBlasWrapper().level1().supportsDataBufferL1Ops();
+
+        if (stripes > 0) {
+            locks = new ReentrantLock[Math.min(stripes, rows)];
+            for (int i = 0; i < locks.length; i++)
+                locks[i] = new ReentrantLock();
+        } else
+            locks = null;
+
+        this.blockRows = Math.max(1, (rows + CHECKPOINT_BLOCKS - 1) / CHECKPOINT_BLOCKS);
+        this.versions = new AtomicLongArray((rows + blockRows - 1) / blockRows);
+    }
+
+    public int rows() {
+        return rows;
+    }
+
+    public int columns() {
+        return columns;
+    }
+
+    public boolean isHogwild() {
+        return locks == null;
+    }
+
+    /**
+     * This method returns copy of specified rows, as matrix in 'c' order
+     *
+     * @param rows
+     * @return
+     */
+    public INDArray gather(@NonNull int... rows) {
+        return Nd4j.pullRows(table, 1, rows, 'c');
+    }
+
+    /**
+     * This method calculates dot products of given vector with rows[from..to), as single gemv call,
+     * and stores them into result[from..to)
+     *
+     * @param vector vector of length equal to number of columns
+     * @param rows
+     * @param from
+     * @param to
+     * @param result vector for dot products
+     */
+    public void dot(@NonNull INDArray vector, @NonNull int[] rows, int from, int to, @NonNull INDArray result) {
+        if (from >= to)
+            return;
+
+        INDArray dots = gather(Arrays.copyOfRange(rows, from, to)).mmul(vector.reshape(columns, 1));
+        for (int i = 0; i < to - from; i++)
+            result.putScalar(from + i, dots.getDouble(i));
+    }
+
+    /**
+     * This method adds i-th row of updates to the row rows[i] of this table.
+     * Duplicate row indices are fine, their updates are accumulated.
+     *
+     * @param rows
+     * @param updates matrix with rows.length rows
+     */
+    public void scatterAdd(@NonNull int[] rows, @NonNull INDArray updates) {
+        if (updates.rows() != rows.length || updates.columns() != columns)
+            throw new ND4JIllegalStateException("Updates shape doesn't match number of rows/columns");
+
+        INDArray source = updates.ordering() == 'c' && !updates.isView() ? updates : updates.dup('c');
+        for (int i = 0; i < rows.length; i++)
+            add(rows[i], 1.0, source, source.offset() + i * columns);
+    }
+
+    /**
+     * This method does row[row] += alpha * x
+     *
+     * @param row
+     * @param alpha
+     * @param x vector of length equal to number of columns
+     */
+    public void axpyRow(int row, double alpha, @NonNull INDArray x) {
+        if (x.length() != columns)
+            throw new ND4JIllegalStateException("Vector length doesn't match number of columns");
+
+        INDArray source = x.isView() && x.elementWiseStride() != 1 ? x.dup('c') : x;
+        add(row, alpha, source, source.offset());
+    }
+
+    protected void add(int row, double alpha, INDArray source, long sourceOffset) {
+        if (row < 0 || row >= rows)
+            throw new ND4JIllegalStateException("Row index [" + row + "] is out of bounds");
+
+        ReentrantLock lock = locks == null ? null : locks[row % locks.length];
+        if (lock != null)
+            lock.lock();
+        try {
+            Level1 level1 = Nd4j.getBlasWrapper().level1();
+            if (direct)
+                level1.axpy(columns, alpha, source.data(), (int) sourceOffset, 1, table.data(),
+                                (int) (table.offset() + (long) row * columns), 1);
+            else
+                level1.axpy(columns, alpha, Nd4j.create(source.data(), new int[] {1, columns},
+                                new int[] {columns, 1}, sourceOffset), table.getRow(row));
+            versions.incrementAndGet(row / blockRows);
+        } finally {
+            if (lock != null)
+                lock.unlock();
+        }
+    }
+
+    /**
+     * This method marks all rows as modified, i.e. after native ops updating arbitrary rows
+     */
+    public void touchAll() {
+        for (int i = 0; i < versions.length(); i++)
+            versions.incrementAndGet(i);
+    }
+
+    @Override
+    public INDArray target() {
+        return table;
+    }
+
+    @Override
+    public int numStripes() {
+        return versions.length();
+    }
+
+    @Override
+    public long stripeOffset(int stripe) {
+        return (long) stripe * blockRows * columns;
+    }
+
+    @Override
+    public long stripeVersion(int stripe) {
+        return versions.get(stripe);
+    }
+
+    @Override
+    public long readStripe(int stripe, @NonNull ByteBuffer destination) {
+        // version is taken first: concurrent updates will make this block dirty again
+        long version = versions.get(stripe);
+        int elementSize = table.data().getElementSize();
+        long from = table.offset() + stripeOffset(stripe);
+        long to = Math.min(from + (long) blockRows * columns, table.offset() + (long) rows * columns);
+
+        ByteBuffer bytes = table.data().asNio().duplicate();
+        bytes.limit((int) (to * elementSize));
+        bytes.position((int) (from * elementSize));
+        destination.put(bytes);
+        return version;
+    }
+
+    @Override
+    public long firstUpdateInProgress() {
+        // there's no update log for word vectors
+        return Long.MAX_VALUE;
+    }
+
+    /**
+     * This method acquires all row locks, i.e. for native ops updating arbitrary rows. No-op in HOGWILD mode.
+     * Tables should always be locked in the same order.
+     */
+    public void lockAll() {
+        if (locks != null)
+            for (ReentrantLock lock : locks)
+                lock.lock();
+    }
+
+    public void unlockAll() {
+        if (locks != null)
+            for (int i = locks.length - 1; i >= 0; i--)
+                locks[i].unlock();
+    }
+}
@@ -11,6 +11,7 @@ import org.nd4j.parameterserver.distributed.conf.VoidConfiguration;
 import org.nd4j.parameterserver.distributed.enums.NodeRole;
 import org.nd4j.parameterserver.distributed.logic.completion.Clipboard;
 import org.nd4j.parameterserver.distributed.logic.Storage;
+import org.nd4j.parameterserver.distributed.training.BatchedTrainingDriver;
 import org.nd4j.parameterserver.distributed.training.TrainingDriver;
 import org.nd4j.parameterserver.distributed.transport.Transport;
 
@@ -186,6 +187,13 @@ public class Frame<T extends TrainingMessage> implements Serializable, Iterable<
         // we register all messages first
         //      if(list == null || trainer == null)
         //          return;
+
+        // homogeneous frames can be applied by trainer in one go
+        if (trainer instanceof BatchedTrainingDriver && transport != null && !list.isEmpty()
+                        && trainer.targetMessageClass().equals(list.get(0).getClass().getSimpleName())
+                        && ((BatchedTrainingDriver) trainer).trainFrame(this))
+            return;
+
         if (trainer != null && transport != null)
             list.forEach((message) -> {
                 trainer.addCompletionHook(getOriginatorId(), getTaskId(), message.getTaskId());
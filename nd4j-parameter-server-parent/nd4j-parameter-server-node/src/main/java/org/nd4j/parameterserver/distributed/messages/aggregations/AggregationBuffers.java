@@ -0,0 +1,76 @@
+package org.nd4j.parameterserver.distributed.messages.aggregations;
+
+import lombok.NonNull;
+import org.nd4j.linalg.api.memory.MemoryWorkspace;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.factory.Nd4j;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Pool of buffers for aggregations, keyed by shape.
+ *
+ * Only buffers never leaving an aggregation should be released here, i.e. dot accumulators,
+ * since results are handed over to trainers and messages without any completion signal.
+ */
+public class AggregationBuffers {
+    // max number of pooled buffers per shape
+    protected static final int BUFFERS_PER_SHAPE = 64;
+
+    private static final Map<Long, Queue<INDArray>> pool = new ConcurrentHashMap<>();
+
+    private AggregationBuffers() {
+        // static use only
+    }
+
+    /**
+     * This method returns 'c' ordered buffer of given shape, with undefined content
+     *
+     * @param rows
+     * @param columns
+     * @return
+     */
+    public static INDArray acquire(int rows, int columns) {
+        Queue<INDArray> queue = pool.get(key(rows, columns));
+        INDArray buffer = queue == null ? null : queue.poll();
+        if (buffer != null)
+            return buffer;
+
+        // buffers outlive any workspace scope of the thread that asked for them
+        try (MemoryWorkspace workspace = Nd4j.getMemoryManager().scopeOutOfWorkspaces()) {
+            return Nd4j.createUninitialized(new int[] {rows, columns}, 'c');
+        }
+    }
+
+    /**
+     * This method returns buffer obtained via acquire() back to the pool. Buffer shouldn't be used afterwards.
+     *
+     * @param buffer
+     */
+    public static void release(@NonNull INDArray buffer) {
+        if (buffer.rank() != 2 || buffer.isView() || buffer.ordering() != 'c')
+            return;
+
+        pool.computeIfAbsent(key(buffer.rows(), buffer.columns()), k -> new ArrayBlockingQueue<>(BUFFERS_PER_SHAPE))
+                        .offer(buffer);
+    }
+
+    /**
+     * This method returns number of pooled buffers of given shape
+     *
+     * @param rows
+     * @param columns
+     * @return
+     */
+    public static int pooled(int rows, int columns) {
+        Queue<INDArray> queue = pool.get(key(rows, columns));
+        return queue == null ? 0 : queue.size();
+    }
+
+    private static long key(int rows, int columns) {
+        return ((long) rows << 32) | (columns & 0xFFFFFFFFL);
+    }
+}
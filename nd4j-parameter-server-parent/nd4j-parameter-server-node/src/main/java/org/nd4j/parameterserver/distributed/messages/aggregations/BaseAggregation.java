@@ -9,12 +9,11 @@ import org.apache.commons.lang3.SerializationUtils;
 import org.nd4j.linalg.api.ndarray.INDArray;
 import org.nd4j.linalg.exception.ND4JIllegalStateException;
 import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.linalg.indexing.NDArrayIndex;
 import org.nd4j.parameterserver.distributed.messages.BaseVoidMessage;
 import org.nd4j.parameterserver.distributed.messages.VoidAggregation;
 
 import java.io.Serializable;
-import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
 
 /**
@@ -40,14 +39,19 @@ public abstract class BaseAggregation extends BaseVoidMessage implements VoidAgg
     protected INDArray payload;
 
     // transient part
-    @Getter
     protected transient AtomicInteger chunksCounter;
-    @Getter
-    protected transient Map<Short, INDArray> chunks;
+    // shards we've got chunks from
+    protected transient boolean[] received;
+    // preallocated result, chunks are written straight into their column ranges
+    protected transient INDArray accumulated;
+    // chunks received before result could be allocated
+    protected transient INDArray[] pending;
+    protected transient int chunkRows = -1;
+    protected transient int chunkColumns = -1;
+    protected transient int lastColumns = -1;
 
     protected BaseAggregation() {
-        chunksCounter = new AtomicInteger(1);
-        chunks = new ConcurrentHashMap<>();
+        //
     }
 
     protected BaseAggregation(long taskId, short aggregationWidth, short shardIndex) {
@@ -57,47 +61,145 @@ public abstract class BaseAggregation extends BaseVoidMessage implements VoidAgg
         this.shardIndex = shardIndex;
     }
 
-    public void setShardIndex(short shardIndex) {
+    public synchronized void setShardIndex(short shardIndex) {
         if (shardIndex == this.shardIndex)
             return;
 
-        chunks.remove(this.shardIndex);
-        chunks.put(shardIndex, payload);
+        if (chunksCounter != null && chunksCounter.get() > 1)
+            throw new ND4JIllegalStateException("Can't change shardIndex after chunks were accumulated");
 
+        // own chunk will be placed at new index on first access
+        resetChunks();
         this.shardIndex = shardIndex;
     }
 
-    protected void addToChunks(INDArray array) {
-        chunks.put(this.shardIndex, array);
+    public synchronized AtomicInteger getChunksCounter() {
+        initChunks();
+        return chunksCounter;
+    }
+
+    /**
+     * This method initializes transient state, with own payload as the first chunk.
+     * Aggregations received over the wire have no transient state, so it's initialized lazily.
+     */
+    protected synchronized void initChunks() {
+        if (received != null)
+            return;
+
+        // deserialization doesn't run field initializers
+        resetChunks();
+        chunksCounter = new AtomicInteger(1);
+        received = new boolean[Math.max(aggregationWidth, shardIndex + 1)];
+        received[shardIndex] = true;
+        if (payload != null)
+            addChunk(shardIndex, payload);
+    }
+
+    protected void resetChunks() {
+        chunksCounter = null;
+        received = null;
+        accumulated = null;
+        pending = null;
+        chunkRows = -1;
+        chunkColumns = -1;
+        lastColumns = -1;
     }
 
-    public void accumulateAggregation(@NonNull VoidAggregation aggregation) {
+    public synchronized void accumulateAggregation(@NonNull VoidAggregation aggregation) {
         if (aggregation.getAggregationType() != getAggregationType())
             throw new ND4JIllegalStateException("Trying to aggregate different aggregations!");
 
+        initChunks();
+
         // no need to do anything in this case
-        if (this.getShardIndex() == aggregation.getShardIndex()) {
+        short index = aggregation.getShardIndex();
+        if (this.getShardIndex() == index) {
+            return;
+        }
+
+        if (index < 0 || index >= received.length)
+            throw new ND4JIllegalStateException("Chunk from shard [" + index + "] doesn't fit aggregation of width ["
+                            + aggregationWidth + "]");
+
+        // duplicate chunks are ignored
+        if (received[index])
+            return;
+
+        received[index] = true;
+        chunksCounter.incrementAndGet();
+        addChunk(index, aggregation.getPayload());
+    }
+
+    /**
+     * This method places chunk into result. Chunks are concatenated along columns in shard order:
+     * all shards have the same number of columns, except the last one, which might have a few more.
+     *
+     * @param index shard index of the chunk
+     * @param chunk
+     */
+    protected void addChunk(short index, INDArray chunk) {
+        if (chunk == null)
+            return;
+
+        if (aggregationWidth <= 1) {
+            accumulated = chunk;
             return;
         }
 
-        if (chunks.get(aggregation.getShardIndex()) == null)
-            chunksCounter.incrementAndGet();
+        if (chunkRows < 0)
+            chunkRows = chunk.rows();
+        else if (chunk.rows() != chunkRows)
+            throw new ND4JIllegalStateException("Chunk from shard [" + index + "] has [" + chunk.rows()
+                            + "] rows, expected [" + chunkRows + "]");
+
+        if (index == aggregationWidth - 1)
+            lastColumns = chunk.columns();
+        else if (chunkColumns < 0)
+            chunkColumns = chunk.columns();
+        else if (chunk.columns() != chunkColumns)
+            throw new ND4JIllegalStateException("Chunk from shard [" + index + "] has [" + chunk.columns()
+                            + "] columns, expected [" + chunkColumns + "]");
+
+        if (accumulated == null) {
+            if (chunkColumns < 0 || lastColumns < 0) {
+                // we don't know result width yet
+                if (pending == null)
+                    pending = new INDArray[aggregationWidth];
+                pending[index] = chunk;
+                return;
+            }
+
+            accumulated = Nd4j.createUninitialized(new int[] {chunkRows,
+                            chunkColumns * (aggregationWidth - 1) + lastColumns}, 'c');
+
+            if (pending != null) {
+                for (int i = 0; i < pending.length; i++)
+                    if (pending[i] != null)
+                        placeChunk(i, pending[i]);
+                pending = null;
+            }
+        }
+
+        placeChunk(index, chunk);
+    }
 
-        chunks.put(aggregation.getShardIndex(), aggregation.getPayload());
+    protected void placeChunk(int index, INDArray chunk) {
+        int from = index * chunkColumns;
+        accumulated.get(NDArrayIndex.all(), NDArrayIndex.interval(from, from + chunk.columns())).assign(chunk);
     }
 
     @Override
-    public INDArray getAccumulatedResult() {
+    public synchronized INDArray getAccumulatedResult() {
+        initChunks();
+        if (getMissingChunks() > 0)
+            throw new ND4JIllegalStateException("Aggregation has [" + getMissingChunks() + "] missing chunks");
 
-        if (aggregationWidth == 1) {
-            return chunks.get((short) 0);
-        } else
-            return Nd4j.hstack(chunks.values());
+        return accumulated;
     }
 
     @Override
     public int getMissingChunks() {
-        return aggregationWidth - chunksCounter.get();
+        return aggregationWidth - getChunksCounter().get();
     }
 
     @Override
@@ -1,21 +1,19 @@
 package org.nd4j.parameterserver.distributed.messages.aggregations;
 
-import lombok.Data;
-import lombok.NoArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.nd4j.linalg.api.ndarray.INDArray;
 import org.nd4j.linalg.exception.ND4JIllegalStateException;
 import org.nd4j.linalg.factory.Nd4j;
-import org.nd4j.parameterserver.distributed.training.TrainerProvider;
 
-import java.util.TreeMap;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.Arrays;
 
 /**
  * @author raver119@gmail.com
  */
 @Slf4j
 public class DotAggregation extends BaseAggregation {
+    // final result, accumulator goes back to pool once it's calculated
+    protected transient INDArray result;
 
     protected DotAggregation() {
         super();
@@ -25,21 +23,49 @@ public class DotAggregation extends BaseAggregation {
         super(taskId, aggregationWidth, shardIndex);
 
         this.payload = scalar;
-        addToChunks(payload);
     }
 
+    /**
+     * Dot chunks are summed up into pooled accumulator as they arrive, instead of being stacked first:
+     * row sums of stacked chunks are equal to row sums of their elementwise total.
+     */
     @Override
-    public INDArray getAccumulatedResult() {
-        INDArray stack = super.getAccumulatedResult();
+    protected void addChunk(short index, INDArray chunk) {
+        if (chunk == null)
+            return;
+
+        if (aggregationWidth <= 1) {
+            accumulated = chunk;
+            return;
+        }
 
-        if (aggregationWidth == 1)
-            return stack;
+        if (accumulated == null) {
+            accumulated = AggregationBuffers.acquire(chunk.rows(), chunk.columns());
+            accumulated.assign(chunk);
+        } else if (!Arrays.equals(accumulated.shape(), chunk.shape())) {
+            throw new ND4JIllegalStateException("Dot chunk from shard [" + index + "] has shape "
+                            + Arrays.toString(chunk.shape()) + ", expected " + Arrays.toString(accumulated.shape()));
+        } else
+            accumulated.addi(chunk);
+    }
 
-        if (stack.isRowVector()) {
-            return Nd4j.scalar(stack.sumNumber().doubleValue());
+    @Override
+    public synchronized INDArray getAccumulatedResult() {
+        INDArray total = super.getAccumulatedResult();
+
+        if (aggregationWidth == 1 || result != null)
+            return result != null ? result : total;
+
+        if (total.isRowVector()) {
+            result = Nd4j.scalar(total.sumNumber().doubleValue());
         } else {
-            return stack.sum(1);
+            result = total.sum(1);
         }
+
+        // accumulator never leaves this aggregation
+        AggregationBuffers.release(total);
+        accumulated = null;
+        return result;
     }
 
     /**
@@ -48,12 +74,6 @@ public class DotAggregation extends BaseAggregation {
     @Override
     public void processMessage() {
         // since our computations are symmetric - we aggregate dot everywhere
-        if (chunks == null) {
-            chunks = new TreeMap<>();
-            chunksCounter = new AtomicInteger(1);
-            addToChunks(payload);
-        }
-
         clipboard.pin(this);
 
         //log.info("sI_{} dot aggregation received", transport.getShardIndex());
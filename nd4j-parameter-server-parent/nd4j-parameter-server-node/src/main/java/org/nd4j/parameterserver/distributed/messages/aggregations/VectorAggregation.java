@@ -18,8 +18,6 @@ public class VectorAggregation extends BaseAggregation {
     public VectorAggregation(long taskId, short aggregationWidth, short shardIndex, INDArray array) {
         super(taskId, aggregationWidth, shardIndex);
         this.payload = array.isView() ? array.dup(array.ordering()) : array;
-
-        addToChunks(payload);
     }
 
     /**
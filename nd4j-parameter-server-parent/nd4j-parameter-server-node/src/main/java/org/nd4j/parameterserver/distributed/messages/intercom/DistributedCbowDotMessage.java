@@ -6,6 +6,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.nd4j.linalg.api.ndarray.INDArray;
 import org.nd4j.linalg.factory.Nd4j;
 import org.nd4j.parameterserver.distributed.enums.ExecutionMode;
+import org.nd4j.parameterserver.distributed.logic.storage.EmbeddingStorage;
 import org.nd4j.parameterserver.distributed.logic.storage.WordVectorStorage;
 import org.nd4j.parameterserver.distributed.messages.BaseVoidMessage;
 import org.nd4j.parameterserver.distributed.messages.DistributedMessage;
@@ -83,24 +84,19 @@ public class DistributedCbowDotMessage extends BaseVoidMessage implements Distri
 
 
         // we calculate dot for all involved rows, and first of all we get mean word
-        INDArray words = Nd4j.pullRows(storage.getArray(WordVectorStorage.SYN_0), 1, rowsA, 'c');
+        INDArray words = EmbeddingStorage.tableOf(storage, WordVectorStorage.SYN_0).gather(rowsA);
         INDArray mean = words.mean(0);
 
         int resultLength = codes.length + (negSamples > 0 ? (negSamples + 1) : 0);
 
         INDArray result = Nd4j.createUninitialized(resultLength, 1);
-        int e = 0;
-        for (; e < codes.length; e++) {
-            double dot = Nd4j.getBlasWrapper().dot(mean, storage.getArray(WordVectorStorage.SYN_1).getRow(rowsB[e]));
-            result.putScalar(e, dot);
-        }
+        if (codes.length > 0)
+            EmbeddingStorage.tableOf(storage, WordVectorStorage.SYN_1).dot(mean, rowsB, 0, codes.length, result);
 
         // negSampling round
-        for (; e < resultLength; e++) {
-            double dot = Nd4j.getBlasWrapper().dot(mean,
-                            storage.getArray(WordVectorStorage.SYN_1_NEGATIVE).getRow(rowsB[e]));
-            result.putScalar(e, dot);
-        }
+        if (resultLength > codes.length)
+            EmbeddingStorage.tableOf(storage, WordVectorStorage.SYN_1_NEGATIVE).dot(mean, rowsB, codes.length,
+                            resultLength, result);
 
         if (voidConfiguration.getExecutionMode() == ExecutionMode.AVERAGING) {
             DotAggregation dot = new DotAggregation(taskId, (short) 1, shardIndex, result);
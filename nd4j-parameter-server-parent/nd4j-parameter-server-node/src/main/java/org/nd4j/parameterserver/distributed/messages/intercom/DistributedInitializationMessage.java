@@ -8,6 +8,7 @@ import org.apache.commons.math3.util.FastMath;
 import org.nd4j.linalg.api.ndarray.INDArray;
 import org.nd4j.linalg.factory.Nd4j;
 import org.nd4j.parameterserver.distributed.enums.ExecutionMode;
+import org.nd4j.parameterserver.distributed.logic.storage.EmbeddingStorage;
 import org.nd4j.parameterserver.distributed.logic.storage.WordVectorStorage;
 import org.nd4j.parameterserver.distributed.messages.BaseVoidMessage;
 import org.nd4j.parameterserver.distributed.messages.DistributedMessage;
@@ -73,13 +74,21 @@ public class DistributedInitializationMessage extends BaseVoidMessage implements
 
             int[] shardShape = new int[] {numWords, columnsPerShard};
 
-            syn0 = Nd4j.rand(shardShape, 'c').subi(0.5).divi(vectorLength);
+            syn0 = restore(WordVectorStorage.SYN_0, shardShape);
+            if (syn0 == null)
+                syn0 = Nd4j.rand(shardShape, 'c').subi(0.5).divi(vectorLength);
 
-            if (useHs)
-                syn1 = Nd4j.create(shardShape, 'c');
+            if (useHs) {
+                syn1 = restore(WordVectorStorage.SYN_1, shardShape);
+                if (syn1 == null)
+                    syn1 = Nd4j.create(shardShape, 'c');
+            }
 
-            if (useNeg)
-                syn1Neg = Nd4j.create(shardShape, 'c');
+            if (useNeg) {
+                syn1Neg = restore(WordVectorStorage.SYN_1_NEGATIVE, shardShape);
+                if (syn1Neg == null)
+                    syn1Neg = Nd4j.create(shardShape, 'c');
+            }
 
             // we handle full exp table here
             expTable = initExpTable(100000);
@@ -110,4 +119,11 @@ public class DistributedInitializationMessage extends BaseVoidMessage implements
 
         return Nd4j.create(expTable);
     }
+
+    protected INDArray restore(Integer key, int[] shape) {
+        if (voidConfiguration.getCheckpointDirectory() == null)
+            return null;
+
+        return EmbeddingStorage.restore(voidConfiguration.getCheckpointDirectory(), shardIndex, key, shape);
+    }
 }
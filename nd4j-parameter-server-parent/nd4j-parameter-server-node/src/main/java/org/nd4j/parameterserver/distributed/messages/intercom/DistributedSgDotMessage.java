@@ -6,6 +6,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.nd4j.linalg.api.ndarray.INDArray;
 import org.nd4j.linalg.factory.Nd4j;
 import org.nd4j.parameterserver.distributed.enums.ExecutionMode;
+import org.nd4j.parameterserver.distributed.logic.storage.EmbeddingStorage;
 import org.nd4j.parameterserver.distributed.logic.storage.WordVectorStorage;
 import org.nd4j.parameterserver.distributed.messages.BaseVoidMessage;
 import org.nd4j.parameterserver.distributed.messages.DistributedMessage;
@@ -84,19 +85,14 @@ public class DistributedSgDotMessage extends BaseVoidMessage implements Distribu
         int resultLength = codes.length + (negSamples > 0 ? (negSamples + 1) : 0);
 
         INDArray result = Nd4j.createUninitialized(resultLength, 1);
-        int e = 0;
-        for (; e < codes.length; e++) {
-            double dot = Nd4j.getBlasWrapper().dot(storage.getArray(WordVectorStorage.SYN_0).getRow(w2),
-                            storage.getArray(WordVectorStorage.SYN_1).getRow(rowsB[e]));
-            result.putScalar(e, dot);
-        }
+        INDArray syn0row = storage.getArray(WordVectorStorage.SYN_0).getRow(w2);
+        if (codes.length > 0)
+            EmbeddingStorage.tableOf(storage, WordVectorStorage.SYN_1).dot(syn0row, rowsB, 0, codes.length, result);
 
         // negSampling round
-        for (; e < resultLength; e++) {
-            double dot = Nd4j.getBlasWrapper().dot(storage.getArray(WordVectorStorage.SYN_0).getRow(w2),
-                            storage.getArray(WordVectorStorage.SYN_1_NEGATIVE).getRow(rowsB[e]));
-            result.putScalar(e, dot);
-        }
+        if (resultLength > codes.length)
+            EmbeddingStorage.tableOf(storage, WordVectorStorage.SYN_1_NEGATIVE).dot(syn0row, rowsB, codes.length,
+                            resultLength, result);
 
         if (voidConfiguration.getExecutionMode() == ExecutionMode.AVERAGING) {
             // just local bypass
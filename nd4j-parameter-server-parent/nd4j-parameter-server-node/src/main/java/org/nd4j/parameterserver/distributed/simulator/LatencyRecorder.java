@@ -0,0 +1,64 @@
+package org.nd4j.parameterserver.distributed.simulator;
+
+import java.util.Arrays;
+
+/**
+ * Thread-safe recorder of latency samples, in nanoseconds
+ */
+public class LatencyRecorder {
+    protected long[] samples = new long[1024];
+    protected int count;
+
+    public synchronized void record(long nanos) {
+        if (count == samples.length)
+            samples = Arrays.copyOf(samples, samples.length * 2);
+
+        samples[count++] = nanos;
+    }
+
+    public synchronized int count() {
+        return count;
+    }
+
+    /**
+     * This method returns given percentile of recorded samples, using nearest-rank method
+     *
+     * @param percentile 0.0 ... 100.0
+     * @return latency in nanoseconds, 0 if nothing was recorded
+     */
+    public long percentile(double percentile) {
+        return percentiles(percentile)[0];
+    }
+
+    /**
+     * This method returns given percentiles of recorded samples, sorting them just once
+     *
+     * @param percentiles values in range 0.0 ... 100.0
+     * @return latencies in nanoseconds, 0 if nothing was recorded
+     */
+    public long[] percentiles(double... percentiles) {
+        long[] sorted;
+        synchronized (this) {
+            sorted = Arrays.copyOf(samples, count);
+        }
+        Arrays.sort(sorted);
+
+        long[] result = new long[percentiles.length];
+        if (sorted.length == 0)
+            return result;
+
+        for (int i = 0; i < percentiles.length; i++) {
+            if (percentiles[i] < 0.0 || percentiles[i] > 100.0)
+                throw new IllegalArgumentException("Percentile should be in range 0..100, got " + percentiles[i]);
+
+            int rank = (int) Math.ceil(percentiles[i] / 100.0 * sorted.length);
+            result[i] = sorted[Math.max(0, rank - 1)];
+        }
+
+        return result;
+    }
+
+    public synchronized void reset() {
+        count = 0;
+    }
+}
@@ -0,0 +1,48 @@
+package org.nd4j.parameterserver.distributed.simulator;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * Artificial network conditions applied by {@link SimulatedNetwork} to every link between two nodes
+ */
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Data
+public class NetworkConditions implements Serializable {
+
+    /**
+     * Base one-way delay of every message, in microseconds
+     */
+    @Builder.Default
+    private long latencyMicros = 0;
+
+    /**
+     * Maximum random delay added on top of base latency, in microseconds
+     */
+    @Builder.Default
+    private long jitterMicros = 0;
+
+    /**
+     * Probability of a message being silently dropped, 0.0 ... 1.0
+     */
+    @Builder.Default
+    private double lossProbability = 0.0;
+
+    /**
+     * Seed for loss and jitter. Each link gets own generator derived from it,
+     * so the same sequence of sends over a link always gets the same fate.
+     */
+    @Builder.Default
+    private long seed = 119;
+
+    @Override
+    public String toString() {
+        return "latency " + latencyMicros + "us, jitter " + jitterMicros + "us, loss " + lossProbability;
+    }
+}
@@ -0,0 +1,436 @@
+package org.nd4j.parameterserver.distributed.simulator;
+
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.agrona.DirectBuffer;
+import org.nd4j.aeron.ipc.NDArrayMessage;
+import org.nd4j.aeron.ndarrayholder.InMemoryNDArrayHolder;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.exception.ND4JIllegalStateException;
+import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.linalg.indexing.NDArrayIndex;
+import org.nd4j.linalg.util.HashUtil;
+import org.nd4j.parameterserver.ParameterServerListener;
+import org.nd4j.parameterserver.distributed.VoidParameterServer;
+import org.nd4j.parameterserver.distributed.conf.VoidConfiguration;
+import org.nd4j.parameterserver.distributed.enums.NodeRole;
+import org.nd4j.parameterserver.distributed.logic.routing.InterleavedRouter;
+import org.nd4j.parameterserver.distributed.logic.sequence.BasicSequenceProvider;
+import org.nd4j.parameterserver.distributed.messages.Frame;
+import org.nd4j.parameterserver.distributed.messages.TrainingMessage;
+import org.nd4j.parameterserver.distributed.messages.VoidMessage;
+import org.nd4j.parameterserver.distributed.messages.requests.CbowRequestMessage;
+import org.nd4j.parameterserver.distributed.messages.requests.SkipGramRequestMessage;
+import org.nd4j.parameterserver.distributed.training.TrainingDriver;
+import org.nd4j.parameterserver.distributed.training.impl.CbowTrainer;
+import org.nd4j.parameterserver.distributed.training.impl.SkipGramTrainer;
+import org.nd4j.parameterserver.distributed.transport.RoutedTransport;
+import org.nd4j.parameterserver.distributed.transport.Transport;
+import org.nd4j.parameterserver.updater.ParameterServerUpdater;
+import org.nd4j.parameterserver.updater.SoftSyncParameterUpdater;
+import org.nd4j.parameterserver.updater.SynchronousParameterUpdater;
+import org.nd4j.parameterserver.updater.storage.NoUpdateStorage;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-JVM parameter server cluster: N Shards and M Clients, connected either via {@link SimulatedNetwork}
+ * with artificial latency and loss, or via real {@link RoutedTransport} on localhost.
+ *
+ * Each Client runs in own thread and drives synthetic workload, generated from seeded generators,
+ * so the same configuration always produces the same sequence of requests:
+ * <ul>
+ *     <li>SKIP_GRAM and CBOW: Frames of training requests sent to VoidParameterServer Shards,
+ *     latency is measured until Frame is confirmed by Shard</li>
+ *     <li>DENSE: dense updates split across Shards, each Shard applying its slice with
+ *     {@link ParameterServerUpdater} on a single thread, like a subscriber does.
+ *     Latency is measured until all slices are applied, there are no retransmissions.</li>
+ * </ul>
+ *
+ * PLEASE NOTE: timing of concurrent Clients still depends on scheduling, so only the workload
+ * and the network fate of each message are reproducible, not the exact numbers.
+ */
+@Slf4j
+public class SimulatedCluster implements AutoCloseable {
+    protected static final String LOCALHOST = "127.0.0.1";
+
+    @Getter
+    protected final SimulationConfiguration configuration;
+    @Getter
+    protected final SimulatedNetwork network;
+
+    protected final List<Node> shards = new ArrayList<>();
+    protected final List<Node> clients = new ArrayList<>();
+
+    protected final List<ParameterServerListener> listeners = new ArrayList<>();
+    protected final List<ExecutorService> subscribers = new ArrayList<>();
+
+    protected boolean started;
+
+    public SimulatedCluster(@NonNull SimulationConfiguration configuration) {
+        if (configuration.getNumberOfShards() < 1 || configuration.getNumberOfClients() < 1)
+            throw new ND4JIllegalStateException("At least one Shard and one Client required");
+
+        if (configuration.getWorkload() == SimulationConfiguration.Workload.DENSE
+                        && configuration.getTransportMode() != SimulationConfiguration.TransportMode.SIMULATED)
+            throw new ND4JIllegalStateException("DENSE workload is available for SIMULATED transport only");
+
+        this.configuration = configuration;
+        this.network = new SimulatedNetwork(configuration.getNetworkConditions());
+    }
+
+    /**
+     * This method starts all nodes and initializes model storage on Shards.
+     *
+     * PLEASE NOTE: This method is blocking
+     */
+    public synchronized void start() {
+        if (started)
+            return;
+
+        if (configuration.getWorkload() == SimulationConfiguration.Workload.DENSE)
+            startSubscribers();
+        else
+            startNodes();
+
+        started = true;
+    }
+
+    protected void startNodes() {
+        int numShards = configuration.getNumberOfShards();
+
+        List<String> addresses = new ArrayList<>();
+        for (int s = 0; s < numShards; s++)
+            addresses.add(LOCALHOST + ":" + port(s));
+
+        VoidConfiguration voidConfiguration = VoidConfiguration.builder().unicastPort(configuration.getBasePort())
+                        .numberOfShards(numShards).shardAddresses(addresses)
+                        .responseTimeout(configuration.getResponseTimeout()).build();
+
+        for (int s = 0; s < numShards; s++) {
+            Node shard = new Node(NodeRole.SHARD, (short) s);
+            Transport transport = createTransport(s);
+
+            shard.init(voidConfiguration, transport, createTrainer());
+            shards.add(shard);
+        }
+
+        for (int c = 0; c < configuration.getNumberOfClients(); c++) {
+            Node client = new Node(NodeRole.CLIENT, (short) 0);
+            Transport transport = createTransport(numShards + c);
+
+            client.init(voidConfiguration, transport, createTrainer());
+            clients.add(client);
+        }
+
+        // HS only, so there's no negative table built on Shards
+        clients.get(0).initializeSeqVec(configuration.getVectorLength(), configuration.getNumberOfWords(),
+                        configuration.getSeed(), configuration.getVectorLength() / numShards, true, false);
+
+        log.info("Started {} Shards and {} Clients over {} transport", numShards, clients.size(),
+                        configuration.getTransportMode());
+    }
+
+    protected Transport createTransport(int nodeIndex) {
+        int numShards = configuration.getNumberOfShards();
+        // Clients are spread evenly over Shards for non-Frame messages
+        InterleavedRouter router = new InterleavedRouter(nodeIndex % numShards);
+
+        if (configuration.getTransportMode() == SimulationConfiguration.TransportMode.ROUTED) {
+            RoutedTransport transport = new RoutedTransport();
+            transport.setRouter(router);
+            transport.setIpAndPort(LOCALHOST, port(nodeIndex));
+            return transport;
+        } else {
+            SimulatedTransport transport = new SimulatedTransport(network);
+            transport.setRouter(router);
+            transport.setIpAndPort(LOCALHOST, port(nodeIndex));
+            return transport;
+        }
+    }
+
+    protected TrainingDriver<? extends TrainingMessage> createTrainer() {
+        switch (configuration.getWorkload()) {
+            case SKIP_GRAM:
+                return new SkipGramTrainer();
+            case CBOW:
+                return new CbowTrainer();
+            default:
+                throw new ND4JIllegalStateException("No trainer for workload " + configuration.getWorkload());
+        }
+    }
+
+    protected void startSubscribers() {
+        for (int s = 0; s < configuration.getNumberOfShards(); s++) {
+            int[] shape = new int[] {1, sliceEnd(s) - sliceStart(s)};
+
+            ParameterServerUpdater updater;
+            if (configuration.getUpdaterType() == SimulationConfiguration.UpdaterType.SOFT_SYNC)
+                updater = new SoftSyncParameterUpdater(new NoUpdateStorage(), new InMemoryNDArrayHolder(shape),
+                                configuration.getNumberOfClients(), configuration.getMaxStaleness());
+            else
+                updater = new SynchronousParameterUpdater(new NoUpdateStorage(), new InMemoryNDArrayHolder(shape),
+                                configuration.getNumberOfClients());
+
+            listeners.add(new ParameterServerListener(shape, updater));
+
+            final int shardIndex = s;
+            subscribers.add(Executors.newSingleThreadExecutor(r -> {
+                Thread thread = new Thread(r, "Simulated subscriber " + shardIndex);
+                thread.setDaemon(true);
+                return thread;
+            }));
+        }
+    }
+
+    /**
+     * This method runs configured workload, starting cluster if it wasn't started yet
+     *
+     * @return
+     */
+    public SimulationReport run() {
+        start();
+
+        final LatencyRecorder recorder = new LatencyRecorder();
+        final AtomicLong operations = new AtomicLong(0);
+        final AtomicLong failures = new AtomicLong(0);
+        final AtomicLong elements = new AtomicLong(0);
+
+        long sentMessages = network.sentMessages();
+        long droppedMessages = network.droppedMessages();
+        long sentBytes = network.sentBytes();
+
+        int numClients = configuration.getNumberOfClients();
+
+        // dense updates are generated upfront, so generation doesn't affect timings
+        final INDArray[] updates = new INDArray[numClients];
+        if (configuration.getWorkload() == SimulationConfiguration.Workload.DENSE)
+            for (int c = 0; c < numClients; c++)
+                updates[c] = Nd4j.rand(1, configuration.getDenseLength(), configuration.getSeed() + c);
+
+        Thread[] threads = new Thread[numClients];
+        for (int c = 0; c < numClients; c++) {
+            final int clientIndex = c;
+            threads[c] = new Thread(() -> {
+                Random random = new Random(configuration.getSeed() * 31 + clientIndex);
+                for (int i = 0; i < configuration.getIterations(); i++) {
+                    long time1 = System.nanoTime();
+                    long processed = configuration.getWorkload() == SimulationConfiguration.Workload.DENSE
+                                    ? pushUpdate(clientIndex, updates[clientIndex]) : sendFrame(clientIndex, random);
+                    long time2 = System.nanoTime();
+
+                    if (processed > 0) {
+                        recorder.record(time2 - time1);
+                        operations.incrementAndGet();
+                        elements.addAndGet(processed);
+                    } else
+                        failures.incrementAndGet();
+                }
+            });
+            threads[c].setName("Simulated client " + c);
+            threads[c].setDaemon(true);
+        }
+
+        long timeStart = System.currentTimeMillis();
+        for (Thread thread : threads)
+            thread.start();
+
+        for (Thread thread : threads) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException(e);
+            }
+        }
+        long timeSpent = System.currentTimeMillis() - timeStart;
+
+        long[] percentiles = recorder.percentiles(50, 90, 99, 100);
+
+        return SimulationReport.builder().workload(configuration.getWorkload())
+                        .transportMode(configuration.getTransportMode()).updaterType(configuration.getUpdaterType())
+                        .numberOfShards(configuration.getNumberOfShards()).numberOfClients(numClients)
+                        .networkConditions(configuration.getNetworkConditions()).operations(operations.get())
+                        .failures(failures.get()).elements(elements.get()).timeSpentMillis(timeSpent)
+                        .p50(percentiles[0] / 1000).p90(percentiles[1] / 1000).p99(percentiles[2] / 1000)
+                        .max(percentiles[3] / 1000).sentMessages(network.sentMessages() - sentMessages)
+                        .droppedMessages(network.droppedMessages() - droppedMessages)
+                        .sentBytes(network.sentBytes() - sentBytes).build();
+    }
+
+    /**
+     * This method sends single Frame of synthetic requests, and waits for its confirmation
+     *
+     * @return number of processed requests, 0 if Frame wasn't confirmed
+     */
+    protected long sendFrame(int clientIndex, Random random) {
+        Frame<TrainingMessage> frame = new Frame<>(BasicSequenceProvider.getInstance().getNextValue());
+        for (int f = 0; f < configuration.getFrameSize(); f++)
+            frame.stackMessage(configuration.getWorkload() == SimulationConfiguration.Workload.CBOW
+                            ? cbowRequest(random) : skipGramRequest(random));
+
+        try {
+            clients.get(clientIndex).execDistributed(frame);
+            return frame.size();
+        } catch (RuntimeException e) {
+            log.warn("Client {} failed to deliver Frame [{}]: {}", clientIndex, frame.getTaskId(), e.getMessage());
+            return 0;
+        }
+    }
+
+    protected SkipGramRequestMessage skipGramRequest(Random random) {
+        int numWords = configuration.getNumberOfWords();
+        byte[] codes = new byte[15 + random.nextInt(30)];
+        int[] points = new int[codes.length];
+        for (int e = 0; e < codes.length; e++) {
+            codes[e] = (byte) (e % 2 == 0 ? 0 : 1);
+            points[e] = random.nextInt(numWords);
+        }
+
+        return new SkipGramRequestMessage(random.nextInt(numWords), random.nextInt(numWords), points, codes,
+                        (short) 0, 0.025, random.nextLong());
+    }
+
+    protected CbowRequestMessage cbowRequest(Random random) {
+        int numWords = configuration.getNumberOfWords();
+        int[] syn0rows = new int[5];
+        for (int e = 0; e < syn0rows.length; e++)
+            syn0rows[e] = random.nextInt(numWords);
+
+        byte[] codes = new byte[15 + random.nextInt(30)];
+        int[] points = new int[codes.length];
+        for (int e = 0; e < codes.length; e++) {
+            codes[e] = (byte) (e % 2 == 0 ? 0 : 1);
+            points[e] = random.nextInt(numWords);
+        }
+
+        return new CbowRequestMessage(syn0rows, points, random.nextInt(numWords), codes, 0, 0.025,
+                        random.nextLong());
+    }
+
+    /**
+     * This method sends slices of dense update to Shards, and waits till all of them are applied
+     *
+     * @return number of applied elements, 0 if any slice was lost
+     */
+    protected long pushUpdate(int clientIndex, INDArray update) {
+        int numShards = configuration.getNumberOfShards();
+        long address = HashUtil.getLongHash(LOCALHOST + ":" + port(numShards + clientIndex));
+
+        final CountDownLatch latch = new CountDownLatch(numShards);
+        boolean lost = false;
+        for (int s = 0; s < numShards; s++) {
+            INDArray slice = update.get(NDArrayIndex.all(), NDArrayIndex.interval(sliceStart(s), sliceEnd(s))).dup();
+            final DirectBuffer buffer = NDArrayMessage.toBuffer(NDArrayMessage.wholeArrayUpdate(slice));
+
+            final ParameterServerListener listener = listeners.get(s);
+            final ExecutorService subscriber = subscribers.get(s);
+            boolean sent = network.schedule(address, HashUtil.getLongHash(LOCALHOST + ":" + port(s)),
+                            buffer.capacity(), () -> subscriber.execute(() -> {
+                                try {
+                                    listener.onNDArrayMessage(NDArrayMessage.fromBuffer(buffer, 0));
+                                } finally {
+                                    latch.countDown();
+                                }
+                            }));
+
+            if (!sent) {
+                lost = true;
+                latch.countDown();
+            }
+        }
+
+        try {
+            if (!latch.await(configuration.getResponseTimeout(), TimeUnit.MILLISECONDS))
+                return 0;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return 0;
+        }
+
+        return lost ? 0 : update.length();
+    }
+
+    /**
+     * This method returns master copy of dense model slice held by given Shard
+     *
+     * @param shardIndex
+     * @return
+     */
+    public INDArray getDenseSlice(int shardIndex) {
+        return listeners.get(shardIndex).getUpdater().ndArrayHolder().get();
+    }
+
+    protected int sliceStart(int shardIndex) {
+        return shardIndex * (configuration.getDenseLength() / configuration.getNumberOfShards());
+    }
+
+    protected int sliceEnd(int shardIndex) {
+        // last Shard takes the remainder
+        if (shardIndex == configuration.getNumberOfShards() - 1)
+            return configuration.getDenseLength();
+
+        return sliceStart(shardIndex + 1);
+    }
+
+    protected int port(int nodeIndex) {
+        return configuration.getBasePort() + nodeIndex;
+    }
+
+    @Override
+    public synchronized void close() {
+        for (Node client : clients)
+            client.shutdown();
+
+        for (Node shard : shards)
+            shard.shutdown();
+
+        for (ExecutorService subscriber : subscribers)
+            subscriber.shutdownNow();
+
+        network.close();
+
+        clients.clear();
+        shards.clear();
+        subscribers.clear();
+        listeners.clear();
+        started = false;
+    }
+
+    /**
+     * VoidParameterServer instance that can be created outside of singleton,
+     * and releases its processing threads on shutdown
+     */
+    protected static class Node extends VoidParameterServer {
+
+        protected Node(@NonNull NodeRole nodeRole, short shardIndex) {
+            super(nodeRole);
+            setShardIndex(shardIndex);
+        }
+
+        @Override
+        protected void handleMessage(VoidMessage message) {
+            // processing threads get null after being interrupted on shutdown
+            if (message != null)
+                super.handleMessage(message);
+        }
+
+        @Override
+        public void shutdown() {
+            super.shutdown();
+
+            runner.set(false);
+            if (processingThreads != null)
+                for (Thread thread : processingThreads)
+                    thread.interrupt();
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package org.nd4j.parameterserver.distributed.simulator;
+
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.nd4j.parameterserver.distributed.messages.VoidMessage;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-JVM network connecting {@link SimulatedTransport} instances (or any other endpoints, identified by long address).
+ *
+ * Every message goes through the delivery scheduler, after base latency plus random jitter,
+ * unless it's dropped according to loss probability. Each directed link has own seeded generator,
+ * so for the same sequence of sends over a link, the same messages are dropped and delayed,
+ * regardless of what happens on other links.
+ *
+ * PLEASE NOTE: just like with UDP, messages over the same link may be reordered if jitter is used.
+ */
+@Slf4j
+public class SimulatedNetwork implements AutoCloseable {
+    @Getter
+    protected final NetworkConditions conditions;
+    protected final ScheduledExecutorService scheduler;
+    protected final Map<Long, SimulatedTransport> nodes = new ConcurrentHashMap<>();
+    protected final Map<Long, Random> links = new HashMap<>();
+
+    protected final AtomicLong sentMessages = new AtomicLong(0);
+    protected final AtomicLong droppedMessages = new AtomicLong(0);
+    protected final AtomicLong deliveredMessages = new AtomicLong(0);
+    protected final AtomicLong sentBytes = new AtomicLong(0);
+
+    public SimulatedNetwork(@NonNull NetworkConditions conditions) {
+        this(conditions, Math.max(2, Runtime.getRuntime().availableProcessors() / 2));
+    }
+
+    /**
+     *
+     * @param conditions conditions applied to each link
+     * @param deliveryThreads number of threads delivering messages, deserialization happens there as well
+     */
+    public SimulatedNetwork(@NonNull NetworkConditions conditions, int deliveryThreads) {
+        if (conditions.getLossProbability() < 0.0 || conditions.getLossProbability() > 1.0)
+            throw new IllegalArgumentException("Loss probability should be in range 0..1, got "
+                            + conditions.getLossProbability());
+
+        this.conditions = conditions;
+        this.scheduler = Executors.newScheduledThreadPool(deliveryThreads, r -> {
+            Thread thread = new Thread(r, "SimulatedNetwork delivery thread");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public void register(@NonNull SimulatedTransport transport) {
+        nodes.put(transport.getOwnOriginatorId(), transport);
+    }
+
+    public void unregister(long address) {
+        nodes.remove(address);
+    }
+
+    /**
+     * This method returns addresses of all nodes currently attached to this network
+     *
+     * @return
+     */
+    public List<Long> addresses() {
+        return new ArrayList<>(nodes.keySet());
+    }
+
+    /**
+     * This method sends serialized VoidMessage to the node with given address.
+     * Messages for unknown (or already detached) nodes are discarded on arrival.
+     *
+     * @param from
+     * @param to
+     * @param data
+     * @return false if message was dropped
+     */
+    public boolean send(long from, long to, @NonNull byte[] data) {
+        return schedule(from, to, data.length, () -> {
+            SimulatedTransport node = nodes.get(to);
+            if (node != null)
+                node.receiveMessage(VoidMessage.fromBytes(data));
+        });
+    }
+
+    /**
+     * This method schedules arbitrary delivery over the link between two addresses
+     *
+     * @param from
+     * @param to
+     * @param bytes size of the payload, for stats only
+     * @param delivery action executed on arrival
+     * @return false if message was dropped
+     */
+    public boolean schedule(long from, long to, long bytes, @NonNull Runnable delivery) {
+        sentMessages.incrementAndGet();
+        sentBytes.addAndGet(bytes);
+
+        long delay;
+        Random random = link(from, to);
+        synchronized (random) {
+            if (conditions.getLossProbability() > 0.0 && random.nextDouble() < conditions.getLossProbability()) {
+                droppedMessages.incrementAndGet();
+                return false;
+            }
+
+            delay = conditions.getLatencyMicros();
+            if (conditions.getJitterMicros() > 0)
+                delay += (long) (random.nextDouble() * (conditions.getJitterMicros() + 1));
+        }
+
+        Runnable task = () -> {
+            try {
+                delivery.run();
+                deliveredMessages.incrementAndGet();
+            } catch (Exception e) {
+                log.error("Delivery failed", e);
+            }
+        };
+
+        try {
+            if (delay > 0)
+                scheduler.schedule(task, delay, TimeUnit.MICROSECONDS);
+            else
+                scheduler.execute(task);
+        } catch (RejectedExecutionException e) {
+            // network was closed
+            return false;
+        }
+
+        return true;
+    }
+
+    protected Random link(long from, long to) {
+        synchronized (links) {
+            long key = from * 31 + to;
+            Random random = links.get(key);
+            if (random == null) {
+                random = new Random(conditions.getSeed() ^ (key * 0x9E3779B97F4A7C15L));
+                links.put(key, random);
+            }
+            return random;
+        }
+    }
+
+    public long sentMessages() {
+        return sentMessages.get();
+    }
+
+    public long droppedMessages() {
+        return droppedMessages.get();
+    }
+
+    public long deliveredMessages() {
+        return deliveredMessages.get();
+    }
+
+    public long sentBytes() {
+        return sentBytes.get();
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+        nodes.clear();
+    }
+}
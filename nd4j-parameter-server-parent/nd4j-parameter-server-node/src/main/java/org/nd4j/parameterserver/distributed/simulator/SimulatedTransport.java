@@ -0,0 +1,239 @@
+package org.nd4j.parameterserver.distributed.simulator;
+
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import org.nd4j.linalg.exception.ND4JIllegalStateException;
+import org.nd4j.linalg.util.HashUtil;
+import org.nd4j.parameterserver.distributed.conf.VoidConfiguration;
+import org.nd4j.parameterserver.distributed.enums.NodeRole;
+import org.nd4j.parameterserver.distributed.logic.ClientRouter;
+import org.nd4j.parameterserver.distributed.logic.completion.Clipboard;
+import org.nd4j.parameterserver.distributed.logic.routing.InterleavedRouter;
+import org.nd4j.parameterserver.distributed.messages.MeaningfulMessage;
+import org.nd4j.parameterserver.distributed.messages.TrainingMessage;
+import org.nd4j.parameterserver.distributed.messages.VoidMessage;
+import org.nd4j.parameterserver.distributed.messages.requests.IntroductionRequestMessage;
+import org.nd4j.parameterserver.distributed.transport.BaseTransport;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * Transport implementation on top of {@link SimulatedNetwork}, for running multiple nodes within single JVM.
+ *
+ * Routing follows {@link org.nd4j.parameterserver.distributed.transport.RoutedTransport}: node addresses are hashes
+ * of "ip:port", Shards are taken from VoidConfiguration, and all messages leaving the node are serialized,
+ * so receivers never share message instances with senders.
+ */
+@Slf4j
+public class SimulatedTransport extends BaseTransport {
+    protected final SimulatedNetwork network;
+    protected List<Long> shards = new CopyOnWriteArrayList<>();
+    protected Set<Long> clients = ConcurrentHashMap.newKeySet();
+    @Getter
+    @Setter
+    protected ClientRouter router;
+
+    public SimulatedTransport(@NonNull SimulatedNetwork network) {
+        this.network = network;
+    }
+
+    @Override
+    public void init(@NonNull VoidConfiguration voidConfiguration, @NonNull Clipboard clipboard, @NonNull NodeRole role,
+                    @NonNull String localIp, int localPort, short shardIndex) {
+        this.nodeRole = role;
+        this.clipboard = clipboard;
+        this.voidConfiguration = voidConfiguration;
+        this.shardIndex = shardIndex;
+        this.messages = new LinkedBlockingQueue<>();
+
+        // we skip IPs assign process if they were defined externally
+        if (port == 0) {
+            ip = localIp;
+            port = localPort;
+        }
+        this.originatorId = HashUtil.getLongHash(this.getIp() + ":" + this.getPort());
+
+        for (String address : voidConfiguration.getShardAddresses()) {
+            String endpoint = address.contains(":") ? address : address + ":" + voidConfiguration.getUnicastPort();
+            shards.add(HashUtil.getLongHash(endpoint));
+        }
+
+        if (nodeRole == NodeRole.SHARD)
+            addClient(ip, port);
+
+        if (router == null)
+            router = new InterleavedRouter();
+
+        network.register(this);
+        router.init(voidConfiguration, this);
+
+        log.debug("Initialized as [{}]; ShardIndex: [{}]; Own endpoint: [{}:{}]", nodeRole, shardIndex, ip, port);
+    }
+
+    /**
+     * There are no polling threads here: messages are pushed to this node by network delivery threads
+     *
+     * @param threading
+     */
+    @Override
+    public void launch(@NonNull ThreadingModel threading) {
+        this.threadingModel = threading;
+
+        IntroductionRequestMessage irm = new IntroductionRequestMessage(getIp(), getPort());
+        irm.setTargetId((short) -1);
+        sendCoordinationCommand(irm);
+    }
+
+    @Override
+    public void shutdown() {
+        runner.set(false);
+        network.unregister(originatorId);
+    }
+
+    /**
+     * This method is called by network delivery threads, and dispatches incoming message
+     * the same way RoutedTransport does
+     *
+     * @param message
+     */
+    @Override
+    public void receiveMessage(@NonNull VoidMessage message) {
+        if (message instanceof MeaningfulMessage) {
+            completed.put(message.getTaskId(), (MeaningfulMessage) message);
+        } else {
+            try {
+                messages.put(message);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Override
+    public VoidMessage takeMessage() {
+        // nothing to poll here, so SAME_THREAD model just checks the queue
+        if (threadingModel == ThreadingModel.SAME_THREAD)
+            return messages.poll();
+
+        return super.takeMessage();
+    }
+
+    @Override
+    protected void sendCommandToShard(VoidMessage message) {
+        // fastpath for local Shard
+        if (nodeRole == NodeRole.SHARD && message instanceof TrainingMessage) {
+            router.setOriginator(message);
+            message.setTargetId(getShardIndex());
+
+            try {
+                messages.put(message);
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+            return;
+        }
+
+        int targetShard = router.assignTarget(message);
+        network.send(originatorId, shards.get(targetShard), message.asBytes());
+    }
+
+    /**
+     * This method implements Shard -> Shards comms
+     *
+     * @param message
+     */
+    @Override
+    protected void sendCoordinationCommand(VoidMessage message) {
+        message.setOriginatorId(this.originatorId);
+
+        // if we're the only shard - we just put message into the queue
+        if (nodeRole == NodeRole.SHARD && voidConfiguration.getNumberOfShards() == 1) {
+            try {
+                messages.put(message);
+                return;
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        }
+
+        byte[] data = message.asBytes();
+        for (Long address : shards) {
+            if (address == originatorId) {
+                // this is local delivery
+                try {
+                    messages.put(message);
+                } catch (Exception e) {
+                    throw new RuntimeException(e);
+                }
+                continue;
+            }
+
+            network.send(originatorId, address, data);
+        }
+    }
+
+    /**
+     * This method implements Shard -> Client comms
+     *
+     * @param message
+     */
+    @Override
+    protected void sendFeedbackToClient(VoidMessage message) {
+        long targetAddress = message.getOriginatorId();
+
+        if (targetAddress == originatorId) {
+            completed.put(message.getTaskId(), (MeaningfulMessage) message);
+            return;
+        }
+
+        network.send(originatorId, targetAddress, message.asBytes());
+    }
+
+    @Override
+    public void sendMessageToAllClients(VoidMessage message, Long... exclusions) {
+        if (nodeRole != NodeRole.SHARD)
+            throw new ND4JIllegalStateException("Only SHARD allowed to send messages to all Clients");
+
+        byte[] data = message.asBytes();
+        for (Long address : clients) {
+            // do not send message back to yourself
+            if (address == originatorId)
+                continue;
+
+            boolean excluded = false;
+            if (exclusions != null)
+                for (Long exclude : exclusions)
+                    if (exclude.longValue() == address)
+                        excluded = true;
+
+            if (!excluded)
+                network.send(originatorId, address, data);
+        }
+    }
+
+    @Override
+    public void addClient(String ip, int port) {
+        clients.add(HashUtil.getLongHash(ip + ":" + port));
+    }
+
+    @Override
+    public void addShard(String ip, int port) {
+        shards.add(HashUtil.getLongHash(ip + ":" + port));
+    }
+
+    @Override
+    public int numberOfKnownClients() {
+        return clients.size();
+    }
+
+    @Override
+    public int numberOfKnownShards() {
+        return shards.size();
+    }
+}
@@ -0,0 +1,120 @@
+package org.nd4j.parameterserver.distributed.simulator;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * Configuration pojo for {@link SimulatedCluster}
+ */
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Data
+public class SimulationConfiguration implements Serializable {
+
+    public enum Workload {
+        /**
+         * Frames of SkipGram requests, trained by VoidParameterServer Shards
+         */
+        SKIP_GRAM,
+
+        /**
+         * Frames of CBOW requests, trained by VoidParameterServer Shards
+         */
+        CBOW,
+
+        /**
+         * Dense array updates, split by Shards and applied with ParameterServerUpdater
+         */
+        DENSE,
+    }
+
+    public enum TransportMode {
+        /**
+         * SimulatedTransport over SimulatedNetwork, NetworkConditions are applied
+         */
+        SIMULATED,
+
+        /**
+         * RoutedTransport over Aeron on localhost, NetworkConditions are NOT applied
+         */
+        ROUTED,
+    }
+
+    public enum UpdaterType {
+        SYNC, SOFT_SYNC,
+    }
+
+    @Builder.Default
+    private int numberOfShards = 2;
+
+    @Builder.Default
+    private int numberOfClients = 2;
+
+    @Builder.Default
+    private Workload workload = Workload.SKIP_GRAM;
+
+    @Builder.Default
+    private TransportMode transportMode = TransportMode.SIMULATED;
+
+    /**
+     * Updater used by Shards for DENSE workload
+     */
+    @Builder.Default
+    private UpdaterType updaterType = UpdaterType.SYNC;
+
+    @Builder.Default
+    private NetworkConditions networkConditions = new NetworkConditions();
+
+    /**
+     * Seed for synthetic workload, each Client gets own generator derived from it
+     */
+    @Builder.Default
+    private long seed = 119;
+
+    /**
+     * Number of Frames (or dense updates) sent by each Client
+     */
+    @Builder.Default
+    private int iterations = 100;
+
+    /**
+     * Number of training messages in each Frame
+     */
+    @Builder.Default
+    private int frameSize = 128;
+
+    @Builder.Default
+    private int vectorLength = 100;
+
+    @Builder.Default
+    private int numberOfWords = 10000;
+
+    /**
+     * Number of elements in dense model, split evenly across Shards
+     */
+    @Builder.Default
+    private int denseLength = 100000;
+
+    /**
+     * Number of generations an update may lag behind, for SOFT_SYNC updater
+     */
+    @Builder.Default
+    private int maxStaleness = 4;
+
+    /**
+     * Time to wait for response before retransmission, in milliseconds
+     */
+    @Builder.Default
+    private long responseTimeout = 5000;
+
+    /**
+     * First port used by nodes. Ports are real only for ROUTED transport, otherwise they're just addresses.
+     */
+    @Builder.Default
+    private int basePort = 40500;
+}
@@ -0,0 +1,74 @@
+package org.nd4j.parameterserver.distributed.simulator;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * Results of a single {@link SimulatedCluster} run. Latencies are in microseconds.
+ */
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Data
+public class SimulationReport implements Serializable {
+    private SimulationConfiguration.Workload workload;
+    private SimulationConfiguration.TransportMode transportMode;
+    private SimulationConfiguration.UpdaterType updaterType;
+    private int numberOfShards;
+    private int numberOfClients;
+    private NetworkConditions networkConditions;
+
+    /**
+     * Number of completed Frames or dense updates
+     */
+    private long operations;
+
+    /**
+     * Number of Frames or dense updates that weren't completed
+     */
+    private long failures;
+
+    /**
+     * Number of training messages or dense elements within completed operations
+     */
+    private long elements;
+
+    private long timeSpentMillis;
+
+    private long p50;
+    private long p90;
+    private long p99;
+    private long max;
+
+    /**
+     * Network stats, available for SIMULATED transport only
+     */
+    private long sentMessages;
+    private long droppedMessages;
+    private long sentBytes;
+
+    public double operationsPerSecond() {
+        return timeSpentMillis == 0 ? 0.0 : operations * 1000.0 / timeSpentMillis;
+    }
+
+    public double elementsPerSecond() {
+        return timeSpentMillis == 0 ? 0.0 : elements * 1000.0 / timeSpentMillis;
+    }
+
+    public static String header() {
+        return String.format("%-10s %-10s %-10s %6s %7s %10s %14s %9s %9s %9s %9s %8s %10s", "workload", "transport",
+                        "updater", "shards", "clients", "ops/s", "elements/s", "p50 us", "p90 us", "p99 us",
+                        "max us", "failed", "dropped");
+    }
+
+    public String toRow() {
+        return String.format("%-10s %-10s %-10s %6d %7d %10.1f %14.1f %9d %9d %9d %9d %8d %10d", workload,
+                        transportMode, workload == SimulationConfiguration.Workload.DENSE ? updaterType : "-",
+                        numberOfShards, numberOfClients, operationsPerSecond(), elementsPerSecond(), p50, p90, p99,
+                        max, failures, droppedMessages);
+    }
+}
@@ -0,0 +1,119 @@
+package org.nd4j.parameterserver.distributed.simulator;
+
+import com.beust.jcommander.JCommander;
+import com.beust.jcommander.Parameter;
+import com.beust.jcommander.ParameterException;
+import com.beust.jcommander.Parameters;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Command line harness running {@link SimulatedCluster} for each combination of workload, transport and updater,
+ * and printing throughput and latency percentiles for every run.
+ *
+ * I.e.: -w SKIP_GRAM,DENSE -t SIMULATED,ROUTED -u SYNC,SOFT_SYNC -s 4 -c 8 -l 200 -j 50 -loss 0.001
+ */
+@Slf4j
+@Parameters(separators = ",")
+public class ThroughputHarness {
+
+    @Parameter(names = {"-w", "--workloads"}, description = "Workloads to run: SKIP_GRAM, CBOW, DENSE")
+    private List<String> workloads = new ArrayList<>(Arrays.asList("SKIP_GRAM", "DENSE"));
+    @Parameter(names = {"-t", "--transports"},
+                    description = "Transports for SKIP_GRAM and CBOW: SIMULATED, ROUTED. DENSE always uses SIMULATED")
+    private List<String> transports = new ArrayList<>(Arrays.asList("SIMULATED"));
+    @Parameter(names = {"-u", "--updaters"}, description = "Updaters for DENSE workload: SYNC, SOFT_SYNC")
+    private List<String> updaters = new ArrayList<>(Arrays.asList("SYNC", "SOFT_SYNC"));
+    @Parameter(names = {"-s", "--shards"}, description = "Number of Shards", arity = 1)
+    private int shards = 2;
+    @Parameter(names = {"-c", "--clients"}, description = "Number of Clients", arity = 1)
+    private int clients = 2;
+    @Parameter(names = {"-i", "--iterations"}, description = "Frames or dense updates per Client", arity = 1)
+    private int iterations = 100;
+    @Parameter(names = {"-f", "--frameSize"}, description = "Training requests per Frame", arity = 1)
+    private int frameSize = 128;
+    @Parameter(names = {"-d", "--denseLength"}, description = "Number of elements in dense model", arity = 1)
+    private int denseLength = 100000;
+    @Parameter(names = {"-l", "--latency"}, description = "One-way latency in microseconds", arity = 1)
+    private long latencyMicros = 0;
+    @Parameter(names = {"-j", "--jitter"}, description = "Maximum jitter in microseconds", arity = 1)
+    private long jitterMicros = 0;
+    @Parameter(names = {"-loss", "--loss"}, description = "Message loss probability", arity = 1)
+    private double loss = 0.0;
+    @Parameter(names = {"-seed", "--seed"}, description = "Seed for workload and network", arity = 1)
+    private long seed = 119;
+    @Parameter(names = {"-rt", "--responseTimeout"}, description = "Response timeout in ms", arity = 1)
+    private long responseTimeout = 5000;
+    @Parameter(names = {"-p", "--basePort"}, description = "First port for ROUTED transport", arity = 1)
+    private int basePort = 40500;
+
+    public List<SimulationReport> run(String[] args) {
+        JCommander jcmdr = new JCommander(this);
+
+        try {
+            jcmdr.parse(args);
+        } catch (ParameterException e) {
+            //User provides invalid input -> print the usage info
+            jcmdr.usage();
+            throw e;
+        }
+
+        NetworkConditions conditions = NetworkConditions.builder().latencyMicros(latencyMicros)
+                        .jitterMicros(jitterMicros).lossProbability(loss).seed(seed).build();
+
+        List<SimulationConfiguration> runs = new ArrayList<>();
+        for (String workloadName : workloads) {
+            SimulationConfiguration.Workload workload =
+                            SimulationConfiguration.Workload.valueOf(workloadName.toUpperCase());
+
+            if (workload == SimulationConfiguration.Workload.DENSE) {
+                for (String updater : updaters)
+                    runs.add(configuration(workload, SimulationConfiguration.TransportMode.SIMULATED,
+                                    SimulationConfiguration.UpdaterType.valueOf(updater.toUpperCase()), conditions));
+            } else {
+                for (String transport : transports)
+                    runs.add(configuration(workload,
+                                    SimulationConfiguration.TransportMode.valueOf(transport.toUpperCase()),
+                                    SimulationConfiguration.UpdaterType.SYNC, conditions));
+            }
+        }
+
+        log.info("Network conditions: {}", conditions);
+
+        List<SimulationReport> reports = new ArrayList<>();
+        int port = basePort;
+        for (SimulationConfiguration configuration : runs) {
+            // every run gets own ports, so Aeron endpoints of previous run don't interfere
+            configuration.setBasePort(port);
+            port += shards + clients;
+
+            try (SimulatedCluster cluster = new SimulatedCluster(configuration)) {
+                reports.add(cluster.run());
+            }
+        }
+
+        return reports;
+    }
+
+    private SimulationConfiguration configuration(SimulationConfiguration.Workload workload,
+                    SimulationConfiguration.TransportMode transportMode,
+                    SimulationConfiguration.UpdaterType updaterType, NetworkConditions conditions) {
+        return SimulationConfiguration.builder().workload(workload).transportMode(transportMode)
+                        .updaterType(updaterType).networkConditions(conditions).numberOfShards(shards)
+                        .numberOfClients(clients).iterations(iterations).frameSize(frameSize)
+                        .denseLength(denseLength).seed(seed).responseTimeout(responseTimeout).build();
+    }
+
+    public static void main(String[] args) {
+        List<SimulationReport> reports = new ThroughputHarness().run(args);
+
+        System.out.println(SimulationReport.header());
+        for (SimulationReport report : reports)
+            System.out.println(report.toRow());
+
+        System.exit(0);
+    }
+}
@@ -1,17 +1,29 @@
 package org.nd4j.parameterserver.distributed.training;
 
 import lombok.NonNull;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.api.ops.aggregates.Aggregate;
+import org.nd4j.linalg.api.ops.aggregates.Batch;
+import org.nd4j.linalg.factory.Nd4j;
 import org.nd4j.parameterserver.distributed.conf.VoidConfiguration;
 import org.nd4j.parameterserver.distributed.logic.completion.Clipboard;
 import org.nd4j.parameterserver.distributed.logic.Storage;
 import org.nd4j.parameterserver.distributed.logic.completion.FrameCompletionHandler;
+import org.nd4j.parameterserver.distributed.logic.storage.EmbeddingStorage;
+import org.nd4j.parameterserver.distributed.logic.storage.EmbeddingTable;
 import org.nd4j.parameterserver.distributed.messages.TrainingMessage;
+import org.nd4j.parameterserver.distributed.messages.complete.FrameCompleteMessage;
 import org.nd4j.parameterserver.distributed.transport.Transport;
 
+import java.util.List;
+
 /**
  * @author raver119@gmail.co,
  */
 public abstract class BaseTrainer<T extends TrainingMessage> implements TrainingDriver<T> {
+    // native w2v aggregates support codes of limited length only
+    protected static final int MAX_CODE_LENGTH = 40;
+
     protected VoidConfiguration voidConfiguration;
     protected Transport transport;
     protected Clipboard clipboard;
@@ -40,4 +52,97 @@ public abstract class BaseTrainer<T extends TrainingMessage> implements Training
     public void addCompletionHook(long originatorId, long frameId, long messageId) {
         completionHandler.addHook(originatorId, frameId, messageId);
     }
+
+    /**
+     * This method returns row-oriented accessor for specified storage matrix
+     *
+     * @param key
+     * @return EmbeddingTable, or null if there's no such matrix
+     */
+    protected EmbeddingTable table(@NonNull Integer key) {
+        return EmbeddingStorage.tableOf(storage, key);
+    }
+
+    /**
+     * This method applies gradients to the given rows of syn1/syn1Neg table, and accumulates error for syn0:
+     *      neu1e += g * table[rows]
+     *      table[rows] += g' * input
+     *
+     * @param table
+     * @param rows
+     * @param gradients
+     * @param input row vector, i.e. syn0 row for SkipGram, or mean of context rows for CBOW
+     * @param neu1e row vector, accumulated error
+     */
+    protected void applyGradients(EmbeddingTable table, int[] rows, double[] gradients, INDArray input,
+                    INDArray neu1e) {
+        INDArray g = Nd4j.create(gradients, new int[] {1, gradients.length});
+        neu1e.addi(g.mmul(table.gather(rows)));
+        table.scatterAdd(rows, g.transpose().mmul(input));
+    }
+
+    /**
+     * This method checks, if training round can be executed as native aggregate
+     *
+     * @param hsRows syn1 rows used for hierarchic softmax
+     * @param negSamples
+     * @param syn1
+     * @param syn1Neg
+     * @param negTable
+     * @return
+     */
+    protected boolean isAggregatable(int[] hsRows, int negSamples, EmbeddingTable syn1, EmbeddingTable syn1Neg,
+                    INDArray negTable) {
+        if (hsRows.length > MAX_CODE_LENGTH || (hsRows.length > 0 && syn1 == null))
+            return false;
+
+        // native aggregates draw negatives from negTable (unigram distribution), not uniformly as message-based rounds
+        return negSamples == 0 || (syn1Neg != null && negTable != null);
+    }
+
+    /**
+     * This method executes native aggregates in batches. In STRIPED mode all given tables are locked for the duration
+     *
+     * @param aggregates
+     * @param tables tables updated by aggregates, in fixed order: syn0, syn1, syn1Neg. Null values are skipped
+     */
+    protected void execAggregates(@NonNull List<Aggregate> aggregates, EmbeddingTable... tables) {
+        for (EmbeddingTable table : tables)
+            if (table != null)
+                table.lockAll();
+
+        try {
+            for (Batch<Aggregate> batch : Batch.getBatches(aggregates))
+                Nd4j.getExecutioner().exec(batch);
+
+            // native ops could touch any row
+            for (EmbeddingTable table : tables)
+                if (table != null)
+                    table.touchAll();
+        } finally {
+            for (int i = tables.length - 1; i >= 0; i--)
+                if (tables[i] != null)
+                    tables[i].unlockAll();
+        }
+    }
+
+    /**
+     * This method notifies originator, that all messages of the Frame were processed
+     *
+     * @param originatorId
+     * @param frameId
+     */
+    protected void frameCompleted(long originatorId, long frameId) {
+        FrameCompleteMessage fcm = new FrameCompleteMessage(frameId);
+        fcm.setOriginatorId(originatorId);
+        transport.sendMessage(fcm);
+    }
+
+    protected static int[] toInts(byte[] codes) {
+        int[] result = new int[codes.length];
+        for (int e = 0; e < codes.length; e++)
+            result[e] = codes[e];
+
+        return result;
+    }
 }
@@ -0,0 +1,18 @@
+package org.nd4j.parameterserver.distributed.training;
+
+import org.nd4j.parameterserver.distributed.messages.Frame;
+import org.nd4j.parameterserver.distributed.messages.TrainingMessage;
+
+/**
+ * TrainingDriver able to process whole Frame of training messages at once
+ */
+public interface BatchedTrainingDriver<T extends TrainingMessage> extends TrainingDriver<T> {
+
+    /**
+     * This method applies all training rounds of the Frame, and notifies Frame originator once done
+     *
+     * @param frame
+     * @return true if Frame was processed, false if its messages should be processed one by one
+     */
+    boolean trainFrame(Frame<T> frame);
+}
@@ -1,22 +1,31 @@
 package org.nd4j.parameterserver.distributed.training.impl;
 
+import lombok.NonNull;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.lang3.RandomUtils;
 import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.api.ops.aggregates.Aggregate;
+import org.nd4j.linalg.api.ops.aggregates.impl.AggregateCBOW;
 import org.nd4j.linalg.factory.Nd4j;
 import org.nd4j.parameterserver.distributed.enums.ExecutionMode;
 import org.nd4j.parameterserver.distributed.logic.completion.FrameCompletionHandler;
 import org.nd4j.parameterserver.distributed.logic.completion.RequestDescriptor;
+import org.nd4j.parameterserver.distributed.logic.storage.EmbeddingTable;
 import org.nd4j.parameterserver.distributed.logic.storage.WordVectorStorage;
+import org.nd4j.parameterserver.distributed.messages.Frame;
 import org.nd4j.parameterserver.distributed.messages.VoidAggregation;
 import org.nd4j.parameterserver.distributed.messages.aggregations.DotAggregation;
 import org.nd4j.parameterserver.distributed.messages.complete.FrameCompleteMessage;
 import org.nd4j.parameterserver.distributed.messages.intercom.DistributedCbowDotMessage;
 import org.nd4j.parameterserver.distributed.messages.requests.CbowRequestMessage;
 import org.nd4j.parameterserver.distributed.training.BaseTrainer;
+import org.nd4j.parameterserver.distributed.training.BatchedTrainingDriver;
 import org.nd4j.parameterserver.distributed.training.chains.CbowChain;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
@@ -25,7 +34,8 @@ import java.util.concurrent.atomic.AtomicLong;
  * @author raver119@gmail.com
  */
 @Slf4j
-public class CbowTrainer extends BaseTrainer<CbowRequestMessage> {
+public class CbowTrainer extends BaseTrainer<CbowRequestMessage>
+                implements BatchedTrainingDriver<CbowRequestMessage> {
     private static final float HS_MAX_EXP = 6.0f;
 
     protected Map<RequestDescriptor, CbowChain> chains = new ConcurrentHashMap<>();
@@ -124,19 +134,20 @@ public class CbowTrainer extends BaseTrainer<CbowRequestMessage> {
         INDArray expTable = storage.getArray(WordVectorStorage.EXP_TABLE);
         INDArray dots = chain.getDotAggregation().getAccumulatedResult();
 
-        INDArray syn0 = storage.getArray(WordVectorStorage.SYN_0);
-        INDArray syn1 = storage.getArray(WordVectorStorage.SYN_1);
-        INDArray syn1Neg = storage.getArray(WordVectorStorage.SYN_1_NEGATIVE);
+        EmbeddingTable syn0 = table(WordVectorStorage.SYN_0);
+        EmbeddingTable syn1 = table(WordVectorStorage.SYN_1);
+        EmbeddingTable syn1Neg = table(WordVectorStorage.SYN_1_NEGATIVE);
 
-        INDArray words = Nd4j.pullRows(storage.getArray(WordVectorStorage.SYN_0), 1, cbr.getSyn0rows(), 'c');
+        INDArray words = syn0.gather(cbr.getSyn0rows());
         INDArray neue = words.mean(0);
 
-        INDArray neu1e = Nd4j.create(syn0.columns());
+        // gradients for all involved syn1/syn1Neg rows are calculated first, and applied as batches afterwards
+        int[] hsRows = new int[cbr.getCodes().length];
+        double[] hsGradients = new double[hsRows.length];
+        int numHs = 0;
 
         int e = 0;
 
-        boolean updated = false;
-
         // probably applying HS part
         if (cbr.getCodes().length > 0) {
             for (; e < cbr.getCodes().length; e++) {
@@ -156,12 +167,15 @@ public class CbowTrainer extends BaseTrainer<CbowRequestMessage> {
                 double f = expTable.getFloat(idx);
                 double g = (1 - code - f) * alpha;
 
-                updated = true;
-                Nd4j.getBlasWrapper().axpy(new Double(g), syn1.getRow(cbr.getSyn1rows()[e]), neu1e);
-                Nd4j.getBlasWrapper().axpy(new Double(g), neue, syn1.getRow(cbr.getSyn1rows()[e]));
+                hsRows[numHs] = cbr.getSyn1rows()[e];
+                hsGradients[numHs++] = g;
             }
         }
 
+        int[] negRows = new int[cbr.getNegSamples() > 0 ? cbr.getNegSamples() + 1 : 0];
+        double[] negGradients = new double[negRows.length];
+        int numNeg = 0;
+
         if (cbr.getNegSamples() > 0) {
             int cnt = 0;
             for (; e < cbr.getNegSamples() + 1; e++, cnt++) {
@@ -182,16 +196,25 @@ public class CbowTrainer extends BaseTrainer<CbowRequestMessage> {
                     g = (code - expTable.getDouble(idx)) * alpha;
                 }
 
-                updated = true;
-                Nd4j.getBlasWrapper().axpy(new Double(g), syn1Neg.getRow(cbr.getNegatives()[cnt]), neu1e);
-                Nd4j.getBlasWrapper().axpy(new Double(g), neue, syn1Neg.getRow(cbr.getNegatives()[cnt]));
+                negRows[numNeg] = cbr.getNegatives()[cnt];
+                negGradients[numNeg++] = g;
             }
         }
 
-        if (updated)
+        if (numHs > 0 || numNeg > 0) {
+            INDArray neu1e = Nd4j.create(1, syn0.columns());
+
+            if (numHs > 0)
+                applyGradients(syn1, Arrays.copyOf(hsRows, numHs), Arrays.copyOf(hsGradients, numHs), neue, neu1e);
+
+            if (numNeg > 0)
+                applyGradients(syn1Neg, Arrays.copyOf(negRows, numNeg), Arrays.copyOf(negGradients, numNeg), neue,
+                                neu1e);
+
             for (int i = 0; i < cbr.getSyn0rows().length; i++) {
-                Nd4j.getBlasWrapper().axpy(new Double(1.0), neu1e, syn0.getRow(cbr.getSyn0rows()[i]));
+                syn0.axpyRow(cbr.getSyn0rows()[i], 1.0, neu1e);
             }
+        }
 
         // we send back confirmation message only from Shard which received this message
         RequestDescriptor descriptor = RequestDescriptor.createDescriptor(chain.getOriginatorId(), chain.getFrameId());
@@ -231,4 +254,58 @@ public class CbowTrainer extends BaseTrainer<CbowRequestMessage> {
     public String targetMessageClass() {
         return CbowRequestMessage.class.getSimpleName();
     }
+
+    /**
+     * This method executes all rounds of the Frame as batches of native AggregateCBOW ops.
+     * Only possible if each Shard holds full vectors, i.e. in AVERAGING mode
+     *
+     * PLEASE NOTE: native ops draw negative samples from negTable, i.e. with unigram distribution,
+     * while message-based rounds draw them uniformly
+     *
+     * @param frame
+     * @return
+     */
+    @Override
+    public boolean trainFrame(@NonNull Frame<CbowRequestMessage> frame) {
+        if (voidConfiguration.getExecutionMode() != ExecutionMode.AVERAGING)
+            return false;
+
+        EmbeddingTable syn0 = table(WordVectorStorage.SYN_0);
+        EmbeddingTable syn1 = table(WordVectorStorage.SYN_1);
+        EmbeddingTable syn1Neg = table(WordVectorStorage.SYN_1_NEGATIVE);
+        INDArray expTable = storage.getArray(WordVectorStorage.EXP_TABLE);
+        INDArray negTable = storage.getArray(WordVectorStorage.NEGATIVE_TABLE);
+
+        if (syn0 == null || expTable == null)
+            return false;
+
+        for (CbowRequestMessage message : frame)
+            if (message.getSyn0rows().length > MAX_CODE_LENGTH
+                            || !isAggregatable(message.getSyn1rows(), message.getNegSamples(), syn1, syn1Neg, negTable))
+                return false;
+
+        List<Aggregate> aggregates = new ArrayList<>(frame.size());
+        for (CbowRequestMessage message : frame) {
+            int[] codes = toInts(message.getCodes());
+
+            // if there's more then 1 round should be applied
+            for (int i = 0; i < message.getCounter(); i++)
+                aggregates.add(new AggregateCBOW(syn0.getTable(), syn1 == null ? null : syn1.getTable(),
+                                syn1Neg == null ? null : syn1Neg.getTable(), expTable, negTable, message.getW1(),
+                                message.getSyn0rows(), message.getSyn1rows(), codes, message.getNegSamples(),
+                                message.getW1(), syn0.columns(), message.getAlpha(), message.getNextRandom() + i,
+                                syn0.rows()));
+        }
+
+        execAggregates(aggregates, syn0, syn1, syn1Neg);
+
+        frameCompleted(frame.getOriginatorId(), frame.getTaskId());
+
+        // every message may hold more then 1 round
+        long before = cntRounds.getAndAdd(aggregates.size());
+        if (before / 100000 != (before + aggregates.size()) / 100000)
+            log.info("{} training rounds finished...", cntRounds.get());
+
+        return true;
+    }
 }
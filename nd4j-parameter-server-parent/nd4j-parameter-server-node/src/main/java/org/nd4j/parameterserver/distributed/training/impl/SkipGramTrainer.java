@@ -5,19 +5,27 @@ import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.lang3.RandomUtils;
 import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.api.ops.aggregates.Aggregate;
+import org.nd4j.linalg.api.ops.aggregates.impl.AggregateSkipGram;
 import org.nd4j.linalg.factory.Nd4j;
 import org.nd4j.parameterserver.distributed.enums.ExecutionMode;
 import org.nd4j.parameterserver.distributed.logic.completion.FrameCompletionHandler;
 import org.nd4j.parameterserver.distributed.logic.completion.RequestDescriptor;
+import org.nd4j.parameterserver.distributed.logic.storage.EmbeddingTable;
 import org.nd4j.parameterserver.distributed.logic.storage.WordVectorStorage;
+import org.nd4j.parameterserver.distributed.messages.Frame;
 import org.nd4j.parameterserver.distributed.messages.aggregations.DotAggregation;
 import org.nd4j.parameterserver.distributed.messages.VoidAggregation;
 import org.nd4j.parameterserver.distributed.messages.complete.FrameCompleteMessage;
 import org.nd4j.parameterserver.distributed.messages.intercom.DistributedSgDotMessage;
 import org.nd4j.parameterserver.distributed.messages.requests.SkipGramRequestMessage;
 import org.nd4j.parameterserver.distributed.training.BaseTrainer;
+import org.nd4j.parameterserver.distributed.training.BatchedTrainingDriver;
 import org.nd4j.parameterserver.distributed.training.chains.SkipGramChain;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
@@ -35,7 +43,8 @@ import java.util.concurrent.atomic.AtomicLong;
  * @author raver119@gmail.com
  */
 @Slf4j
-public class SkipGramTrainer extends BaseTrainer<SkipGramRequestMessage> {
+public class SkipGramTrainer extends BaseTrainer<SkipGramRequestMessage>
+                implements BatchedTrainingDriver<SkipGramRequestMessage> {
     private static final float HS_MAX_EXP = 6.0f;
 
     protected Map<RequestDescriptor, SkipGramChain> chains = new ConcurrentHashMap<>();
@@ -130,6 +139,58 @@ public class SkipGramTrainer extends BaseTrainer<SkipGramRequestMessage> {
         return SkipGramRequestMessage.class.getSimpleName();
     }
 
+    /**
+     * This method executes all rounds of the Frame as batches of native AggregateSkipGram ops.
+     * Only possible if each Shard holds full vectors, i.e. in AVERAGING mode
+     *
+     * PLEASE NOTE: native ops draw negative samples from negTable, i.e. with unigram distribution,
+     * while message-based rounds draw them uniformly
+     *
+     * @param frame
+     * @return
+     */
+    @Override
+    public boolean trainFrame(@NonNull Frame<SkipGramRequestMessage> frame) {
+        if (voidConfiguration.getExecutionMode() != ExecutionMode.AVERAGING)
+            return false;
+
+        EmbeddingTable syn0 = table(WordVectorStorage.SYN_0);
+        EmbeddingTable syn1 = table(WordVectorStorage.SYN_1);
+        EmbeddingTable syn1Neg = table(WordVectorStorage.SYN_1_NEGATIVE);
+        INDArray expTable = storage.getArray(WordVectorStorage.EXP_TABLE);
+        INDArray negTable = storage.getArray(WordVectorStorage.NEGATIVE_TABLE);
+
+        if (syn0 == null || expTable == null)
+            return false;
+
+        for (SkipGramRequestMessage message : frame)
+            if (!isAggregatable(message.getPoints(), message.getNegSamples(), syn1, syn1Neg, negTable))
+                return false;
+
+        List<Aggregate> aggregates = new ArrayList<>(frame.size());
+        for (SkipGramRequestMessage message : frame) {
+            int[] codes = toInts(message.getCodes());
+
+            // if there's more then 1 round should be applied
+            for (int i = 0; i < message.getCounter(); i++)
+                aggregates.add(new AggregateSkipGram(syn0.getTable(), syn1 == null ? null : syn1.getTable(),
+                                syn1Neg == null ? null : syn1Neg.getTable(), expTable, negTable, message.getW2(),
+                                message.getPoints(), codes, message.getNegSamples(), message.getW1(), syn0.columns(),
+                                message.getAlpha(), message.getNextRandom() + i, syn0.rows()));
+        }
+
+        execAggregates(aggregates, syn0, syn1, syn1Neg);
+
+        frameCompleted(frame.getOriginatorId(), frame.getTaskId());
+
+        // every message may hold more then 1 round
+        long before = cntRounds.getAndAdd(aggregates.size());
+        if (before / 100000 != (before + aggregates.size()) / 100000)
+            log.info("{} training rounds finished...", cntRounds.get());
+
+        return true;
+    }
+
     /**
      * This method is invoked after particular aggregation finished
      * @param aggregation
@@ -171,16 +232,17 @@ public class SkipGramTrainer extends BaseTrainer<SkipGramRequestMessage> {
         INDArray expTable = storage.getArray(WordVectorStorage.EXP_TABLE);
         INDArray dots = chain.getDotAggregation().getAccumulatedResult();
 
-        INDArray syn0 = storage.getArray(WordVectorStorage.SYN_0);
-        INDArray syn1 = storage.getArray(WordVectorStorage.SYN_1);
-        INDArray syn1Neg = storage.getArray(WordVectorStorage.SYN_1_NEGATIVE);
+        EmbeddingTable syn0 = table(WordVectorStorage.SYN_0);
+        EmbeddingTable syn1 = table(WordVectorStorage.SYN_1);
+        EmbeddingTable syn1Neg = table(WordVectorStorage.SYN_1_NEGATIVE);
 
-        INDArray neu1e = Nd4j.create(syn0.columns());
+        // gradients for all involved syn1/syn1Neg rows are calculated first, and applied as batches afterwards
+        int[] hsRows = new int[sgrm.getCodes().length];
+        double[] hsGradients = new double[hsRows.length];
+        int numHs = 0;
 
         int e = 0;
 
-        boolean updated = false;
-
         // apply optional SkipGram HS gradients
         if (sgrm.getCodes().length > 0) {
             for (; e < sgrm.getCodes().length; e++) {
@@ -200,12 +262,15 @@ public class SkipGramTrainer extends BaseTrainer<SkipGramRequestMessage> {
                 double f = expTable.getFloat(idx);
                 double g = (1 - code - f) * alpha;
 
-                updated = true;
-                Nd4j.getBlasWrapper().axpy(new Double(g), syn1.getRow(sgrm.getPoints()[e]), neu1e);
-                Nd4j.getBlasWrapper().axpy(new Double(g), syn0.getRow(sgrm.getW2()), syn1.getRow(sgrm.getPoints()[e]));
+                hsRows[numHs] = sgrm.getPoints()[e];
+                hsGradients[numHs++] = g;
             }
         }
 
+        int[] negRows = new int[sgrm.getNegSamples() > 0 ? sgrm.getNegSamples() + 1 : 0];
+        double[] negGradients = new double[negRows.length];
+        int numNeg = 0;
+
         // apply optional NegSample gradients
         if (sgrm.getNegSamples() > 0) {
             // here we assume that we already
@@ -228,15 +293,24 @@ public class SkipGramTrainer extends BaseTrainer<SkipGramRequestMessage> {
                     g = (code - expTable.getDouble(idx)) * alpha;
                 }
 
-                updated = true;
-                Nd4j.getBlasWrapper().axpy(new Double(g), syn1Neg.getRow(sgrm.getNegatives()[cnt]), neu1e);
-                Nd4j.getBlasWrapper().axpy(new Double(g), syn0.getRow(sgrm.getW2()),
-                                syn1Neg.getRow(sgrm.getNegatives()[cnt]));
+                negRows[numNeg] = sgrm.getNegatives()[cnt];
+                negGradients[numNeg++] = g;
             }
         }
 
-        if (updated)
-            Nd4j.getBlasWrapper().axpy(new Double(1.0), neu1e, syn0.getRow(sgrm.getW2()));
+        if (numHs > 0 || numNeg > 0) {
+            INDArray syn0row = syn0.gather(sgrm.getW2());
+            INDArray neu1e = Nd4j.create(1, syn0.columns());
+
+            if (numHs > 0)
+                applyGradients(syn1, Arrays.copyOf(hsRows, numHs), Arrays.copyOf(hsGradients, numHs), syn0row, neu1e);
+
+            if (numNeg > 0)
+                applyGradients(syn1Neg, Arrays.copyOf(negRows, numNeg), Arrays.copyOf(negGradients, numNeg), syn0row,
+                                neu1e);
+
+            syn0.axpyRow(sgrm.getW2(), 1.0, neu1e);
+        }
 
         // we send back confirmation message only from Shard which received this message
         RequestDescriptor descriptor = RequestDescriptor.createDescriptor(chain.getOriginatorId(), chain.getFrameId());
@@ -11,6 +11,7 @@ import lombok.NonNull;
 import lombok.extern.slf4j.Slf4j;
 import org.agrona.CloseHelper;
 import org.agrona.DirectBuffer;
+import org.agrona.concurrent.BackoffIdleStrategy;
 import org.agrona.concurrent.IdleStrategy;
 import org.agrona.concurrent.SleepingIdleStrategy;
 import org.nd4j.linalg.exception.ND4JIllegalStateException;
@@ -25,6 +26,7 @@ import org.nd4j.parameterserver.distributed.messages.VoidMessage;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
 
@@ -496,9 +498,12 @@ public abstract class BaseTransport implements Transport {
     /**
      * This command is possible to issue only from Client
      *
+     * PLEASE NOTE: Aeron publications are thread-safe, so concurrent senders don't block each other.
+     * On back pressure, sender backs off exponentially for up to 5 retransmit timeouts.
+     *
      * @param message
      */
-    protected synchronized void sendCommandToShard(VoidMessage message) {
+    protected void sendCommandToShard(VoidMessage message) {
         // if this node is shard - we just step over TCP/IP infrastructure
         // TODO: we want LocalTransport to be used in such cases
         if (nodeRole == NodeRole.SHARD) {
@@ -515,17 +520,15 @@ public abstract class BaseTransport implements Transport {
 
         long result = publicationForShards.offer(buffer);
 
-        if (result < 0)
-            for (int i = 0; i < 5 && result < 0; i++) {
-                try {
-                    // TODO: make this configurable
-                    Thread.sleep(1000);
-                } catch (Exception e) {
-                }
+        if (result < 0) {
+            IdleStrategy backoff = new BackoffIdleStrategy(10, 10, TimeUnit.MICROSECONDS.toNanos(1),
+                            TimeUnit.MILLISECONDS.toNanos(10));
+            long deadline = System.currentTimeMillis() + 5 * voidConfiguration.getRetransmitTimeout();
+            while (result < 0 && System.currentTimeMillis() < deadline) {
+                backoff.idle();
                 result = publicationForShards.offer(buffer);
             }
-
-        // TODO: handle retransmit & backpressure separately
+        }
 
         if (result < 0)
             throw new RuntimeException("Unable to send message over the wire. Error code: " + result);
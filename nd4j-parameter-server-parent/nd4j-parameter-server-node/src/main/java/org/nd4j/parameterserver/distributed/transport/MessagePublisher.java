@@ -0,0 +1,180 @@
+package org.nd4j.parameterserver.distributed.transport;
+
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.agrona.concurrent.Agent;
+import org.agrona.concurrent.AgentRunner;
+import org.agrona.concurrent.BackoffIdleStrategy;
+import org.nd4j.parameterserver.distributed.conf.VoidConfiguration;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publisher agent for {@link RoutedTransport}: a single thread drains the {@link OutboundChannel}s
+ * of all remote nodes into their Aeron publications, backing off exponentially while there's nothing to send.
+ *
+ * Sender threads never block on the network: they only enqueue messages,
+ * and back off only if the queue of the target node is full.
+ */
+@Slf4j
+public class MessagePublisher implements Agent {
+    // max number of messages taken from single channel per pass
+    protected static final int CHANNEL_LIMIT = 256;
+
+    protected final VoidConfiguration voidConfiguration;
+    protected final long originatorId;
+    protected final List<OutboundChannel> channels = new CopyOnWriteArrayList<>();
+    protected final Set<Long> autoFrames = ConcurrentHashMap.newKeySet();
+    protected AgentRunner runner;
+
+    public MessagePublisher(@NonNull VoidConfiguration voidConfiguration, long originatorId) {
+        this.voidConfiguration = voidConfiguration;
+        this.originatorId = originatorId;
+    }
+
+    /**
+     * This method creates outbound channel for given remote node
+     *
+     * @param connection
+     * @param shard true if remote node is Shard
+     * @return
+     */
+    public OutboundChannel register(@NonNull RoutedTransport.RemoteConnection connection, boolean shard) {
+        // we keep the same tolerance for nodes that aren't up yet as before: 20 retransmits for shards, 1 for clients
+        long connectTimeout = TimeUnit.MILLISECONDS.toNanos(voidConfiguration.getRetransmitTimeout() * (shard ? 20 : 1));
+
+        OutboundChannel channel = new OutboundChannel(connection, shard, originatorId,
+                        voidConfiguration.getOutboundQueueCapacity(), voidConfiguration.getOutboundBatchMessages(),
+                        voidConfiguration.getOutboundBatchBytes(),
+                        TimeUnit.MICROSECONDS.toNanos(voidConfiguration.getOutboundBatchTimeout()), connectTimeout,
+                        autoFrames);
+        connection.setChannel(channel);
+        channels.add(channel);
+        return channel;
+    }
+
+    /**
+     * This method starts publisher thread
+     *
+     * @param name thread name
+     */
+    public synchronized void start(@NonNull String name) {
+        if (runner != null)
+            return;
+
+        runner = new AgentRunner(new BackoffIdleStrategy(100, 10, TimeUnit.MICROSECONDS.toNanos(1),
+                        TimeUnit.MICROSECONDS.toNanos(100)), (throwable) -> log.error("Publisher error", throwable),
+                        null, this);
+
+        Thread thread = new Thread(runner);
+        thread.setDaemon(true);
+        thread.setName(name);
+        thread.start();
+    }
+
+    @Override
+    public int doWork() throws Exception {
+        long now = System.nanoTime();
+        int work = 0;
+        for (OutboundChannel channel : channels)
+            work += channel.doWork(now, CHANNEL_LIMIT);
+
+        return work;
+    }
+
+    /**
+     * This method returns true, if given taskId belongs to Frame created by this publisher.
+     * Such ids are forgotten after this call, since FrameCompleteMessage arrives only once.
+     *
+     * @param taskId
+     * @return
+     */
+    public boolean consumeFrameCompletion(long taskId) {
+        return autoFrames.remove(taskId);
+    }
+
+    /**
+     * This method blocks until all channels are drained, or timeout is reached
+     *
+     * @param timeout timeout, in milliseconds
+     * @return true if everything was sent
+     */
+    public boolean flush(long timeout) {
+        long deadline = System.currentTimeMillis() + timeout;
+        BackoffIdleStrategy idler = new BackoffIdleStrategy(10, 10, TimeUnit.MICROSECONDS.toNanos(1),
+                        TimeUnit.MILLISECONDS.toNanos(1));
+        while (System.currentTimeMillis() < deadline) {
+            boolean idle = true;
+            for (OutboundChannel channel : channels)
+                idle &= channel.isIdle();
+
+            if (idle)
+                return true;
+
+            idler.idle();
+        }
+        return false;
+    }
+
+    /**
+     * This method returns outbound statistics: totals, and queue depth per remote node
+     *
+     * @return
+     */
+    public Map<String, Number> status() {
+        Map<String, Number> ret = new LinkedHashMap<>();
+        long sentMessages = 0, sentFrames = 0, retries = 0, backPressure = 0, queueFull = 0, dropped = 0;
+        int queued = 0;
+        for (OutboundChannel channel : channels) {
+            int depth = channel.queueDepth();
+            ret.put("queueDepth." + channel.getConnection().getIp() + ":" + channel.getConnection().getPort(), depth);
+            queued += depth;
+            sentMessages += channel.sentMessages();
+            sentFrames += channel.sentFrames();
+            retries += channel.retries();
+            backPressure += channel.backPressureEvents();
+            queueFull += channel.queueFullEvents();
+            dropped += channel.droppedMessages();
+        }
+
+        ret.put("queueDepth", queued);
+        ret.put("sentMessages", sentMessages);
+        ret.put("sentFrames", sentFrames);
+        ret.put("retries", retries);
+        ret.put("backPressureEvents", backPressure);
+        ret.put("queueFullEvents", queueFull);
+        ret.put("droppedMessages", dropped);
+        ret.put("pendingFrameCompletions", autoFrames.size());
+        return ret;
+    }
+
+    @Override
+    public void onClose() {
+        int undelivered = 0;
+        for (OutboundChannel channel : channels)
+            undelivered += channel.queueDepth();
+
+        if (undelivered > 0)
+            log.warn("Publisher stopped with {} undelivered message(s)", undelivered);
+    }
+
+    @Override
+    public String roleName() {
+        return "VoidParamServer publisher";
+    }
+
+    /**
+     * This method stops publisher thread
+     */
+    public synchronized void close() {
+        if (runner != null)
+            runner.close();
+        runner = null;
+    }
+}
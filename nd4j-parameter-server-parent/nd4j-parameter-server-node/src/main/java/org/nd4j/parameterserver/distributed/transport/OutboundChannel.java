@@ -0,0 +1,350 @@
+package org.nd4j.parameterserver.distributed.transport;
+
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.agrona.DirectBuffer;
+import org.agrona.concurrent.BackoffIdleStrategy;
+import org.agrona.concurrent.IdleStrategy;
+import org.agrona.concurrent.ManyToOneConcurrentArrayQueue;
+import org.nd4j.linalg.exception.ND4JIllegalStateException;
+import org.nd4j.parameterserver.distributed.logic.RetransmissionHandler;
+import org.nd4j.parameterserver.distributed.logic.sequence.BasicSequenceProvider;
+import org.nd4j.parameterserver.distributed.messages.Frame;
+import org.nd4j.parameterserver.distributed.messages.TrainingMessage;
+import org.nd4j.parameterserver.distributed.messages.VoidMessage;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Outbound queue for a single remote node.
+ *
+ * Any number of threads enqueue messages, and a single publisher thread
+ * ({@link MessagePublisher}) offers them to the Aeron publication. If the publication is back-pressured,
+ * the pending buffer is kept and retried on the next pass, so a slow node only delays messages for itself.
+ *
+ * Consecutive non-blocking TrainingMessages of the same class are stacked into a {@link Frame},
+ * until the message count or byte budget is reached, or the batch gets older than the latency budget.
+ *
+ * If a Shard can't be reached, or disconnects, undeliverable messages are dropped, and every following
+ * {@link #enqueue(VoidMessage)} for that Shard throws ND4JIllegalStateException, since Shards reassignment
+ * isn't implemented yet.
+ */
+@Slf4j
+public class OutboundChannel {
+    @Getter
+    protected final RoutedTransport.RemoteConnection connection;
+    protected final ManyToOneConcurrentArrayQueue<OutboundMessage> queue;
+    protected final boolean shard;
+    protected final long originatorId;
+    protected final int maxBatchMessages;
+    protected final int maxBatchBytes;
+    protected final long batchTimeoutNanos;
+    protected final long connectTimeoutNanos;
+    protected final Set<Long> autoFrames;
+
+    // publisher-side state, touched by publisher thread only
+    protected DirectBuffer pending;
+    protected int pendingMessages;
+    protected boolean pendingFrame;
+    protected long pendingSince;
+    protected boolean pressured;
+    protected OutboundMessage carry;
+    protected Frame<TrainingMessage> batch;
+    protected Class<?> batchClass;
+    protected int batchMessages;
+    protected int batchMessageBytes;
+    protected long batchStart;
+
+    // messages enqueued, but not sent or dropped yet. Updated by senders and publisher thread, read by anyone
+    protected final AtomicLong inFlight = new AtomicLong(0);
+    // set by publisher thread once Shard is unreachable, reported to senders
+    protected volatile String failure;
+
+    protected final AtomicLong sentMessages = new AtomicLong(0);
+    protected final AtomicLong sentFrames = new AtomicLong(0);
+    protected final AtomicLong retries = new AtomicLong(0);
+    protected final AtomicLong backPressureEvents = new AtomicLong(0);
+    protected final AtomicLong queueFullEvents = new AtomicLong(0);
+    protected final AtomicLong droppedMessages = new AtomicLong(0);
+
+    /**
+     *
+     * @param connection remote node
+     * @param shard true if remote node is Shard: undeliverable messages are reported to senders.
+     *              Messages to Clients are silently dropped
+     * @param originatorId originatorId of this node, used for Frames
+     * @param queueCapacity maximum number of queued messages, producers back off once it's reached
+     * @param maxBatchMessages maximum number of messages per Frame. Values below 2 disable batching
+     * @param maxBatchBytes maximum estimated Frame size
+     * @param batchTimeoutNanos maximum time a batch waits for more messages
+     * @param connectTimeoutNanos how long to retry messages to a node that was never connected
+     * @param autoFrames set of Frame ids created here. Their FrameCompleteMessages are consumed by the transport
+     */
+    public OutboundChannel(@NonNull RoutedTransport.RemoteConnection connection, boolean shard, long originatorId,
+                    int queueCapacity, int maxBatchMessages, int maxBatchBytes, long batchTimeoutNanos,
+                    long connectTimeoutNanos, @NonNull Set<Long> autoFrames) {
+        this.connection = connection;
+        this.shard = shard;
+        this.originatorId = originatorId;
+        this.queue = new ManyToOneConcurrentArrayQueue<>(queueCapacity);
+        this.maxBatchMessages = maxBatchMessages;
+        this.maxBatchBytes = maxBatchBytes;
+        this.batchTimeoutNanos = batchTimeoutNanos;
+        this.connectTimeoutNanos = connectTimeoutNanos;
+        this.autoFrames = autoFrames;
+    }
+
+    /**
+     * This method enqueues message for delivery, backing off while the queue is full.
+     *
+     * PLEASE NOTE: messages eligible for batching are serialized on publisher thread, everything else is serialized here
+     *
+     * @param message
+     */
+    public void enqueue(@NonNull VoidMessage message) {
+        enqueue(message, isBatchable(message) ? null : message.asUnsafeBuffer());
+    }
+
+    /**
+     * This method enqueues already serialized message, i.e. the same buffer sent to multiple nodes
+     *
+     * @param message
+     * @param buffer serialized message, or null if message should be serialized by publisher thread
+     */
+    public void enqueue(@NonNull VoidMessage message, DirectBuffer buffer) {
+        checkFailure();
+
+        OutboundMessage outbound = new OutboundMessage(message, buffer);
+        inFlight.incrementAndGet();
+        if (queue.offer(outbound))
+            return;
+
+        queueFullEvents.incrementAndGet();
+        IdleStrategy backoff = new BackoffIdleStrategy(10, 10, TimeUnit.MICROSECONDS.toNanos(1),
+                        TimeUnit.MILLISECONDS.toNanos(1));
+        while (!queue.offer(outbound)) {
+            if (Thread.currentThread().isInterrupted() || failure != null) {
+                inFlight.decrementAndGet();
+                checkFailure();
+                throw new ND4JIllegalStateException("Interrupted while waiting for outbound queue of ["
+                                + connection.getIp() + ":" + connection.getPort() + "]");
+            }
+            backoff.idle();
+        }
+    }
+
+    /**
+     * This method throws ND4JIllegalStateException if remote Shard was found unreachable
+     */
+    public void checkFailure() {
+        String reason = failure;
+        if (reason != null)
+            throw new ND4JIllegalStateException(reason);
+    }
+
+    protected boolean isBatchable(VoidMessage message) {
+        return maxBatchMessages > 1 && message instanceof TrainingMessage && !(message instanceof Frame)
+                        && !message.isBlockingMessage();
+    }
+
+    /**
+     * This method is called by publisher thread only
+     *
+     * @param now current System.nanoTime()
+     * @param limit maximum number of messages taken from the queue, so other nodes aren't starved
+     * @return number of messages taken from the queue or sent
+     */
+    public int doWork(long now, int limit) {
+        int work = 0;
+        int polled = 0;
+        while (true) {
+            if (pending != null) {
+                if (!offerPending(now))
+                    return work;
+                work++;
+            }
+
+            OutboundMessage next = carry;
+            carry = null;
+            if (next == null && polled < limit) {
+                next = queue.poll();
+                if (next != null) {
+                    polled++;
+                    work++;
+                }
+            }
+
+            if (next == null) {
+                // nothing else to take for now, batch is sent once its latency budget is spent
+                if (batch != null && now - batchStart >= batchTimeoutNanos) {
+                    sealBatch(now);
+                    continue;
+                }
+                return work;
+            }
+
+            if (next.buffer != null) {
+                // messages are delivered in order, so open batch goes first
+                if (batch != null) {
+                    carry = next;
+                    sealBatch(now);
+                } else
+                    setPending(next.buffer, 1, false, now);
+                continue;
+            }
+
+            if (batch != null && batchClass != next.message.getClass()) {
+                carry = next;
+                sealBatch(now);
+                continue;
+            }
+
+            if (batch == null) {
+                batch = new Frame<>(BasicSequenceProvider.getInstance().getNextValue());
+                batchClass = next.message.getClass();
+                batchMessages = 0;
+                batchStart = now;
+                // messages of the same class have similar size, so the first one is used as estimate
+                batchMessageBytes = next.message.asBytes().length;
+            }
+
+            batch.stackMessage((TrainingMessage) next.message);
+            batchMessages++;
+
+            if (batchMessages >= maxBatchMessages || (long) batchMessages * batchMessageBytes >= maxBatchBytes)
+                sealBatch(now);
+        }
+    }
+
+    protected void sealBatch(long now) {
+        if (batchMessages == 1) {
+            // there's no reason to wrap single message into Frame
+            TrainingMessage message = batch.getMessages().iterator().next();
+            message.setFrameId(0L);
+            setPending(message.asUnsafeBuffer(), 1, false, now);
+        } else {
+            batch.setOriginatorId(originatorId);
+            batch.setTargetId(batch.getMessages().iterator().next().getTargetId());
+            autoFrames.add(batch.getTaskId());
+            setPending(batch.asUnsafeBuffer(), batchMessages, true, now);
+        }
+
+        batch = null;
+        batchClass = null;
+        batchMessages = 0;
+    }
+
+    protected void setPending(DirectBuffer buffer, int messages, boolean frame, long now) {
+        pending = buffer;
+        pendingMessages = messages;
+        pendingFrame = frame;
+        pendingSince = now;
+    }
+
+    protected long offer(DirectBuffer buffer) {
+        return connection.getPublication().offer(buffer);
+    }
+
+    protected boolean offerPending(long now) {
+        RetransmissionHandler.TransmissionStatus status = RetransmissionHandler.getTransmissionStatus(offer(pending));
+
+        switch (status) {
+            case MESSAGE_SENT: {
+                connection.getActivated().set(true);
+                sentMessages.addAndGet(pendingMessages);
+                if (pendingFrame)
+                    sentFrames.incrementAndGet();
+                pending = null;
+                inFlight.addAndGet(-pendingMessages);
+                pressured = false;
+                return true;
+            }
+            case ADMIN_ACTION:
+            case BACKPRESSURE: {
+                if (!pressured)
+                    backPressureEvents.incrementAndGet();
+                pressured = true;
+                retries.incrementAndGet();
+                return false;
+            }
+            case NOT_CONNECTED:
+            default: {
+                // node wasn't connected yet, so we keep trying for a while, unless it's known to be unreachable
+                if (failure == null && !connection.getActivated().get() && now - pendingSince < connectTimeoutNanos) {
+                    retries.incrementAndGet();
+                    return false;
+                }
+
+                if (shard && failure == null) {
+                    // senders get this on their next enqueue
+                    failure = connection.getActivated().get()
+                                    ? "Shard [" + connection.getIp() + ":" + connection.getPort()
+                                                    + "] disconnected. Shards reassignment is to be implemented yet"
+                                    : "Can't connect to Shard: [" + connection.getIp() + ":" + connection.getPort()
+                                                    + "]";
+                    log.error("{}, {} message(s) dropped", failure, pendingMessages);
+                }
+
+                // client dead? we can't do too much here
+                droppedMessages.addAndGet(pendingMessages);
+                pending = null;
+                pressured = false;
+                inFlight.addAndGet(-pendingMessages);
+                return true;
+            }
+        }
+    }
+
+    /**
+     * @return number of messages waiting in the queue
+     */
+    public int queueDepth() {
+        return queue.size();
+    }
+
+    /**
+     * This method can be called from any thread
+     *
+     * @return true if there are no queued, batched or pending messages
+     */
+    public boolean isIdle() {
+        return inFlight.get() == 0;
+    }
+
+    public long sentMessages() {
+        return sentMessages.get();
+    }
+
+    public long sentFrames() {
+        return sentFrames.get();
+    }
+
+    public long retries() {
+        return retries.get();
+    }
+
+    public long backPressureEvents() {
+        return backPressureEvents.get();
+    }
+
+    public long queueFullEvents() {
+        return queueFullEvents.get();
+    }
+
+    public long droppedMessages() {
+        return droppedMessages.get();
+    }
+
+    protected static class OutboundMessage {
+        protected final VoidMessage message;
+        protected final DirectBuffer buffer;
+
+        protected OutboundMessage(VoidMessage message, DirectBuffer buffer) {
+            this.message = message;
+            this.buffer = buffer;
+        }
+    }
+}
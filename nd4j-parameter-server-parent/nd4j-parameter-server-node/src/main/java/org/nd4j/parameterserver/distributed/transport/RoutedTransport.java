@@ -16,9 +16,9 @@ import org.nd4j.linalg.util.HashUtil;
 import org.nd4j.parameterserver.distributed.conf.VoidConfiguration;
 import org.nd4j.parameterserver.distributed.enums.NodeRole;
 import org.nd4j.parameterserver.distributed.logic.ClientRouter;
-import org.nd4j.parameterserver.distributed.logic.RetransmissionHandler;
 import org.nd4j.parameterserver.distributed.logic.completion.Clipboard;
 import org.nd4j.parameterserver.distributed.messages.*;
+import org.nd4j.parameterserver.distributed.messages.complete.FrameCompleteMessage;
 import org.nd4j.parameterserver.distributed.messages.requests.IntroductionRequestMessage;
 import org.nd4j.parameterserver.distributed.logic.routing.InterleavedRouter;
 
@@ -27,7 +27,6 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
-import java.util.concurrent.locks.LockSupport;
 
 import static java.lang.System.setProperty;
 
@@ -44,6 +43,7 @@ public class RoutedTransport extends BaseTransport {
     @Getter
     @Setter
     protected ClientRouter router;
+    protected MessagePublisher publisher;
 
     public RoutedTransport() {
         //
@@ -82,6 +82,12 @@ public class RoutedTransport extends BaseTransport {
             ip = localIp;
             port = localPort;
         }
+        this.originatorId = HashUtil.getLongHash(this.getIp() + ":" + this.getPort());
+
+        // all outgoing messages are sent by publisher thread
+        publisher = new MessagePublisher(voidConfiguration, originatorId);
+        publisher.start("VoidParamServer publisher [" + nodeRole + "]");
+
         unicastChannelUri = "aeron:udp?endpoint=" + ip + ":" + port;
         subscriptionForClients = aeron.addSubscription(unicastChannelUri, voidConfiguration.getStreamId());
         //clean shut down
@@ -120,6 +126,7 @@ public class RoutedTransport extends BaseTransport {
             RemoteConnection connection = RemoteConnection.builder().ip(remoteIp).port(remotePort)
                             .publication(publication).locker(new Object()).build();
 
+            publisher.register(connection, true);
             shards.add(connection);
         }
 
@@ -159,7 +166,6 @@ public class RoutedTransport extends BaseTransport {
         }
 
         router.init(voidConfiguration, this);
-        this.originatorId = HashUtil.getLongHash(this.getIp() + ":" + this.getPort());
     }
 
 
@@ -175,7 +181,7 @@ public class RoutedTransport extends BaseTransport {
 
         //final StringBuilder builder = new StringBuilder("Got message from: [").append(message.getOriginatorId()).append("]; Resend: {");
 
-        clients.values().parallelStream().filter(rc -> {
+        clients.values().stream().filter(rc -> {
             // do not send message back to yourself :)
             if (rc.getLongHash() == this.originatorId || rc.getLongHash() == 0) {
                 //                builder.append(", SKIP: ").append(rc.getLongHash());
@@ -196,53 +202,7 @@ public class RoutedTransport extends BaseTransport {
             return true;
         }).forEach((rc) -> {
             //      log.info("Sending message to {}", rc.getLongHash());
-
-            RetransmissionHandler.TransmissionStatus res;
-            long retr = 0;
-            boolean delivered = false;
-
-            while (!delivered) {
-                // still stupid. maybe use real reentrant lock here?
-                synchronized (rc.locker) {
-                    res = RetransmissionHandler.getTransmissionStatus(rc.getPublication().offer(buffer));
-                }
-
-                switch (res) {
-                    case NOT_CONNECTED: {
-                        if (!rc.getActivated().get()) {
-                            retr++;
-
-                            if (retr > 20)
-                                throw new ND4JIllegalStateException(
-                                                "Can't connect to Shard: [" + rc.getPublication().channel() + "]");
-
-                            try {
-                                //Thread.sleep(voidConfiguration.getRetransmitTimeout());
-                                LockSupport.parkNanos(voidConfiguration.getRetransmitTimeout() * 1000000);
-                            } catch (Exception e) {
-                                throw new RuntimeException(e);
-                            }
-                        } else {
-                            throw new ND4JIllegalStateException("Shards reassignment is to be implemented yet");
-                        }
-                    }
-                        break;
-                    case ADMIN_ACTION:
-                    case BACKPRESSURE: {
-                        try {
-                            //Thread.sleep(voidConfiguration.getRetransmitTimeout());
-                            LockSupport.parkNanos(voidConfiguration.getRetransmitTimeout() * 1000000);
-                        } catch (Exception e) {
-                            throw new RuntimeException(e);
-                        }
-                    }
-                        break;
-                    case MESSAGE_SENT:
-                        delivered = true;
-                        rc.getActivated().set(true);
-                        break;
-                }
-            }
+            rc.getChannel().enqueue(message, buffer);
         });
 
         //s   log.info("RESULT: {}", builder.toString());
@@ -271,12 +231,7 @@ public class RoutedTransport extends BaseTransport {
 
         final DirectBuffer buffer = message.asUnsafeBuffer();
 
-        // TODO: check which approach is faster, lambda, direct roll through list, or queue approach
-        shards.parallelStream().forEach((rc) -> {
-            RetransmissionHandler.TransmissionStatus res;
-            long retr = 0;
-            boolean delivered = false;
-
+        shards.forEach((rc) -> {
             long address = HashUtil.getLongHash(rc.getIp() + ":" + rc.getPort());
             if (originatorId == address) {
                 // this is local delivery
@@ -289,46 +244,7 @@ public class RoutedTransport extends BaseTransport {
             }
 
             //      log.info("Trying to send [{}] to {}", message.getClass().getSimpleName(), address);
-            while (!delivered) {
-                synchronized (rc.locker) {
-                    res = RetransmissionHandler.getTransmissionStatus(rc.getPublication().offer(buffer));
-                }
-
-                switch (res) {
-                    case NOT_CONNECTED: {
-                        if (!rc.getActivated().get()) {
-                            retr++;
-
-                            if (retr > 20)
-                                throw new ND4JIllegalStateException(
-                                                "Can't connect to Shard: [" + rc.getPublication().channel() + "]");
-
-                            try {
-                                Thread.sleep(voidConfiguration.getRetransmitTimeout());
-                            } catch (Exception e) {
-                            }
-                        } else {
-                            throw new ND4JIllegalStateException("Shards reassignment is to be implemented yet");
-                        }
-                    }
-                        break;
-                    case ADMIN_ACTION:
-                    case BACKPRESSURE: {
-                        try {
-                            Thread.sleep(voidConfiguration.getRetransmitTimeout());
-                        } catch (Exception e) {
-                        }
-                    }
-                        break;
-                    case MESSAGE_SENT:
-                        delivered = true;
-                        rc.getActivated().set(true);
-                        break;
-                }
-
-                if (!delivered)
-                    log.info("Attempting to resend message");
-            }
+            rc.getChannel().enqueue(message, buffer);
         });
     }
 
@@ -346,16 +262,14 @@ public class RoutedTransport extends BaseTransport {
         long targetAddress = message.getOriginatorId();
 
         if (targetAddress == originatorId) {
-            completed.put(message.getTaskId(), (MeaningfulMessage) message);
+            if (!isAutoFrameCompletion(message))
+                completed.put(message.getTaskId(), (MeaningfulMessage) message);
             return;
         }
 
-        RetransmissionHandler.TransmissionStatus result;
-
         //log.info("sI_{} trying to send back {}/{}", shardIndex, targetAddress, message.getClass().getSimpleName());
 
         RemoteConnection connection = clients.get(targetAddress);
-        boolean delivered = false;
 
         if (connection == null) {
             log.info("Can't get client with address [{}]", targetAddress);
@@ -363,35 +277,8 @@ public class RoutedTransport extends BaseTransport {
             throw new RuntimeException();
         }
 
-        while (!delivered) {
-            synchronized (connection.locker) {
-                result = RetransmissionHandler
-                                .getTransmissionStatus(connection.getPublication().offer(message.asUnsafeBuffer()));
-            }
-
-            switch (result) {
-                case ADMIN_ACTION:
-                case BACKPRESSURE: {
-                    try {
-                        Thread.sleep(voidConfiguration.getRetransmitTimeout());
-                    } catch (Exception e) {
-                    }
-                }
-                    break;
-                case NOT_CONNECTED: {
-                    // client dead? sleep and forget
-                    // TODO: we might want to delay this message & move it to separate queue?
-                    try {
-                        Thread.sleep(voidConfiguration.getRetransmitTimeout());
-                    } catch (Exception e) {
-                    }
-                }
-                // do not break here, we can't do too much here, if client is dead
-                case MESSAGE_SENT:
-                    delivered = true;
-                    break;
-            }
-        }
+        // if client is dead, message will be discarded by publisher
+        connection.getChannel().enqueue(message);
     }
 
     @Override
@@ -406,6 +293,9 @@ public class RoutedTransport extends BaseTransport {
 
     @Override
     protected void shutdownSilent() {
+        // publisher goes first, it uses publications
+        publisher.close();
+
         // closing shards
         shards.forEach((rc) -> {
             rc.getPublication().close();
@@ -425,6 +315,10 @@ public class RoutedTransport extends BaseTransport {
 
     @Override
     public void shutdown() {
+        // we give queued messages a chance to be delivered
+        if (!publisher.flush(voidConfiguration.getRetransmitTimeout()))
+            log.warn("Outbound queues weren't drained: {}", publisher.status());
+
         runner.set(false);
 
         if (threadB != null)
@@ -454,52 +348,30 @@ public class RoutedTransport extends BaseTransport {
 
         //log.info("sI_{} {}: message class: {}", shardIndex, nodeRole, message.getClass().getSimpleName());
 
-        RetransmissionHandler.TransmissionStatus result;
-
         int targetShard = router.assignTarget(message);
 
         //log.info("Sending message {} to shard {}", message.getClass().getSimpleName(), targetShard);
-        boolean delivered = false;
-        RemoteConnection connection = shards.get(targetShard);
+        shards.get(targetShard).getChannel().enqueue(message);
+    }
 
-        while (!delivered) {
-            synchronized (connection.locker) {
-                result = RetransmissionHandler
-                                .getTransmissionStatus(connection.getPublication().offer(message.asUnsafeBuffer()));
-            }
+    /**
+     * This method checks, if given message confirms Frame packed by publisher. Nobody waits for such confirmations.
+     *
+     * @param message
+     * @return
+     */
+    protected boolean isAutoFrameCompletion(VoidMessage message) {
+        return message instanceof FrameCompleteMessage && publisher != null
+                        && publisher.consumeFrameCompletion(message.getTaskId());
+    }
 
-            switch (result) {
-                case BACKPRESSURE:
-                case ADMIN_ACTION: {
-                    // we just sleep, and retransmit again later
-                    try {
-                        Thread.sleep(voidConfiguration.getRetransmitTimeout());
-                    } catch (Exception e) {
-                    }
-                }
-                    break;
-                case NOT_CONNECTED:
-                    /*
-                        two possible cases here:
-                        1) We hadn't sent any messages to this Shard before
-                        2) It was active before, and suddenly died
-                     */
-                    if (!connection.getActivated().get()) {
-                        // wasn't initialized before, just sleep and re-transmit
-                        try {
-                            Thread.sleep(voidConfiguration.getRetransmitTimeout());
-                        } catch (Exception e) {
-                        }
-                    } else {
-                        throw new ND4JIllegalStateException("Shards reassignment is to be implemented yet");
-                    }
-                    break;
-                case MESSAGE_SENT:
-                    delivered = true;
-                    connection.getActivated().set(true);
-                    break;
-            }
-        }
+    /**
+     * This method returns outbound statistics: queue depth per remote node, retries, back pressure events, messages and Frames sent
+     *
+     * @return
+     */
+    public Map<String, Number> outboundStatus() {
+        return publisher.status();
     }
 
     /**
@@ -527,6 +399,9 @@ public class RoutedTransport extends BaseTransport {
         //    log.info("sI_{} got {} messages", shardIndex, messages.size());
 
         if (message instanceof MeaningfulMessage) {
+            if (isAutoFrameCompletion(message))
+                return;
+
             MeaningfulMessage msg = (MeaningfulMessage) message;
             completed.put(message.getTaskId(), msg);
         } else if (message instanceof RequestMessage) {
@@ -599,6 +474,7 @@ public class RoutedTransport extends BaseTransport {
                         .longHash(hash).locker(new Object()).activated(new AtomicBoolean(false)).build();
 
         log.info("sI_{} {}: Adding SHARD: [{}] to {}:{}", shardIndex, nodeRole, hash, ip, port);
+        publisher.register(connection, true);
         shards.add(connection);
     }
 
@@ -615,6 +491,7 @@ public class RoutedTransport extends BaseTransport {
 
 
         log.info("sI_{} {}: Adding connection: [{}] to {}:{}", shardIndex, nodeRole, hash, ip, port);
+        publisher.register(connection, false);
         this.clients.put(hash, connection);
         log.info("sI_{} {}: Known clients: {}", shardIndex, nodeRole, clients.keySet());
     }
@@ -629,6 +506,7 @@ public class RoutedTransport extends BaseTransport {
         private Object locker;
         private AtomicBoolean activated;
         protected long longHash;
+        private OutboundChannel channel;
 
 
 
@@ -0,0 +1,84 @@
+package org.nd4j.parameterserver.distributed.logic.storage;
+
+import org.junit.Test;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.linalg.indexing.NDArrayIndex;
+import org.nd4j.parameterserver.distributed.enums.RowLockingMode;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class EmbeddingStorageTest {
+
+    @Test
+    public void testGatherScatter() {
+        EmbeddingStorage storage = new EmbeddingStorage();
+        storage.setArray(WordVectorStorage.SYN_0, Nd4j.linspace(1, 12, 12).reshape(4, 3));
+        EmbeddingTable table = storage.getTable(WordVectorStorage.SYN_0);
+
+        assertTrue(table.isHogwild());
+        assertEquals(Nd4j.create(new double[][] {{7, 8, 9}, {1, 2, 3}}), table.gather(2, 0));
+
+        // duplicate rows are accumulated
+        table.scatterAdd(new int[] {1, 3, 1}, Nd4j.ones(3, 3));
+        assertEquals(Nd4j.create(new double[] {6, 7, 8}), table.getTable().getRow(1));
+        assertEquals(Nd4j.create(new double[] {11, 12, 13}), table.getTable().getRow(3));
+        assertEquals(Nd4j.create(new double[] {1, 2, 3}), table.getTable().getRow(0));
+
+        table.axpyRow(0, 2.0, Nd4j.create(new double[] {1, 1, 1}));
+        assertEquals(Nd4j.create(new double[] {3, 4, 5}), table.getTable().getRow(0));
+
+        INDArray result = Nd4j.create(3, 1);
+        table.dot(Nd4j.create(new double[] {1, 0, 1}), new int[] {2, 0, 3}, 1, 3, result);
+        assertEquals(0.0, result.getDouble(0), 1e-5);
+        assertEquals(8.0, result.getDouble(1), 1e-5);
+        assertEquals(24.0, result.getDouble(2), 1e-5);
+    }
+
+    @Test
+    public void testContiguousCopy() {
+        INDArray source = Nd4j.linspace(1, 20, 20).reshape(4, 5);
+        INDArray view = source.get(NDArrayIndex.all(), NDArrayIndex.interval(1, 4));
+
+        EmbeddingStorage storage = new EmbeddingStorage();
+        storage.setArray(WordVectorStorage.SYN_1, view);
+
+        INDArray stored = storage.getArray(WordVectorStorage.SYN_1);
+        assertFalse(stored.isView());
+        assertEquals('c', stored.ordering());
+        assertEquals(view, stored);
+        assertNotNull(storage.getTable(WordVectorStorage.SYN_1));
+    }
+
+    @Test
+    public void testStripedUpdates() throws Exception {
+        EmbeddingStorage storage = new EmbeddingStorage(RowLockingMode.STRIPED, 4);
+        storage.setArray(WordVectorStorage.SYN_0, Nd4j.zeros(16, 8));
+        EmbeddingTable table = storage.getTable(WordVectorStorage.SYN_0);
+        assertFalse(table.isHogwild());
+
+        int[] rows = new int[] {0, 5, 5, 15};
+        INDArray updates = Nd4j.ones(4, 8);
+
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < 1000; i++)
+                    table.scatterAdd(rows, updates);
+            });
+            threads.add(thread);
+            thread.start();
+        }
+
+        for (Thread thread : threads)
+            thread.join();
+
+        assertEquals(4000.0, table.getTable().getRow(0).meanNumber().doubleValue(), 1e-5);
+        assertEquals(8000.0, table.getTable().getRow(5).meanNumber().doubleValue(), 1e-5);
+        assertEquals(4000.0, table.getTable().getRow(15).meanNumber().doubleValue(), 1e-5);
+        assertEquals(0.0, table.getTable().getRow(1).sumNumber().doubleValue(), 1e-5);
+    }
+}
@@ -6,9 +6,13 @@ import org.junit.Before;
 import org.junit.Test;
 import org.nd4j.linalg.api.ndarray.INDArray;
 import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.linalg.indexing.NDArrayIndex;
+import org.nd4j.parameterserver.distributed.messages.VoidMessage;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Random;
 
 import static org.junit.Assert.*;
 
@@ -143,4 +147,74 @@ public class VoidAggregationTest {
         assertEquals(exp, result);
     }
 
+    /**
+     * Chunks arrive in random order, and the last shard holds a few more columns than the others
+     *
+     * @throws Exception
+     */
+    @Test
+    public void getAccumulatedResultUnordered1() throws Exception {
+        short nodes = 7;
+        int vectorLength = 100;
+        int columnsPerShard = vectorLength / nodes;
+        INDArray exp = Nd4j.linspace(0, vectorLength - 1, vectorLength);
+
+        List<VectorAggregation> aggregations = new ArrayList<>();
+        for (int i = 0; i < nodes; i++) {
+            int from = i * columnsPerShard;
+            int to = i == nodes - 1 ? vectorLength : from + columnsPerShard;
+            aggregations.add(new VectorAggregation(1L, nodes, (short) i,
+                            exp.get(NDArrayIndex.all(), NDArrayIndex.interval(from, to))));
+        }
+        Collections.shuffle(aggregations, new Random(119));
+
+        VectorAggregation aggregation = aggregations.get(0);
+        for (VectorAggregation vectorAggregation : aggregations) {
+            assertNotEquals(0, aggregation.getMissingChunks());
+            aggregation.accumulateAggregation(vectorAggregation);
+        }
+
+        // duplicates are ignored
+        aggregation.accumulateAggregation(aggregations.get(1));
+
+        assertEquals(0, aggregation.getMissingChunks());
+        assertEquals(exp, aggregation.getAccumulatedResult());
+    }
+
+    /**
+     * Aggregations received over the wire have no transient state
+     *
+     * @throws Exception
+     */
+    @Test
+    public void getAccumulatedResultSerialized1() throws Exception {
+        VectorAggregation first = new VectorAggregation(1L, (short) 2, (short) 1, Nd4j.create(new double[] {3, 4}));
+        VectorAggregation second = new VectorAggregation(1L, (short) 2, (short) 0, Nd4j.create(new double[] {1, 2}));
+
+        VectorAggregation aggregation = (VectorAggregation) VoidMessage.fromBytes(first.asBytes());
+        aggregation.accumulateAggregation((VectorAggregation) VoidMessage.fromBytes(second.asBytes()));
+
+        assertEquals(0, aggregation.getMissingChunks());
+        assertEquals(Nd4j.create(new double[] {1, 2, 3, 4}), aggregation.getAccumulatedResult());
+    }
+
+    @Test
+    public void getDotAggregationBuffers1() throws Exception {
+        int pooled = AggregationBuffers.pooled(5, 1);
+        INDArray exp = Nd4j.create(5, 1).assign(NODES);
+
+        for (int round = 0; round < 3; round++) {
+            DotAggregation aggregation = new DotAggregation(round, NODES, (short) 0, Nd4j.ones(5, 1));
+            for (short i = 1; i < NODES; i++)
+                aggregation.accumulateAggregation(new DotAggregation(round, NODES, i, Nd4j.ones(5, 1)));
+
+            assertEquals(exp, aggregation.getAccumulatedResult());
+            // result is cached
+            assertEquals(exp, aggregation.getAccumulatedResult());
+
+            // accumulator is reused between rounds
+            assertEquals(pooled + 1, AggregationBuffers.pooled(5, 1));
+        }
+    }
+
 }
@@ -0,0 +1,74 @@
+package org.nd4j.parameterserver.distributed.simulator;
+
+import org.junit.Test;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.factory.Nd4j;
+
+import static org.junit.Assert.*;
+
+public class SimulatedClusterTest {
+
+    @Test(timeout = 120000L)
+    public void testSkipGram() {
+        SimulationConfiguration configuration = SimulationConfiguration.builder().numberOfShards(2)
+                        .numberOfClients(2).iterations(10).frameSize(16).numberOfWords(1000)
+                        .networkConditions(NetworkConditions.builder().latencyMicros(500).jitterMicros(100).build())
+                        .basePort(41200).build();
+
+        try (SimulatedCluster cluster = new SimulatedCluster(configuration)) {
+            SimulationReport report = cluster.run();
+
+            assertEquals(20, report.getOperations());
+            assertEquals(0, report.getFailures());
+            assertEquals(20 * 16, report.getElements());
+            assertTrue(report.getP50() > 0);
+            assertTrue(report.getP50() <= report.getP99());
+            assertTrue(report.getSentMessages() > 0);
+        }
+    }
+
+    @Test(timeout = 60000L)
+    public void testDenseSync() {
+        SimulationConfiguration configuration = SimulationConfiguration.builder().numberOfShards(3)
+                        .numberOfClients(2).iterations(5).denseLength(1000)
+                        .workload(SimulationConfiguration.Workload.DENSE).build();
+
+        try (SimulatedCluster cluster = new SimulatedCluster(configuration)) {
+            SimulationReport report = cluster.run();
+
+            assertEquals(10, report.getOperations());
+            assertEquals(10 * 1000, report.getElements());
+            assertEquals(30, report.getSentMessages());
+
+            // every Client pushed the same update 5 times
+            INDArray expected = Nd4j.rand(1, 1000, 119).muli(5)
+                            .addi(Nd4j.rand(1, 1000, 120).muli(5));
+            INDArray actual = Nd4j.hstack(cluster.getDenseSlice(0), cluster.getDenseSlice(1),
+                            cluster.getDenseSlice(2));
+            assertEquals(expected, actual);
+        }
+    }
+
+    @Test(timeout = 60000L)
+    public void testDenseLoss() {
+        SimulationConfiguration configuration = SimulationConfiguration.builder().numberOfShards(2)
+                        .numberOfClients(1).iterations(50).denseLength(100)
+                        .workload(SimulationConfiguration.Workload.DENSE)
+                        .updaterType(SimulationConfiguration.UpdaterType.SOFT_SYNC)
+                        .networkConditions(NetworkConditions.builder().lossProbability(0.5).build()).build();
+
+        long failures;
+        try (SimulatedCluster cluster = new SimulatedCluster(configuration)) {
+            SimulationReport report = cluster.run();
+            failures = report.getFailures();
+
+            assertEquals(50, report.getOperations() + report.getFailures());
+            assertTrue(report.getDroppedMessages() > 0);
+        }
+
+        // the same seed means the same messages are lost
+        try (SimulatedCluster cluster = new SimulatedCluster(configuration)) {
+            assertEquals(failures, cluster.run().getFailures());
+        }
+    }
+}
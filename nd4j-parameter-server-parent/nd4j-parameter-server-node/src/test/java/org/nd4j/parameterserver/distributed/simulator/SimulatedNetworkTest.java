@@ -0,0 +1,86 @@
+package org.nd4j.parameterserver.distributed.simulator;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class SimulatedNetworkTest {
+
+    private static List<Boolean> fates(NetworkConditions conditions, int messages) {
+        List<Boolean> fates = new ArrayList<>();
+        try (SimulatedNetwork network = new SimulatedNetwork(conditions, 1)) {
+            for (int i = 0; i < messages; i++) {
+                // interleaved sends over another link shouldn't affect this one
+                network.schedule(3L, 4L, 1, () -> {
+                });
+                fates.add(network.schedule(1L, 2L, 1, () -> {
+                }));
+            }
+        }
+        return fates;
+    }
+
+    @Test
+    public void testDeterministicLoss() {
+        NetworkConditions conditions = NetworkConditions.builder().lossProbability(0.3).seed(42).build();
+
+        List<Boolean> first = fates(conditions, 1000);
+        List<Boolean> second = fates(conditions, 1000);
+        assertEquals(first, second);
+
+        long delivered = first.stream().filter(b -> b).count();
+        assertTrue("Delivered: " + delivered, delivered > 600 && delivered < 800);
+
+        List<Boolean> other = fates(NetworkConditions.builder().lossProbability(0.3).seed(43).build(), 1000);
+        assertNotEquals(first, other);
+    }
+
+    @Test
+    public void testDelivery() throws Exception {
+        NetworkConditions conditions = NetworkConditions.builder().latencyMicros(20000).jitterMicros(1000).build();
+
+        try (SimulatedNetwork network = new SimulatedNetwork(conditions, 2)) {
+            CountDownLatch latch = new CountDownLatch(10);
+            long time1 = System.nanoTime();
+            for (int i = 0; i < 10; i++)
+                assertTrue(network.schedule(1L, 2L, 100, latch::countDown));
+
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+            long time2 = System.nanoTime();
+
+            assertTrue(TimeUnit.NANOSECONDS.toMillis(time2 - time1) >= 20);
+            assertEquals(10, network.sentMessages());
+            assertEquals(0, network.droppedMessages());
+            assertEquals(1000, network.sentBytes());
+        }
+    }
+
+    @Test
+    public void testTotalLoss() {
+        try (SimulatedNetwork network =
+                        new SimulatedNetwork(NetworkConditions.builder().lossProbability(1.0).build(), 1)) {
+            for (int i = 0; i < 10; i++)
+                assertFalse(network.schedule(1L, 2L, 1, () -> fail("Message should be dropped")));
+
+            assertEquals(10, network.droppedMessages());
+            assertEquals(0, network.deliveredMessages());
+        }
+    }
+
+    @Test
+    public void testPercentiles() {
+        LatencyRecorder recorder = new LatencyRecorder();
+        assertEquals(0, recorder.percentile(50));
+
+        for (int i = 2000; i >= 1; i--)
+            recorder.record(i);
+
+        assertEquals(2000, recorder.count());
+        assertArrayEquals(new long[] {1, 1000, 1980, 2000}, recorder.percentiles(0, 50, 99, 100));
+    }
+}
@@ -0,0 +1,192 @@
+package org.nd4j.parameterserver.distributed.transport;
+
+import io.aeron.Publication;
+import org.agrona.DirectBuffer;
+import org.junit.Test;
+import org.nd4j.linalg.exception.ND4JIllegalStateException;
+import org.nd4j.parameterserver.distributed.messages.Frame;
+import org.nd4j.parameterserver.distributed.messages.VoidMessage;
+import org.nd4j.parameterserver.distributed.messages.requests.IntroductionRequestMessage;
+import org.nd4j.parameterserver.distributed.messages.requests.SkipGramRequestMessage;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class OutboundChannelTest {
+
+    /**
+     * Channel that captures sent messages instead of offering them to Aeron
+     */
+    private static class CapturingChannel extends OutboundChannel {
+        private final List<VoidMessage> sent = new ArrayList<>();
+        private int backPressured;
+
+        private CapturingChannel(int maxBatchMessages, long batchTimeoutNanos, Set<Long> autoFrames) {
+            super(RoutedTransport.RemoteConnection.builder().ip("127.0.0.1").port(40123).build(), true, 119L, 64,
+                            maxBatchMessages, 1024 * 1024, batchTimeoutNanos, TimeUnit.SECONDS.toNanos(1),
+                            autoFrames);
+        }
+
+        @Override
+        protected long offer(DirectBuffer buffer) {
+            if (backPressured > 0) {
+                backPressured--;
+                return Publication.BACK_PRESSURED;
+            }
+
+            byte[] bytes = new byte[buffer.capacity()];
+            buffer.getBytes(0, bytes);
+            sent.add(VoidMessage.fromBytes(bytes));
+            return bytes.length;
+        }
+    }
+
+    private static SkipGramRequestMessage message(int w1) {
+        return new SkipGramRequestMessage(w1, w1 + 1, new int[] {1, 2}, new byte[] {0, 1}, (short) 0, 0.025, 119L);
+    }
+
+    @Test
+    public void testBatching() {
+        Set<Long> autoFrames = ConcurrentHashMap.newKeySet();
+        CapturingChannel channel = new CapturingChannel(4, 0, autoFrames);
+
+        for (int i = 0; i < 10; i++)
+            channel.enqueue(message(i));
+
+        channel.doWork(System.nanoTime(), 256);
+
+        // 4 + 4 + 2 messages
+        assertEquals(3, channel.sent.size());
+        int w1 = 0;
+        for (VoidMessage message : channel.sent) {
+            assertTrue(message instanceof Frame);
+            assertEquals(119L, message.getOriginatorId());
+            assertTrue(autoFrames.contains(message.getTaskId()));
+            for (Object sgrm : (Frame) message)
+                assertEquals(w1++, ((SkipGramRequestMessage) sgrm).getW1());
+        }
+        assertEquals(10, w1);
+        assertEquals(10, channel.sentMessages());
+        assertEquals(3, channel.sentFrames());
+        assertTrue(channel.isIdle());
+    }
+
+    @Test
+    public void testLatencyBudget() {
+        CapturingChannel channel = new CapturingChannel(128, TimeUnit.SECONDS.toNanos(10), ConcurrentHashMap.newKeySet());
+
+        channel.enqueue(message(0));
+        channel.enqueue(message(1));
+
+        long now = System.nanoTime();
+        channel.doWork(now, 256);
+        assertTrue(channel.sent.isEmpty());
+        assertFalse(channel.isIdle());
+
+        channel.doWork(now + TimeUnit.SECONDS.toNanos(11), 256);
+        assertEquals(1, channel.sent.size());
+        assertEquals(2, ((Frame) channel.sent.get(0)).size());
+    }
+
+    @Test
+    public void testOrderIsPreserved() {
+        CapturingChannel channel = new CapturingChannel(128, 0, ConcurrentHashMap.newKeySet());
+
+        channel.enqueue(message(0));
+        channel.enqueue(new IntroductionRequestMessage("127.0.0.1", 40124));
+        channel.enqueue(message(1));
+        channel.enqueue(message(2));
+
+        channel.doWork(System.nanoTime(), 256);
+
+        assertEquals(3, channel.sent.size());
+        // single message isn't wrapped into Frame
+        assertTrue(channel.sent.get(0) instanceof SkipGramRequestMessage);
+        assertEquals(0L, ((SkipGramRequestMessage) channel.sent.get(0)).getFrameId());
+        assertTrue(channel.sent.get(1) instanceof IntroductionRequestMessage);
+        assertEquals(2, ((Frame) channel.sent.get(2)).size());
+    }
+
+    @Test
+    public void testBackPressure() {
+        CapturingChannel channel = new CapturingChannel(1, 0, ConcurrentHashMap.newKeySet());
+        channel.backPressured = 3;
+
+        for (int i = 0; i < 5; i++)
+            channel.enqueue(message(i));
+
+        // first message is taken from the queue, and stays pending while publication is back-pressured
+        long now = System.nanoTime();
+        assertEquals(1, channel.doWork(now, 256));
+        for (int i = 0; i < 2; i++)
+            assertEquals(0, channel.doWork(now, 256));
+        assertEquals(4, channel.queueDepth());
+
+        channel.doWork(now, 256);
+        assertEquals(5, channel.sent.size());
+        for (int i = 0; i < 5; i++)
+            assertEquals(i, ((SkipGramRequestMessage) channel.sent.get(i)).getW1());
+
+        assertEquals(1, channel.backPressureEvents());
+        assertEquals(3, channel.retries());
+        assertEquals(0, channel.sentFrames());
+    }
+
+    @Test
+    public void testUnreachableShard() {
+        CapturingChannel channel = new CapturingChannel(1, 0, ConcurrentHashMap.newKeySet()) {
+            @Override
+            protected long offer(DirectBuffer buffer) {
+                return Publication.NOT_CONNECTED;
+            }
+        };
+
+        channel.enqueue(message(0));
+        channel.enqueue(message(1));
+
+        // shard that was never connected gets retried until connect timeout
+        long now = System.nanoTime();
+        channel.doWork(now, 256);
+        assertFalse(channel.isIdle());
+        assertEquals(0, channel.droppedMessages());
+
+        channel.doWork(now + TimeUnit.SECONDS.toNanos(2), 256);
+        assertTrue(channel.isIdle());
+        assertEquals(2, channel.droppedMessages());
+
+        // sender learns that messages can't be delivered
+        try {
+            channel.enqueue(message(2));
+            fail("Unreachable shard should be reported");
+        } catch (ND4JIllegalStateException e) {
+            assertTrue(e.getMessage().contains("127.0.0.1:40123"));
+        }
+    }
+
+    @Test
+    public void testQueueFull() throws Exception {
+        CapturingChannel channel = new CapturingChannel(1, 0, ConcurrentHashMap.newKeySet());
+
+        Thread producer = new Thread(() -> {
+            for (int i = 0; i < 1000; i++)
+                channel.enqueue(message(i));
+        });
+        producer.start();
+
+        // producer backs off once the queue is full
+        while (channel.queueDepth() < 64)
+            Thread.sleep(1);
+
+        while (producer.isAlive() || !channel.isIdle())
+            channel.doWork(System.nanoTime(), 16);
+
+        producer.join();
+        assertEquals(1000, channel.sent.size());
+        assertTrue(channel.queueFullEvents() > 0);
+    }
+}
@@ -85,6 +85,17 @@ public class RocksDbStorage extends BaseUpdateStorage implements AutoCloseable {
             }
         iterator.close();
         size = 0;
+        truncated = 0;
+    }
+
+    @Override
+    protected void doTruncate(int from, int to) {
+        for (int i = from; i < to; i++)
+            try {
+                db.remove(ByteBuffer.allocate(4).putInt(i).array());
+            } catch (RocksDBException e) {
+                throw new RuntimeException(e);
+            }
     }
 
     /**
@@ -5,7 +5,9 @@ import lombok.extern.slf4j.Slf4j;
 import org.nd4j.parameterserver.ParameterServerSubscriber;
 import org.nd4j.parameterserver.model.SubscriberState;
 
-import java.util.*;
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
@@ -14,42 +16,36 @@ import java.util.concurrent.TimeUnit;
  * Base status storage for storage logic
  * and scheduling of ejection of
  * instances indicating
- * failure
+ * failure.
+ *
+ * Live states are kept in a {@link StatusTable},
+ * so {@link #updateState(SubscriberState)} is O(1) and never does I/O.
+ * Storages persisting states get the changes in batches
+ * via {@link #persist(List, int[])}, on a background thread
+ * started by {@link #startSnapshots()}.
  *
  * @author Adam Gibson
  */
 @Slf4j
-public abstract class BaseStatusStorage implements StatusStorage {
-    protected Map<Integer, SubscriberState> statusStorageMap = createMap();
+public abstract class BaseStatusStorage implements StatusStorage, Closeable {
+    protected StatusTable statusTable;
     private ScheduledExecutorService executorService;
-    protected Map<Integer, Long> updated;
     private long heartBeatEjectionMilliSeconds = 1000;
     private long checkInterval = 1000;
+    private long snapshotInterval = 0;
 
     public BaseStatusStorage() {
         this(1000, 1000);
     }
 
     /**
-     * The list of state ids
-     * for the given {@link SubscriberState}
-     *
-     * @return the list of ids for the given state
-     */
-    @Override
-    public List<Integer> ids() {
-        return new ArrayList<>(statusStorageMap.keySet());
-    }
-
-    /**
-     * Returns the number of states
-     * held by this storage
      *
-     * @return
+     * @param heartBeatEjectionMilliSeconds the amount of time before
+     *                                      ejecting a given subscriber as failed
+     * @param checkInterval the interval to check for
      */
-    @Override
-    public int numStates() {
-        return statusStorageMap.size();
+    public BaseStatusStorage(long heartBeatEjectionMilliSeconds, long checkInterval) {
+        this(heartBeatEjectionMilliSeconds, checkInterval, 0);
     }
 
     /**
@@ -57,55 +53,90 @@ public abstract class BaseStatusStorage implements StatusStorage {
      * @param heartBeatEjectionMilliSeconds the amount of time before
      *                                      ejecting a given subscriber as failed
      * @param checkInterval the interval to check for
+     * @param snapshotInterval the interval between calls to {@link #persist(List, int[])},
+     *                         0 if states aren't persisted. Subclasses call {@link #startSnapshots()}
+     *                         once they are ready to persist
      */
-    public BaseStatusStorage(long heartBeatEjectionMilliSeconds, long checkInterval) {
+    public BaseStatusStorage(long heartBeatEjectionMilliSeconds, long checkInterval, long snapshotInterval) {
         this.heartBeatEjectionMilliSeconds = heartBeatEjectionMilliSeconds;
         this.checkInterval = checkInterval;
+        this.snapshotInterval = snapshotInterval;
         init();
     }
 
-
     private void init() {
-        updated = createUpdatedMap();
-        executorService = Executors.newScheduledThreadPool(1);
+        statusTable = new StatusTable(heartBeatEjectionMilliSeconds, checkInterval, snapshotInterval > 0);
+        executorService = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "StatusStorage");
+            thread.setDaemon(true);
+            return thread;
+        });
         //eject values that haven't checked in in a while
-        executorService.scheduleAtFixedRate(new Runnable() {
-            @Override
-            public void run() {
-                long curr = System.currentTimeMillis();
-                Set<Integer> remove = new HashSet<>();
-                for (Map.Entry<Integer, Long> entry : updated.entrySet()) {
-                    long val = entry.getValue();
-                    long diff = Math.abs(curr - val);
-                    if (diff > heartBeatEjectionMilliSeconds) {
-                        remove.add(entry.getKey());
-                    }
-                }
-
-                if (!remove.isEmpty())
-                    log.info("Removing " + remove.size() + " entries");
-                //purge removed values
-                for (Integer i : remove) {
-                    updated.remove(i);
-                    statusStorageMap.remove(i);
-                }
-
-            }
-        }, 30000, checkInterval, TimeUnit.MILLISECONDS);
+        executorService.scheduleAtFixedRate(() -> {
+            int removed = statusTable.advance(System.currentTimeMillis());
+            if (removed > 0)
+                log.info("Removing " + removed + " entries");
+        }, checkInterval, checkInterval, TimeUnit.MILLISECONDS);
     }
 
+    /**
+     * Start persisting changes every snapshot interval.
+     * Not done on construction, since changes drained
+     * before the subclass can persist them would be lost
+     */
+    protected void startSnapshots() {
+        if (snapshotInterval > 0)
+            executorService.scheduleWithFixedDelay(this::snapshot, snapshotInterval, snapshotInterval,
+                            TimeUnit.MILLISECONDS);
+    }
 
     /**
-     * Create the storage map
-     * @return
+     * Persist the changes since the last snapshot
      */
-    public abstract Map<Integer, Long> createUpdatedMap();
+    protected void snapshot() {
+        try {
+            List<SubscriberState> updated = new ArrayList<>();
+            int[][] ejected = new int[1][];
+            if (statusTable.drainChanges(updated, ejected) > 0)
+                persist(updated, ejected[0]);
+        } catch (Exception e) {
+            log.error("Unable to persist subscriber states", e);
+        }
+    }
+
+    /**
+     * Persist a batch of changes.
+     * Called on a background thread, never concurrently.
+     * Default no op
+     * @param updated the states updated since the last snapshot
+     * @param ejected the ids ejected since the last snapshot,
+     *                to remove before storing the updated states
+     */
+    protected void persist(List<SubscriberState> updated, int[] ejected) {
+        //default no op
+    }
+
+    /**
+     * The list of state ids
+     * for the given {@link SubscriberState}
+     *
+     * @return the list of ids for the given state
+     */
+    @Override
+    public List<Integer> ids() {
+        return statusTable.ids();
+    }
 
     /**
-     * Create the storage map
+     * Returns the number of states
+     * held by this storage
+     *
      * @return
      */
-    public abstract Map<Integer, SubscriberState> createMap();
+    @Override
+    public int numStates() {
+        return statusTable.size();
+    }
 
     /**
      * Get the state given an id.
@@ -121,9 +152,8 @@ public abstract class BaseStatusStorage implements StatusStorage {
      */
     @Override
     public SubscriberState getState(int id) {
-        if (!statusStorageMap.containsKey(id))
-            return SubscriberState.empty();
-        return statusStorageMap.get(id);
+        SubscriberState state = statusTable.get(id);
+        return state == null ? SubscriberState.empty() : state;
     }
 
     /**
@@ -133,8 +163,23 @@ public abstract class BaseStatusStorage implements StatusStorage {
      */
     @Override
     public void updateState(SubscriberState subscriberState) {
-        updated.put(subscriberState.getStreamId(), System.currentTimeMillis());
-        statusStorageMap.put(subscriberState.getStreamId(), subscriberState);
+        statusTable.update(subscriberState, System.currentTimeMillis());
+    }
+
+    /**
+     * Stop checking heartbeats,
+     * persisting the last changes
+     */
+    @Override
+    public void close() {
+        executorService.shutdown();
+        try {
+            executorService.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (snapshotInterval > 0)
+            snapshot();
     }
 
 }
@@ -1,11 +1,6 @@
 package org.nd4j.parameterserver.status.play;
 
 
-import org.nd4j.parameterserver.model.SubscriberState;
-
-import java.util.HashMap;
-import java.util.Map;
-
 /**
  * In memory status storage
  * for parameter server subscribers
@@ -13,18 +8,16 @@ import java.util.Map;
  */
 public class InMemoryStatusStorage extends BaseStatusStorage {
 
-    /**
-     * Create the storage map
-     *
-     * @return
-     */
-    @Override
-    public Map<Integer, Long> createUpdatedMap() {
-        return new HashMap<>();
+    public InMemoryStatusStorage() {
+        super();
     }
 
-    @Override
-    public Map<Integer, SubscriberState> createMap() {
-        return new HashMap<>();
+    /**
+     * @param heartBeatEjectionMilliSeconds the amount of time before
+     *                                      ejecting a given subscriber as failed
+     * @param checkInterval                 the interval to check for
+     */
+    public InMemoryStatusStorage(long heartBeatEjectionMilliSeconds, long checkInterval) {
+        super(heartBeatEjectionMilliSeconds, checkInterval);
     }
 }
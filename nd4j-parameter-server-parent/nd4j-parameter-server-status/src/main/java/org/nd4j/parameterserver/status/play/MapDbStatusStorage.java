@@ -1,23 +1,31 @@
 package org.nd4j.parameterserver.status.play;
 
-import io.aeron.driver.MediaDriver;
 import org.jetbrains.annotations.NotNull;
 import org.mapdb.*;
-import org.nd4j.parameterserver.ParameterServerSubscriber;
 import org.nd4j.parameterserver.model.SubscriberState;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
- * MapDB status storage
+ * MapDB status storage.
+ *
+ * Live states are kept in memory, and written to MapDB
+ * in batches every snapshot interval, so updates never wait for MapDB.
+ * States found in an existing storage file are loaded on startup
+ * (and ejected as usual unless their subscribers check in).
  *
  * @author Adam Gibson
  */
 public class MapDbStatusStorage extends BaseStatusStorage {
+    public static final long DEFAULT_SNAPSHOT_INTERVAL = 1000;
+
     private DB db;
     private File storageFile;
+    private Map<Integer, SubscriberState> statusStorageMap;
 
     /**
      * @param heartBeatEjectionMilliSeconds the amount of time before
@@ -25,37 +33,29 @@ public class MapDbStatusStorage extends BaseStatusStorage {
      * @param checkInterval                 the interval to check for
      */
     public MapDbStatusStorage(long heartBeatEjectionMilliSeconds, long checkInterval) {
-        super(heartBeatEjectionMilliSeconds, checkInterval);
-    }
-
-    public MapDbStatusStorage() {
-        this(1000, 1000);
+        this(heartBeatEjectionMilliSeconds, checkInterval, DEFAULT_SNAPSHOT_INTERVAL, null);
     }
 
     /**
-     * Create the storage map
-     *
-     * @return
+     * @param heartBeatEjectionMilliSeconds the amount of time before
+     *                                      ejecting a given subscriber as failed
+     * @param checkInterval                 the interval to check for
+     * @param snapshotInterval              the interval between writes to MapDB
+     * @param storageFile                   the file to store the states in, null for an in memory MapDB
      */
-    @Override
-    public Map<Integer, Long> createUpdatedMap() {
-        if (storageFile == null) {
-            //In-Memory Stats Storage
-            db = DBMaker.memoryDB().make();
-        } else {
-            db = DBMaker.fileDB(storageFile).closeOnJvmShutdown().transactionEnable() //Default to Write Ahead Log - lower performance, but has crash protection
-                            .make();
-        }
-
-        updated = db.hashMap("updated").keySerializer(Serializer.INTEGER).valueSerializer(Serializer.LONG)
-                        .createOrOpen();
-        return updated;
+    public MapDbStatusStorage(long heartBeatEjectionMilliSeconds, long checkInterval, long snapshotInterval,
+                    File storageFile) {
+        super(heartBeatEjectionMilliSeconds, checkInterval, Math.max(1, snapshotInterval));
+        this.storageFile = storageFile;
+        openMap();
+        startSnapshots();
     }
 
+    public MapDbStatusStorage() {
+        this(1000, 1000);
+    }
 
-
-    @Override
-    public Map<Integer, SubscriberState> createMap() {
+    private synchronized void openMap() {
         if (storageFile == null) {
             //In-Memory Stats Storage
             db = DBMaker.memoryDB().make();
@@ -66,29 +66,41 @@ public class MapDbStatusStorage extends BaseStatusStorage {
 
         statusStorageMap = db.hashMap("statusStorageMap").keySerializer(Serializer.INTEGER)
                         .valueSerializer(new StatusStorageSerializer()).createOrOpen();
-        return statusStorageMap;
+        for (SubscriberState state : statusStorageMap.values())
+            updateState(state);
     }
 
     /**
-     * Get the state given an id.
-     * The integer represents a stream id
-     * for a given {@link ParameterServerSubscriber}.
-     * <p>
-     * A {@link SubscriberState} is supposed to be 1 to 1 mapping
-     * for a stream and a {@link MediaDriver}.
+     * Write a batch of changes to MapDB
      *
-     * @param id the id of the state to get
-     * @return the subscriber state for the given id or none
-     * if it doesn't exist
+     * @param updated the states updated since the last snapshot
+     * @param ejected the ids ejected since the last snapshot
      */
     @Override
-    public SubscriberState getState(int id) {
-        if (!statusStorageMap.containsKey(id))
-            return SubscriberState.empty();
-        return statusStorageMap.get(id);
-    }
+    protected synchronized void persist(List<SubscriberState> updated, int[] ejected) {
+        if (db == null || db.isClosed())
+            return;
+
+        for (int id : ejected)
+            statusStorageMap.remove(id);
 
+        Map<Integer, SubscriberState> batch = new HashMap<>(updated.size() * 2);
+        for (SubscriberState state : updated)
+            batch.put(state.getStreamId(), state);
+        statusStorageMap.putAll(batch);
+
+        if (storageFile != null)
+            db.commit();
+    }
 
+    @Override
+    public void close() {
+        super.close();
+        synchronized (this) {
+            if (db != null && !db.isClosed())
+                db.close();
+        }
+    }
 
     private class StatusStorageSerializer implements Serializer<SubscriberState> {
 
@@ -0,0 +1,331 @@
+package org.nd4j.parameterserver.status.play;
+
+import org.nd4j.parameterserver.model.SubscriberState;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Live subscriber states keyed by stream id,
+ * for {@link BaseStatusStorage}.
+ *
+ * States and heartbeats are kept in an int keyed open addressing
+ * table (linear probing, backward shift deletion) of primitive arrays,
+ * so heartbeats of known subscribers allocate nothing.
+ *
+ * Ejection uses a timing wheel with one bucket per check interval:
+ * every id sits in exactly one bucket, the one of the tick its heartbeat
+ * expires in. Updates only move the heartbeat; when the bucket comes due
+ * an id is either ejected or moved to the bucket of its new deadline,
+ * so an ejection check only looks at the ids that may have expired.
+ *
+ * Optionally, changes since the last call to {@link #drainChanges(List, int[][])}
+ * are tracked for persisting them in batches.
+ *
+ * All methods are O(1) (amortized) except {@link #advance(long)},
+ * {@link #drainChanges(List, int[][])} and {@link #ids()}.
+ */
+public class StatusTable {
+    private final long heartBeatEjectionMilliSeconds;
+    private final long tickMilliSeconds;
+    private final boolean trackChanges;
+
+    //the table
+    private int[] keys;
+    private long[] heartbeats;
+    private SubscriberState[] states;
+    private boolean[] dirty;
+    private int size = 0;
+
+    //the wheel
+    private final int[][] buckets;
+    private final int[] bucketSizes;
+    private long lastTick = Long.MIN_VALUE;
+
+    //changes since the last drain
+    private int[] dirtyIds = new int[16];
+    private int numDirty = 0;
+    private int[] ejectedIds = new int[16];
+    private int numEjected = 0;
+
+    /**
+     *
+     * @param heartBeatEjectionMilliSeconds the amount of time before
+     *                                      ejecting a given subscriber as failed
+     * @param tickMilliSeconds the resolution of the timing wheel,
+     *                         usually the interval between calls to {@link #advance(long)}
+     * @param trackChanges whether to track changes for {@link #drainChanges(List, int[][])}
+     */
+    public StatusTable(long heartBeatEjectionMilliSeconds, long tickMilliSeconds, boolean trackChanges) {
+        if (heartBeatEjectionMilliSeconds < 0 || tickMilliSeconds < 1)
+            throw new IllegalArgumentException("Illegal ejection time " + heartBeatEjectionMilliSeconds
+                            + " or tick " + tickMilliSeconds);
+        this.heartBeatEjectionMilliSeconds = heartBeatEjectionMilliSeconds;
+        this.tickMilliSeconds = tickMilliSeconds;
+        this.trackChanges = trackChanges;
+
+        //a deadline is never more than this many ticks away
+        int numBuckets = (int) Math.min(1 << 16, heartBeatEjectionMilliSeconds / tickMilliSeconds + 2);
+        buckets = new int[numBuckets][];
+        bucketSizes = new int[numBuckets];
+        allocate(16);
+    }
+
+    /**
+     * Update the state and the heartbeat
+     * for the stream id of the given state
+     * @param state the state to update
+     * @param now the current time in milliseconds
+     */
+    public synchronized void update(SubscriberState state, long now) {
+        int id = state.getStreamId();
+        int slot = slotOf(id);
+        if (slot < 0) {
+            if ((size + 1) * 2 > keys.length) {
+                resize(keys.length * 2);
+                slot = slotOf(id);
+            }
+            slot = -slot - 1;
+            keys[slot] = id;
+            size++;
+            schedule(id, deadlineTick(now));
+        }
+
+        heartbeats[slot] = now;
+        states[slot] = state;
+        if (trackChanges && !dirty[slot]) {
+            dirty[slot] = true;
+            dirtyIds = add(dirtyIds, numDirty++, id);
+        }
+    }
+
+    /**
+     * Get the state for the given id
+     * @param id the id of the state
+     * @return the state, or null if there is none
+     */
+    public synchronized SubscriberState get(int id) {
+        int slot = slotOf(id);
+        return slot < 0 ? null : states[slot];
+    }
+
+    /**
+     * Get the last heartbeat for the given id
+     * @param id the id of the state
+     * @return the time of the last heartbeat in milliseconds, or -1 if there is no state
+     */
+    public synchronized long heartbeat(int id) {
+        int slot = slotOf(id);
+        return slot < 0 ? -1 : heartbeats[slot];
+    }
+
+    /**
+     * The ids of all states
+     * @return the ids of all states
+     */
+    public synchronized List<Integer> ids() {
+        List<Integer> ret = new ArrayList<>(size);
+        for (int i = 0; i < keys.length; i++)
+            if (isUsed(i))
+                ret.add(keys[i]);
+        return ret;
+    }
+
+    /**
+     * The number of states
+     * @return the number of states
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Eject every state without a heartbeat
+     * within the ejection time
+     * @param now the current time in milliseconds
+     * @return the number of ejected states
+     */
+    public synchronized int advance(long now) {
+        long tick = now / tickMilliSeconds;
+        //the first check looks at every bucket
+        if (lastTick == Long.MIN_VALUE)
+            lastTick = tick - buckets.length;
+
+        //every bucket is visited at most once, no matter how many ticks passed
+        long first = Math.max(lastTick + 1, tick - buckets.length + 1);
+        int ejected = 0;
+        for (long t = first; t <= tick; t++)
+            ejected += expire(bucketOf(t), now, tick);
+
+        lastTick = Math.max(lastTick, tick);
+        return ejected;
+    }
+
+    private int expire(int bucket, long now, long tick) {
+        int[] ids = buckets[bucket];
+        int count = bucketSizes[bucket];
+        int kept = 0;
+        int ejected = 0;
+        for (int i = 0; i < count; i++) {
+            int id = ids[i];
+            int slot = slotOf(id);
+            if (slot < 0)
+                continue;
+
+            if (now - heartbeats[slot] > heartBeatEjectionMilliSeconds) {
+                remove(slot);
+                if (trackChanges)
+                    ejectedIds = add(ejectedIds, numEjected++, id);
+                ejected++;
+                continue;
+            }
+
+            long deadline = Math.max(deadlineTick(heartbeats[slot]), tick + 1);
+            int target = bucketOf(deadline);
+            //ids of a later turn of the wheel stay in place
+            if (target == bucket)
+                ids[kept++] = id;
+            else
+                schedule(id, deadline);
+        }
+        bucketSizes[bucket] = kept;
+        return ejected;
+    }
+
+    /**
+     * Move the states updated and the ids ejected since the last drain
+     * to the given list and array. A no op unless changes are tracked
+     * @param updated the list to add the updated states to
+     * @param ejected an array of length 1, which is set to the ejected ids
+     *                (ids ejected and updated again are in both)
+     * @return the number of changes
+     */
+    public synchronized int drainChanges(List<SubscriberState> updated, int[][] ejected) {
+        int changes = numEjected;
+        ejected[0] = Arrays.copyOf(ejectedIds, numEjected);
+        numEjected = 0;
+
+        for (int i = 0; i < numDirty; i++) {
+            int slot = slotOf(dirtyIds[i]);
+            if (slot >= 0 && dirty[slot]) {
+                dirty[slot] = false;
+                updated.add(states[slot]);
+                changes++;
+            }
+        }
+        numDirty = 0;
+        return changes;
+    }
+
+    /**
+     * Remove all states
+     */
+    public synchronized void clear() {
+        allocate(16);
+        size = 0;
+        Arrays.fill(bucketSizes, 0);
+        lastTick = Long.MIN_VALUE;
+        numDirty = 0;
+        numEjected = 0;
+    }
+
+    private long deadlineTick(long heartbeat) {
+        return (heartbeat + heartBeatEjectionMilliSeconds) / tickMilliSeconds + 1;
+    }
+
+    private int bucketOf(long tick) {
+        return (int) Math.floorMod(tick, (long) buckets.length);
+    }
+
+    private void schedule(int id, long tick) {
+        int bucket = bucketOf(tick);
+        if (buckets[bucket] == null)
+            buckets[bucket] = new int[4];
+        buckets[bucket] = add(buckets[bucket], bucketSizes[bucket]++, id);
+    }
+
+    private static int[] add(int[] array, int index, int value) {
+        if (index == array.length)
+            array = Arrays.copyOf(array, array.length * 2);
+        array[index] = value;
+        return array;
+    }
+
+    private static int hash(int id) {
+        int h = id * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    //any int is a valid id, so a slot is free when it has no state
+    private boolean isUsed(int slot) {
+        return states[slot] != null;
+    }
+
+    /**
+     * The slot of the given id if present,
+     * otherwise -(insertion slot) - 1
+     */
+    private int slotOf(int id) {
+        int mask = keys.length - 1;
+        int slot = hash(id) & mask;
+        while (isUsed(slot)) {
+            if (keys[slot] == id)
+                return slot;
+            slot = (slot + 1) & mask;
+        }
+        return -slot - 1;
+    }
+
+    private void remove(int slot) {
+        int mask = keys.length - 1;
+        //shift back the following entries of the probe sequence
+        int free = slot;
+        int next = (free + 1) & mask;
+        while (isUsed(next)) {
+            int home = hash(keys[next]) & mask;
+            if (((next - home) & mask) >= ((next - free) & mask)) {
+                move(next, free);
+                free = next;
+            }
+            next = (next + 1) & mask;
+        }
+        keys[free] = 0;
+        states[free] = null;
+        heartbeats[free] = 0;
+        dirty[free] = false;
+        size--;
+    }
+
+    private void move(int from, int to) {
+        keys[to] = keys[from];
+        heartbeats[to] = heartbeats[from];
+        states[to] = states[from];
+        dirty[to] = dirty[from];
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        heartbeats = new long[capacity];
+        states = new SubscriberState[capacity];
+        dirty = new boolean[capacity];
+    }
+
+    private void resize(int capacity) {
+        int[] oldKeys = keys;
+        long[] oldHeartbeats = heartbeats;
+        SubscriberState[] oldStates = states;
+        boolean[] oldDirty = dirty;
+
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldStates[i] == null)
+                continue;
+            int slot = -slotOf(oldKeys[i]) - 1;
+            keys[slot] = oldKeys[i];
+            heartbeats[slot] = oldHeartbeats[i];
+            states[slot] = oldStates[i];
+            dirty[slot] = oldDirty[i];
+        }
+    }
+}
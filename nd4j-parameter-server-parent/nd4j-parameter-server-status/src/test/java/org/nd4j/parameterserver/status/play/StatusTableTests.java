@@ -0,0 +1,87 @@
+package org.nd4j.parameterserver.status.play;
+
+import org.junit.Test;
+import org.nd4j.parameterserver.model.SubscriberState;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class StatusTableTests {
+
+    private static SubscriberState state(int id) {
+        return SubscriberState.builder().isMaster(false).serverState("started").streamId(id).build();
+    }
+
+    @Test
+    public void testUpdateAndGrow() {
+        StatusTable table = new StatusTable(1000, 100, false);
+        for (int i = -500; i < 500; i++)
+            table.update(state(i), 0);
+        assertEquals(1000, table.size());
+        for (int i = -500; i < 500; i++)
+            assertEquals(i, table.get(i).getStreamId());
+        assertNull(table.get(500));
+        assertEquals(1000, table.ids().size());
+
+        table.update(state(Integer.MIN_VALUE), 0);
+        assertEquals(Integer.MIN_VALUE, table.get(Integer.MIN_VALUE).getStreamId());
+    }
+
+    @Test
+    public void testEjection() {
+        StatusTable table = new StatusTable(1000, 100, false);
+        for (int i = 0; i < 100; i++)
+            table.update(state(i), 0);
+
+        //even ids keep checking in
+        for (long now = 100; now <= 3000; now += 100) {
+            for (int i = 0; i < 100; i += 2)
+                table.update(state(i), now);
+            table.advance(now);
+        }
+
+        assertEquals(50, table.size());
+        for (int i = 0; i < 100; i++)
+            assertEquals(i % 2 == 0, table.get(i) != null);
+        assertEquals(3000, table.heartbeat(0));
+
+        //nobody checks in anymore, with a single late check
+        assertEquals(50, table.advance(10000));
+        assertEquals(0, table.size());
+        assertTrue(table.ids().isEmpty());
+    }
+
+    @Test
+    public void testNoEarlyEjection() {
+        StatusTable table = new StatusTable(1000, 100, false);
+        table.update(state(1), 950);
+        assertEquals(0, table.advance(1900));
+        assertEquals(0, table.advance(1950));
+        assertEquals(1, table.advance(2000));
+    }
+
+    @Test
+    public void testDrainChanges() {
+        StatusTable table = new StatusTable(1000, 100, true);
+        table.update(state(1), 0);
+        table.update(state(2), 0);
+        table.update(state(1), 10);
+
+        List<SubscriberState> updated = new ArrayList<>();
+        int[][] ejected = new int[1][];
+        assertEquals(2, table.drainChanges(updated, ejected));
+        assertEquals(2, updated.size());
+        assertEquals(0, ejected[0].length);
+
+        updated.clear();
+        assertEquals(0, table.drainChanges(updated, ejected));
+
+        table.update(state(2), 1500);
+        table.advance(1500);
+        assertEquals(2, table.drainChanges(updated, ejected));
+        assertArrayEquals(new int[] {1}, ejected[0]);
+        assertEquals(2, updated.get(0).getStreamId());
+    }
+}
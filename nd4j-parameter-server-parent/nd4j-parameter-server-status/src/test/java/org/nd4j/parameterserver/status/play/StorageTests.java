@@ -3,6 +3,8 @@ package org.nd4j.parameterserver.status.play;
 import org.junit.Test;
 import org.nd4j.parameterserver.model.SubscriberState;
 
+import java.io.File;
+
 import static junit.framework.TestCase.assertEquals;
 import static org.junit.Assert.assertTrue;
 
@@ -41,4 +43,22 @@ public class StorageTests {
 
     }
 
+    @Test
+    public void testMapDbSnapshots() throws Exception {
+        File storageFile = File.createTempFile("statusstorage", ".db");
+        storageFile.delete();
+        storageFile.deleteOnExit();
+
+        MapDbStatusStorage mapDb = new MapDbStatusStorage(60000, 1000, 100, storageFile);
+        SubscriberState noEmpty = SubscriberState.builder().isMaster(true).serverState("master").streamId(1).build();
+        mapDb.updateState(noEmpty);
+        mapDb.close();
+
+        //the last batch is written on close, and loaded on startup
+        MapDbStatusStorage reopened = new MapDbStatusStorage(60000, 1000, 100, storageFile);
+        assertEquals(1, reopened.numStates());
+        assertEquals("master", reopened.getState(1).getServerState());
+        reopened.close();
+    }
+
 }
@@ -17,6 +17,10 @@ import org.nd4j.parameterserver.updater.storage.NoUpdateStorage;
  * and maintains the "master copy"
  *
  * of the ndarray.
+ *
+ * Updates are not serialized by the listener:
+ * the updater is responsible for applying concurrent
+ * updates safely (see {@link SynchronousParameterUpdater}).
  * @author Adam Gibson
  */
 @Data
@@ -74,7 +78,7 @@ public class ParameterServerListener implements NDArrayCallback {
      * @param dimensions the dimensions to act on for the tensor along dimension
      */
     @Override
-    public synchronized void onNDArrayPartial(INDArray arr, long idx, int... dimensions) {
+    public void onNDArrayPartial(INDArray arr, long idx, int... dimensions) {
         updater.partialUpdate(arr, updater.ndArrayHolder().get(), idx, dimensions);
     }
 
@@ -84,7 +88,7 @@ public class ParameterServerListener implements NDArrayCallback {
      * @param arr
      */
     @Override
-    public synchronized void onNDArray(INDArray arr) {
+    public void onNDArray(INDArray arr) {
         if (shape == null)
             updater.update(arr.reshape(1, arr.length()), updater.ndArrayHolder().get());
         else
@@ -95,7 +99,11 @@ public class ParameterServerListener implements NDArrayCallback {
      * Do a final divide for averaging
      */
     public synchronized void finish() {
-        updater.ndArrayHolder().get().divi(updater.numUpdates());
+        INDArray master = updater.ndArrayHolder().get();
+        if (updater instanceof SynchronousParameterUpdater)
+            ((SynchronousParameterUpdater) updater).exclusive(master, arr -> arr.divi(updater.numUpdates()));
+        else
+            master.divi(updater.numUpdates());
     }
 
 
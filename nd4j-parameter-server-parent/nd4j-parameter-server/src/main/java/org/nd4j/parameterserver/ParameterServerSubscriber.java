@@ -24,12 +24,16 @@ import org.nd4j.aeron.ipc.response.AeronNDArrayResponder;
 import org.nd4j.aeron.ndarrayholder.InMemoryNDArrayHolder;
 import org.nd4j.linalg.api.ndarray.INDArray;
 import org.nd4j.linalg.util.ArrayUtil;
+import org.nd4j.parameterserver.checkpoint.CheckpointSource;
+import org.nd4j.parameterserver.checkpoint.ParameterCheckpointer;
 import org.nd4j.parameterserver.model.MasterConnectionInfo;
 import org.nd4j.parameterserver.model.ServerState;
 import org.nd4j.parameterserver.model.SlaveConnectionInfo;
 import org.nd4j.parameterserver.model.SubscriberState;
+import org.nd4j.parameterserver.updater.BaseParameterUpdater;
 import org.nd4j.parameterserver.updater.ParameterServerUpdater;
 import org.nd4j.parameterserver.updater.SoftSyncParameterUpdater;
+import org.nd4j.parameterserver.updater.StripedParameterUpdater;
 import org.nd4j.parameterserver.updater.SynchronousParameterUpdater;
 import org.nd4j.parameterserver.updater.storage.InMemoryUpdateStorage;
 import org.nd4j.parameterserver.util.CheckSocket;
@@ -37,6 +41,7 @@ import org.nd4j.shade.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.File;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -46,6 +51,7 @@ import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
 
 /**
  * Subscriber main class for
@@ -102,6 +108,12 @@ public class ParameterServerSubscriber implements AutoCloseable {
     @Parameter(names = {"-u", "--updatesPerEpoch"}, description = "The number of updates per epoch", arity = 1,
                     required = true)
     private int updatesPerEpoch;
+    @Parameter(names = {"-cd", "--checkpointdirectory"},
+                    description = "Directory for incremental checkpoints of the master array. The master array is restored from it on startup. Checkpoints are disabled if not specified.",
+                    arity = 1)
+    private String checkpointDirectory;
+    @Parameter(names = {"-ci", "--checkpointinterval"}, description = "Checkpoint interval in ms", arity = 1)
+    private long checkpointIntervalMs = 60000;
 
 
     /**
@@ -110,6 +122,12 @@ public class ParameterServerSubscriber implements AutoCloseable {
      */
     public final static String CUSTOM_UPDATE_TYPE = "org.nd4j.parameterserver.updatetype";
 
+    /**
+     * Name of the snapshot of the master array
+     * in the checkpoint directory
+     */
+    public final static String MASTER_SNAPSHOT = "master";
+
     /**
      * Update types are for
      * instantiating various kinds of update types
@@ -128,6 +146,7 @@ public class ParameterServerSubscriber implements AutoCloseable {
     private ParameterServerListener parameterServerListener;
     private Aeron aeron;
     private ScheduledExecutorService heartbeat;
+    private ParameterCheckpointer checkpointer;
 
     /**
      * Allow passing in a
@@ -261,11 +280,12 @@ public class ParameterServerSubscriber implements AutoCloseable {
                     case HOGWILD:
                         break;
                     case SYNC:
-                        updater = new SynchronousParameterUpdater(new InMemoryUpdateStorage(),
-                                        new InMemoryNDArrayHolder(Ints.toArray(shape)), updatesPerEpoch);
+                        updater = new SynchronousParameterUpdater(new InMemoryUpdateStorage(), masterArray(),
+                                        updatesPerEpoch);
                         break;
                     case SOFTSYNC:
-                        updater = new SoftSyncParameterUpdater();
+                        updater = new SoftSyncParameterUpdater(new InMemoryUpdateStorage(), masterArray(),
+                                        Runtime.getRuntime().availableProcessors(), 4);
                         break;
                     case TIME_DELAYED:
                         break;
@@ -284,6 +304,9 @@ public class ParameterServerSubscriber implements AutoCloseable {
                 callback = new ParameterServerListener(Ints.toArray(shape), updater);
                 parameterServerListener = (ParameterServerListener) callback;
 
+                if (checkpointDirectory != null)
+                    startCheckpointer(updater);
+
             }
             //start an extra daemon for responding to get queries
             ParameterServerListener cast = (ParameterServerListener) callback;
@@ -349,8 +372,36 @@ public class ParameterServerSubscriber implements AutoCloseable {
     }
 
 
+    /**
+     * The master array, restored from the last checkpoint if there is one
+     * @return the holder of the master array
+     */
+    private NDArrayHolder masterArray() {
+        int[] masterShape = Ints.toArray(shape);
+        INDArray restored = checkpointDirectory == null ? null
+                        : ParameterCheckpointer.restore(new File(checkpointDirectory), MASTER_SNAPSHOT, masterShape);
+        return restored == null ? new InMemoryNDArrayHolder(masterShape) : new InMemoryNDArrayHolder(restored);
+    }
+
+    private void startCheckpointer(ParameterServerUpdater updater) {
+        Supplier<CheckpointSource> source;
+        if (updater instanceof StripedParameterUpdater)
+            source = ((StripedParameterUpdater) updater)::applier;
+        else {
+            log.warn("Checkpoints are not supported for updater " + updater);
+            return;
+        }
+
+        checkpointer = new ParameterCheckpointer(new File(checkpointDirectory), MASTER_SNAPSHOT, source,
+                        ((BaseParameterUpdater) updater).updateStorage());
+        checkpointer.start(checkpointIntervalMs);
+        log.info("Checkpointing master array to " + checkpointDirectory + " every " + checkpointIntervalMs + " ms");
+    }
+
     @Override
     public void close() {
+        if (checkpointer != null)
+            checkpointer.close();
         if (subscriber != null)
             CloseHelper.quietClose(subscriber);
         if (responder != null)
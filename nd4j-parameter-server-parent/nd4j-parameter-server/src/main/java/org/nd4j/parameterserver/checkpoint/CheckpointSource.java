@@ -0,0 +1,63 @@
+package org.nd4j.parameterserver.checkpoint;
+
+import org.nd4j.linalg.api.ndarray.INDArray;
+
+import java.nio.ByteBuffer;
+
+/**
+ * An array that can be checkpointed incrementally.
+ *
+ * The array is split in stripes: contiguous ranges
+ * of its elements (in the order of its buffer),
+ * each with a version that changes whenever the stripe is modified.
+ * A {@link ParameterCheckpointer} only copies the stripes
+ * whose version changed since they were last written.
+ */
+public interface CheckpointSource {
+
+    /**
+     * The array being checkpointed
+     * @return the array being checkpointed
+     */
+    INDArray target();
+
+    /**
+     * The number of stripes
+     * @return the number of stripes
+     */
+    int numStripes();
+
+    /**
+     * The index of the first element of the given stripe,
+     * in the order of the buffer of the array
+     * @param stripe the stripe
+     * @return the offset of the stripe, in elements
+     */
+    long stripeOffset(int stripe);
+
+    /**
+     * The current version of the given stripe
+     * @param stripe the stripe
+     * @return the version of the stripe
+     */
+    long stripeVersion(int stripe);
+
+    /**
+     * Copy the raw bytes of the given stripe
+     * into the destination, starting at its current position
+     * @param stripe the stripe to copy
+     * @param destination the buffer to copy to
+     * @return the version of the stripe that was copied
+     */
+    long readStripe(int stripe, ByteBuffer destination);
+
+    /**
+     * The index in the update log of the oldest logged update
+     * still being applied to the array. This update and
+     * the ones logged after it may or may not be included
+     * in a checkpoint, all the updates before it are.
+     * @return the log index of the oldest update in progress,
+     * or {@link Long#MAX_VALUE} if no update is in progress
+     */
+    long firstUpdateInProgress();
+}
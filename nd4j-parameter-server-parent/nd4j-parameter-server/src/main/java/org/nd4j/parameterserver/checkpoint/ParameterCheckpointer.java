@@ -0,0 +1,322 @@
+package org.nd4j.parameterserver.checkpoint;
+
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.nd4j.linalg.api.memory.MemoryWorkspace;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.parameterserver.updater.storage.UpdateStorage;
+import org.nd4j.shade.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Periodic, incremental checkpoints of a parameter server array
+ * to local disk.
+ *
+ * A background thread copies the stripes of a {@link CheckpointSource}
+ * modified since the last checkpoint into a memory mapped snapshot file,
+ * and then replaces a small json manifest describing the snapshot.
+ * No stop the world copy is needed: every stripe is copied while holding
+ * only its own lock, so updates keep being applied to the other stripes.
+ *
+ * Snapshots alternate between 2 files (slots), each one tracking which stripe
+ * versions it holds, so a crash while writing never corrupts
+ * the snapshot the manifest points to.
+ *
+ * Once a snapshot is on disk, the {@link UpdateStorage} (if any) is truncated
+ * up to the updates included in it: the log is only truncated below the oldest
+ * logged update that was still being applied when the checkpoint started
+ * (see {@link CheckpointSource#firstUpdateInProgress()}), so updates
+ * finishing out of order are never dropped from the log.
+ *
+ * On restart, {@link #restore(File, String)} maps the snapshot back in,
+ * copying it into a new array in one bulk copy.
+ */
+@Slf4j
+public class ParameterCheckpointer implements AutoCloseable {
+    private static ObjectMapper objectMapper = new ObjectMapper();
+
+    private final File directory;
+    private final String name;
+    private final Supplier<? extends CheckpointSource> source;
+    private final UpdateStorage updateStorage;
+
+    private INDArray mappedTarget;
+    private final MappedByteBuffer[] slots = new MappedByteBuffer[2];
+    private final long[][] writtenVersions = new long[2][];
+    private int currentSlot = -1;
+    private long checkpoints = 0;
+    private long copiedStripes = 0;
+    private long lastCheckpointMillis = 0;
+    private ScheduledExecutorService executorService;
+
+    /**
+     *
+     * @param directory the directory for the snapshot files
+     * @param name the name of the snapshot, used as prefix for the file names
+     * @param source supplies the array to checkpoint, may supply null when there's nothing to checkpoint yet
+     * @param updateStorage the update log to truncate after each checkpoint, may be null
+     */
+    public ParameterCheckpointer(@NonNull File directory, @NonNull String name,
+                    @NonNull Supplier<? extends CheckpointSource> source, UpdateStorage updateStorage) {
+        this.directory = directory;
+        this.name = name;
+        this.source = source;
+        this.updateStorage = updateStorage;
+
+        if (!directory.exists() && !directory.mkdirs())
+            throw new IllegalStateException("Unable to create checkpoint directory " + directory.getAbsolutePath());
+
+        //never overwrite the snapshot of the previous run before the next one is complete
+        SnapshotManifest manifest = readManifest(directory, name);
+        if (manifest != null) {
+            currentSlot = manifest.getSlot();
+            checkpoints = manifest.getCheckpoints();
+        }
+    }
+
+    /**
+     * Take checkpoints periodically on a background thread
+     * @param intervalMs the interval between checkpoints, in milliseconds
+     */
+    public synchronized void start(long intervalMs) {
+        if (executorService != null)
+            return;
+
+        executorService = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "ParameterCheckpointer " + name);
+            thread.setDaemon(true);
+            return thread;
+        });
+        executorService.scheduleWithFixedDelay(() -> {
+            try {
+                checkpoint();
+            } catch (Exception e) {
+                log.error("Checkpoint of " + name + " failed", e);
+            }
+        }, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Copy the stripes modified since the last checkpoint
+     * to disk, and truncate the update log
+     * @return true if a checkpoint was taken,
+     * false if there was nothing to checkpoint
+     * @throws IOException
+     */
+    public synchronized boolean checkpoint() throws IOException {
+        CheckpointSource checkpointSource = source.get();
+        if (checkpointSource == null || checkpointSource.target() == null)
+            return false;
+
+        INDArray target = checkpointSource.target();
+        if (target != mappedTarget)
+            map(checkpointSource);
+
+        //read the log position first: anything logged before it is either applied or marked in progress
+        long logged = updateStorage == null ? 0 : updateStorage.numUpdates();
+        long covered = Math.min(logged, checkpointSource.firstUpdateInProgress());
+
+        int slot = currentSlot == 0 ? 1 : 0;
+        MappedByteBuffer buffer = slots[slot];
+        long[] written = writtenVersions[slot];
+        int elementSize = target.data().getElementSize();
+        int copied = 0;
+        for (int s = 0; s < checkpointSource.numStripes(); s++) {
+            if (checkpointSource.stripeVersion(s) == written[s])
+                continue;
+
+            ByteBuffer destination = buffer.duplicate();
+            destination.position((int) (checkpointSource.stripeOffset(s) * elementSize));
+            written[s] = checkpointSource.readStripe(s, destination);
+            copied++;
+        }
+        buffer.force();
+
+        checkpoints++;
+        SnapshotManifest manifest = SnapshotManifest.builder().name(name).slot(slot).shape(target.shape())
+                        .ordering(target.ordering()).dataType(target.data().dataType().name())
+                        .byteOrder(ByteOrder.nativeOrder().toString()).length(target.length()).updates(covered)
+                        .checkpoints(checkpoints).timestamp(System.currentTimeMillis()).build();
+        writeManifest(manifest);
+        currentSlot = slot;
+        copiedStripes += copied;
+        lastCheckpointMillis = manifest.getTimestamp();
+
+        if (updateStorage != null)
+            updateStorage.truncate((int) covered);
+
+        log.debug("Checkpoint {} of {}: copied {} of {} stripes", checkpoints, name, copied,
+                        checkpointSource.numStripes());
+        return true;
+    }
+
+    /**
+     * Returns the current status of this checkpointer
+     * @return the status of this checkpointer
+     */
+    public synchronized Map<String, Number> status() {
+        Map<String, Number> ret = new HashMap<>();
+        ret.put("checkpoints", checkpoints);
+        ret.put("checkpointedStripes", copiedStripes);
+        ret.put("lastCheckpoint", lastCheckpointMillis);
+        return ret;
+    }
+
+    /**
+     * Stop taking checkpoints, taking a last one first
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (executorService != null)
+                executorService.shutdown();
+        }
+
+        try {
+            if (executorService != null)
+                executorService.awaitTermination(1, TimeUnit.MINUTES);
+            checkpoint();
+        } catch (Exception e) {
+            log.error("Final checkpoint of " + name + " failed", e);
+        }
+    }
+
+    private void map(CheckpointSource checkpointSource) throws IOException {
+        INDArray target = checkpointSource.target();
+        long bytes = (long) target.length() * target.data().getElementSize();
+        if (bytes > Integer.MAX_VALUE)
+            throw new IllegalStateException("Arrays larger than 2GB can't be checkpointed");
+
+        for (int slot = 0; slot < 2; slot++) {
+            try (RandomAccessFile file = new RandomAccessFile(slotFile(directory, name, slot), "rw");
+                            FileChannel channel = file.getChannel()) {
+                file.setLength(bytes);
+                slots[slot] = channel.map(FileChannel.MapMode.READ_WRITE, 0, bytes);
+            }
+            //nothing is known about the content of the files yet
+            writtenVersions[slot] = new long[checkpointSource.numStripes()];
+            Arrays.fill(writtenVersions[slot], Long.MIN_VALUE);
+        }
+        mappedTarget = target;
+    }
+
+    private void writeManifest(SnapshotManifest manifest) throws IOException {
+        File manifestFile = manifestFile(directory, name);
+        File tmp = new File(directory, manifestFile.getName() + ".tmp");
+        objectMapper.writeValue(tmp, manifest);
+        Files.move(tmp.toPath(), manifestFile.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                        StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Read the manifest of the snapshot with the given name
+     * @param directory the directory of the snapshot
+     * @param name the name of the snapshot
+     * @return the manifest, or null if there is no snapshot
+     */
+    public static SnapshotManifest readManifest(@NonNull File directory, @NonNull String name) {
+        File manifestFile = manifestFile(directory, name);
+        if (!manifestFile.exists())
+            return null;
+
+        try {
+            return objectMapper.readValue(manifestFile, SnapshotManifest.class);
+        } catch (IOException e) {
+            throw new IllegalStateException("Unable to read checkpoint manifest " + manifestFile.getAbsolutePath(), e);
+        }
+    }
+
+    /**
+     * Restore the array from the snapshot with the given name.
+     * The snapshot is memory mapped and copied in bulk
+     * into a new array (outside of any workspace).
+     * @param directory the directory of the snapshot
+     * @param name the name of the snapshot
+     * @return the restored array, or null if there is no snapshot
+     */
+    public static INDArray restore(@NonNull File directory, @NonNull String name) {
+        SnapshotManifest manifest = readManifest(directory, name);
+        if (manifest == null)
+            return null;
+
+        if (!manifest.getDataType().equals(Nd4j.dataType().name()))
+            throw new IllegalStateException("Snapshot " + name + " has data type " + manifest.getDataType()
+                            + " but current data type is " + Nd4j.dataType());
+        if (!manifest.getByteOrder().equals(ByteOrder.nativeOrder().toString()))
+            throw new IllegalStateException("Snapshot " + name + " was written with byte order "
+                            + manifest.getByteOrder());
+
+        //snapshots are written through a single mapping, see map(CheckpointSource)
+        long bytes = manifest.getLength() * Nd4j.sizeOfDataType();
+        if (bytes > Integer.MAX_VALUE)
+            throw new IllegalStateException("Snapshot " + name + " of " + bytes
+                            + " bytes is larger than 2GB and can't be restored");
+
+        INDArray arr;
+        try (MemoryWorkspace workspace = Nd4j.getMemoryManager().scopeOutOfWorkspaces()) {
+            arr = Nd4j.createUninitialized(manifest.getShape(), manifest.getOrdering());
+        }
+
+        try (RandomAccessFile file = new RandomAccessFile(slotFile(directory, name, manifest.getSlot()), "r");
+                        FileChannel channel = file.getChannel()) {
+            if (file.length() < bytes)
+                throw new IllegalStateException("Snapshot " + name + " is truncated");
+
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, bytes);
+            ByteBuffer destination = arr.data().asNio().duplicate();
+            destination.position((int) (arr.offset() * arr.data().getElementSize()));
+            destination.put(mapped);
+        } catch (IOException e) {
+            throw new IllegalStateException("Unable to restore snapshot " + name, e);
+        }
+
+        log.info("Restored {} from checkpoint {} including {} updates", name, manifest.getCheckpoints(),
+                        manifest.getUpdates());
+        return arr;
+    }
+
+    /**
+     * Restore the array from the snapshot with the given name,
+     * failing if the snapshot was taken of an array of another shape
+     * @param directory the directory of the snapshot
+     * @param name the name of the snapshot
+     * @param shape the expected shape of the array
+     * @return the restored array, or null if there is no snapshot
+     */
+    public static INDArray restore(@NonNull File directory, @NonNull String name, @NonNull int[] shape) {
+        SnapshotManifest manifest = readManifest(directory, name);
+        if (manifest == null)
+            return null;
+
+        if (!Arrays.equals(manifest.getShape(), shape))
+            throw new IllegalStateException("Snapshot " + name + " has shape " + Arrays.toString(manifest.getShape())
+                            + " but expected shape is " + Arrays.toString(shape));
+
+        return restore(directory, name);
+    }
+
+    private static File manifestFile(File directory, String name) {
+        return new File(directory, name + ".manifest.json");
+    }
+
+    private static File slotFile(File directory, String name, int slot) {
+        return new File(directory, name + "." + slot + ".snapshot");
+    }
+}
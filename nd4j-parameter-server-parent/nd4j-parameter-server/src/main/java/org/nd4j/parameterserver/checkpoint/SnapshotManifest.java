@@ -0,0 +1,37 @@
+package org.nd4j.parameterserver.checkpoint;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * Describes the latest complete snapshot
+ * written by a {@link ParameterCheckpointer}.
+ *
+ * The snapshot itself is a file with the raw bytes
+ * of the array buffer (in the given ordering and byte order).
+ * Snapshots alternate between 2 slots, so the manifest always points
+ * to a complete snapshot, even if the checkpointer dies while writing.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SnapshotManifest implements Serializable {
+    private String name;
+    //the slot (0 or 1) holding the snapshot
+    private int slot;
+    private int[] shape;
+    private char ordering;
+    private String dataType;
+    private String byteOrder;
+    private long length;
+    //number of logged updates included in the snapshot
+    private long updates;
+    //number of checkpoints taken so far
+    private long checkpoints;
+    private long timestamp;
+}
@@ -56,6 +56,15 @@ public abstract class BaseParameterUpdater implements ParameterServerUpdater {
         return ndArrayHolder;
     }
 
+    /**
+     * Get the update storage of this updater
+     *
+     * @return the update storage of this updater
+     */
+    public UpdateStorage updateStorage() {
+        return updateStorage;
+    }
+
     /**
      * Initialize this updater
      * with a custom update storage
@@ -1,23 +1,145 @@
 package org.nd4j.parameterserver.updater;
 
+import org.nd4j.aeron.ipc.NDArrayHolder;
 import org.nd4j.aeron.ipc.NDArrayMessage;
+import org.nd4j.aeron.ipc.encoding.GradientEncoder;
 import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.parameterserver.updater.storage.UpdateStorage;
+import org.nd4j.shade.jackson.core.JsonProcessingException;
+import org.nd4j.shade.jackson.databind.ObjectMapper;
 
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
 
 /**
+ * Soft synchronous updater:
+ * a new generation (version) of the parameters starts
+ * every s accumulated updates, without waiting
+ * for all workers.
+ *
+ * The generation an update was computed against is found from the
+ * timestamp of its {@link NDArrayMessage}: it is the latest generation
+ * that started before the message was sent. The staleness of an update
+ * is the number of generations that started since then.
+ * Updates are scaled by scalingFactor / (1 + staleness),
+ * and updates staler than maxStaleness are dropped.
+ * Messages flagged as encoded by a {@link GradientEncoder} are decoded
+ * straight into the master array when no scaling is needed.
+ *
+ * Generation latencies and the staleness distribution
+ * are reported by {@link #status()}.
+ *
  * Created by agibsonccc on 12/1/16.
  */
-public class SoftSyncParameterUpdater extends BaseParameterUpdater {
+public class SoftSyncParameterUpdater extends StripedParameterUpdater {
+    private static ObjectMapper objectMapper = new ObjectMapper();
+
     //track time stamps of messages coming in to find out which generation a message is meant for
-    //alxways log where the message time stamp began
-    private Map<Long, Integer> timeStampsForGeneration;
+    //always log where the message time stamp began
+    private final ConcurrentNavigableMap<Long, Integer> timeStampsForGeneration = new ConcurrentSkipListMap<>();
     //s is the number of updates
-    private int s;
-    private int currentVersion;
-    private int accumulatedUpdates = 0;
-    private double scalingFactor;
+    private int s = Runtime.getRuntime().availableProcessors();
+    private int maxStaleness = 4;
+    private double scalingFactor = 1.0;
+
+    private volatile int currentVersion;
+    private volatile int replicatedVersion;
+    private volatile long generationStart;
+    private final AtomicInteger accumulatedUpdates = new AtomicInteger(0);
+
+    //staleness histogram: index i counts updates of staleness i, dropped updates are counted separately
+    private AtomicLongArray stalenessCounts = new AtomicLongArray(maxStaleness + 1);
+    private final AtomicLong droppedUpdates = new AtomicLong(0);
+    private final AtomicLong totalGenerationLatency = new AtomicLong(0);
+    private volatile long maxGenerationLatency;
+    private volatile long lastGenerationLatency;
+
+    /**
+     * Initializes this updater
+     * with {@link org.nd4j.parameterserver.updater.storage.InMemoryUpdateStorage},
+     * one update per core per generation
+     * and a maximum staleness of 4
+     */
+    public SoftSyncParameterUpdater() {
+        super();
+        startGeneration(0);
+    }
+
+    /**
+     *
+     * @param updateStorage the update storage to use
+     * @param ndArrayHolder the holder of the master array
+     * @param s the number of updates per generation
+     * @param maxStaleness the maximum number of generations an update
+     *                     may lag behind before being dropped
+     */
+    public SoftSyncParameterUpdater(UpdateStorage updateStorage, NDArrayHolder ndArrayHolder, int s,
+                    int maxStaleness) {
+        this(updateStorage, ndArrayHolder, s, maxStaleness, 1.0);
+    }
+
+    /**
+     *
+     * @param updateStorage the update storage to use
+     * @param ndArrayHolder the holder of the master array
+     * @param s the number of updates per generation
+     * @param maxStaleness the maximum number of generations an update
+     *                     may lag behind before being dropped
+     * @param scalingFactor the factor to scale fresh updates by
+     */
+    public SoftSyncParameterUpdater(UpdateStorage updateStorage, NDArrayHolder ndArrayHolder, int s,
+                    int maxStaleness, double scalingFactor) {
+        super(updateStorage, ndArrayHolder);
+        if (s < 1)
+            throw new IllegalArgumentException("Number of updates per generation must be positive, got " + s);
+        if (maxStaleness < 0)
+            throw new IllegalArgumentException("Maximum staleness must not be negative, got " + maxStaleness);
+        this.s = s;
+        this.maxStaleness = maxStaleness;
+        this.scalingFactor = scalingFactor;
+        this.stalenessCounts = new AtomicLongArray(maxStaleness + 1);
+        startGeneration(0);
+    }
+
+    private void startGeneration(int version) {
+        long now = NDArrayMessage.getCurrentTimeUtc();
+        generationStart = now;
+        //the first generation covers all messages sent before the updater was created
+        timeStampsForGeneration.put(version == 0 ? Long.MIN_VALUE : now, version);
+        currentVersion = version;
+        //generations older than the staleness bound are not needed anymore:
+        //messages sent before the oldest remaining one are dropped anyway
+        while (timeStampsForGeneration.size() > maxStaleness + 1)
+            timeStampsForGeneration.pollFirstEntry();
+    }
+
+    /**
+     * The generation the parameters are currently at
+     * @return the current generation
+     */
+    public int currentGeneration() {
+        return currentVersion;
+    }
 
+    /**
+     * The staleness of an update sent at the given time:
+     * the number of generations started since then
+     * @param sent the time the update was sent (utc, in milliseconds)
+     * @return the staleness, or -1 if the update is older
+     * than all tracked generations
+     */
+    public int staleness(long sent) {
+        Map.Entry<Long, Integer> generation = timeStampsForGeneration.floorEntry(sent);
+        if (generation == null)
+            return -1;
+        return Math.max(0, currentVersion - generation.getValue());
+    }
 
     /**
      * Returns the number of required
@@ -27,7 +149,7 @@ public class SoftSyncParameterUpdater extends BaseParameterUpdater {
      */
     @Override
     public int requiredUpdatesForPass() {
-        return 0;
+        return s;
     }
 
     /**
@@ -38,7 +160,30 @@ public class SoftSyncParameterUpdater extends BaseParameterUpdater {
      */
     @Override
     public Map<String, Number> status() {
-        return null;
+        Map<String, Number> ret = new LinkedHashMap<>();
+        int generation = currentVersion;
+        ret.put("updatesPerGeneration", s);
+        ret.put("maxStaleness", maxStaleness);
+        ret.put("generation", generation);
+        ret.put("accumulatedUpdates", accumulatedUpdates.get());
+        ret.put("droppedUpdates", droppedUpdates.get());
+
+        long applied = 0;
+        long stalenessSum = 0;
+        for (int i = 0; i < stalenessCounts.length(); i++) {
+            long count = stalenessCounts.get(i);
+            ret.put("staleness." + i, count);
+            applied += count;
+            stalenessSum += i * count;
+        }
+        ret.put("appliedUpdates", applied);
+        ret.put("meanStaleness", applied == 0 ? 0.0 : (double) stalenessSum / applied);
+
+        ret.put("lastGenerationLatencyMs", lastGenerationLatency);
+        ret.put("maxGenerationLatencyMs", maxGenerationLatency);
+        ret.put("meanGenerationLatencyMs",
+                        generation == 0 ? 0.0 : (double) totalGenerationLatency.get() / generation);
+        return ret;
     }
 
     /**
@@ -48,16 +193,21 @@ public class SoftSyncParameterUpdater extends BaseParameterUpdater {
      */
     @Override
     public String toJson() {
-        return null;
+        try {
+            return objectMapper.writeValueAsString(status());
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException(e);
+        }
     }
 
     /**
-     * Reset internal counters
-     * such as number of updates accumulated.
+     * Marks the current generation as replicated
+     * and clears the update storage
      */
     @Override
     public void reset() {
-        currentVersion++;
+        super.reset();
+        replicatedVersion = currentVersion;
     }
 
     /**
@@ -69,7 +219,7 @@ public class SoftSyncParameterUpdater extends BaseParameterUpdater {
      */
     @Override
     public boolean shouldReplicate() {
-        return accumulatedUpdates == s;
+        return currentVersion > replicatedVersion;
     }
 
     /**
@@ -79,13 +229,71 @@ public class SoftSyncParameterUpdater extends BaseParameterUpdater {
      */
     @Override
     public void update(NDArrayMessage message) {
+        int staleness = staleness(message.getSent());
+        if (staleness < 0 || staleness > maxStaleness) {
+            droppedUpdates.incrementAndGet();
+            return;
+        }
+
+        StripedUpdateApplier current = applierFor(ndArrayHolder.get());
+        long logIndex = current.startLogged(updateStorage, message);
+        stalenessCounts.incrementAndGet(staleness);
+
+        try {
+            int[] dimensions = message.getDimensions();
+            boolean whole = dimensions.length == 1 && dimensions[0] == -1;
+            if (!whole)
+                current.applyPartial(scale(message.getArr(), staleness), message.getIndex(), dimensions);
+            else
+                applyWhole(message.getArr(), ndArrayHolder.get(), staleness, message.isEncoded());
+        } finally {
+            current.finishLogged(logIndex);
+        }
 
+        accumulate();
+    }
+
+    private INDArray scale(INDArray arr, int staleness) {
+        double factor = scalingFactor / (1.0 + staleness);
+        return factor == 1.0 ? arr : arr.mul(factor);
+    }
+
+    private void applyWhole(INDArray arr, INDArray result, int staleness, boolean encoded) {
+        StripedUpdateApplier current = applierFor(result);
+        if (!encoded) {
+            current.apply(scale(arr, staleness));
+        } else if (scalingFactor / (1.0 + staleness) == 1.0) {
+            current.applyEncoded(arr);
+        } else {
+            //encoded updates can only be scaled after decoding
+            INDArray decoded = GradientEncoder.decode(arr, Nd4j.create(result.shape(), 'c'));
+            current.apply(scale(decoded, staleness));
+        }
+    }
+
+    private void accumulate() {
+        if (accumulatedUpdates.incrementAndGet() < s)
+            return;
+
+        synchronized (this) {
+            if (accumulatedUpdates.get() < s)
+                return;
+            accumulatedUpdates.addAndGet(-s);
+
+            long latency = NDArrayMessage.getCurrentTimeUtc() - generationStart;
+            lastGenerationLatency = latency;
+            totalGenerationLatency.addAndGet(latency);
+            if (latency > maxGenerationLatency)
+                maxGenerationLatency = latency;
+            startGeneration(currentVersion + 1);
+        }
     }
 
     /**
      * Updates result
      * based on arr along a particular
-     * {@link INDArray#tensorAlongDimension(int, int...)}
+     * {@link INDArray#tensorAlongDimension(int, int...)}.
+     * Updates without a message are treated as fresh.
      *
      * @param arr        the array to update
      * @param result     the result ndarray to update
@@ -94,18 +302,23 @@ public class SoftSyncParameterUpdater extends BaseParameterUpdater {
      */
     @Override
     public void partialUpdate(INDArray arr, INDArray result, long idx, int... dimensions) {
-
+        stalenessCounts.incrementAndGet(0);
+        applierFor(result).applyPartial(scale(arr, 0), idx, dimensions);
+        accumulate();
     }
 
     /**
      * Updates result
-     * based on arr
+     * based on arr.
+     * Updates without a message are treated as fresh.
      *
      * @param arr    the array to update
      * @param result the result ndarray to update
      */
     @Override
     public void update(INDArray arr, INDArray result) {
-
+        stalenessCounts.incrementAndGet(0);
+        applyWhole(arr, result, 0, false);
+        accumulate();
     }
 }
@@ -0,0 +1,79 @@
+package org.nd4j.parameterserver.updater;
+
+import org.nd4j.aeron.ipc.NDArrayHolder;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.parameterserver.updater.storage.UpdateStorage;
+
+/**
+ * Base class for updaters applying updates
+ * to the master array through a {@link StripedUpdateApplier}.
+ *
+ * The applier is created lazily, and replaced
+ * whenever the master array changes.
+ */
+public abstract class StripedParameterUpdater extends BaseParameterUpdater {
+    protected int stripes = Runtime.getRuntime().availableProcessors() * 4;
+    private volatile StripedUpdateApplier applier;
+
+    public StripedParameterUpdater(UpdateStorage updateStorage, NDArrayHolder ndArrayHolder) {
+        super(updateStorage, ndArrayHolder);
+    }
+
+    /**
+     * Initialize this updater
+     * with a custom update storage
+     * @param updateStorage the update storage to use
+     */
+    public StripedParameterUpdater(UpdateStorage updateStorage) {
+        super(updateStorage);
+    }
+
+    /**
+     * Initializes this updater
+     * with {@link org.nd4j.parameterserver.updater.storage.InMemoryUpdateStorage}
+     */
+    public StripedParameterUpdater() {
+        super();
+    }
+
+    /**
+     * The applier for the master array of the {@link NDArrayHolder},
+     * for example to checkpoint it
+     * @return the applier for the master array,
+     * or null if there is no master array yet
+     */
+    public StripedUpdateApplier applier() {
+        if (ndArrayHolder == null || ndArrayHolder.get() == null)
+            return null;
+        return applierFor(ndArrayHolder.get());
+    }
+
+    /**
+     * The applier for the given result array,
+     * created if the result array is not the current one
+     * @param result the result ndarray
+     * @return the applier for the result array
+     */
+    protected StripedUpdateApplier applierFor(INDArray result) {
+        StripedUpdateApplier current = applier;
+        if (current == null || current.getTarget() != result) {
+            synchronized (this) {
+                current = applier;
+                if (current == null || current.getTarget() != result) {
+                    current = new StripedUpdateApplier(result, stripes);
+                    applier = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * The applier currently in use,
+     * without creating one
+     * @return the current applier, or null if there is none yet
+     */
+    protected StripedUpdateApplier currentApplier() {
+        return applier;
+    }
+}
@@ -0,0 +1,439 @@
+package org.nd4j.parameterserver.updater;
+
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.nd4j.aeron.ipc.NDArrayMessage;
+import org.nd4j.aeron.ipc.encoding.GradientEncoder;
+import org.nd4j.linalg.api.buffer.DataBuffer;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.api.shape.Shape;
+import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.linalg.indexing.INDArrayIndex;
+import org.nd4j.linalg.indexing.NDArrayIndex;
+import org.nd4j.parameterserver.checkpoint.CheckpointSource;
+import org.nd4j.parameterserver.updater.storage.UpdateStorage;
+
+import java.nio.ByteBuffer;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Applies additive updates to a master array
+ * that is split into fixed size stripes
+ * (contiguous ranges of its buffer), each guarded
+ * by its own lock.
+ *
+ * Whole array updates lock one stripe at a time,
+ * starting at a per thread offset and applying the
+ * free stripes first, so concurrent updates
+ * are pipelined over the stripes instead of being
+ * serialized behind a single monitor.
+ *
+ * Partial (tensor along dimension) updates
+ * only lock the stripes covering the buffer range of the tad,
+ * in ascending order.
+ *
+ * If the master array is not contiguous in its buffer,
+ * a single lock over the whole array is used.
+ *
+ * Every stripe has a version, incremented whenever the stripe
+ * is modified, so the master array can be checkpointed incrementally
+ * (see {@link org.nd4j.parameterserver.checkpoint.ParameterCheckpointer}).
+ * Updates that are logged to an {@link UpdateStorage} are tracked by their
+ * index in the log until they are applied, so the log is never
+ * truncated past an update missing from a checkpoint.
+ */
+@Slf4j
+public class StripedUpdateApplier implements CheckpointSource {
+    /**
+     * Minimum number of elements per stripe:
+     * smaller stripes only add locking overhead
+     */
+    public static final int MIN_STRIPE_LENGTH = 1024;
+
+    @Getter
+    private final INDArray target;
+    private final char order;
+    private final int length;
+    private final boolean striped;
+    private final int stripeLength;
+    private final INDArray[] stripes;
+    private final ReentrantLock[] locks;
+    //number of stripes that were busy when first tried
+    private final AtomicLong contendedStripes = new AtomicLong(0);
+    //incremented whenever a stripe is modified, for incremental checkpoints
+    private final AtomicLongArray versions;
+    //log indices of the logged updates being applied
+    private final ConcurrentSkipListSet<Long> loggedInProgress = new ConcurrentSkipListSet<>();
+
+    /**
+     * Uses 4 stripes per core
+     * @param target the master array to update
+     */
+    public StripedUpdateApplier(@NonNull INDArray target) {
+        this(target, Runtime.getRuntime().availableProcessors() * 4);
+    }
+
+    /**
+     *
+     * @param target the master array to update
+     * @param numStripes the maximum number of stripes
+     *                   to split the array in
+     */
+    public StripedUpdateApplier(@NonNull INDArray target, int numStripes) {
+        if (numStripes < 1)
+            throw new IllegalArgumentException("Number of stripes must be positive, got " + numStripes);
+
+        this.target = target;
+        this.order = target.ordering();
+        this.length = target.length();
+
+        INDArray flat = null;
+        if (Shape.isContiguousInBuffer(target)) {
+            flat = target.reshape(order, 1, length);
+            //reshape must return a view, otherwise updates would be lost
+            if (flat.data() != target.data())
+                flat = null;
+        }
+
+        numStripes = Math.max(1, Math.min(numStripes, length / MIN_STRIPE_LENGTH));
+        if (flat == null || numStripes == 1) {
+            this.striped = false;
+            this.stripeLength = length;
+            this.stripes = new INDArray[] {target};
+        } else {
+            this.striped = true;
+            this.stripeLength = (length + numStripes - 1) / numStripes;
+            numStripes = (length + stripeLength - 1) / stripeLength;
+            this.stripes = new INDArray[numStripes];
+            for (int i = 0; i < numStripes; i++) {
+                stripes[i] = flat.get(NDArrayIndex.all(), range(i));
+            }
+        }
+
+        this.versions = new AtomicLongArray(stripes.length);
+        this.locks = new ReentrantLock[stripes.length];
+        for (int i = 0; i < locks.length; i++)
+            locks[i] = new ReentrantLock();
+
+        log.debug("Using {} stripe(s) of length {} for array of length {}", stripes.length, stripeLength, length);
+    }
+
+    private INDArrayIndex range(int stripe) {
+        int from = stripe * stripeLength;
+        return NDArrayIndex.interval(from, Math.min(from + stripeLength, length));
+    }
+
+    /**
+     * The number of stripes the master array is split in
+     * @return the number of stripes
+     */
+    public int numStripes() {
+        return stripes.length;
+    }
+
+    /**
+     * The number of times a stripe was busy
+     * when an update first tried to lock it
+     * @return the number of contended stripe acquisitions
+     */
+    public long contendedStripes() {
+        return contendedStripes.get();
+    }
+
+    /**
+     * Add the given array to the master array
+     * @param update the update to add, of the same length
+     *               as the master array
+     */
+    public void apply(@NonNull INDArray update) {
+        if (update.length() != length)
+            throw new IllegalArgumentException("Update of length " + update.length()
+                            + " does not match the length of the master array " + length);
+
+        applyStripes(update);
+    }
+
+    private void applyStripes(INDArray update) {
+        if (!striped) {
+            locks[0].lock();
+            try {
+                target.addi(update);
+                versions.incrementAndGet(0);
+            } finally {
+                locks[0].unlock();
+            }
+            return;
+        }
+
+        INDArray flatUpdate = update.reshape(order, 1, length);
+        int n = stripes.length;
+        int start = (int) (Thread.currentThread().getId() % n);
+        boolean[] done = new boolean[n];
+        int remaining = n;
+        for (int i = 0; i < n; i++) {
+            int s = (start + i) % n;
+            if (locks[s].tryLock()) {
+                try {
+                    stripes[s].addi(flatUpdate.get(NDArrayIndex.all(), range(s)));
+                    versions.incrementAndGet(s);
+                } finally {
+                    locks[s].unlock();
+                }
+                done[s] = true;
+                remaining--;
+            }
+        }
+
+        if (remaining == 0)
+            return;
+
+        contendedStripes.addAndGet(remaining);
+        for (int i = 0; i < n; i++) {
+            int s = (start + i) % n;
+            if (done[s])
+                continue;
+            locks[s].lock();
+            try {
+                stripes[s].addi(flatUpdate.get(NDArrayIndex.all(), range(s)));
+                versions.incrementAndGet(s);
+            } finally {
+                locks[s].unlock();
+            }
+        }
+    }
+
+    /**
+     * Decode an update encoded by a {@link GradientEncoder}
+     * straight into the master array.
+     *
+     * Threshold encoded indices are bucketed by stripe
+     * in a single pass, and every bucket is applied
+     * while holding the lock of its stripe only.
+     * Bitmap encoded updates are dense: they are decoded
+     * outside of the locks and applied as whole array updates.
+     * @param encoded the encoded update
+     */
+    public void applyEncoded(@NonNull INDArray encoded) {
+        if (GradientEncoder.originalLength(encoded) != length)
+            throw new IllegalArgumentException("Encoded update of length " + GradientEncoder.originalLength(encoded)
+                            + " does not match the length of the master array " + length);
+
+        if (!striped) {
+            lockRange(0, 0);
+            try {
+                GradientEncoder.decode(encoded, target);
+                versions.incrementAndGet(0);
+            } finally {
+                unlockRange(0, 0);
+            }
+            return;
+        }
+
+        //encoded indices follow the 'c' order of the encoder residual
+        if (GradientEncoder.isBitmapEncoded(encoded) || order != 'c') {
+            INDArray decoded = Nd4j.create(target.shape(), 'c');
+            GradientEncoder.decode(encoded, decoded);
+            applyStripes(decoded);
+            return;
+        }
+
+        int[][] buckets = new int[stripes.length][];
+        int[] counts = new int[stripes.length];
+        DataBuffer data = encoded.data();
+        int numEncoded = data.getInt(0);
+        for (int i = 0; i < numEncoded; i++) {
+            int idx = data.getInt(GradientEncoder.HEADER_LENGTH + i);
+            if (idx == 0 || Math.abs(idx) > length)
+                throw new IllegalArgumentException("Encoded index " + idx + " is out of the master array bounds");
+            int s = (Math.abs(idx) - 1) / stripeLength;
+            if (buckets[s] == null)
+                buckets[s] = new int[16];
+            else if (counts[s] == buckets[s].length)
+                buckets[s] = Arrays.copyOf(buckets[s], counts[s] * 2);
+            buckets[s][counts[s]++] = idx;
+        }
+
+        double threshold = GradientEncoder.threshold(encoded);
+        for (int s = 0; s < stripes.length; s++) {
+            if (counts[s] == 0)
+                continue;
+
+            int from = s * stripeLength;
+            lockRange(s, s);
+            try {
+                for (int i = 0; i < counts[s]; i++) {
+                    int idx = buckets[s][i];
+                    int e = Math.abs(idx) - 1 - from;
+                    stripes[s].putScalar(e, stripes[s].getDouble(e) + (idx > 0 ? threshold : -threshold));
+                }
+                versions.incrementAndGet(s);
+            } finally {
+                unlockRange(s, s);
+            }
+        }
+    }
+
+    /**
+     * Add the given array to a tensor along dimension
+     * of the master array
+     * @param update the update to add
+     * @param idx the index of the tad
+     * @param dimensions the dimensions of the tad
+     */
+    public void applyPartial(@NonNull INDArray update, long idx, int... dimensions) {
+        INDArray tad = target.tensorAlongDimension((int) idx, dimensions);
+        int first = 0;
+        int last = 0;
+        if (striped) {
+            long start = tad.offset() - target.offset();
+            long end = start;
+            int[] shape = tad.shape();
+            int[] stride = tad.stride();
+            for (int i = 0; i < shape.length; i++)
+                end += (long) (shape[i] - 1) * Math.abs(stride[i]);
+            first = (int) (start / stripeLength);
+            last = (int) Math.min(end / stripeLength, stripes.length - 1);
+        }
+
+        lockRange(first, last);
+        try {
+            tad.addi(update);
+            touchRange(first, last);
+        } finally {
+            unlockRange(first, last);
+        }
+    }
+
+    /**
+     * Add an update to the given log, and mark it
+     * as being applied until {@link #finishLogged(long)} is called
+     * with the returned index. The index is taken and marked
+     * while holding the monitor of the log, before the update becomes
+     * visible in it, so a checkpoint never sees a logged update
+     * that is not marked yet.
+     * @param updateStorage the update log
+     * @param message the update to log
+     * @return the index of the update in the log
+     */
+    public long startLogged(@NonNull UpdateStorage updateStorage, @NonNull NDArrayMessage message) {
+        synchronized (updateStorage) {
+            long index = updateStorage.numUpdates();
+            loggedInProgress.add(index);
+            try {
+                updateStorage.addUpdate(message);
+            } catch (RuntimeException e) {
+                loggedInProgress.remove(index);
+                throw e;
+            }
+            return index;
+        }
+    }
+
+    /**
+     * Mark a logged update as applied
+     * @param index the index returned by {@link #startLogged(UpdateStorage, NDArrayMessage)}
+     */
+    public void finishLogged(long index) {
+        loggedInProgress.remove(index);
+    }
+
+    /**
+     * Run an operation on the master array
+     * while holding the locks of all stripes,
+     * for example to scale or snapshot it
+     * @param action the operation to run
+     */
+    public void exclusive(@NonNull Consumer<INDArray> action) {
+        lockRange(0, stripes.length - 1);
+        try {
+            action.accept(target);
+            touchRange(0, stripes.length - 1);
+        } finally {
+            unlockRange(0, stripes.length - 1);
+        }
+    }
+
+    @Override
+    public INDArray target() {
+        return target;
+    }
+
+    @Override
+    public long stripeOffset(int stripe) {
+        return (long) stripe * stripeLength;
+    }
+
+    @Override
+    public long stripeVersion(int stripe) {
+        return versions.get(stripe);
+    }
+
+    /**
+     * Copy the raw bytes of the given stripe
+     * while holding its lock, so the copy
+     * contains whole updates only
+     * @param stripe the stripe to copy
+     * @param destination the buffer to copy to
+     * @return the version of the stripe that was copied
+     */
+    @Override
+    public long readStripe(int stripe, @NonNull ByteBuffer destination) {
+        locks[stripe].lock();
+        try {
+            INDArray source = target;
+            long offset = target.offset() + stripeOffset(stripe);
+            int count = stripes[stripe].length();
+            if (!striped && !Shape.isContiguousInBuffer(target)) {
+                source = target.dup(order);
+                offset = source.offset();
+            }
+
+            int elementSize = source.data().getElementSize();
+            long end = (offset + count) * elementSize;
+            //nio buffers are int indexed
+            if (end > Integer.MAX_VALUE)
+                throw new IllegalStateException("Stripe " + stripe + " ends at byte " + end
+                                + ", beyond the 2GB a byte buffer can address");
+
+            ByteBuffer bytes = source.data().asNio().duplicate();
+            bytes.limit((int) end);
+            bytes.position((int) (offset * elementSize));
+            destination.put(bytes);
+            return versions.get(stripe);
+        } finally {
+            locks[stripe].unlock();
+        }
+    }
+
+    @Override
+    public long firstUpdateInProgress() {
+        Long first = loggedInProgress.ceiling(Long.MIN_VALUE);
+        return first == null ? Long.MAX_VALUE : first;
+    }
+
+    private void touchRange(int first, int last) {
+        for (int s = first; s <= last; s++)
+            versions.incrementAndGet(s);
+    }
+
+    private void lockRange(int first, int last) {
+        for (int s = first; s <= last; s++) {
+            if (!locks[s].tryLock()) {
+                contendedStripes.incrementAndGet();
+                locks[s].lock();
+            }
+        }
+    }
+
+    private void unlockRange(int first, int last) {
+        for (int s = last; s >= first; s--)
+            locks[s].unlock();
+    }
+}
@@ -2,6 +2,7 @@ package org.nd4j.parameterserver.updater;
 
 import org.nd4j.aeron.ipc.NDArrayHolder;
 import org.nd4j.aeron.ipc.NDArrayMessage;
+import org.nd4j.aeron.ipc.encoding.GradientEncoder;
 import org.nd4j.linalg.api.ndarray.INDArray;
 import org.nd4j.parameterserver.updater.storage.UpdateStorage;
 import org.nd4j.shade.jackson.core.JsonProcessingException;
@@ -9,15 +10,22 @@ import org.nd4j.shade.jackson.databind.ObjectMapper;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.function.Consumer;
 
 /**
  * Adds the 2 arrays together,
  * synchronizing when
  * all updates have been collected.
  *
+ * Updates are applied through a {@link StripedUpdateApplier},
+ * so concurrent updates (and partial updates touching different
+ * parts of the master array) do not block each other.
+ * Messages flagged as encoded by a {@link GradientEncoder} are decoded
+ * straight into the master array.
+ *
  * @author Adam Gibson
  */
-public class SynchronousParameterUpdater extends BaseParameterUpdater {
+public class SynchronousParameterUpdater extends StripedParameterUpdater {
 
     private int workers = Runtime.getRuntime().availableProcessors();
     private static ObjectMapper objectMapper = new ObjectMapper();
@@ -58,6 +66,20 @@ public class SynchronousParameterUpdater extends BaseParameterUpdater {
         this.workers = workers;
     }
 
+    /**
+     *
+     * @param updateStorage
+     * @param ndArrayHolder
+     * @param workers
+     * @param stripes the maximum number of stripes to split
+     *                the master array in for applying updates
+     */
+    public SynchronousParameterUpdater(UpdateStorage updateStorage, NDArrayHolder ndArrayHolder, int workers,
+                    int stripes) {
+        this(updateStorage, ndArrayHolder, workers);
+        this.stripes = stripes;
+    }
+
     /**
      * Initialize this updater
      * with a custom update storage
@@ -89,6 +111,11 @@ public class SynchronousParameterUpdater extends BaseParameterUpdater {
         Map<String, Number> ret = new HashMap<>();
         ret.put("workers", workers);
         ret.put("accumulatedUpdates", numUpdates());
+        StripedUpdateApplier current = currentApplier();
+        if (current != null) {
+            ret.put("stripes", current.numStripes());
+            ret.put("contendedStripes", current.contendedStripes());
+        }
         return ret;
     }
 
@@ -126,16 +153,23 @@ public class SynchronousParameterUpdater extends BaseParameterUpdater {
      */
     @Override
     public void update(NDArrayMessage message) {
-        updateStorage.addUpdate(message);
-        INDArray arr = message.getArr();
-        //of note for ndarrays
-        int[] dimensions = message.getDimensions();
-        boolean whole = dimensions.length == 1 && dimensions[0] == -1;
-
-        if (!whole)
-            partialUpdate(arr, ndArrayHolder.get(), message.getIndex(), dimensions);
-        else
-            update(arr, ndArrayHolder.get());
+        StripedUpdateApplier current = applierFor(ndArrayHolder.get());
+        long logIndex = current.startLogged(updateStorage, message);
+        try {
+            INDArray arr = message.getArr();
+            //of note for ndarrays
+            int[] dimensions = message.getDimensions();
+            boolean whole = dimensions.length == 1 && dimensions[0] == -1;
+
+            if (!whole)
+                partialUpdate(arr, ndArrayHolder.get(), message.getIndex(), dimensions);
+            else if (message.isEncoded())
+                current.applyEncoded(arr);
+            else
+                update(arr, ndArrayHolder.get());
+        } finally {
+            current.finishLogged(logIndex);
+        }
     }
 
     /**
@@ -150,7 +184,7 @@ public class SynchronousParameterUpdater extends BaseParameterUpdater {
      */
     @Override
     public void partialUpdate(INDArray arr, INDArray result, long idx, int... dimensions) {
-        result.tensorAlongDimension((int) idx, dimensions).addi(arr);
+        applierFor(result).applyPartial(arr, idx, dimensions);
     }
 
     /**
@@ -162,6 +196,17 @@ public class SynchronousParameterUpdater extends BaseParameterUpdater {
      */
     @Override
     public void update(INDArray arr, INDArray result) {
-        result.addi(arr);
+        applierFor(result).apply(arr);
+    }
+
+    /**
+     * Run an operation on the given result array
+     * while no updates are being applied to it
+     * (for example the final divide for averaging)
+     * @param result the result ndarray
+     * @param action the operation to run
+     */
+    public void exclusive(INDArray result, Consumer<INDArray> action) {
+        applierFor(result).exclusive(action);
     }
 }
@@ -10,6 +10,9 @@ import org.nd4j.linalg.api.ndarray.INDArray;
  * @author Adam Gibson
  */
 public abstract class BaseUpdateStorage implements UpdateStorage {
+    //number of updates dropped by truncate
+    protected volatile int truncated = 0;
+
     /**
      * Get the update at the specified index
      *
@@ -17,13 +20,51 @@ public abstract class BaseUpdateStorage implements UpdateStorage {
      * @return the update at the specified index
      */
     @Override
-    public NDArrayMessage getUpdate(int index) {
+    public synchronized NDArrayMessage getUpdate(int index) {
         if (index >= numUpdates())
             throw new IndexOutOfBoundsException(
                             "Index passed in " + index + " was >= current number of updates " + numUpdates());
+        if (index < truncated)
+            throw new IndexOutOfBoundsException(
+                            "Index passed in " + index + " was truncated, first update is " + truncated);
         return doGetUpdate(index);
     }
 
+    /**
+     * Drop the updates before the given index
+     *
+     * @param upTo the index of the first update to keep
+     */
+    @Override
+    public synchronized void truncate(int upTo) {
+        upTo = Math.min(upTo, numUpdates());
+        if (upTo <= truncated)
+            return;
+        doTruncate(truncated, upTo);
+        truncated = upTo;
+    }
+
+    /**
+     * The index of the oldest update
+     * that can still be retrieved
+     *
+     * @return the number of dropped updates
+     */
+    @Override
+    public int firstUpdate() {
+        return truncated;
+    }
+
+    /**
+     * A method for actually dropping the stored updates.
+     * Default no op
+     * @param from the index of the first update to drop
+     * @param to the index of the first update to keep
+     */
+    protected void doTruncate(int from, int to) {
+        //default no op
+    }
+
     /**
      * A method for actually performing the implementation
      * of retrieving the ndarray
@@ -3,18 +3,19 @@ package org.nd4j.parameterserver.updater.storage;
 import org.nd4j.aeron.ipc.NDArrayMessage;
 import org.nd4j.linalg.api.ndarray.INDArray;
 
+import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * An in memory storage mechanism backed
- * by a thread safe {@link CopyOnWriteArrayList}
+ * by a list. All access is synchronized on the storage,
+ * so the number of updates is consistent with {@link #truncate(int)}
  *
  * @author Adam Gibson
  */
 public class InMemoryUpdateStorage extends BaseUpdateStorage {
 
-    private List<NDArrayMessage> updates = new CopyOnWriteArrayList<>();
+    private final List<NDArrayMessage> updates = new ArrayList<>();
 
     /**
      * Add an ndarray to the storage
@@ -22,7 +23,7 @@ public class InMemoryUpdateStorage extends BaseUpdateStorage {
      * @param array the array to add
      */
     @Override
-    public void addUpdate(NDArrayMessage array) {
+    public synchronized void addUpdate(NDArrayMessage array) {
         updates.add(array);
     }
 
@@ -33,16 +34,22 @@ public class InMemoryUpdateStorage extends BaseUpdateStorage {
      * @return
      */
     @Override
-    public int numUpdates() {
-        return updates.size();
+    public synchronized int numUpdates() {
+        return truncated + updates.size();
     }
 
     /**
      * Clear the array storage
      */
     @Override
-    public void clear() {
+    public synchronized void clear() {
         updates.clear();
+        truncated = 0;
+    }
+
+    @Override
+    protected synchronized void doTruncate(int from, int to) {
+        updates.subList(0, to - from).clear();
     }
 
     /**
@@ -53,7 +60,7 @@ public class InMemoryUpdateStorage extends BaseUpdateStorage {
      * @return the ndarray at the specified index
      */
     @Override
-    public NDArrayMessage doGetUpdate(int index) {
-        return updates.get(index);
+    public synchronized NDArrayMessage doGetUpdate(int index) {
+        return updates.get(index - truncated);
     }
 }
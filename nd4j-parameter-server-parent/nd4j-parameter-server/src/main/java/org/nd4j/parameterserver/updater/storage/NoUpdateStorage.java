@@ -21,7 +21,7 @@ public class NoUpdateStorage extends BaseUpdateStorage {
      */
     @Override
     public void addUpdate(NDArrayMessage array) {
-        log.info("Adding array " + updateCount.get());
+        log.debug("Adding array {}", updateCount.get());
         updateCount.incrementAndGet();
     }
 
@@ -40,8 +40,9 @@ public class NoUpdateStorage extends BaseUpdateStorage {
      * Clear the array storage
      */
     @Override
-    public void clear() {
+    public synchronized void clear() {
         updateCount.set(0);
+        truncated = 0;
     }
 
     /**
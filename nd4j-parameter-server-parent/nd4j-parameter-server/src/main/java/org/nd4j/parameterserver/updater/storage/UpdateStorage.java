@@ -36,6 +36,22 @@ public interface UpdateStorage {
      */
     NDArrayMessage getUpdate(int index);
 
+    /**
+     * Drop the updates before the given index,
+     * for example because they are included in a checkpoint.
+     * The number of updates is not affected,
+     * but dropped updates can't be retrieved anymore.
+     * @param upTo the index of the first update to keep
+     */
+    void truncate(int upTo);
+
+    /**
+     * The index of the oldest update
+     * that can still be retrieved
+     * @return the number of dropped updates
+     */
+    int firstUpdate();
+
     /**
      * Close the database
      */
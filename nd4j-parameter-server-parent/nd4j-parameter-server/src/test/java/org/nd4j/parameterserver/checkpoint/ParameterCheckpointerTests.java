@@ -0,0 +1,135 @@
+package org.nd4j.parameterserver.checkpoint;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.nd4j.aeron.ipc.NDArrayMessage;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.parameterserver.updater.StripedUpdateApplier;
+import org.nd4j.parameterserver.updater.storage.InMemoryUpdateStorage;
+import org.nd4j.parameterserver.updater.storage.UpdateStorage;
+
+import java.io.File;
+
+import static org.junit.Assert.*;
+
+public class ParameterCheckpointerTests {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testIncrementalCheckpoint() throws Exception {
+        File directory = folder.newFolder();
+        int columns = StripedUpdateApplier.MIN_STRIPE_LENGTH;
+        int length = columns * 4;
+        //every row is a stripe
+        INDArray master = Nd4j.zeros(4, columns);
+        StripedUpdateApplier applier = new StripedUpdateApplier(master, 4);
+        assertEquals(4, applier.numStripes());
+
+        UpdateStorage updateStorage = new InMemoryUpdateStorage();
+        ParameterCheckpointer checkpointer =
+                        new ParameterCheckpointer(directory, "master", () -> applier, updateStorage);
+
+        INDArray update = Nd4j.linspace(1, length, length).reshape(4, columns);
+        updateStorage.addUpdate(NDArrayMessage.wholeArrayUpdate(update));
+        applier.apply(update);
+        assertTrue(checkpointer.checkpoint());
+        assertEquals(4L, checkpointer.status().get("checkpointedStripes"));
+
+        //the update is in the snapshot, so the log is truncated
+        assertEquals(1, updateStorage.numUpdates());
+        assertEquals(1, updateStorage.firstUpdate());
+        assertEquals(master, ParameterCheckpointer.restore(directory, "master"));
+
+        //second slot is written in full once
+        assertTrue(checkpointer.checkpoint());
+        assertEquals(8L, checkpointer.status().get("checkpointedStripes"));
+
+        //only the stripe covered by the partial update is copied to each slot from now on
+        applier.applyPartial(Nd4j.ones(1, columns), 0, 1);
+        assertTrue(checkpointer.checkpoint());
+        assertEquals(9L, checkpointer.status().get("checkpointedStripes"));
+        assertEquals(master, ParameterCheckpointer.restore(directory, "master"));
+
+        SnapshotManifest manifest = ParameterCheckpointer.readManifest(directory, "master");
+        assertEquals(3, manifest.getCheckpoints());
+        assertArrayEquals(master.shape(), manifest.getShape());
+    }
+
+    @Test
+    public void testTruncateBelowUpdateInProgress() throws Exception {
+        File directory = folder.newFolder();
+        INDArray master = Nd4j.zeros(10, 10);
+        StripedUpdateApplier applier = new StripedUpdateApplier(master);
+        UpdateStorage updateStorage = new InMemoryUpdateStorage();
+        ParameterCheckpointer checkpointer =
+                        new ParameterCheckpointer(directory, "master", () -> applier, updateStorage);
+
+        updateStorage.addUpdate(NDArrayMessage.wholeArrayUpdate(Nd4j.ones(10, 10)));
+        applier.apply(Nd4j.ones(10, 10));
+        long first = applier.startLogged(updateStorage, NDArrayMessage.wholeArrayUpdate(Nd4j.ones(10, 10)));
+        long second = applier.startLogged(updateStorage, NDArrayMessage.wholeArrayUpdate(Nd4j.ones(10, 10)));
+        assertEquals(1, first);
+        assertEquals(2, second);
+
+        //the later update finishes first: the earlier one is still missing from the snapshot
+        applier.apply(Nd4j.ones(10, 10));
+        applier.finishLogged(second);
+        assertEquals(first, applier.firstUpdateInProgress());
+        assertTrue(checkpointer.checkpoint());
+        assertEquals(1, updateStorage.firstUpdate());
+        assertEquals(1, ParameterCheckpointer.readManifest(directory, "master").getUpdates());
+
+        applier.apply(Nd4j.ones(10, 10));
+        applier.finishLogged(first);
+        assertEquals(Long.MAX_VALUE, applier.firstUpdateInProgress());
+        assertTrue(checkpointer.checkpoint());
+        assertEquals(3, updateStorage.firstUpdate());
+        assertEquals(3, updateStorage.numUpdates());
+        assertEquals(master, ParameterCheckpointer.restore(directory, "master"));
+    }
+
+    @Test
+    public void testRestartKeepsSnapshot() throws Exception {
+        File directory = folder.newFolder();
+        INDArray master = Nd4j.linspace(1, 100, 100).reshape(10, 10);
+        StripedUpdateApplier applier = new StripedUpdateApplier(master);
+        new ParameterCheckpointer(directory, "master", () -> applier, null).checkpoint();
+
+        //a new checkpointer writes to the other slot first
+        INDArray restored = ParameterCheckpointer.restore(directory, "master");
+        assertEquals(master, restored);
+        StripedUpdateApplier restoredApplier = new StripedUpdateApplier(restored);
+        ParameterCheckpointer checkpointer = new ParameterCheckpointer(directory, "master", () -> restoredApplier,
+                        null);
+        restoredApplier.apply(Nd4j.ones(10, 10));
+        checkpointer.checkpoint();
+        assertEquals(master.add(1), ParameterCheckpointer.restore(directory, "master"));
+        assertEquals(1, ParameterCheckpointer.readManifest(directory, "master").getSlot());
+    }
+
+    @Test
+    public void testRestoreChecksShape() throws Exception {
+        File directory = folder.newFolder();
+        INDArray master = Nd4j.linspace(1, 100, 100).reshape(10, 10);
+        new ParameterCheckpointer(directory, "master", () -> new StripedUpdateApplier(master), null).checkpoint();
+
+        assertEquals(master, ParameterCheckpointer.restore(directory, "master", new int[] {10, 10}));
+        assertNull(ParameterCheckpointer.restore(directory, "other", new int[] {10, 10}));
+        try {
+            ParameterCheckpointer.restore(directory, "master", new int[] {20, 5});
+            fail("Snapshot of another shape was restored");
+        } catch (IllegalStateException e) {
+            assertTrue(e.getMessage().contains("[10, 10]"));
+        }
+    }
+
+    @Test
+    public void testNothingToCheckpoint() throws Exception {
+        ParameterCheckpointer checkpointer = new ParameterCheckpointer(folder.newFolder(), "master", () -> null, null);
+        assertFalse(checkpointer.checkpoint());
+        assertNull(ParameterCheckpointer.restore(folder.getRoot(), "master"));
+    }
+}
@@ -2,11 +2,18 @@ package org.nd4j.parameterserver.updater;
 
 import org.junit.Test;
 import org.nd4j.aeron.ipc.NDArrayMessage;
+import org.nd4j.aeron.ipc.encoding.GradientEncoder;
+import org.nd4j.aeron.ipc.encoding.GradientEncoding;
 import org.nd4j.aeron.ndarrayholder.InMemoryNDArrayHolder;
+import org.nd4j.linalg.api.ndarray.INDArray;
 import org.nd4j.linalg.factory.Nd4j;
 import org.nd4j.parameterserver.updater.storage.NoUpdateStorage;
 
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assume.assumeNotNull;
 
@@ -32,4 +39,54 @@ public class ParameterServerUpdaterTests {
 
     }
 
+    @Test
+    public void encodedUpdateTest() {
+        INDArray master = Nd4j.zeros(1, 100);
+        ParameterServerUpdater updater = new SynchronousParameterUpdater(new NoUpdateStorage(),
+                        new InMemoryNDArrayHolder(master), 1);
+        GradientEncoder encoder = new GradientEncoder(GradientEncoding.THRESHOLD, 0.5, 0.1);
+        INDArray gradient = Nd4j.create(1, 100);
+        gradient.putScalar(3, 2.0);
+        gradient.putScalar(50, -2.0);
+
+        updater.update(encoder.encodeMessage(gradient));
+        assertEquals(0.5, master.getDouble(3), 1e-6);
+        assertEquals(-0.5, master.getDouble(50), 1e-6);
+        assertEquals(gradient, master.add(encoder.residual()));
+    }
+
+    @Test
+    public void softSyncTest() {
+        INDArray master = Nd4j.zeros(2, 2);
+        SoftSyncParameterUpdater updater =
+                        new SoftSyncParameterUpdater(new NoUpdateStorage(), new InMemoryNDArrayHolder(master), 2, 1);
+        NDArrayMessage old = NDArrayMessage.builder().arr(Nd4j.ones(2, 2)).dimensions(new int[] {-1}).index(-1)
+                        .sent(0L).build();
+
+        updater.update(old);
+        assertFalse(updater.shouldReplicate());
+        updater.update(old);
+        assertTrue(updater.shouldReplicate());
+        assertEquals(1, updater.currentGeneration());
+        assertEquals(Nd4j.valueArrayOf(new int[] {2, 2}, 2.0), master);
+        updater.reset();
+        assertFalse(updater.shouldReplicate());
+
+        //one generation behind: scaled by 1 / 2
+        updater.update(old);
+        updater.update(NDArrayMessage.wholeArrayUpdate(Nd4j.ones(2, 2)));
+        assertEquals(2, updater.currentGeneration());
+        assertEquals(Nd4j.valueArrayOf(new int[] {2, 2}, 3.5), master);
+
+        //two generations behind: dropped
+        updater.update(old);
+        assertEquals(Nd4j.valueArrayOf(new int[] {2, 2}, 3.5), master);
+
+        Map<String, Number> status = updater.status();
+        assertEquals(1L, status.get("droppedUpdates"));
+        assertEquals(3L, status.get("staleness.0"));
+        assertEquals(1L, status.get("staleness.1"));
+        assertNotNull(updater.toJson());
+    }
+
 }
@@ -0,0 +1,183 @@
+package org.nd4j.parameterserver.updater;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.Ignore;
+import org.junit.Test;
+import org.nd4j.aeron.ipc.NDArrayMessage;
+import org.nd4j.aeron.ipc.encoding.GradientEncoder;
+import org.nd4j.aeron.ndarrayholder.InMemoryNDArrayHolder;
+import org.nd4j.linalg.api.buffer.DataBuffer;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.compression.ThresholdCompression;
+import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.linalg.indexing.NDArrayIndex;
+import org.nd4j.parameterserver.updater.storage.NoUpdateStorage;
+
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@Slf4j
+public class StripedUpdateApplierTests {
+
+    private static void runConcurrently(int threads, Runnable task) throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            workers[t] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                task.run();
+            });
+            workers[t].start();
+        }
+        start.countDown();
+        for (Thread worker : workers)
+            worker.join();
+    }
+
+    @Test
+    public void testConcurrentWholeUpdates() throws Exception {
+        INDArray master = Nd4j.zeros(100, 100);
+        StripedUpdateApplier applier = new StripedUpdateApplier(master, 8);
+        assertEquals(8, applier.numStripes());
+
+        INDArray update = Nd4j.ones(100, 100);
+        runConcurrently(8, () -> {
+            for (int i = 0; i < 50; i++)
+                applier.apply(update);
+        });
+
+        assertEquals(Nd4j.valueArrayOf(new int[] {100, 100}, 400.0), master);
+    }
+
+    @Test
+    public void testConcurrentPartialUpdates() throws Exception {
+        INDArray master = Nd4j.zeros(64, 256);
+        StripedUpdateApplier applier = new StripedUpdateApplier(master, 16);
+        INDArray rowUpdate = Nd4j.ones(master.tensorAlongDimension(0, 1).shape());
+        INDArray columnUpdate = Nd4j.ones(master.tensorAlongDimension(0, 0).shape());
+
+        runConcurrently(4, () -> {
+            for (int i = 0; i < 20; i++) {
+                for (int row = 0; row < 64; row++)
+                    applier.applyPartial(rowUpdate, row, 1);
+                for (int col = 0; col < 256; col += 17)
+                    applier.applyPartial(columnUpdate, col, 0);
+            }
+        });
+
+        INDArray expected = Nd4j.valueArrayOf(new int[] {64, 256}, 80.0);
+        for (int col = 0; col < 256; col += 17)
+            expected.getColumn(col).addi(80.0);
+        assertEquals(expected, master);
+    }
+
+    @Test
+    public void testConcurrentEncodedUpdates() throws Exception {
+        INDArray master = Nd4j.zeros(1, 8192);
+        StripedUpdateApplier applier = new StripedUpdateApplier(master, 8);
+        assertEquals(8, applier.numStripes());
+
+        //threshold encoded update touching the first two stripes and the last one
+        int[] indices = {1, -2000, 2001, 8192};
+        DataBuffer buffer = Nd4j.getDataBufferFactory().createInt(GradientEncoder.HEADER_LENGTH + indices.length);
+        buffer.put(0, indices.length);
+        buffer.put(1, 8192);
+        buffer.put(2, Float.floatToIntBits(0.5f));
+        buffer.put(3, ThresholdCompression.FLEXIBLE_ENCODING);
+        for (int i = 0; i < indices.length; i++)
+            buffer.put(GradientEncoder.HEADER_LENGTH + i, indices[i]);
+        INDArray encoded = Nd4j.create(buffer, new int[] {1, (int) buffer.length()});
+
+        runConcurrently(4, () -> {
+            for (int i = 0; i < 25; i++)
+                applier.applyEncoded(encoded);
+        });
+
+        assertEquals(50.0, master.getDouble(0), 1e-6);
+        assertEquals(-50.0, master.getDouble(1999), 1e-6);
+        assertEquals(50.0, master.getDouble(2000), 1e-6);
+        assertEquals(50.0, master.getDouble(8191), 1e-6);
+        assertEquals(100.0, master.sumNumber().doubleValue(), 1e-6);
+        assertEquals(100, applier.stripeVersion(1));
+        assertEquals(0, applier.stripeVersion(2));
+        assertEquals(100, applier.stripeVersion(7));
+    }
+
+    @Test
+    public void testNonContiguousMaster() {
+        INDArray master = Nd4j.zeros(200, 200).get(NDArrayIndex.interval(0, 100), NDArrayIndex.interval(0, 100));
+        StripedUpdateApplier applier = new StripedUpdateApplier(master, 8);
+        assertEquals(1, applier.numStripes());
+        applier.apply(Nd4j.ones(100, 100));
+        applier.applyPartial(Nd4j.ones(master.tensorAlongDimension(3, 1).shape()), 3, 1);
+        assertEquals(10100.0, master.sumNumber().doubleValue(), 1e-6);
+    }
+
+    @Test
+    public void testSynchronousUpdaterConcurrentMessages() throws Exception {
+        int workers = 8;
+        INDArray master = Nd4j.zeros(1, 10000);
+        SynchronousParameterUpdater updater = new SynchronousParameterUpdater(new NoUpdateStorage(),
+                        new InMemoryNDArrayHolder(master), workers);
+
+        runConcurrently(workers, () -> updater.update(NDArrayMessage.wholeArrayUpdate(Nd4j.ones(1, 10000))));
+
+        assertTrue(updater.shouldReplicate());
+        assertEquals(Nd4j.valueArrayOf(new int[] {1, 10000}, workers), master);
+        assertTrue(updater.status().containsKey("stripes"));
+    }
+
+    /**
+     * Compares update throughput of a single monitor
+     * with striped update application,
+     * for many subscribers pushing whole array updates.
+     *
+     * Not part of the regular build: remove the {@link Ignore} and run
+     * <pre>
+     * mvn test -pl nd4j-parameter-server-parent/nd4j-parameter-server \
+     *     -Dtest=StripedUpdateApplierTests#benchmarkUpdateThroughput
+     * </pre>
+     * with a native backend. Updates per second of both variants, and the number
+     * of contended stripe acquisitions, are logged for 1, 4, 16 and 64 threads.
+     */
+    @Test
+    @Ignore
+    public void benchmarkUpdateThroughput() throws Exception {
+        int length = 1 << 20;
+        int updatesPerThread = 200;
+        INDArray update = Nd4j.ones(1, length);
+
+        for (int threads : new int[] {1, 4, 16, 64}) {
+            INDArray single = Nd4j.zeros(1, length);
+            Object monitor = new Object();
+            long time1 = System.nanoTime();
+            runConcurrently(threads, () -> {
+                for (int i = 0; i < updatesPerThread; i++) {
+                    synchronized (monitor) {
+                        single.addi(update);
+                    }
+                }
+            });
+            long time2 = System.nanoTime();
+
+            StripedUpdateApplier applier = new StripedUpdateApplier(Nd4j.zeros(1, length));
+            runConcurrently(threads, () -> {
+                for (int i = 0; i < updatesPerThread; i++)
+                    applier.apply(update);
+            });
+            long time3 = System.nanoTime();
+
+            double total = (double) threads * updatesPerThread;
+            log.info("{} threads: synchronized {} updates/s, striped ({} stripes) {} updates/s, contended stripes: {}",
+                            threads, (long) (total * 1e9 / (time2 - time1)), applier.numStripes(),
+                            (long) (total * 1e9 / (time3 - time2)), applier.contendedStripes());
+        }
+    }
+}
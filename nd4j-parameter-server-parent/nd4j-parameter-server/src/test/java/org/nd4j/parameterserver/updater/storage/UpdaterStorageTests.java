@@ -34,4 +34,33 @@ public class UpdaterStorageTests {
         updateStorage.close();
     }
 
+    @Test
+    public void testInMemoryTruncate() {
+        UpdateStorage updateStorage = new InMemoryUpdateStorage();
+        for (int i = 0; i < 5; i++)
+            updateStorage.addUpdate(NDArrayMessage.wholeArrayUpdate(Nd4j.scalar(i)));
+
+        updateStorage.truncate(3);
+        assertEquals(5, updateStorage.numUpdates());
+        assertEquals(3, updateStorage.firstUpdate());
+        assertEquals(3.0, updateStorage.getUpdate(3).getArr().getDouble(0), 1e-6);
+
+        //truncating past the last update keeps the count
+        updateStorage.truncate(10);
+        assertEquals(5, updateStorage.numUpdates());
+        updateStorage.addUpdate(NDArrayMessage.wholeArrayUpdate(Nd4j.scalar(5)));
+        assertEquals(6, updateStorage.numUpdates());
+        assertEquals(5.0, updateStorage.getUpdate(5).getArr().getDouble(0), 1e-6);
+        updateStorage.close();
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testTruncatedUpdate() {
+        UpdateStorage updateStorage = new InMemoryUpdateStorage();
+        updateStorage.addUpdate(NDArrayMessage.wholeArrayUpdate(Nd4j.scalar(1.0)));
+        updateStorage.addUpdate(NDArrayMessage.wholeArrayUpdate(Nd4j.scalar(2.0)));
+        updateStorage.truncate(1);
+        updateStorage.getUpdate(0);
+    }
+
 }
@@ -0,0 +1,96 @@
+package org.nd4j.linalg.benchmark.quantization;
+
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.benchmark.api.BenchMarkPerformer;
+import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.linalg.factory.Nd4jBackend;
+import org.nd4j.linalg.quantization.QuantizationMode;
+import org.nd4j.linalg.quantization.QuantizedGemm;
+import org.nd4j.linalg.quantization.QuantizedMatrix;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares int8 QuantizedGemm against float gemm on square matrices of growing size.
+ *
+ * For each size it reports average time and GFLOPS of both, and relative error
+ * of quantized result in Frobenius norm. Quantization of operands isn't included in timings,
+ * since weights are quantized once. Average time of quantized gemm on the largest size is returned.
+ */
+public class QuantizedGemmBenchmarkPerformer implements BenchMarkPerformer {
+    private static final int[] DEFAULT_SIZES = {256, 1024, 2048, 4096};
+
+    protected int nTimes;
+    protected int[] sizes;
+    protected long averageTime;
+
+    public QuantizedGemmBenchmarkPerformer(int nTimes) {
+        this(nTimes, DEFAULT_SIZES);
+    }
+
+    public QuantizedGemmBenchmarkPerformer(int nTimes, int... sizes) {
+        this.nTimes = nTimes;
+        this.sizes = sizes;
+    }
+
+    @Override
+    public int nTimes() {
+        return nTimes;
+    }
+
+    @Override
+    public long averageTime() {
+        return averageTime;
+    }
+
+    @Override
+    public long run(Nd4jBackend backend) {
+        Nd4j nd4j = new Nd4j();
+        nd4j.initWithBackend(backend);
+
+        for (int size : sizes) {
+            INDArray a = Nd4j.randn(new int[] {size, size});
+            INDArray b = Nd4j.randn(new int[] {size, size});
+
+            QuantizedMatrix qa = QuantizedMatrix.quantize(a, QuantizationMode.PER_ROW);
+            QuantizedMatrix qb = QuantizedMatrix.quantize(b, QuantizationMode.PER_COLUMN);
+
+            // warmup, results of these calls are used for accuracy check
+            INDArray expected = a.mmul(b);
+            INDArray actual = QuantizedGemm.gemm(qa, qb);
+            double error = actual.sub(expected).norm2Number().doubleValue() / expected.norm2Number().doubleValue();
+
+            long floatTime = 0;
+            long quantizedTime = 0;
+            for (int i = 0; i < nTimes; i++) {
+                long time1 = System.nanoTime();
+                a.mmul(b);
+                Nd4j.getExecutioner().commit();
+                long time2 = System.nanoTime();
+                QuantizedGemm.gemm(qa, qb);
+                long time3 = System.nanoTime();
+
+                floatTime += time2 - time1;
+                quantizedTime += time3 - time2;
+            }
+
+            floatTime /= nTimes;
+            quantizedTime /= nTimes;
+            averageTime = quantizedTime;
+
+            double flops = 2.0 * size * size * size;
+            System.out.println("Size [" + size + " x " + size + "]: float gemm "
+                            + TimeUnit.NANOSECONDS.toMillis(floatTime) + " ms (" + format(flops / floatTime)
+                            + " GFLOPS), int8 gemm " + TimeUnit.NANOSECONDS.toMillis(quantizedTime) + " ms ("
+                            + format(flops / quantizedTime) + " GFLOPS), relative error " + error
+                            + ", operands " + (2L * size * size * Nd4j.sizeOfDataType()) + " bytes vs "
+                            + (qa.getSizeInBytes() + qb.getSizeInBytes()) + " bytes");
+        }
+
+        return averageTime;
+    }
+
+    private static String format(double value) {
+        return String.format("%.2f", value);
+    }
+}
@@ -12,6 +12,7 @@ import org.agrona.concurrent.UnsafeBuffer;
 import org.nd4j.aeron.ipc.chunk.NDArrayMessageChunk;
 import org.nd4j.linalg.api.ndarray.INDArray;
 import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.serde.binary.SerdeEncoding;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -39,6 +40,8 @@ public class AeronNDArrayPublisher implements AutoCloseable {
     private static Logger log = LoggerFactory.getLogger(AeronNDArrayPublisher.class);
     public final static int NUM_RETRIES = 100;
     private boolean compress = true;
+    // encoding applied to arrays before sending, takes precedence over compress when set
+    private SerdeEncoding encoding;
     private static final BusySpinIdleStrategy busySpinIdleStrategy = new BusySpinIdleStrategy();
     private int publishRetryTimeOut = 3000;
 
@@ -102,9 +105,11 @@ public class AeronNDArrayPublisher implements AutoCloseable {
         log.info("Publishing to " + channel + " on stream Id " + streamId);
         //ensure default values are set
         INDArray arr = message.getArr();
-        if (isCompress())
+        if (encoding != null && encoding != SerdeEncoding.NONE)
+            message = NDArrayMessage.encode(message, encoding);
+        else if (isCompress())
             while (!message.getArr().isCompressed())
-                Nd4j.getCompressor().compressi(arr, "GZIP");
+                Nd4j.getCompressor().compressi(arr, "DEFLATE");
 
 
 
@@ -66,6 +66,19 @@ public class AeronNDArraySerde extends BinarySerde {
         return toArrayAndByteBuffer(getDirectByteBuffer(buffer), offset);
     }
 
+    /**
+     * Create an ndarray and existing bytebuffer,
+     * decompressing compressed arrays straight from the given buffer if requested
+     * @param buffer the buffer to create the array from
+     * @param offset the offset to start at
+     * @param decompress whether compressed arrays should be decompressed
+     * @return the ndarray derived from this buffer
+     */
+    public static Pair<INDArray, ByteBuffer> toArrayAndByteBuffer(DirectBuffer buffer, int offset,
+                    boolean decompress) {
+        return toArrayAndByteBuffer(getDirectByteBuffer(buffer), offset, decompress);
+    }
+
 
     /**
      * Create an ndarray
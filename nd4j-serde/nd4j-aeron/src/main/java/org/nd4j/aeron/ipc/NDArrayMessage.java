@@ -9,7 +9,8 @@ import org.agrona.concurrent.UnsafeBuffer;
 import org.nd4j.linalg.primitives.Pair;
 import org.nd4j.aeron.ipc.chunk.NDArrayMessageChunk;
 import org.nd4j.linalg.api.ndarray.INDArray;
-import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.serde.binary.BinarySerde;
+import org.nd4j.serde.binary.SerdeEncoding;
 
 import java.io.Serializable;
 import java.nio.ByteBuffer;
@@ -32,6 +33,8 @@ import java.util.UUID;
  * index: the index of the tensor along dimension for update (use -1 if there is no index, eg: when you are going to use the whole array)
  * dimensions: the dimensions to do for a tensoralongdimension update, if you intend on updating the whole array send: new int[]{ -1} which
  * will indicate to use the whole array for an update.
+ * id: optional correlation id, used for matching responses to requests (use 0 if there is no id)
+ * encoded: true if the array is a gradient encoded by a {@link org.nd4j.aeron.ipc.encoding.GradientEncoder}
  *
  *
  * @author Adam Gibson
@@ -47,6 +50,10 @@ public class NDArrayMessage implements Serializable {
     private int[] dimensions;
     private byte[] chunk;
     private int numChunks = 0;
+    //correlation id of the request this message answers, 0 means none
+    private long id;
+    //true if arr is a gradient encoded by a GradientEncoder
+    private boolean encoded;
     //default dimensions: a 1 length array of -1 means use the whole array for an update.
     private static int[] WHOLE_ARRAY_UPDATE = {-1};
     //represents the constant for indicating using the whole array for an update (-1)
@@ -177,6 +184,8 @@ public class NDArrayMessage implements Serializable {
      * + time stamp size (8)
      * + index size (8)
      * + 4 * message.getDimensions.length
+     * + id size (8)
+     * + encoded flag size (4)
      * @param message the message to get the length for
      * @return the size of the byte buffer for a message
      */
@@ -186,7 +195,9 @@ public class NDArrayMessage implements Serializable {
         int sizeofDimensionLength = 4;
         int timeStampSize = 8;
         int indexSize = 8;
-        return enumSize + nInts + sizeofDimensionLength + timeStampSize + indexSize
+        int idSize = 8;
+        int encodedSize = 4;
+        return enumSize + nInts + sizeofDimensionLength + timeStampSize + indexSize + idSize + encodedSize
                         + AeronNDArraySerde.byteBufferSizeFor(message.getArr());
     }
 
@@ -264,6 +275,32 @@ public class NDArrayMessage implements Serializable {
         return ret;
     }
 
+    /**
+     * Returns a copy of the message
+     * with its array encoded, see {@link BinarySerde#encode(INDArray, SerdeEncoding)}.
+     * The array of the given message isn't modified.
+     * @param message the message to encode
+     * @param encoding the encoding to use
+     * @return the encoded message
+     */
+    public static NDArrayMessage encode(NDArrayMessage message, SerdeEncoding encoding) {
+        return NDArrayMessage.builder().arr(BinarySerde.encode(message.getArr(), encoding))
+                        .sent(message.getSent()).index(message.getIndex()).dimensions(message.getDimensions())
+                        .id(message.getId()).encoded(message.isEncoded()).build();
+    }
+
+    /**
+     * Convert a message to a direct buffer,
+     * encoding its array first.
+     * See {@link NDArrayMessage#encode(NDArrayMessage, SerdeEncoding)}
+     * @param message the message to convert
+     * @param encoding the encoding to use
+     * @return a direct byte buffer representing this message.
+     */
+    public static DirectBuffer toBuffer(NDArrayMessage message, SerdeEncoding encoding) {
+        return toBuffer(encode(message, encoding));
+    }
+
     /**
      * Convert a message to a direct buffer.
      * See {@link NDArrayMessage#fromBuffer(DirectBuffer, int)}
@@ -292,6 +329,8 @@ public class NDArrayMessage implements Serializable {
         for (int i = 0; i < message.getDimensions().length; i++) {
             byteBuffer.putInt(message.getDimensions()[i]);
         }
+        byteBuffer.putLong(message.getId());
+        byteBuffer.putInt(message.isEncoded() ? 1 : 0);
 
         //rewind the buffer before putting it in to the unsafe buffer
         //note that we set rewind to false in the do byte buffer put methods
@@ -309,6 +348,8 @@ public class NDArrayMessage implements Serializable {
      * index
      * dimension length
      * dimensions
+     * id (optional, messages produced before it was introduced don't have it)
+     * encoded flag (optional as well)
      *
      * We use {@link AeronNDArraySerde#toArrayAndByteBuffer(DirectBuffer, int)}
      * to read in the ndarray and just use normal {@link ByteBuffer#getInt()} and
@@ -324,10 +365,9 @@ public class NDArrayMessage implements Serializable {
      * @return the ndarray message based on this direct buffer.
      */
     public static NDArrayMessage fromBuffer(DirectBuffer buffer, int offset) {
-        //skip the message opType
-        Pair<INDArray, ByteBuffer> pair = AeronNDArraySerde.toArrayAndByteBuffer(buffer, offset + 4);
+        //skip the message opType, encoded arrays are decoded straight from the buffer
+        Pair<INDArray, ByteBuffer> pair = AeronNDArraySerde.toArrayAndByteBuffer(buffer, offset + 4, true);
         INDArray arr = pair.getKey();
-        Nd4j.getCompressor().decompressi(arr);
         //use the rest of the buffer, of note here the offset is already set, we should only need to use
         ByteBuffer rest = pair.getRight();
         long time = rest.getLong();
@@ -339,7 +379,10 @@ public class NDArrayMessage implements Serializable {
         int[] dimensions = new int[dimensionLength];
         for (int i = 0; i < dimensionLength; i++)
             dimensions[i] = rest.getInt();
-        return NDArrayMessage.builder().sent(time).arr(arr).index(index).dimensions(dimensions).build();
+        long id = rest.remaining() >= 8 ? rest.getLong() : 0;
+        boolean encoded = rest.remaining() >= 4 && rest.getInt() != 0;
+        return NDArrayMessage.builder().sent(time).arr(arr).index(index).dimensions(dimensions).id(id)
+                        .encoded(encoded).build();
     }
 
 }
@@ -0,0 +1,271 @@
+package org.nd4j.aeron.ipc.encoding;
+
+import lombok.Getter;
+import lombok.NonNull;
+import org.nd4j.aeron.ipc.NDArrayMessage;
+import org.nd4j.linalg.api.buffer.DataBuffer;
+import org.nd4j.linalg.api.memory.MemoryWorkspace;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.api.ops.impl.indexaccum.IAMax;
+import org.nd4j.linalg.compression.ThresholdCompression;
+import org.nd4j.linalg.factory.Nd4j;
+
+import java.util.Arrays;
+
+/**
+ * Encodes gradients as sparse threshold or bitmap
+ * updates before they are sent to the parameter server.
+ *
+ * Every gradient is added to a local residual array,
+ * and only the elements of the residual that exceed the threshold
+ * are sent (as +/- threshold); the remainder stays in the residual
+ * and is sent with a later update.
+ *
+ * After every update, the threshold is adapted so that the fraction of
+ * elements sent approaches the target density.
+ *
+ * Encoded arrays are INT arrays of shape [1, encodedLength]
+ * whose header holds the format and the original length,
+ * see {@link #decode(INDArray, INDArray)}.
+ * They are sent as regular {@link NDArrayMessage}s, flagged as encoded,
+ * see {@link #isEncoded(NDArrayMessage)}.
+ *
+ * This class is thread safe, but keeps a single residual:
+ * use one encoder per parameter array.
+ */
+public class GradientEncoder {
+    /**
+     * Density above which bitmap encoding (2 bits per element)
+     * is smaller than threshold encoding (32 bits per sent element)
+     */
+    public static final double BITMAP_DENSITY = 1.0 / 16;
+    /**
+     * Number of header ints of an encoded update:
+     * number of encoded elements, original length, threshold and format
+     */
+    public static final int HEADER_LENGTH = 4;
+
+    @Getter
+    private final GradientEncoding encoding;
+    @Getter
+    private final double targetDensity;
+    private final double minThreshold;
+    private final double maxThreshold;
+    @Getter
+    private volatile double threshold;
+    @Getter
+    private volatile double lastDensity;
+    private INDArray residual;
+
+    /**
+     *
+     * @param encoding the encoding to use
+     * @param initialThreshold the initial threshold
+     * @param targetDensity the target fraction of elements to send per update,
+     *                      for example 1e-3
+     */
+    public GradientEncoder(@NonNull GradientEncoding encoding, double initialThreshold, double targetDensity) {
+        this(encoding, initialThreshold, targetDensity, initialThreshold * 1e-3, initialThreshold * 1e3);
+    }
+
+    /**
+     *
+     * @param encoding the encoding to use
+     * @param initialThreshold the initial threshold
+     * @param targetDensity the target fraction of elements to send per update
+     * @param minThreshold the lower bound for threshold adaptation
+     * @param maxThreshold the upper bound for threshold adaptation
+     */
+    public GradientEncoder(@NonNull GradientEncoding encoding, double initialThreshold, double targetDensity,
+                    double minThreshold, double maxThreshold) {
+        if (encoding == GradientEncoding.NONE)
+            throw new IllegalArgumentException("Use no encoder for dense updates");
+        if (initialThreshold <= 0 || minThreshold <= 0 || minThreshold > maxThreshold)
+            throw new IllegalArgumentException("Invalid thresholds: initial " + initialThreshold + ", min "
+                            + minThreshold + ", max " + maxThreshold);
+        if (targetDensity <= 0 || targetDensity > 1)
+            throw new IllegalArgumentException("Target density must be in (0, 1], got " + targetDensity);
+        if (encoding == GradientEncoding.BITMAP && Nd4j.dataType() != DataBuffer.Type.FLOAT)
+            throw new IllegalStateException("Bitmap encoding is only supported for FLOAT data");
+
+        this.encoding = encoding;
+        this.threshold = Math.min(maxThreshold, Math.max(minThreshold, initialThreshold));
+        this.targetDensity = targetDensity;
+        this.minThreshold = minThreshold;
+        this.maxThreshold = maxThreshold;
+    }
+
+    /**
+     * Add the gradient to the residual and encode
+     * the elements of the residual above the threshold.
+     * @param gradient the gradient to encode
+     * @return the encoded update, or null if no elements exceeded the threshold
+     */
+    public synchronized INDArray encode(@NonNull INDArray gradient) {
+        if (residual == null) {
+            try (MemoryWorkspace ws = Nd4j.getMemoryManager().scopeOutOfWorkspaces()) {
+                residual = Nd4j.create(gradient.shape(), 'c');
+            }
+        } else if (!Arrays.equals(residual.shape(), gradient.shape())) {
+            throw new IllegalStateException("Gradient shape " + Arrays.toString(gradient.shape())
+                            + " does not match the residual shape " + Arrays.toString(residual.shape()));
+        }
+        residual.addi(gradient);
+
+        int length = residual.length();
+        boolean bitmap = encoding == GradientEncoding.BITMAP || (encoding == GradientEncoding.AUTO
+                        && lastDensity > BITMAP_DENSITY && Nd4j.dataType() == DataBuffer.Type.FLOAT);
+
+        INDArray encoded;
+        long sent;
+        if (bitmap) {
+            encoded = Nd4j.create(Nd4j.getDataBufferFactory().createInt(length / 16 + 5),
+                            new int[] {1, length / 16 + 5});
+            sent = Nd4j.getExecutioner().bitmapEncode(residual, encoded, threshold);
+        } else {
+            encoded = Nd4j.getExecutioner().thresholdEncode(residual, threshold);
+            if (encoded == null)
+                encoded = encodeSingle(residual, threshold);
+            sent = encoded == null ? 0 : encoded.data().getInt(0);
+            if (encoded != null)
+                encoded = Nd4j.create(encoded.data(), new int[] {1, (int) encoded.data().length()});
+        }
+
+        lastDensity = (double) sent / length;
+        adaptThreshold();
+        return sent == 0 ? null : encoded;
+    }
+
+    /**
+     * Encode the gradient as a whole array update message
+     * @param gradient the gradient to encode
+     * @return the message, or null if no elements exceeded the threshold
+     */
+    public NDArrayMessage encodeMessage(@NonNull INDArray gradient) {
+        INDArray encoded = encode(gradient);
+        if (encoded == null)
+            return null;
+
+        NDArrayMessage message = NDArrayMessage.wholeArrayUpdate(encoded);
+        message.setEncoded(true);
+        return message;
+    }
+
+    /**
+     * Threshold encoding of the executioner skips residuals
+     * with a single element above the threshold: that element
+     * is encoded here, in the same format
+     */
+    private static INDArray encodeSingle(INDArray residual, double threshold) {
+        int idx = Nd4j.getExecutioner().execAndReturn(new IAMax(residual)).getFinalResult();
+        double value = residual.getDouble(idx);
+        if (Math.abs(value) < threshold)
+            return null;
+
+        DataBuffer buffer = Nd4j.getDataBufferFactory().createInt(5);
+        buffer.put(0, 1);
+        buffer.put(1, residual.length());
+        buffer.put(2, Float.floatToIntBits((float) threshold));
+        buffer.put(3, ThresholdCompression.FLEXIBLE_ENCODING);
+        //1 based index, negative for negative updates
+        buffer.put(4, value > 0 ? idx + 1 : -(idx + 1));
+
+        residual.putScalar(idx, value > 0 ? value - threshold : value + threshold);
+        return Nd4j.create(buffer, new int[] {1, 5});
+    }
+
+    private void adaptThreshold() {
+        //scale the threshold by the square root of the density ratio (damped),
+        //at most by a factor of 2 per update
+        double factor = lastDensity == 0 ? 0.5 : Math.sqrt(lastDensity / targetDensity);
+        factor = Math.min(2.0, Math.max(0.5, factor));
+        threshold = Math.min(maxThreshold, Math.max(minThreshold, threshold * factor));
+    }
+
+    /**
+     * A copy of the current residual
+     * @return the residual, or null if nothing was encoded yet
+     */
+    public synchronized INDArray residual() {
+        return residual == null ? null : residual.dup();
+    }
+
+    /**
+     * Clear the residual
+     */
+    public synchronized void reset() {
+        if (residual != null)
+            residual.assign(0.0);
+        lastDensity = 0;
+    }
+
+    /**
+     * Returns true if the array of the given message
+     * is an encoded update
+     * @param message the message to test
+     * @return true if the array was encoded by a {@link GradientEncoder}
+     */
+    public static boolean isEncoded(NDArrayMessage message) {
+        return message != null && message.isEncoded();
+    }
+
+    /**
+     * The length of the array that was encoded
+     * @param encoded the encoded update
+     * @return the original length
+     */
+    public static int originalLength(@NonNull INDArray encoded) {
+        return encoded.data().getInt(1);
+    }
+
+    /**
+     * Returns true if the update is bitmap encoded,
+     * otherwise it holds signed 1 based indices of the
+     * encoded elements after the header
+     * @param encoded the encoded update
+     * @return true for bitmap encoding
+     */
+    public static boolean isBitmapEncoded(@NonNull INDArray encoded) {
+        return encoded.data().getInt(3) == ThresholdCompression.BITMAP_ENCODING;
+    }
+
+    /**
+     * The threshold the update was encoded with
+     * @param encoded the encoded update
+     * @return the value added or subtracted per encoded element
+     */
+    public static double threshold(@NonNull INDArray encoded) {
+        return Float.intBitsToFloat(encoded.data().getInt(2));
+    }
+
+    /**
+     * Decode an encoded update, adding it to the target array
+     * @param encoded the encoded update
+     * @param target the array to add the update to
+     * @return the target array
+     */
+    public static INDArray decode(@NonNull INDArray encoded, @NonNull INDArray target) {
+        if (encoded.isCompressed() || encoded.data().dataType() != DataBuffer.Type.INT)
+            throw new IllegalArgumentException("Array is not an encoded update");
+        if (originalLength(encoded) != target.length())
+            throw new IllegalArgumentException("Encoded update of length " + originalLength(encoded)
+                            + " does not match target length " + target.length());
+
+        //decoding works on the whole buffer of the target, in the 'c' order of the encoder residual
+        if (target.isView() || target.data().length() != target.length() || target.ordering() != 'c') {
+            INDArray tmp = Nd4j.create(target.shape(), 'c');
+            decodeInto(encoded, tmp);
+            return target.addi(tmp);
+        }
+        return decodeInto(encoded, target);
+    }
+
+    private static INDArray decodeInto(INDArray encoded, INDArray target) {
+        if (isBitmapEncoded(encoded)) {
+            if (target.data().dataType() != DataBuffer.Type.FLOAT)
+                throw new IllegalStateException("Bitmap decoding is only supported for FLOAT data");
+            return Nd4j.getExecutioner().bitmapDecode(encoded, target);
+        }
+        return Nd4j.getExecutioner().thresholdDecode(encoded, target);
+    }
+}
@@ -0,0 +1,14 @@
+package org.nd4j.aeron.ipc.encoding;
+
+/**
+ * Encodings for sending gradients
+ * as sparse updates, see {@link GradientEncoder}
+ *
+ * NONE: send the dense array
+ * THRESHOLD: send the indices of elements above the threshold (cheap for very sparse updates)
+ * BITMAP: send 2 bits per element (cheap for updates with a density above 1/16)
+ * AUTO: pick THRESHOLD or BITMAP based on the density of the previous update
+ */
+public enum GradientEncoding {
+    NONE, THRESHOLD, BITMAP, AUTO
+}
@@ -46,6 +46,16 @@ public class HostPortPublisher implements AutoCloseable {
     }
 
 
+    /**
+     * Send the given uri, reusing the publication
+     * of this publisher
+     * @param uriToSend the uri to send
+     */
+    public void send(String uriToSend) {
+        this.uriToSend = uriToSend;
+        send();
+    }
+
     public void send() {
         if (!init)
             init();
@@ -70,7 +80,7 @@ public class HostPortPublisher implements AutoCloseable {
         // Try to publish the buffer. 'offer' is a non-blocking call.
         // If it returns less than 0, the message was not sent, and the offer should be retried.
         long result;
-        log.info("Begin publish " + channel + " and stream " + streamId);
+        log.debug("Begin publish " + channel + " and stream " + streamId);
         int timesFailed = 0;
         while ((result = publication.offer(buffer, 0, buffer.capacity())) < 0L) {
             if (result == Publication.BACK_PRESSURED && timesFailed % 1000 == 0)
@@ -99,7 +109,7 @@ public class HostPortPublisher implements AutoCloseable {
         }
 
 
-        log.info("Done sending uri " + uriToSend);
+        log.debug("Done sending uri " + uriToSend);
     }
 
     /**
@@ -5,11 +5,12 @@ import io.aeron.logbuffer.FragmentHandler;
 import io.aeron.logbuffer.Header;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
+import lombok.extern.slf4j.Slf4j;
 import org.agrona.DirectBuffer;
 import org.nd4j.aeron.ipc.AeronNDArrayPublisher;
 import org.nd4j.aeron.ipc.AeronUtil;
 import org.nd4j.aeron.ipc.NDArrayHolder;
-import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.aeron.ipc.NDArrayMessage;
 
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
@@ -26,12 +27,46 @@ import java.nio.ByteOrder;
  */
 @AllArgsConstructor
 @Builder
+@Slf4j
 public class NDArrayResponseFragmentHandler implements FragmentHandler {
     private NDArrayHolder holder;
     private Aeron.Context context;
     private Aeron aeron;
     private int streamId;
 
+    /**
+     * Callback for handling fragments of data being read from a log.
+     *
+     * @param buffer containing the data.
+     * @param offset at which the data begins.
+     * @param length of the data in bytes.
+     * @param header representing the meta data for the data.
+     */
+    /**
+     * Build a request for the responder:
+     * host:port:stream:id[:tadIndex:dimension,dimension...]
+     * where host:port:stream is the connection url of the subscriber to send the array to,
+     * and id is the correlation id echoed back in {@link NDArrayMessage#getId()}.
+     * A plain host:port:stream request (no id, whole array) is understood as well.
+     * @param connectionUrl the connection url of the subscriber
+     * @param id the correlation id of the request
+     * @param tadIndex the index of the tensor along dimension to send, or -1 for the whole array
+     * @param dimensions the dimensions of the tensor along dimension
+     * @return the request to send to the responder
+     */
+    public static String request(String connectionUrl, long id, int tadIndex, int... dimensions) {
+        StringBuilder builder = new StringBuilder(connectionUrl).append(':').append(id);
+        if (tadIndex >= 0) {
+            builder.append(':').append(tadIndex).append(':');
+            for (int i = 0; i < dimensions.length; i++) {
+                if (i > 0)
+                    builder.append(',');
+                builder.append(dimensions[i]);
+            }
+        }
+        return builder.toString();
+    }
+
     /**
      * Callback for handling fragments of data being read from a log.
      *
@@ -48,23 +83,39 @@ public class NDArrayResponseFragmentHandler implements FragmentHandler {
             byte[] b = new byte[length];
             byteBuffer.get(b);
             String hostPort = new String(b);
-            System.out.println("Host port " + hostPort + " offset " + offset + " length " + length);
+            log.debug("Request " + hostPort + " offset " + offset + " length " + length);
             String[] split = hostPort.split(":");
-            if (split == null || split.length != 3) {
-                System.err.println("no host port stream found");
+            if (split == null || (split.length != 3 && split.length != 4 && split.length != 6)) {
+                log.warn("no host port stream found in request " + hostPort);
                 return;
             }
 
             int port = Integer.parseInt(split[1]);
             int streamToPublish = Integer.parseInt(split[2]);
             String channel = AeronUtil.aeronChannel(split[0], port);
-            INDArray arrGet = holder.get();
+            long id = split.length > 3 ? Long.parseLong(split[3]) : 0;
+
+            NDArrayMessage message;
+            if (split.length == 6) {
+                int tadIndex = Integer.parseInt(split[4]);
+                String[] dims = split[5].split(",");
+                int[] dimensions = new int[dims.length];
+                for (int i = 0; i < dims.length; i++)
+                    dimensions[i] = Integer.parseInt(dims[i]);
+
+                message = NDArrayMessage.builder().arr(holder.getTad(tadIndex, dimensions)).index(tadIndex)
+                                .dimensions(dimensions).sent(NDArrayMessage.getCurrentTimeUtc()).id(id).build();
+            } else {
+                message = NDArrayMessage.wholeArrayUpdate(holder.get());
+                message.setId(id);
+            }
+
             AeronNDArrayPublisher publisher = AeronNDArrayPublisher.builder().streamId(streamToPublish).aeron(aeron)
                             .channel(channel).build();
             try {
-                publisher.publish(arrGet);
+                publisher.publish(message);
             } catch (Exception e) {
-                e.printStackTrace();
+                log.error("Unable to respond to " + hostPort, e);
             }
 
             try {
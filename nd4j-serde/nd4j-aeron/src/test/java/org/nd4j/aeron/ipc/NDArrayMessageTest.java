@@ -4,8 +4,11 @@ import org.agrona.DirectBuffer;
 import org.junit.Test;
 import org.nd4j.linalg.api.ndarray.INDArray;
 import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.serde.binary.SerdeEncoding;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
 /**
  * Created by agibsonccc on 11/6/16.
@@ -29,5 +32,33 @@ public class NDArrayMessageTest {
 
     }
 
+    @Test
+    public void testEncodedMessage() {
+        INDArray arr = Nd4j.linspace(1, 1000, 1000);
+        NDArrayMessage message = NDArrayMessage.wholeArrayUpdate(arr);
+        message.setId(7);
+
+        DirectBuffer plain = NDArrayMessage.toBuffer(message);
+        DirectBuffer encoded = NDArrayMessage.toBuffer(message, SerdeEncoding.INT8);
+        assertTrue(encoded.capacity() < plain.capacity() / 2);
+        assertFalse(message.getArr().isCompressed());
+
+        NDArrayMessage newMessage = NDArrayMessage.fromBuffer(encoded, 0);
+        assertFalse(newMessage.getArr().isCompressed());
+        assertEquals(7, newMessage.getId());
+        assertEquals(message.getIndex(), newMessage.getIndex());
+        assertEquals(0.0, arr.sub(newMessage.getArr()).amaxNumber().doubleValue(), 2.0);
+    }
+
+    @Test
+    public void testCorrelationId() {
+        NDArrayMessage message = NDArrayMessage.wholeArrayUpdate(Nd4j.linspace(1, 4, 4));
+        message.setId(42);
+        DirectBuffer bufferConvert = NDArrayMessage.toBuffer(message);
+        NDArrayMessage newMessage = NDArrayMessage.fromBuffer(bufferConvert, 0);
+        assertEquals(42, newMessage.getId());
+        assertEquals(message, newMessage);
+    }
+
 
 }
@@ -0,0 +1,84 @@
+package org.nd4j.aeron.ipc.encoding;
+
+import org.agrona.DirectBuffer;
+import org.junit.Test;
+import org.nd4j.aeron.ipc.NDArrayMessage;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.linalg.ops.transforms.Transforms;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class GradientEncoderTest {
+
+    @Test
+    public void testThresholdRoundTripWithResidual() {
+        INDArray gradient = Nd4j.create(1, 1000);
+        for (int i = 0; i < 10; i++)
+            gradient.putScalar(i * 100, i % 2 == 0 ? 0.5 : -0.5);
+        gradient.putScalar(7, 1e-3);
+
+        GradientEncoder encoder = new GradientEncoder(GradientEncoding.THRESHOLD, 0.1, 0.01);
+        NDArrayMessage message = encoder.encodeMessage(gradient);
+        assertTrue(GradientEncoder.isEncoded(message));
+        assertEquals(1000, GradientEncoder.originalLength(message.getArr()));
+        //INT arrays sent as is are not mistaken for encoded updates
+        assertFalse(GradientEncoder.isEncoded(NDArrayMessage.wholeArrayUpdate(message.getArr())));
+
+        DirectBuffer buffer = NDArrayMessage.toBuffer(message);
+        NDArrayMessage received = NDArrayMessage.fromBuffer(buffer, 0);
+        assertTrue(GradientEncoder.isEncoded(received));
+
+        INDArray master = Nd4j.ones(1, 1000);
+        GradientEncoder.decode(received.getArr(), master);
+
+        //whatever was not sent stays in the residual
+        INDArray sent = master.sub(1.0);
+        assertEquals(gradient, sent.add(encoder.residual()));
+        assertEquals(10 * 0.1, Transforms.abs(sent).sumNumber().doubleValue(), 1e-5);
+        assertEquals(0.1, Math.abs(sent.getDouble(0)), 1e-6);
+        assertEquals(0.0, sent.getDouble(7), 1e-6);
+    }
+
+    @Test
+    public void testSingleElementAboveThreshold() {
+        INDArray gradient = Nd4j.create(1, 100);
+        gradient.putScalar(42, -0.35);
+        gradient.putScalar(7, 0.05);
+
+        GradientEncoder encoder = new GradientEncoder(GradientEncoding.THRESHOLD, 0.1, 0.01);
+        NDArrayMessage message = encoder.encodeMessage(gradient);
+        assertTrue(GradientEncoder.isEncoded(message));
+
+        INDArray master = Nd4j.zeros(1, 100);
+        GradientEncoder.decode(message.getArr(), master);
+        assertEquals(-0.1, master.getDouble(42), 1e-6);
+        assertEquals(0.1, Transforms.abs(master).sumNumber().doubleValue(), 1e-6);
+        assertEquals(gradient, master.add(encoder.residual()));
+    }
+
+    @Test
+    public void testNothingAboveThreshold() {
+        GradientEncoder encoder = new GradientEncoder(GradientEncoding.THRESHOLD, 1.0, 0.01);
+        assertNull(encoder.encode(Nd4j.create(1, 100).addi(1e-3)));
+        //the threshold decreases when nothing is sent
+        assertTrue(encoder.getThreshold() < 1.0);
+        assertEquals(Nd4j.create(1, 100).addi(1e-3), encoder.residual());
+    }
+
+    @Test
+    public void testThresholdAdaptsToTargetDensity() {
+        Nd4j.getRandom().setSeed(12345);
+        double targetDensity = 0.01;
+        GradientEncoder encoder = new GradientEncoder(GradientEncoding.THRESHOLD, 1e-4, targetDensity);
+
+        for (int i = 0; i < 50; i++)
+            encoder.encode(Nd4j.randn(1, 10000).muli(1e-2));
+
+        assertTrue("Density " + encoder.getLastDensity(), encoder.getLastDensity() < 5 * targetDensity);
+        assertTrue("Density " + encoder.getLastDensity(), encoder.getLastDensity() > targetDensity / 5);
+    }
+}